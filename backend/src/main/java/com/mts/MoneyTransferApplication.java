@@ -2,8 +2,10 @@ package com.mts; // or your root package
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 public class MoneyTransferApplication {   // Name can be anything
     public static void main(String[] args) {
         SpringApplication.run(MoneyTransferApplication.class, args);
@@ -0,0 +1,460 @@
+package com.mts.application.cache;
+
+import com.mts.application.entities.Account;
+import com.mts.domain.enums.AccountStatus;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.UncheckedIOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.math.BigDecimal;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Clock;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Balance and status of each account in a memory-mapped file of fixed-width slots, so
+ * {@code AccountService} answers balance reads and transfer pre-validation without a repository call and
+ * without an entity or {@code BigDecimal} per account on the heap. A restart remaps the file and serves
+ * what it holds at once.
+ *
+ * <p>A slot is six longs: {@code id, seq, balance (cents), version, state, loadedAt}, found by linear
+ * probing on the id. Writers take a slot by CAS-ing its {@code seq} odd and release it even again; readers
+ * retry while it is odd or has moved. Writes are compare-and-set on {@code Account.version}: {@link #put}
+ * only replaces an older version, so a read-through that loaded a row before a commit cannot overwrite what
+ * the commit published. {@link #invalidate} is for bulk UPDATEs whose result is not known here; the slot
+ * (claimed if the account had none) stops being served, its version floor moves up by one and its
+ * invalidation count goes up. A read-through takes the count before loading the row and passes it to
+ * {@link #putLoaded}, which refuses the row if an invalidation came in between, even for an account that
+ * had no slot and so no version to raise.
+ *
+ * <p>Slots are never freed; once three quarters of {@code transfer.balance-table.capacity} are taken, new
+ * accounts are simply not cached. Entries older than {@code transfer.balance-table.max-age-ms} (a minute by
+ * default) are reloaded, which bounds how long changes made by other processes, or while this one was
+ * down, go unseen; 0 serves entries for good. The table is off unless {@code transfer.balance-table.enabled}
+ * is set.
+ */
+@Component
+public class BalanceTable implements MeterBinder {
+
+    private static final Logger logger = LoggerFactory.getLogger(BalanceTable.class);
+
+    private static final long MAGIC = 0x4D545342414C3031L; // "MTSBAL01"
+    private static final int HEADER_BYTES = 4096;
+    private static final int SLOT_BYTES = 6 * Long.BYTES;
+    private static final int REGION_SHIFT = 24; // 16M slots, 768 MB per mapping
+    private static final int REGION_MASK = (1 << REGION_SHIFT) - 1;
+
+    // Header fields
+    private static final int H_MAGIC = 0;
+    private static final int H_CAPACITY = 8;
+    private static final int H_USED = 16;
+    private static final int H_CLEAN = 24;
+
+    // Slot fields
+    private static final int ID = 0;
+    private static final int SEQ = 8;
+    private static final int BALANCE = 16;
+    private static final int VERSION = 24;
+    private static final int STATE = 32;
+    private static final int LOADED_AT = 40;
+
+    // state: status ordinal in bits 0-7, VALID in bit 8, invalidation count from bit 16
+    private static final long STATUS_MASK = 0xFFL;
+    private static final long VALID = 1L << 8;
+    private static final int INVALIDATIONS_SHIFT = 16;
+
+    private static final VarHandle LONG = MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.nativeOrder());
+    private static final AccountStatus[] STATUSES = AccountStatus.values();
+
+    private final int capacity;
+    private final int admitLimit;
+    private final long maxAgeMs;
+    private final Clock clock;
+    private final MappedByteBuffer header;
+    private final MappedByteBuffer[] regions;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    @Autowired
+    public BalanceTable(@Value("${transfer.balance-table.enabled:false}") boolean enabled,
+            @Value("${transfer.balance-table.file:data/balance-table.dat}") String file,
+            @Value("${transfer.balance-table.capacity:1048576}") int capacity,
+            @Value("${transfer.balance-table.max-age-ms:60000}") long maxAgeMs) {
+        this(enabled ? Paths.get(file) : null, capacity, maxAgeMs, Clock.systemUTC());
+    }
+
+    /** A null {@code file} disables the table: nothing is cached and every read misses. */
+    BalanceTable(Path file, int capacity, long maxAgeMs, Clock clock) {
+        if (file != null && (capacity < 2 || Integer.bitCount(capacity) != 1)) {
+            throw new IllegalArgumentException("transfer.balance-table.capacity must be a power of two, was " + capacity);
+        }
+        this.capacity = file != null ? capacity : 0;
+        this.admitLimit = this.capacity / 4 * 3;
+        this.maxAgeMs = maxAgeMs;
+        this.clock = clock;
+        if (file == null) {
+            this.header = null;
+            this.regions = new MappedByteBuffer[0];
+            return;
+        }
+        boolean reuse = matches(file, capacity);
+        try {
+            if (!reuse) {
+                Files.deleteIfExists(file);
+                Path parent = file.toAbsolutePath().getParent();
+                if (parent != null) {
+                    Files.createDirectories(parent);
+                }
+            }
+            try (RandomAccessFile raf = new RandomAccessFile(file.toFile(), "rw");
+                    FileChannel channel = raf.getChannel()) {
+                if (!reuse) {
+                    raf.setLength(HEADER_BYTES + (long) capacity * SLOT_BYTES);
+                }
+                this.header = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_BYTES);
+                int regionCount = (int) (((long) capacity + REGION_MASK) >>> REGION_SHIFT);
+                this.regions = new MappedByteBuffer[regionCount];
+                for (int r = 0; r < regionCount; r++) {
+                    long slots = Math.min(1L << REGION_SHIFT, capacity - ((long) r << REGION_SHIFT));
+                    regions[r] = channel.map(FileChannel.MapMode.READ_WRITE,
+                            HEADER_BYTES + ((long) r << REGION_SHIFT) * SLOT_BYTES, slots * SLOT_BYTES);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot map balance table " + file, e);
+        }
+        if (!reuse) {
+            LONG.setVolatile(header, H_CAPACITY, (long) capacity);
+            LONG.setVolatile(header, H_MAGIC, MAGIC);
+        } else if ((long) LONG.getVolatile(header, H_CLEAN) != 1L) {
+            int repaired = repairTornSlots();
+            logger.warn("Balance table {} was not closed cleanly; {} slot(s) caught mid-write were dropped", file, repaired);
+        }
+        LONG.setVolatile(header, H_CLEAN, 0L);
+        logger.info("Balance table {} mapped: {} slot(s), {} in use", file, capacity, used());
+    }
+
+    /** The cached entry, or null when the account is not cached, has been invalidated or is older than the max age. */
+    public Entry get(long accountId) {
+        int slot = find(accountId, false);
+        Entry entry = slot >= 0 ? read(slot, accountId) : null;
+        if (entry != null && maxAgeMs > 0 && clock.millis() - entry.loadedAtMillis() > maxAgeMs) {
+            entry = null;
+        }
+        if (entry != null) {
+            hits.increment();
+        } else {
+            misses.increment();
+        }
+        return entry;
+    }
+
+    /**
+     * Caches the values at {@code version} unless the slot already holds a newer version (or, once
+     * invalidated, a newer version floor). Returns false when it was not applied or the table is full.
+     */
+    public boolean put(long accountId, long balanceCents, long version, AccountStatus status) {
+        return put(accountId, balanceCents, version, status, -1L);
+    }
+
+    // invalidationsBefore < 0: a committed write, applied on the version alone
+    private boolean put(long accountId, long balanceCents, long version, AccountStatus status,
+            long invalidationsBefore) {
+        int slot = find(accountId, true);
+        if (slot < 0) {
+            return false;
+        }
+        MappedByteBuffer region = regions[slot >>> REGION_SHIFT];
+        int base = (slot & REGION_MASK) * SLOT_BYTES;
+        long seq = lock(region, base);
+        boolean applied = false;
+        try {
+            long state = (long) LONG.get(region, base + STATE);
+            long invalidations = state >>> INVALIDATIONS_SHIFT;
+            if (version >= (long) LONG.get(region, base + VERSION)
+                    && (invalidationsBefore < 0 || invalidations == invalidationsBefore)) {
+                LONG.set(region, base + BALANCE, balanceCents);
+                LONG.set(region, base + VERSION, version);
+                LONG.set(region, base + STATE, (invalidations << INVALIDATIONS_SHIFT) | VALID | status.ordinal());
+                LONG.set(region, base + LOADED_AT, clock.millis());
+                applied = true;
+            }
+        } finally {
+            unlock(region, base, seq);
+        }
+        return applied;
+    }
+
+    private boolean put(Account account, long invalidationsBefore) {
+        if (account.getId() == null || account.getBalance() == null || account.getStatus() == null) {
+            return false;
+        }
+        long cents;
+        try {
+            cents = toCents(account.getBalance());
+        } catch (ArithmeticException e) {
+            return false;
+        }
+        return put(account.getId(), cents, account.getVersion(), account.getStatus(), invalidationsBefore);
+    }
+
+    /** Caches a saved account row, as committed; rows without an id, balance or status are ignored. */
+    public boolean put(Account account) {
+        return put(account, -1L);
+    }
+
+    /**
+     * Caches an account row read after a miss, unless the account was {@link #invalidate invalidated} since
+     * {@code invalidationsBefore} was taken with {@link #invalidations} (before the row was read).
+     */
+    public boolean putLoaded(Account account, long invalidationsBefore) {
+        return put(account, invalidationsBefore);
+    }
+
+    /** How often the account has been invalidated; 0 if it has no slot. */
+    public long invalidations(long accountId) {
+        int slot = find(accountId, false);
+        if (slot < 0) {
+            return 0L;
+        }
+        MappedByteBuffer region = regions[slot >>> REGION_SHIFT];
+        int base = (slot & REGION_MASK) * SLOT_BYTES;
+        while (true) {
+            long seq = (long) LONG.getAcquire(region, base + SEQ);
+            if ((seq & 1) != 0) {
+                Thread.onSpinWait();
+                continue;
+            }
+            long state = (long) LONG.getOpaque(region, base + STATE);
+            VarHandle.loadLoadFence();
+            if ((long) LONG.getOpaque(region, base + SEQ) == seq) {
+                return state >>> INVALIDATIONS_SHIFT;
+            }
+        }
+    }
+
+    /**
+     * Stops serving the account until a row at least one version newer than the cached one is put. An
+     * account without a slot gets one holding only this tombstone, so a read-through already under way
+     * cannot cache the row as it was before the UPDATE.
+     */
+    public void invalidate(long accountId) {
+        int slot = find(accountId, true);
+        if (slot < 0) {
+            // Table full: the account cannot be cached, so there is nothing to keep out
+            return;
+        }
+        MappedByteBuffer region = regions[slot >>> REGION_SHIFT];
+        int base = (slot & REGION_MASK) * SLOT_BYTES;
+        long seq = lock(region, base);
+        try {
+            long state = (long) LONG.get(region, base + STATE);
+            LONG.set(region, base + STATE, (state & ~VALID) + (1L << INVALIDATIONS_SHIFT));
+            LONG.set(region, base + VERSION, (long) LONG.get(region, base + VERSION) + 1);
+        } finally {
+            unlock(region, base, seq);
+        }
+    }
+
+    /** Puts the account's state as of commit once the surrounding transaction commits (at once if there is none). */
+    public void putAfterCommit(Account account) {
+        afterCommit(() -> put(account));
+    }
+
+    /** Invalidates the account once the surrounding transaction commits (at once if there is none). */
+    public void invalidateAfterCommit(long accountId) {
+        afterCommit(() -> invalidate(accountId));
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    public long used() {
+        return header != null ? (long) LONG.getVolatile(header, H_USED) : 0L;
+    }
+
+    @PreDestroy
+    public void close() {
+        if (header == null) {
+            return;
+        }
+        for (MappedByteBuffer region : regions) {
+            region.force();
+        }
+        LONG.setVolatile(header, H_CLEAN, 1L);
+        header.force();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("account.balance-table.entries", this, BalanceTable::used)
+                .description("Accounts with a slot in the off-heap balance table")
+                .register(registry);
+        FunctionCounter.builder("account.balance-table.hits", hits, LongAdder::sum)
+                .description("Balance and status reads served from the table")
+                .register(registry);
+        FunctionCounter.builder("account.balance-table.misses", misses, LongAdder::sum)
+                .description("Balance and status reads that went to the database")
+                .register(registry);
+    }
+
+    private void afterCommit(Runnable action) {
+        if (capacity == 0) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    /** Slot index of the account, claiming a free one if {@code claim} is set; -1 if absent or full. */
+    private int find(long accountId, boolean claim) {
+        if (capacity == 0 || accountId <= 0) {
+            return -1;
+        }
+        int mask = capacity - 1;
+        int slot = mix(accountId) & mask;
+        for (int probes = 0; probes < capacity; probes++, slot = (slot + 1) & mask) {
+            MappedByteBuffer region = regions[slot >>> REGION_SHIFT];
+            int base = (slot & REGION_MASK) * SLOT_BYTES;
+            long id = (long) LONG.getAcquire(region, base + ID);
+            if (id == accountId) {
+                return slot;
+            }
+            if (id != 0) {
+                continue;
+            }
+            if (!claim || used() >= admitLimit) {
+                return -1;
+            }
+            if (LONG.compareAndSet(region, base + ID, 0L, accountId)) {
+                LONG.getAndAdd(header, H_USED, 1L);
+                return slot;
+            }
+            if ((long) LONG.getAcquire(region, base + ID) == accountId) {
+                return slot;
+            }
+        }
+        return -1;
+    }
+
+    private Entry read(int slot, long accountId) {
+        MappedByteBuffer region = regions[slot >>> REGION_SHIFT];
+        int base = (slot & REGION_MASK) * SLOT_BYTES;
+        while (true) {
+            long seq = (long) LONG.getAcquire(region, base + SEQ);
+            if ((seq & 1) != 0) {
+                Thread.onSpinWait();
+                continue;
+            }
+            long balance = (long) LONG.getOpaque(region, base + BALANCE);
+            long version = (long) LONG.getOpaque(region, base + VERSION);
+            long state = (long) LONG.getOpaque(region, base + STATE);
+            long loadedAt = (long) LONG.getOpaque(region, base + LOADED_AT);
+            VarHandle.loadLoadFence();
+            if ((long) LONG.getOpaque(region, base + SEQ) != seq) {
+                continue;
+            }
+            if ((state & VALID) == 0) {
+                return null;
+            }
+            return new Entry(accountId, balance, version, STATUSES[(int) (state & STATUS_MASK)], loadedAt);
+        }
+    }
+
+    private static long lock(MappedByteBuffer region, int base) {
+        while (true) {
+            long seq = (long) LONG.getVolatile(region, base + SEQ);
+            if ((seq & 1) == 0 && LONG.compareAndSet(region, base + SEQ, seq, seq + 1)) {
+                return seq;
+            }
+            Thread.onSpinWait();
+        }
+    }
+
+    private static void unlock(MappedByteBuffer region, int base, long seq) {
+        LONG.setRelease(region, base + SEQ, seq + 2);
+    }
+
+    /** After a crash: slots whose writer died holding them are unlocked and stop being served. */
+    private int repairTornSlots() {
+        int repaired = 0;
+        for (int slot = 0; slot < capacity; slot++) {
+            MappedByteBuffer region = regions[slot >>> REGION_SHIFT];
+            int base = (slot & REGION_MASK) * SLOT_BYTES;
+            long seq = (long) LONG.get(region, base + SEQ);
+            if ((seq & 1) != 0) {
+                LONG.set(region, base + STATE, 0L);
+                LONG.set(region, base + VERSION, (long) LONG.get(region, base + VERSION) + 1);
+                LONG.setVolatile(region, base + SEQ, seq + 1);
+                repaired++;
+            }
+        }
+        return repaired;
+    }
+
+    /** Whether the file is a table of this layout and capacity that can be mapped as it is. */
+    private static boolean matches(Path file, int capacity) {
+        try {
+            if (!Files.isRegularFile(file) || Files.size(file) != HEADER_BYTES + (long) capacity * SLOT_BYTES) {
+                return false;
+            }
+            try (FileChannel channel = FileChannel.open(file)) {
+                MappedByteBuffer existing = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_BYTES);
+                existing.order(ByteOrder.nativeOrder());
+                return existing.getLong(H_MAGIC) == MAGIC && existing.getLong(H_CAPACITY) == capacity;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read balance table " + file, e);
+        }
+    }
+
+    private static long toCents(BigDecimal amount) {
+        return amount.movePointRight(2).longValueExact();
+    }
+
+    private static int mix(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    /** One account as cached: balance in cents, the row version it was read or written at, and its status. */
+    public record Entry(long accountId, long balanceCents, long version, AccountStatus status, long loadedAtMillis) {
+
+        public BigDecimal balance() {
+            return BigDecimal.valueOf(balanceCents, 2);
+        }
+
+        public boolean isActive() {
+            return status == AccountStatus.ACTIVE;
+        }
+    }
+}
@@ -0,0 +1,352 @@
+package com.mts.application.cache;
+
+import com.mts.application.entities.AccountDailyDebit;
+import com.mts.application.repository.AccountDailyDebitRepository;
+import com.mts.application.repository.AccountRepository;
+import com.mts.application.repository.TransactionLogRepository;
+import com.mts.domain.exceptions.DailyLimitExceededException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Per-account debit totals for the current business day, so {@code Account.dailyLimit} is enforced with
+ * an in-memory O(1) check instead of summing {@code transaction_logs} on every transfer.
+ *
+ * <p>Totals (in cents) and the accounts' limits live in {@link LongLongMap}s. A transfer {@link #reserve
+ * reserves} its amount before touching balances and {@link Reservation#confirm confirms} it once the debit
+ * has gone through; anything not both confirmed and committed is given back afterwards. At startup today's
+ * totals are loaded from the buckets, or rebuilt from today's SUCCESS logs when there are none.
+ *
+ * <p>Each instance only counts the transfers it executes on top of what was persisted when it started, so
+ * the in-memory check alone would let every instance spend the full limit. Inside a transaction a reservation
+ * that passes it is therefore also written to the {@code account_daily_debits} bucket with a conditional
+ * update, which refuses it if debits from all instances would exceed the limit; the bucket row stays locked
+ * until the transaction ends, and a reservation that is not confirmed is taken off it again before commit.
+ * Outside a transaction a reservation counts as soon as it is made and is only given back if it is cancelled.
+ *
+ * <p>Limits are cached too. Paths that read the account row refresh its limit on every reservation; for the
+ * others, limit changes made on any instance are polled every {@code transfer.daily-limit.refresh-ms} by
+ * {@code daily_limit_changed_on}, the way {@link GlobalConfigSnapshot} polls the global limit.
+ */
+@Component
+public class DailyLimitTracker {
+
+    private static final Logger logger = LoggerFactory.getLogger(DailyLimitTracker.class);
+
+    private static final long NO_LIMIT = -1L;
+    // Changes are read again for this long, for commits landing after their timestamp and clock skew
+    private static final Duration LIMIT_CHANGE_LOOKBACK = Duration.ofMinutes(1);
+
+    private final AccountDailyDebitRepository debitRepository;
+    private final AccountRepository accountRepository;
+    private final TransactionLogRepository logRepository;
+    private final Clock clock;
+    private final int retentionDays;
+
+    // Guarded by this
+    private final LongLongMap debitedCents = new LongLongMap(1024);
+    private final LongLongMap limitCents = new LongLongMap(1024);
+    private LocalDate day;
+    private Instant limitsReadAt; // null until load()
+
+    @Autowired
+    public DailyLimitTracker(AccountDailyDebitRepository debitRepository,
+            AccountRepository accountRepository,
+            TransactionLogRepository logRepository,
+            @Value("${transfer.daily-limit.zone:UTC}") String zone,
+            @Value("${transfer.daily-limit.retention-days:35}") int retentionDays) {
+        this(debitRepository, accountRepository, logRepository, Clock.system(ZoneId.of(zone)), retentionDays);
+    }
+
+    DailyLimitTracker(AccountDailyDebitRepository debitRepository, AccountRepository accountRepository,
+            TransactionLogRepository logRepository, Clock clock, int retentionDays) {
+        this.debitRepository = debitRepository;
+        this.accountRepository = accountRepository;
+        this.logRepository = logRepository;
+        this.clock = clock;
+        this.retentionDays = retentionDays;
+        this.day = LocalDate.now(clock);
+    }
+
+    /**
+     * Reserves {@code amount} against the account's limit for today, refreshing the cached limit with the
+     * one just read from the account row.
+     *
+     * @throws DailyLimitExceededException if the debit would take today's total over {@code dailyLimit}
+     */
+    public Reservation reserve(Long accountId, BigDecimal dailyLimit, BigDecimal amount)
+            throws DailyLimitExceededException {
+        synchronized (this) {
+            cacheLimit(accountId, dailyLimit);
+        }
+        return reserve(accountId, amount);
+    }
+
+    /** Reserves {@code amount} against the account's cached limit for today. */
+    public Reservation reserve(Long accountId, BigDecimal amount) throws DailyLimitExceededException {
+        long cents = toCents(amount);
+        Reservation reservation;
+        long limit;
+        synchronized (this) {
+            rollOver();
+            long total = debitedCents.get(accountId);
+            limit = limitFor(accountId);
+            if (limit != NO_LIMIT && total + cents > limit) {
+                throw new DailyLimitExceededException("Daily limit exceeded for account " + accountId
+                        + ": " + centsToString(total) + " already debited today, limit " + centsToString(limit));
+            }
+            debitedCents.addTo(accountId, cents);
+            reservation = new Reservation(accountId, amount, cents, day);
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            boolean recorded = false;
+            try {
+                recorded = recordWithinLimit(accountId, reservation.day, amount,
+                        limit == NO_LIMIT ? null : BigDecimal.valueOf(limit, 2));
+            } finally {
+                if (!recorded) {
+                    release(reservation);
+                }
+            }
+            if (!recorded) {
+                throw new DailyLimitExceededException("Daily limit exceeded for account " + accountId
+                        + ": debits on all instances already reach the limit of " + centsToString(limit));
+            }
+            transactionDebits().reservations.add(reservation);
+        }
+        return reservation;
+    }
+
+    /** Keeps the cached limit in step after an admin changes it; null removes the limit. */
+    public synchronized void updateLimit(Long accountId, BigDecimal dailyLimit) {
+        cacheLimit(accountId, dailyLimit);
+    }
+
+    /**
+     * {@link #updateLimit} once the surrounding transaction commits (at once if there is none), so a
+     * rolled-back change never reaches the cache.
+     */
+    public void updateLimitAfterCommit(Long accountId, BigDecimal dailyLimit) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            updateLimit(accountId, dailyLimit);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                updateLimit(accountId, dailyLimit);
+            }
+        });
+    }
+
+    /** The business day (in {@code transfer.daily-limit.zone}) a debit made at {@code at} counts towards. */
+    public LocalDate businessDate(Instant at) {
+        return LocalDate.ofInstant(at, clock.getZone());
+    }
+
+    /** Today's debited total for the account, as counted by this instance. */
+    synchronized BigDecimal debitedToday(Long accountId) {
+        rollOver();
+        return BigDecimal.valueOf(debitedCents.get(accountId), 2);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void load() {
+        LocalDate today = LocalDate.now(clock);
+        List<AccountDailyDebit> buckets = debitRepository.findByBusinessDate(today);
+        if (buckets.isEmpty()) {
+            // No buckets yet today (first start with this table, or no debits so far): rebuild from the logs.
+            // Another instance may be doing the same, or already debiting, so buckets that exist by now win
+            for (Object[] row : logRepository.sumSuccessfulDebitsSince(today.atStartOfDay(clock.getZone()).toInstant())) {
+                debitRepository.insertIfAbsent((Long) row[0], today, (BigDecimal) row[1]);
+            }
+            buckets = debitRepository.findByBusinessDate(today);
+        }
+        Instant limitsRead = clock.instant();
+        List<Object[]> limits = accountRepository.findDailyLimits();
+        synchronized (this) {
+            day = today;
+            debitedCents.clear();
+            for (AccountDailyDebit bucket : buckets) {
+                debitedCents.addTo(bucket.getAccountId(), toCents(bucket.getDebited()));
+            }
+            limitCents.clear();
+            for (Object[] row : limits) {
+                cacheLimit((Long) row[0], (BigDecimal) row[1]);
+            }
+            limitsReadAt = limitsRead;
+        }
+        logger.info("Loaded daily debit totals for {} account(s) and {} daily limit(s)", buckets.size(), limits.size());
+    }
+
+    /** Picks up limit changes made since the last read, including those made on other instances. */
+    @Scheduled(fixedDelayString = "${transfer.daily-limit.refresh-ms:5000}")
+    public void refreshLimits() {
+        Instant since;
+        synchronized (this) {
+            if (limitsReadAt == null) {
+                return;
+            }
+            since = limitsReadAt.minus(LIMIT_CHANGE_LOOKBACK);
+        }
+        Instant limitsRead = clock.instant();
+        List<Object[]> changed = accountRepository.findDailyLimitsChangedSince(since);
+        synchronized (this) {
+            for (Object[] row : changed) {
+                cacheLimit((Long) row[0], (BigDecimal) row[1]);
+            }
+            limitsReadAt = limitsRead;
+        }
+    }
+
+    @Scheduled(cron = "${transfer.daily-limit.purge-cron:0 15 0 * * *}")
+    @Transactional
+    public void purgeOldBuckets() {
+        int deleted = debitRepository.deleteBefore(LocalDate.now(clock).minusDays(retentionDays));
+        logger.debug("Purged {} daily debit bucket(s) older than {} days", deleted, retentionDays);
+    }
+
+    // Caller holds the lock
+    private void rollOver() {
+        LocalDate today = LocalDate.now(clock);
+        if (!today.equals(day)) {
+            day = today;
+            debitedCents.clear();
+        }
+    }
+
+    // Caller holds the lock
+    private void cacheLimit(Long accountId, BigDecimal dailyLimit) {
+        limitCents.put(accountId, dailyLimit == null
+                ? NO_LIMIT
+                : dailyLimit.movePointRight(2).setScale(0, RoundingMode.DOWN).longValueExact());
+    }
+
+    // Caller holds the lock
+    private long limitFor(Long accountId) {
+        return limitCents.containsKey(accountId) ? limitCents.get(accountId) : NO_LIMIT;
+    }
+
+    // Update the bucket if it exists, else create it; a creation lost to a concurrent one is retried as an update
+    private boolean recordWithinLimit(Long accountId, LocalDate bucketDay, BigDecimal amount, BigDecimal limit) {
+        return debitRepository.addDebitWithinLimit(accountId, bucketDay, amount, limit) == 1
+                || debitRepository.insertDebitWithinLimit(accountId, bucketDay, amount, limit) == 1
+                || debitRepository.addDebitWithinLimit(accountId, bucketDay, amount, limit) == 1;
+    }
+
+    private synchronized void release(Reservation reservation) {
+        if (reservation.day.equals(day)) {
+            debitedCents.addTo(reservation.accountId, -reservation.cents);
+        }
+    }
+
+    private TransactionDebits transactionDebits() {
+        TransactionDebits debits = (TransactionDebits) TransactionSynchronizationManager.getResource(this);
+        if (debits == null) {
+            debits = new TransactionDebits();
+            TransactionSynchronizationManager.bindResource(this, debits);
+            TransactionSynchronizationManager.registerSynchronization(debits);
+        }
+        return debits;
+    }
+
+    private static long toCents(BigDecimal amount) {
+        return amount.movePointRight(2).setScale(0, RoundingMode.UP).longValueExact();
+    }
+
+    private static String centsToString(long cents) {
+        return BigDecimal.valueOf(cents, 2).toPlainString();
+    }
+
+    /** An amount held against today's total until the transfer's transaction completes. */
+    public final class Reservation {
+
+        private final Long accountId;
+        private final BigDecimal amount;
+        private final long cents;
+        private final LocalDate day;
+        private boolean confirmed;
+
+        private Reservation(Long accountId, BigDecimal amount, long cents, LocalDate day) {
+            this.accountId = accountId;
+            this.amount = amount;
+            this.cents = cents;
+            this.day = day;
+        }
+
+        /**
+         * The debit went through: keep the reservation (and its bucket update) if the transaction commits.
+         * Outside a transaction the bucket is written now.
+         */
+        public void confirm() {
+            confirmed = true;
+            if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+                debitRepository.addDebit(accountId, day, amount);
+            }
+        }
+
+        /**
+         * The debit did not happen: give the amount back now. For reservations made outside a transaction
+         * whose bucket the caller writes itself, instead of confirming.
+         */
+        public void cancel() {
+            if (!confirmed) {
+                release(this);
+            }
+        }
+    }
+
+    /**
+     * This transaction's reservations, each already added to its bucket; the unconfirmed ones are taken off
+     * again, once per account, just before commit.
+     */
+    private final class TransactionDebits implements TransactionSynchronization {
+
+        private final List<Reservation> reservations = new ArrayList<>();
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            Map<LocalDate, Map<Long, BigDecimal>> byDayAndAccount = new LinkedHashMap<>();
+            for (Reservation reservation : reservations) {
+                if (!reservation.confirmed) {
+                    byDayAndAccount.computeIfAbsent(reservation.day, d -> new LinkedHashMap<>())
+                            .merge(reservation.accountId, reservation.amount, BigDecimal::add);
+                }
+            }
+            byDayAndAccount.forEach((bucketDay, byAccount) -> byAccount.forEach(
+                    (accountId, amount) -> debitRepository.addDebit(accountId, bucketDay, amount.negate())));
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(DailyLimitTracker.this);
+            for (Reservation reservation : reservations) {
+                if (status != STATUS_COMMITTED || !reservation.confirmed) {
+                    release(reservation);
+                }
+            }
+        }
+    }
+}
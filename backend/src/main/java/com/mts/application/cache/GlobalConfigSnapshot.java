@@ -0,0 +1,87 @@
+package com.mts.application.cache;
+
+import com.mts.application.dto.TransferLimits;
+import com.mts.application.entities.GlobalConfig;
+import com.mts.application.repository.GlobalConfigRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Holds the current {@link TransferLimits} behind a volatile reference, so the transfer path reads the global
+ * limit without a repository call. It lives outside the service package so the read is not wrapped by
+ * {@code ServiceTracingAspect} either.
+ *
+ * <p>A change made on this instance is swapped in once its transaction commits ({@link #publishAfterCommit});
+ * changes made on other instances are picked up by polling {@code global_config.version} every
+ * {@code transfer.limits.refresh-ms} and reloading only when it differs.
+ */
+@Component
+public class GlobalConfigSnapshot {
+
+    private static final Logger logger = LoggerFactory.getLogger(GlobalConfigSnapshot.class);
+
+    static final String CONFIG_KEY = "DEFAULT";
+
+    private final GlobalConfigRepository globalConfigRepository;
+
+    private volatile TransferLimits current;
+
+    public GlobalConfigSnapshot(GlobalConfigRepository globalConfigRepository) {
+        this.globalConfigRepository = globalConfigRepository;
+    }
+
+    public TransferLimits current() {
+        TransferLimits limits = current;
+        if (limits == null) {
+            limits = reload();
+        }
+        return limits;
+    }
+
+    /** Installs the saved config as the snapshot when the surrounding transaction commits (at once if there is none). */
+    public void publishAfterCommit(GlobalConfig config) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            install(config);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                install(config);
+            }
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${transfer.limits.refresh-ms:5000}")
+    public void poll() {
+        TransferLimits limits = current;
+        long version = globalConfigRepository.findVersionById(CONFIG_KEY).orElse(TransferLimits.NONE.version());
+        if (limits == null || limits.version() != version) {
+            reload();
+        }
+    }
+
+    private TransferLimits reload() {
+        TransferLimits limits = replace(globalConfigRepository.findLimitsById(CONFIG_KEY).orElse(TransferLimits.NONE));
+        logger.debug("Loaded transfer limits at version {}", limits.version());
+        return limits;
+    }
+
+    private void install(GlobalConfig config) {
+        replace(new TransferLimits(config.getVersion(), config.getGlobalTransferLimit()));
+    }
+
+    // A reload that read the row before a local commit must not overwrite the newer snapshot installed since
+    private synchronized TransferLimits replace(TransferLimits limits) {
+        TransferLimits existing = current;
+        if (existing != null && existing.version() > limits.version()) {
+            return existing;
+        }
+        current = limits;
+        return limits;
+    }
+}
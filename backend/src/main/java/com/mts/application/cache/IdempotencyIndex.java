@@ -0,0 +1,220 @@
+package com.mts.application.cache;
+
+import com.mts.application.repository.TransactionLogRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * In-memory hint in front of {@code transaction_logs.idempotency_key}.
+ *
+ * <ul>
+ *   <li>{@link Lookup#ABSENT}: the Bloom filter has never seen the key; the caller may skip the SELECT.
+ *       The unique constraint still rejects a key used on another node or before the rebuild window.</li>
+ *   <li>{@link Lookup#KNOWN}: the key is in the LRU of committed, settled keys; it is a duplicate.</li>
+ *   <li>{@link Lookup#MAYBE}: ask the database.</li>
+ * </ul>
+ *
+ * Until the startup rebuild has finished every lookup answers MAYBE.
+ *
+ * The filter is kept as one generation per UTC day of key creation. Lookups consult every generation;
+ * generations older than the rebuild window are dropped, so memory and the false-positive rate stay bounded
+ * by the window instead of growing with uptime. Keys older than that answer ABSENT, exactly as after a
+ * restart, and are left to the unique constraint.
+ */
+@Component
+public class IdempotencyIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(IdempotencyIndex.class);
+
+    public enum Lookup { ABSENT, KNOWN, MAYBE }
+
+    private record Generation(long day, ScalableBloomFilter filter) {
+    }
+
+    private final TransactionLogRepository logRepository;
+    // Newest first; replaced as a whole on rotation, so readers never need a lock
+    private volatile List<Generation> generations = List.of();
+    private final long keysPerGeneration;
+    private final double falsePositiveRate;
+    private final Map<String, Boolean> settledKeys;
+    private final Duration rebuildWindow;
+    private final long retainedDays;
+    private final Clock clock;
+    private volatile boolean ready;
+
+    @Autowired
+    public IdempotencyIndex(TransactionLogRepository logRepository,
+            @Value("${transfer.idempotency.expected-keys:1000000}") long expectedKeys,
+            @Value("${transfer.idempotency.false-positive-rate:0.01}") double falsePositiveRate,
+            @Value("${transfer.idempotency.lru-size:100000}") int lruSize,
+            @Value("${transfer.idempotency.rebuild-window-hours:168}") long rebuildWindowHours) {
+        this(logRepository, expectedKeys, falsePositiveRate, lruSize, rebuildWindowHours, Clock.systemUTC());
+    }
+
+    IdempotencyIndex(TransactionLogRepository logRepository, long expectedKeys, double falsePositiveRate,
+            int lruSize, long rebuildWindowHours, Clock clock) {
+        this.logRepository = logRepository;
+        // The current day plus every whole or partial day the window reaches back into
+        this.retainedDays = Math.max(1, (rebuildWindowHours + 23) / 24 + 1);
+        this.keysPerGeneration = Math.max(1024, expectedKeys / retainedDays);
+        this.falsePositiveRate = falsePositiveRate;
+        this.clock = clock;
+        this.settledKeys = new LinkedHashMap<>(Math.min(lruSize, 1 << 16), 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+                return size() > lruSize;
+            }
+        };
+        this.rebuildWindow = Duration.ofHours(rebuildWindowHours);
+    }
+
+    public Lookup lookup(String key) {
+        if (key == null || !ready) {
+            return Lookup.MAYBE;
+        }
+        synchronized (settledKeys) {
+            if (settledKeys.get(key) != null) {
+                return Lookup.KNOWN;
+            }
+        }
+        long oldest = today() - retainedDays + 1;
+        for (Generation generation : generations) {
+            if (generation.day() >= oldest && generation.filter().mightContain(key)) {
+                return Lookup.MAYBE;
+            }
+        }
+        return Lookup.ABSENT;
+    }
+
+    /**
+     * A row for this key was written in the current transaction. The filter learns it immediately
+     * (a false "maybe" only costs a SELECT); the LRU only after commit, since a rolled-back key is free again.
+     */
+    public void recordClaimed(String key) {
+        put(key, today());
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    remember(key);
+                }
+            });
+        } else {
+            remember(key);
+        }
+    }
+
+    /** The database already holds a settled row for this key. */
+    public void recordExisting(String key) {
+        put(key, today());
+        remember(key);
+    }
+
+    /** A row exists but may still be re-opened (conflict give-up), so lookups must keep reaching the database. */
+    public void recordResumable(String key) {
+        put(key, today());
+        synchronized (settledKeys) {
+            settledKeys.remove(key);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        Instant since = clock.instant().minus(rebuildWindow);
+        long count = 0;
+        try (Stream<Object[]> rows = logRepository.streamIdempotencyKeysSince(since)) {
+            for (Object[] row : (Iterable<Object[]>) rows::iterator) {
+                put((String) row[0], dayOf((Instant) row[1]));
+                count++;
+            }
+        }
+        ready = true;
+        int slices = 0;
+        long bytes = 0;
+        for (Generation generation : generations) {
+            slices += generation.filter().sliceCount();
+            bytes += generation.filter().bitSizeBytes();
+        }
+        logger.info("Idempotency index rebuilt from {} keys since {} ({} generation(s), {} filter slice(s), {} KiB)",
+                count, since, generations.size(), slices, bytes / 1024);
+    }
+
+    boolean isReady() {
+        return ready;
+    }
+
+    int generationCount() {
+        return generations.size();
+    }
+
+    private void put(String key, long day) {
+        if (day <= today() - retainedDays) {
+            return; // already past the window
+        }
+        generationFor(day).put(key);
+    }
+
+    /**
+     * The filter for {@code day}, creating it (and dropping generations past the window) the first time a
+     * key from that day arrives. Rotation is rare, so it simply copies the list under a lock.
+     */
+    private ScalableBloomFilter generationFor(long day) {
+        for (Generation generation : generations) {
+            if (generation.day() == day) {
+                return generation.filter();
+            }
+        }
+        synchronized (this) {
+            for (Generation generation : generations) {
+                if (generation.day() == day) {
+                    return generation.filter();
+                }
+            }
+            long oldest = Math.max(today(), day) - retainedDays + 1;
+            List<Generation> next = new ArrayList<>(generations.size() + 1);
+            Generation created = new Generation(day, new ScalableBloomFilter(keysPerGeneration, falsePositiveRate));
+            next.add(created);
+            for (Generation generation : generations) {
+                if (generation.day() >= oldest) {
+                    next.add(generation);
+                }
+            }
+            next.sort(Comparator.comparingLong(Generation::day).reversed());
+            generations = List.copyOf(next);
+            return created.filter();
+        }
+    }
+
+    private long today() {
+        return dayOf(clock.instant());
+    }
+
+    private static long dayOf(Instant instant) {
+        return Math.floorDiv(instant.getEpochSecond(), 86_400L);
+    }
+
+    private void remember(String key) {
+        synchronized (settledKeys) {
+            settledKeys.put(key, Boolean.TRUE);
+        }
+    }
+}
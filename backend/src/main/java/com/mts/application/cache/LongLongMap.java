@@ -0,0 +1,118 @@
+package com.mts.application.cache;
+
+import java.util.Arrays;
+
+/**
+ * Open-addressing hash map from {@code long} to {@code long} with linear probing, so per-account counters
+ * are kept without boxing a {@code Long} key and value per entry. Absent keys read as 0. Entries are never
+ * removed individually, only all at once with {@link #clear()}.
+ *
+ * <p>Not thread-safe; callers synchronize.
+ */
+public final class LongLongMap {
+
+    private static final float LOAD_FACTOR = 0.5f;
+
+    private long[] keys;
+    private long[] values;
+    private boolean[] used;
+    private int size;
+    private int resizeAt;
+
+    public LongLongMap(int expectedSize) {
+        allocate(tableSizeFor(Math.max(expectedSize, 4)));
+    }
+
+    public long get(long key) {
+        int slot = find(key);
+        return slot >= 0 ? values[slot] : 0L;
+    }
+
+    public boolean containsKey(long key) {
+        return find(key) >= 0;
+    }
+
+    public void put(long key, long value) {
+        int slot = insertionSlot(key);
+        values[slot] = value;
+    }
+
+    /** Adds {@code delta} to the key's value (0 if absent) and returns the new value. */
+    public long addTo(long key, long delta) {
+        int slot = insertionSlot(key);
+        values[slot] += delta;
+        return values[slot];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public void clear() {
+        Arrays.fill(used, false);
+        Arrays.fill(values, 0L);
+        size = 0;
+    }
+
+    private int find(long key) {
+        int mask = keys.length - 1;
+        for (int slot = mix(key) & mask; used[slot]; slot = (slot + 1) & mask) {
+            if (keys[slot] == key) {
+                return slot;
+            }
+        }
+        return -1;
+    }
+
+    private int insertionSlot(long key) {
+        int mask = keys.length - 1;
+        int slot = mix(key) & mask;
+        while (used[slot]) {
+            if (keys[slot] == key) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        if (size >= resizeAt) {
+            grow();
+            return insertionSlot(key);
+        }
+        used[slot] = true;
+        keys[slot] = key;
+        values[slot] = 0L;
+        size++;
+        return slot;
+    }
+
+    private void grow() {
+        long[] oldKeys = keys;
+        long[] oldValues = values;
+        boolean[] oldUsed = used;
+        allocate(oldKeys.length * 2);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldUsed[i]) {
+                int slot = insertionSlot(oldKeys[i]);
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        values = new long[capacity];
+        used = new boolean[capacity];
+        size = 0;
+        resizeAt = (int) (capacity * LOAD_FACTOR);
+    }
+
+    private static int tableSizeFor(int expectedSize) {
+        int needed = (int) Math.ceil(expectedSize / LOAD_FACTOR);
+        return Integer.highestOneBit(needed - 1) << 1;
+    }
+
+    // Sequential account ids would otherwise cluster in neighbouring slots
+    private static int mix(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+}
@@ -0,0 +1,137 @@
+package com.mts.application.cache;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Thread-safe scalable Bloom filter over strings (Almeida et al.).
+ *
+ * <p>Keys go into the newest slice; when it reaches its capacity a new slice with twice the capacity and
+ * half the false-positive rate is appended, so the compound false-positive rate stays bounded by roughly
+ * twice the initial rate however many keys are added. Adds and lookups are lock-free.
+ *
+ * <p>No false negatives: {@link #mightContain} returning false means the key was never added.
+ */
+public final class ScalableBloomFilter {
+
+    private final double initialFpp;
+    private final CopyOnWriteArrayList<Slice> slices = new CopyOnWriteArrayList<>();
+
+    public ScalableBloomFilter(long initialCapacity, double initialFpp) {
+        if (initialCapacity < 1) {
+            throw new IllegalArgumentException("initialCapacity must be >= 1");
+        }
+        if (initialFpp <= 0 || initialFpp >= 1) {
+            throw new IllegalArgumentException("initialFpp must be in (0, 1)");
+        }
+        this.initialFpp = initialFpp;
+        slices.add(new Slice(initialCapacity, initialFpp));
+    }
+
+    public void put(String key) {
+        long h1 = hash(key, 0x9E3779B97F4A7C15L);
+        long h2 = hash(key, 0xC2B2AE3D27D4EB4FL);
+        Slice current = slices.get(slices.size() - 1);
+        if (current.count.incrementAndGet() > current.capacity) {
+            current = grow(current);
+            current.count.incrementAndGet();
+        }
+        current.put(h1, h2);
+    }
+
+    public boolean mightContain(String key) {
+        long h1 = hash(key, 0x9E3779B97F4A7C15L);
+        long h2 = hash(key, 0xC2B2AE3D27D4EB4FL);
+        // Newest slice first: recent keys are the likeliest to be looked up again
+        for (int i = slices.size() - 1; i >= 0; i--) {
+            if (slices.get(i).mightContain(h1, h2)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /** Number of slices allocated so far (1 until the initial capacity is exceeded). */
+    public int sliceCount() {
+        return slices.size();
+    }
+
+    /** Approximate heap held by the bit arrays. */
+    public long bitSizeBytes() {
+        long bytes = 0;
+        for (Slice slice : slices) {
+            bytes += (long) slice.words.length() * Long.BYTES;
+        }
+        return bytes;
+    }
+
+    private synchronized Slice grow(Slice full) {
+        Slice last = slices.get(slices.size() - 1);
+        if (last != full) {
+            return last; // another thread already grew
+        }
+        Slice next = new Slice(full.capacity * 2, initialFpp / Math.pow(2, slices.size()));
+        slices.add(next);
+        return next;
+    }
+
+    /** 64-bit FNV-1a over UTF-8 bytes, seeded, with a murmur3 finalizer for better bit dispersion. */
+    private static long hash(String key, long seed) {
+        long h = 0xCBF29CE484222325L ^ seed;
+        byte[] bytes = key.getBytes(StandardCharsets.UTF_8);
+        for (byte b : bytes) {
+            h ^= (b & 0xFF);
+            h *= 0x100000001B3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        h *= 0xC4CEB9FE1A85EC53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    private static final class Slice {
+        private final long capacity;
+        private final AtomicLong count = new AtomicLong();
+        private final AtomicLongArray words;
+        private final long bits;
+        private final int hashes;
+
+        Slice(long capacity, double fpp) {
+            this.capacity = capacity;
+            long m = (long) Math.ceil(-capacity * Math.log(fpp) / (Math.log(2) * Math.log(2)));
+            int wordCount = (int) Math.min(Integer.MAX_VALUE - 8, Math.max(1, (m + 63) / 64));
+            this.words = new AtomicLongArray(wordCount);
+            this.bits = (long) wordCount * 64;
+            this.hashes = Math.max(1, (int) Math.round((double) bits / capacity * Math.log(2)));
+        }
+
+        void put(long h1, long h2) {
+            for (int i = 0; i < hashes; i++) {
+                long bit = Math.floorMod(h1 + i * h2, bits);
+                int word = (int) (bit >>> 6);
+                long mask = 1L << bit;
+                long prev;
+                do {
+                    prev = words.get(word);
+                    if ((prev & mask) != 0) {
+                        break;
+                    }
+                } while (!words.compareAndSet(word, prev, prev | mask));
+            }
+        }
+
+        boolean mightContain(long h1, long h2) {
+            for (int i = 0; i < hashes; i++) {
+                long bit = Math.floorMod(h1 + i * h2, bits);
+                if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
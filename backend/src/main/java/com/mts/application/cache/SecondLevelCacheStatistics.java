@@ -0,0 +1,48 @@
+package com.mts.application.cache;
+
+import com.mts.application.dto.CacheRegionStats;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Hit/miss counters of the Hibernate second-level and query cache regions, as collected with
+ * {@code hibernate.generate_statistics} (the {@code cache-stats} profile). Counters are cumulative since
+ * startup; with statistics off there are none and no regions are reported.
+ */
+@Component
+public class SecondLevelCacheStatistics {
+
+    private final Statistics statistics;
+
+    public SecondLevelCacheStatistics(EntityManagerFactory entityManagerFactory) {
+        this.statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    public List<CacheRegionStats> regions() {
+        if (!statistics.isStatisticsEnabled()) {
+            return List.of();
+        }
+        String[] names = statistics.getSecondLevelCacheRegionNames();
+        Arrays.sort(names);
+        List<CacheRegionStats> regions = new ArrayList<>(names.length);
+        for (String name : names) {
+            CacheRegionStatistics region = statistics.getCacheRegionStatistics(name);
+            if (region != null) {
+                regions.add(toStats(name, region.getHitCount(), region.getMissCount(), region.getPutCount()));
+            }
+        }
+        return regions;
+    }
+
+    static CacheRegionStats toStats(String name, long hits, long misses, long puts) {
+        long lookups = hits + misses;
+        return new CacheRegionStats(name, hits, misses, puts, lookups == 0 ? 0.0 : (double) hits / lookups);
+    }
+}
@@ -0,0 +1,79 @@
+package com.mts.application.cache;
+
+import com.mts.domain.dto.TransferResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Bounded in-memory tier of settled transfer responses by idempotency key, so a client resending a
+ * request gets the original outcome back without a database round-trip. {@code transaction_logs} is the
+ * tier behind it: a miss is rebuilt from the log row and put back here.
+ *
+ * <p>Responses are replayable for {@code transfer.idempotency.replay-ttl-minutes} after the transfer was
+ * created; after that a resend is a plain duplicate again. Only final outcomes belong here, a transfer
+ * waiting for approval can still change.
+ */
+@Component
+public class TransferResponseCache {
+
+    private final Map<String, TransferResponse> responses;
+    private final Duration ttl;
+
+    public TransferResponseCache(
+            @Value("${transfer.idempotency.replay-cache-size:100000}") int maxSize,
+            @Value("${transfer.idempotency.replay-ttl-minutes:1440}") long ttlMinutes) {
+        this.responses = new LinkedHashMap<>(Math.min(maxSize, 1 << 16), 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, TransferResponse> eldest) {
+                return size() > maxSize;
+            }
+        };
+        this.ttl = Duration.ofMinutes(ttlMinutes);
+    }
+
+    /** The cached response for the key, or null when absent or past its replay window. */
+    public TransferResponse get(String key) {
+        synchronized (responses) {
+            TransferResponse response = responses.get(key);
+            if (response != null && !isReplayable(response.createdOn())) {
+                responses.remove(key);
+                return null;
+            }
+            return response;
+        }
+    }
+
+    /** Caches the response once the current transaction (if any) has committed. */
+    public void put(TransferResponse response) {
+        if (response.idempotencyKey() == null || !isReplayable(response.createdOn())) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    store(response);
+                }
+            });
+        } else {
+            store(response);
+        }
+    }
+
+    public boolean isReplayable(Instant createdOn) {
+        return createdOn != null && createdOn.plus(ttl).isAfter(Instant.now());
+    }
+
+    private void store(TransferResponse response) {
+        synchronized (responses) {
+            responses.put(response.idempotencyKey(), response);
+        }
+    }
+}
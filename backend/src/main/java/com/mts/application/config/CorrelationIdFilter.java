@@ -0,0 +1,48 @@
+package com.mts.application.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.MDC;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.UUID;
+
+/**
+ * Tags every log line written while handling a request with a correlation id, taken from the caller's
+ * {@code X-Correlation-Id} header or generated, and echoes it back on the response.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class CorrelationIdFilter extends OncePerRequestFilter {
+
+    public static final String HEADER = "X-Correlation-Id";
+    public static final String MDC_KEY = "correlationId";
+
+    // Caller-supplied ids longer than this are replaced rather than logged
+    private static final int MAX_LENGTH = 64;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        String correlationId = request.getHeader(HEADER);
+        if (!StringUtils.hasText(correlationId) || correlationId.length() > MAX_LENGTH
+                || !correlationId.chars().allMatch(c -> Character.isLetterOrDigit(c) || c == '-' || c == '_')) {
+            correlationId = UUID.randomUUID().toString();
+        }
+        MDC.put(MDC_KEY, correlationId);
+        response.setHeader(HEADER, correlationId);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            MDC.remove(MDC_KEY);
+        }
+    }
+}
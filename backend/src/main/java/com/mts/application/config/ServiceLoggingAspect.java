@@ -1,42 +0,0 @@
-package com.mts.application.config;
-
-import org.aspectj.lang.ProceedingJoinPoint;
-import org.aspectj.lang.annotation.Around;
-import org.aspectj.lang.annotation.Aspect;
-import org.aspectj.lang.reflect.MethodSignature;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
-import org.springframework.stereotype.Component;
-
-import java.util.Arrays;
-import java.util.stream.Collectors;
-
-/**
- * AOP aspect that logs method name, arguments, and execution time for service-layer methods.
- */
-@Aspect
-@Component
-public class ServiceLoggingAspect {
-
-    @Around("execution(* com.mts.application.service..*(..))")
-    public Object logServiceMethod(ProceedingJoinPoint joinPoint) throws Throwable {
-        Logger log = LoggerFactory.getLogger(joinPoint.getTarget().getClass());
-        MethodSignature signature = (MethodSignature) joinPoint.getSignature();
-        String methodName = signature.getDeclaringType().getSimpleName() + "." + signature.getName();
-        String args = Arrays.stream(joinPoint.getArgs())
-                .map(arg -> arg != null ? arg.toString() : "null")
-                .collect(Collectors.joining(", "));
-
-        long start = System.currentTimeMillis();
-        try {
-            Object result = joinPoint.proceed();
-            long elapsed = System.currentTimeMillis() - start;
-            log.info("Service method [{}] args=[{}] completed in {} ms", methodName, args, elapsed);
-            return result;
-        } catch (Throwable t) {
-            long elapsed = System.currentTimeMillis() - start;
-            log.warn("Service method [{}] args=[{}] failed after {} ms: {}", methodName, args, elapsed, t.getMessage());
-            throw t;
-        }
-    }
-}
@@ -0,0 +1,133 @@
+package com.mts.application.config;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.lang.reflect.Method;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Times service-layer methods and logs only what is worth reading: failures (WARN), calls slower than their
+ * method's threshold (WARN) and a random sample of the rest (DEBUG). Arguments are formatted only when one
+ * of those lines is actually written; every other call costs two {@code nanoTime()} reads and a map lookup.
+ *
+ * <p>Thresholds default to {@code logging.service-trace.slow-ms} and can be overridden per method with
+ * {@code logging.service-trace.slow-ms-overrides}, e.g. {@code "TransferServiceImpl.transfer=50"}. Log lines
+ * carry the request's correlation id through the MDC (see {@link CorrelationIdFilter}).
+ */
+@Aspect
+@Component
+public class ServiceTracingAspect {
+
+    private final double sampleRate;
+    private final long defaultSlowNanos;
+    private final Map<String, Long> slowNanosOverrides;
+
+    private final Map<Method, TracedMethod> tracedMethods = new ConcurrentHashMap<>();
+
+    /** Per-method name, logger and slow threshold, resolved on the first call. */
+    private record TracedMethod(String name, Logger log, long slowNanos) {
+    }
+
+    public ServiceTracingAspect(@Value("${logging.service-trace.sample-rate:0.01}") double sampleRate,
+            @Value("${logging.service-trace.slow-ms:200}") long defaultSlowMs,
+            @Value("${logging.service-trace.slow-ms-overrides:}") String slowMsOverrides) {
+        this.sampleRate = sampleRate;
+        this.defaultSlowNanos = TimeUnit.MILLISECONDS.toNanos(defaultSlowMs);
+        this.slowNanosOverrides = parseOverrides(slowMsOverrides);
+    }
+
+    @Around("execution(* com.mts.application.service..*(..))")
+    public Object traceServiceMethod(ProceedingJoinPoint joinPoint) throws Throwable {
+        long start = System.nanoTime();
+        try {
+            Object result = joinPoint.proceed();
+            long elapsed = System.nanoTime() - start;
+            TracedMethod method = tracedMethod(joinPoint);
+            if (elapsed >= method.slowNanos()) {
+                method.log().warn("Slow service method [{}] took {} ms args=[{}]",
+                        method.name(), millis(elapsed), new LazyArgs(joinPoint.getArgs()));
+            } else if (sampled() && method.log().isDebugEnabled()) {
+                method.log().debug("Service method [{}] completed in {} ms args=[{}]",
+                        method.name(), millis(elapsed), new LazyArgs(joinPoint.getArgs()));
+            }
+            return result;
+        } catch (Throwable t) {
+            long elapsed = System.nanoTime() - start;
+            TracedMethod method = tracedMethod(joinPoint);
+            method.log().warn("Service method [{}] failed after {} ms: {} args=[{}]",
+                    method.name(), millis(elapsed), t.getMessage(), new LazyArgs(joinPoint.getArgs()));
+            throw t;
+        }
+    }
+
+    private TracedMethod tracedMethod(ProceedingJoinPoint joinPoint) {
+        MethodSignature signature = (MethodSignature) joinPoint.getSignature();
+        Method key = signature.getMethod();
+        if (key == null) {
+            return describe(joinPoint, signature);
+        }
+        return tracedMethods.computeIfAbsent(key, m -> describe(joinPoint, signature));
+    }
+
+    private TracedMethod describe(ProceedingJoinPoint joinPoint, MethodSignature signature) {
+        String name = signature.getDeclaringType().getSimpleName() + "." + signature.getName();
+        Logger log = LoggerFactory.getLogger(joinPoint.getTarget().getClass());
+        return new TracedMethod(name, log, slowNanosOverrides.getOrDefault(name, defaultSlowNanos));
+    }
+
+    private boolean sampled() {
+        return sampleRate > 0 && (sampleRate >= 1 || ThreadLocalRandom.current().nextDouble() < sampleRate);
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+
+    private static Map<String, Long> parseOverrides(String overrides) {
+        Map<String, Long> thresholds = new HashMap<>();
+        if (!StringUtils.hasText(overrides)) {
+            return thresholds;
+        }
+        for (String entry : overrides.split(",")) {
+            if (!StringUtils.hasText(entry)) {
+                continue;
+            }
+            String[] parts = entry.split("=", 2);
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Invalid slow-ms override (expected Class.method=ms): " + entry);
+            }
+            thresholds.put(parts[0].trim(), TimeUnit.MILLISECONDS.toNanos(Long.parseLong(parts[1].trim())));
+        }
+        return thresholds;
+    }
+
+    /** Arguments rendered by the logger only if the line is actually written. */
+    private record LazyArgs(Object[] args) {
+        @Override
+        public String toString() {
+            if (args == null) {
+                return "";
+            }
+            StringBuilder sb = new StringBuilder();
+            for (int i = 0; i < args.length; i++) {
+                if (i > 0) {
+                    sb.append(", ");
+                }
+                sb.append(args[i]);
+            }
+            return sb.toString();
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.mts.application.controller;
+
+import com.mts.application.cache.SecondLevelCacheStatistics;
+import com.mts.application.dto.CacheRegionStats;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/v1/admin/cache")
+@PreAuthorize("hasRole('ADMIN')")
+@Tag(name = "Admin - Cache", description = "Admin endpoints for inspecting the entity cache")
+public class AdminCacheController {
+
+    private final SecondLevelCacheStatistics cacheStatistics;
+
+    public AdminCacheController(SecondLevelCacheStatistics cacheStatistics) {
+        this.cacheStatistics = cacheStatistics;
+    }
+
+    @Operation(summary = "Second-level cache statistics", description = "Cumulative hit, miss and put counts per cache region since startup.")
+    @GetMapping("/statistics")
+    public ResponseEntity<List<CacheRegionStats>> statistics() {
+        return ResponseEntity.ok(cacheStatistics.regions());
+    }
+}
@@ -0,0 +1,78 @@
+package com.mts.application.controller;
+
+import com.mts.application.dto.FlightRecordingStatus;
+import com.mts.application.metrics.jfr.FlightRecordingService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.util.Optional;
+
+@RestController
+@RequestMapping("/api/v1/admin/recordings")
+@PreAuthorize("hasRole('ADMIN')")
+@Tag(name = "Admin - Profiling", description = "Admin endpoints for on-demand JDK Flight Recorder recordings")
+public class AdminRecordingController {
+
+    private final FlightRecordingService recordingService;
+
+    public AdminRecordingController(FlightRecordingService recordingService) {
+        this.recordingService = recordingService;
+    }
+
+    @Operation(summary = "Start a flight recording", description = "Starts a bounded JFR recording including the com.mts transfer events. 409 if one is already running.")
+    @PostMapping("/start")
+    public ResponseEntity<FlightRecordingStatus> start(
+            @RequestParam(required = false) Long durationSeconds,
+            @RequestParam(defaultValue = "default") String settings) throws IOException, ParseException {
+        return recordingService.start(durationSeconds, settings)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.CONFLICT).build());
+    }
+
+    @Operation(summary = "Current flight recording", description = "State of the recording started through this API; 404 if none.")
+    @GetMapping
+    public ResponseEntity<FlightRecordingStatus> status() {
+        return recordingService.status()
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    @Operation(summary = "Stop and download the flight recording", description = "Stops the recording and streams it back as a .jfr file; 404 if none was started.")
+    @PostMapping("/stop")
+    public ResponseEntity<StreamingResponseBody> stop() throws IOException {
+        Optional<Path> recording = recordingService.stop();
+        if (recording.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        Path file = recording.get();
+        StreamingResponseBody body = out -> {
+            try {
+                Files.copy(file, out);
+            } finally {
+                Files.deleteIfExists(file);
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                .contentLength(Files.size(file))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename(file.getFileName().toString()).build().toString())
+                .body(body);
+    }
+}
@@ -2,11 +2,20 @@ package com.mts.application.controller;
 
 import com.mts.application.dto.TransactionFilter;
 import com.mts.application.dto.TransactionResponse;
+import com.mts.application.entities.TransactionLog;
+import com.mts.application.repository.spec.TransactionLogSpecs;
 import com.mts.application.service.AdminService;
+import com.mts.application.service.TransactionExportService;
+import com.mts.domain.dto.CursorPage;
 import com.mts.domain.enums.TransactionStatus;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.security.access.prepost.PreAuthorize;
 import java.math.BigDecimal;
@@ -18,9 +27,11 @@ import java.time.LocalDateTime;
 public class AdminTransactionController {
 
     private final AdminService adminService;
+    private final TransactionExportService exportService;
 
-    public AdminTransactionController(AdminService adminService) {
+    public AdminTransactionController(AdminService adminService, TransactionExportService exportService) {
         this.adminService = adminService;
+        this.exportService = exportService;
     }
 
     @GetMapping
@@ -38,6 +49,45 @@ public class AdminTransactionController {
         return ResponseEntity.ok(adminService.searchTransactions(filter, pageable));
     }
 
+    /** Same filters as the search above, paginated by an opaque (createdOn, id) cursor instead of page numbers. */
+    @GetMapping("/cursor")
+    public ResponseEntity<CursorPage<TransactionResponse>> searchTransactionsByCursor(
+            @RequestParam(required = false) String accountId,
+            @RequestParam(required = false) TransactionStatus status,
+            @RequestParam(required = false) BigDecimal minAmount,
+            @RequestParam(required = false) BigDecimal maxAmount,
+            @RequestParam(required = false) LocalDateTime fromDate,
+            @RequestParam(required = false) LocalDateTime toDate,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+
+        TransactionFilter filter = new TransactionFilter(
+                accountId, status, minAmount, maxAmount, fromDate, toDate);
+        return ResponseEntity.ok(adminService.searchTransactionsByCursor(filter, cursor, size));
+    }
+
+    /** Streams every transaction matching the filter, oldest first, as CSV or NDJSON. */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportTransactions(
+            @RequestParam(required = false) String accountId,
+            @RequestParam(required = false) TransactionStatus status,
+            @RequestParam(required = false) BigDecimal minAmount,
+            @RequestParam(required = false) BigDecimal maxAmount,
+            @RequestParam(required = false) LocalDateTime fromDate,
+            @RequestParam(required = false) LocalDateTime toDate,
+            @RequestParam(defaultValue = "CSV") TransactionExportService.Format format) {
+
+        TransactionFilter filter = new TransactionFilter(
+                accountId, status, minAmount, maxAmount, fromDate, toDate);
+        Specification<TransactionLog> spec = TransactionLogSpecs.matching(filter);
+        StreamingResponseBody body = out -> exportService.export(spec, format, out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(format.getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("transactions." + format.getExtension()).build().toString())
+                .body(body);
+    }
+
     @PostMapping("/{id}/reverse")
     public ResponseEntity<Void> reverseTransaction(@PathVariable String id,
             @RequestBody(required = false) String reason) {
@@ -1,7 +1,10 @@
 package com.mts.application.controller;
 
 import com.mts.application.security.jwt.JwtUtils;
+import com.mts.application.security.services.TokenRevocationService;
 import com.mts.application.security.services.UserDetailsImpl;
+import io.jsonwebtoken.Claims;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotBlank;
 import org.springframework.http.ResponseEntity;
@@ -9,6 +12,7 @@ import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.util.StringUtils;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
@@ -24,10 +28,13 @@ public class AuthController {
 
     private final AuthenticationManager authenticationManager;
     private final JwtUtils jwtUtils;
+    private final TokenRevocationService tokenRevocationService;
 
-    public AuthController(AuthenticationManager authenticationManager, JwtUtils jwtUtils) {
+    public AuthController(AuthenticationManager authenticationManager, JwtUtils jwtUtils,
+            TokenRevocationService tokenRevocationService) {
         this.authenticationManager = authenticationManager;
         this.jwtUtils = jwtUtils;
+        this.tokenRevocationService = tokenRevocationService;
     }
 
     public record LoginRequest(@NotBlank String username, @NotBlank String password) {
@@ -54,9 +61,15 @@ public class AuthController {
     }
 
     @PostMapping("/signout")
-    public ResponseEntity<Void> signOut() {
-        // Stateless JWT: client just discards the token. We clear the context for this
-        // request.
+    public ResponseEntity<Void> signOut(HttpServletRequest request) {
+        // Revoke the presented token so it cannot be replayed until its expiry; the client discards it too
+        String headerAuth = request.getHeader("Authorization");
+        if (StringUtils.hasText(headerAuth) && headerAuth.startsWith("Bearer ")) {
+            Claims claims = jwtUtils.parseClaims(headerAuth.substring(7));
+            if (claims != null) {
+                tokenRevocationService.revoke(claims.getId(), claims.getExpiration().toInstant());
+            }
+        }
         SecurityContextHolder.clearContext();
         return ResponseEntity.noContent().build();
     }
@@ -1,9 +1,17 @@
 package com.mts.application.controller;
 
+import com.mts.application.entities.TransactionLog;
+import com.mts.application.repository.spec.TransactionLogSpecs;
+import com.mts.application.service.BatchTransferService;
+import com.mts.application.service.TransactionExportService;
 import com.mts.application.service.TransferService;
+import com.mts.application.service.TransferSubmissionService;
+import com.mts.domain.dto.CursorPage;
 import com.mts.domain.dto.TransferRequest;
 import com.mts.domain.dto.TransferResponse;
+import com.mts.domain.dto.TransferSubmissionResponse;
 import com.mts.domain.dto.TransactionLogResponse;
+import com.mts.domain.enums.Direction;
 import com.mts.domain.enums.TransactionStatus;
 import com.mts.domain.exceptions.*;
 import io.swagger.v3.oas.annotations.Operation;
@@ -18,13 +26,23 @@ import lombok.RequiredArgsConstructor;
 import org.springdoc.core.annotations.ParameterObject;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.data.web.PageableDefault;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.net.URI;
 import java.time.Instant;
 import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Optional;
 
 @RestController
 @RequestMapping("/api/v1") // ⬅️ moved here so we can expose both /transfers and /accounts/{id}/transactions
@@ -33,6 +51,9 @@ import java.time.OffsetDateTime;
 public class TransferController {
 
     private final TransferService transferService;
+    private final Optional<BatchTransferService> batchTransferService; // absent in ledger mode
+    private final TransactionExportService exportService;
+    private final TransferSubmissionService submissionService;
 
     // -------------------------
     // POST /api/v1/transfers
@@ -40,14 +61,20 @@ public class TransferController {
     @Operation(
             summary = "Execute a fund transfer",
             description = "Debits the source account and credits the destination account atomically. "
-                    + "Validates account status, balance, and enforces idempotency if header is provided.",
+                    + "Validates account status, balance, and enforces idempotency if header is provided. "
+                    + "Resending the same transfer with the same key returns the original result "
+                    + "(Idempotent-Replayed: true) for transfer.idempotency.replay-ttl-minutes.",
             responses = {
                     @ApiResponse(responseCode = "200", description = "Transfer successful",
                             content = @Content(schema = @Schema(implementation = TransferResponse.class))),
                     @ApiResponse(responseCode = "400", description = "Invalid request or insufficient funds", content = @Content),
                     @ApiResponse(responseCode = "403", description = "Account not active", content = @Content),
                     @ApiResponse(responseCode = "404", description = "Account not found", content = @Content),
-                    @ApiResponse(responseCode = "409", description = "Duplicate transfer (idempotency)", content = @Content)
+                    @ApiResponse(responseCode = "422", description = "Replay of an earlier transfer that failed "
+                            + "(Idempotent-Replayed header set)",
+                            content = @Content(schema = @Schema(implementation = TransferResponse.class))),
+                    @ApiResponse(responseCode = "409", description = "Idempotency key already used by a different "
+                            + "transfer, or outside the replay window", content = @Content)
             }
     )
     @PostMapping("/transfers")
@@ -71,6 +98,92 @@ public class TransferController {
         return ResponseEntity.ok(response);
     }
 
+    // -------------------------
+    // POST /api/v1/transfers/async
+    // -------------------------
+    @Operation(
+            summary = "Submit a fund transfer for asynchronous execution",
+            description = "Stores the transfer in a durable queue and returns 202 at once; workers execute it "
+                    + "with the same checks as POST /transfers. Poll the Location URL for the outcome. "
+                    + "Resubmitting the same transfer with the same key returns the existing submission.",
+            responses = {
+                    @ApiResponse(responseCode = "202", description = "Transfer queued",
+                            content = @Content(schema = @Schema(implementation = TransferSubmissionResponse.class))),
+                    @ApiResponse(responseCode = "409", description = "Idempotency key already used by a different "
+                            + "transfer", content = @Content),
+                    @ApiResponse(responseCode = "422", description = "Invalid request", content = @Content)
+            }
+    )
+    @PostMapping("/transfers/async")
+    public ResponseEntity<TransferSubmissionResponse> submitTransfer(
+            @Valid @RequestBody
+            @Parameter(description = "Transfer details (from, to, amount, currency, idempotencyKey)")
+            TransferRequest request,
+
+            @RequestHeader(value = "Idempotency-Key", required = false)
+            @Parameter(description = "Optional idempotency key header, used when the body has none")
+            String idempotencyKey
+    ) throws DuplicateTransferException {
+        if (request.getIdempotencyKey() == null && idempotencyKey != null && !idempotencyKey.isBlank()) {
+            request.setIdempotencyKey(idempotencyKey);
+        }
+
+        TransferSubmissionResponse submission = submissionService.submit(request);
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/v1/transfers/" + submission.submissionId()))
+                .body(submission);
+    }
+
+    // -------------------------
+    // GET /api/v1/transfers/{id}
+    // -------------------------
+    @Operation(
+            summary = "Get the status of a transfer",
+            description = "Accepts a submission id from POST /transfers/async or a transaction id. The result "
+                    + "is filled in once the submission is COMPLETED or FAILED.",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Submission status",
+                            content = @Content(schema = @Schema(implementation = TransferSubmissionResponse.class))),
+                    @ApiResponse(responseCode = "404", description = "Unknown id", content = @Content)
+            }
+    )
+    @GetMapping("/transfers/{id}")
+    public ResponseEntity<TransferSubmissionResponse> getTransferStatus(
+            @Parameter(name = "id", description = "Submission or transaction id", in = ParameterIn.PATH, required = true)
+            @PathVariable("id") String id
+    ) {
+        return submissionService.getStatus(id)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    // -------------------------
+    // POST /api/v1/transfers/batch
+    // -------------------------
+    @Operation(
+            summary = "Execute a batch of fund transfers",
+            description = "Applies up to transfer.batch.max-size transfers in one transaction, in request order. "
+                    + "Returns one result per item; invalid, duplicate or unfunded items are reported as FAILED "
+                    + "without failing the rest of the batch.",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "One result per submitted transfer",
+                            content = @Content(schema = @Schema(implementation = TransferResponse.class))),
+                    @ApiResponse(responseCode = "400", description = "Empty or oversized batch", content = @Content),
+                    @ApiResponse(responseCode = "409", description = "An idempotency key was claimed concurrently", content = @Content),
+                    @ApiResponse(responseCode = "503", description = "Batch transfers are disabled while the ledger engine is enabled", content = @Content)
+            }
+    )
+    @PostMapping("/transfers/batch")
+    public ResponseEntity<List<TransferResponse>> executeBatch(
+            @RequestBody
+            @Parameter(description = "Transfers to execute; each needs its own idempotencyKey")
+            List<TransferRequest> requests
+    ) {
+        BatchTransferService batches = batchTransferService.orElseThrow(() -> new ResponseStatusException(
+                HttpStatus.SERVICE_UNAVAILABLE, "Batch transfers are disabled while the ledger engine is enabled"));
+        return ResponseEntity.ok(batches.transferBatch(requests));
+    }
+
     // ----------------------------------------------------------
     // GET /api/v1/accounts/{id}/transactions (history endpoint)
     // ----------------------------------------------------------
@@ -108,7 +221,7 @@ public class TransferController {
             @Parameter(description = "Direction filter: ALL (default), SENT, RECEIVED",
                     schema = @Schema(allowableValues = {"ALL", "SENT", "RECEIVED"}))
             @RequestParam(value = "direction", required = false, defaultValue = "ALL")
-            TransferService.Direction direction,
+            Direction direction,
 
             @ParameterObject
             @PageableDefault(size = 20, sort = "createdOn,desc") Pageable pageable
@@ -120,4 +233,119 @@ public class TransferController {
         );
         return ResponseEntity.ok(page);
     }
-}
\ No newline at end of file
+
+    // ------------------------------------------------------------------
+    // GET /api/v1/accounts/{id}/transactions/cursor (keyset pagination)
+    // ------------------------------------------------------------------
+    @Operation(
+            summary = "Scroll through transaction history for an account",
+            description = "Same filters as the paged history endpoint, newest first, but paginated by an opaque "
+                    + "cursor on (createdOn, id) instead of page numbers: each page costs the same however deep "
+                    + "it is, and no total count is computed. Pass nextCursor from the previous response to "
+                    + "continue; it is null on the last page.",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Page of transactions with the next cursor",
+                            content = @Content(schema = @Schema(implementation = CursorPage.class))),
+                    @ApiResponse(responseCode = "400", description = "Invalid filters, cursor or page size", content = @Content)
+            }
+    )
+    @GetMapping("/accounts/{id}/transactions/cursor")
+    public ResponseEntity<CursorPage<TransactionLogResponse>> getTransactionHistoryByCursor(
+            @Parameter(name = "id", description = "Account ID (string)", in = ParameterIn.PATH, required = true)
+            @PathVariable("id") String accountId,
+
+            @Parameter(description = "Start timestamp (inclusive) in ISO-8601, e.g., 2026-02-01T00:00:00Z")
+            @RequestParam(value = "from", required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+            OffsetDateTime from,
+
+            @Parameter(description = "End timestamp (inclusive) in ISO-8601, e.g., 2026-02-28T23:59:59Z")
+            @RequestParam(value = "to", required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+            OffsetDateTime to,
+
+            @Parameter(description = "Transaction status filter",
+                    schema = @Schema(implementation = TransactionStatus.class))
+            @RequestParam(value = "status", required = false)
+            TransactionStatus status,
+
+            @Parameter(description = "Direction filter: ALL (default), SENT, RECEIVED",
+                    schema = @Schema(allowableValues = {"ALL", "SENT", "RECEIVED"}))
+            @RequestParam(value = "direction", required = false, defaultValue = "ALL")
+            Direction direction,
+
+            @Parameter(description = "nextCursor from the previous page; omit for the first page")
+            @RequestParam(value = "cursor", required = false)
+            String cursor,
+
+            @Parameter(description = "Page size (1-200)")
+            @RequestParam(value = "size", required = false, defaultValue = "20")
+            int size
+    ) {
+        Instant fromInstant = from != null ? from.toInstant() : null;
+        Instant toInstant = to != null ? to.toInstant() : null;
+        return ResponseEntity.ok(transferService.getAccountTransactionsByCursor(
+                accountId, fromInstant, toInstant, status, direction, cursor, size));
+    }
+
+    // ----------------------------------------------------------
+    // GET /api/v1/accounts/{id}/transactions/export
+    // ----------------------------------------------------------
+    @Operation(
+            summary = "Export transaction history for an account",
+            description = "Streams every transaction matching the history filters, oldest first, as CSV or "
+                    + "newline-delimited JSON. Rows are written as they are read, so exports of any size use "
+                    + "constant server memory.",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Export stream", content = @Content),
+                    @ApiResponse(responseCode = "400", description = "Invalid filters", content = @Content)
+            }
+    )
+    @GetMapping("/accounts/{id}/transactions/export")
+    public ResponseEntity<StreamingResponseBody> exportTransactionHistory(
+            @Parameter(name = "id", description = "Account ID (string)", in = ParameterIn.PATH, required = true)
+            @PathVariable("id") String accountId,
+
+            @Parameter(description = "Start timestamp (inclusive) in ISO-8601, e.g., 2026-02-01T00:00:00Z")
+            @RequestParam(value = "from", required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+            OffsetDateTime from,
+
+            @Parameter(description = "End timestamp (inclusive) in ISO-8601, e.g., 2026-02-28T23:59:59Z")
+            @RequestParam(value = "to", required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+            OffsetDateTime to,
+
+            @Parameter(description = "Transaction status filter",
+                    schema = @Schema(implementation = TransactionStatus.class))
+            @RequestParam(value = "status", required = false)
+            TransactionStatus status,
+
+            @Parameter(description = "Direction filter: ALL (default), SENT, RECEIVED",
+                    schema = @Schema(allowableValues = {"ALL", "SENT", "RECEIVED"}))
+            @RequestParam(value = "direction", required = false, defaultValue = "ALL")
+            Direction direction,
+
+            @Parameter(description = "CSV (default) or NDJSON")
+            @RequestParam(value = "format", required = false, defaultValue = "CSV")
+            TransactionExportService.Format format
+    ) {
+        Long id = parseAccountId(accountId);
+        Specification<TransactionLog> spec = TransactionLogSpecs.history(id, direction,
+                from != null ? from.toInstant() : null, to != null ? to.toInstant() : null, status);
+        StreamingResponseBody body = out -> exportService.export(spec, format, out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(format.getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("account-" + id + "-transactions." + format.getExtension()).build().toString())
+                .body(body);
+    }
+
+    private static Long parseAccountId(String accountId) {
+        try {
+            return Long.valueOf(accountId.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid account id: " + accountId);
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package com.mts.application.dto;
+
+import com.mts.domain.enums.AccountStatus;
+
+/** Published by {@code AdminService} when an account's status changes; listeners act on it after commit. */
+public record AccountStatusChanged(
+        Long accountId,
+        AccountStatus status) {
+}
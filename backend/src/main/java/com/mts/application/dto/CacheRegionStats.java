@@ -0,0 +1,9 @@
+package com.mts.application.dto;
+
+public record CacheRegionStats(
+        String region,
+        long hits,
+        long misses,
+        long puts,
+        double hitRatio) {
+}
@@ -0,0 +1,12 @@
+package com.mts.application.dto;
+
+import java.time.Instant;
+
+public record FlightRecordingStatus(
+        long id,
+        String state,
+        String settings,
+        Instant startTime,
+        long maxDurationSeconds,
+        long maxSizeBytes) {
+}
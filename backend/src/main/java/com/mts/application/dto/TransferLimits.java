@@ -0,0 +1,19 @@
+package com.mts.application.dto;
+
+import java.math.BigDecimal;
+
+/**
+ * Immutable snapshot of the transfer limits in {@code global_config}, at the row's {@code version}.
+ * Checks against it allocate nothing.
+ */
+public record TransferLimits(
+        long version,
+        BigDecimal globalTransferLimit) {
+
+    /** Before the config row exists: no limit applies. */
+    public static final TransferLimits NONE = new TransferLimits(-1L, null);
+
+    public boolean exceedsGlobalLimit(BigDecimal amount) {
+        return globalTransferLimit != null && amount.compareTo(globalTransferLimit) > 0;
+    }
+}
@@ -11,7 +11,9 @@ import java.math.RoundingMode;
 import java.time.Instant;
 
 @Entity
-@Table(name = "accounts")
+@Table(name = "accounts", indexes = {
+        @Index(name = "idx_accounts_limit_changed", columnList = "daily_limit_changed_on")
+})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -42,6 +44,10 @@ public class Account {
     @Column(name = "daily_limit", precision = 19, scale = 2)
     private BigDecimal dailyLimit;
 
+    // When an admin last changed dailyLimit, so other instances can pick the change up
+    @Column(name = "daily_limit_changed_on")
+    private Instant dailyLimitChangedOn;
+
     @PrePersist
     @PreUpdate
     void touch() {
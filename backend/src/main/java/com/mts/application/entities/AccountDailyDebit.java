@@ -0,0 +1,92 @@
+package com.mts.application.entities;
+
+import jakarta.persistence.*;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Objects;
+
+/** Total debited from an account on one business day; the durable side of the daily-limit counters. */
+@Entity
+@Table(name = "account_daily_debits", indexes = {
+        // Startup load of today's buckets and retention purge
+        @Index(name = "idx_daily_debits_date", columnList = "business_date")
+})
+@IdClass(AccountDailyDebit.Key.class)
+public class AccountDailyDebit {
+
+    @Id
+    @Column(name = "account_id")
+    private Long accountId;
+
+    @Id
+    @Column(name = "business_date")
+    private LocalDate businessDate;
+
+    @Column(nullable = false, precision = 19, scale = 2)
+    private BigDecimal debited;
+
+    public AccountDailyDebit() {
+    }
+
+    public AccountDailyDebit(Long accountId, LocalDate businessDate, BigDecimal debited) {
+        this.accountId = accountId;
+        this.businessDate = businessDate;
+        this.debited = debited;
+    }
+
+    public Long getAccountId() {
+        return accountId;
+    }
+
+    public void setAccountId(Long accountId) {
+        this.accountId = accountId;
+    }
+
+    public LocalDate getBusinessDate() {
+        return businessDate;
+    }
+
+    public void setBusinessDate(LocalDate businessDate) {
+        this.businessDate = businessDate;
+    }
+
+    public BigDecimal getDebited() {
+        return debited;
+    }
+
+    public void setDebited(BigDecimal debited) {
+        this.debited = debited;
+    }
+
+    public static class Key implements Serializable {
+
+        private Long accountId;
+        private LocalDate businessDate;
+
+        public Key() {
+        }
+
+        public Key(Long accountId, LocalDate businessDate) {
+            this.accountId = accountId;
+            this.businessDate = businessDate;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key other)) {
+                return false;
+            }
+            return Objects.equals(accountId, other.accountId) && Objects.equals(businessDate, other.businessDate);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(accountId, businessDate);
+        }
+    }
+}
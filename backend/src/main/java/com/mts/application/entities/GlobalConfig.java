@@ -1,13 +1,20 @@
 package com.mts.application.entities;
 
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.Id;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import java.math.BigDecimal;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
+// Read through GlobalConfigSnapshot on every transfer, written only by AdminService.setGlobalTransferLimit
 @Entity
 @Table(name = "global_config")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "global-config")
 public class GlobalConfig {
 
     @Id
@@ -17,6 +24,10 @@ public class GlobalConfig {
     @Column(name = "global_transfer_limit")
     private BigDecimal globalTransferLimit;
 
+    // Bumped on every change; other instances poll it to know when to reload their TransferLimits snapshot
+    @Version
+    private long version;
+
     public String getId() {
         return id;
     }
@@ -32,4 +43,12 @@ public class GlobalConfig {
     public void setGlobalTransferLimit(BigDecimal globalTransferLimit) {
         this.globalTransferLimit = globalTransferLimit;
     }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
+    }
 }
@@ -0,0 +1,58 @@
+package com.mts.application.entities;
+
+import jakarta.persistence.*;
+
+import java.time.Instant;
+
+/** A signed-out JWT, by its {@code jti}. Rows are only needed until the token would have expired anyway. */
+@Entity
+@Table(name = "revoked_tokens", indexes = {
+        // Incremental refresh of the in-memory revocation list on every instance
+        @Index(name = "idx_revoked_tokens_revoked_at", columnList = "revoked_at"),
+        @Index(name = "idx_revoked_tokens_expires_at", columnList = "expires_at")
+})
+public class RevokedToken {
+
+    @Id
+    @Column(length = 64)
+    private String jti;
+
+    @Column(name = "expires_at", nullable = false)
+    private Instant expiresAt;
+
+    @Column(name = "revoked_at", nullable = false)
+    private Instant revokedAt;
+
+    public RevokedToken() {
+    }
+
+    public RevokedToken(String jti, Instant expiresAt, Instant revokedAt) {
+        this.jti = jti;
+        this.expiresAt = expiresAt;
+        this.revokedAt = revokedAt;
+    }
+
+    public String getJti() {
+        return jti;
+    }
+
+    public void setJti(String jti) {
+        this.jti = jti;
+    }
+
+    public Instant getExpiresAt() {
+        return expiresAt;
+    }
+
+    public void setExpiresAt(Instant expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+
+    public Instant getRevokedAt() {
+        return revokedAt;
+    }
+
+    public void setRevokedAt(Instant revokedAt) {
+        this.revokedAt = revokedAt;
+    }
+}
@@ -1,11 +1,13 @@
 package com.mts.application.entities;
 
 import com.mts.domain.enums.TransactionStatus;
+import com.mts.domain.enums.TransferFailureCode;
 import jakarta.persistence.*;
-import lombok.AllArgsConstructor;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.springframework.data.domain.Persistable;
 
 import java.math.BigDecimal;
 import java.time.Instant;
@@ -14,12 +16,19 @@ import java.time.Instant;
 @Getter
 @Setter
 @NoArgsConstructor
-@AllArgsConstructor
 @Table(
         name = "transaction_logs",
-        uniqueConstraints = @UniqueConstraint(columnNames = "idempotency_key")
+        uniqueConstraints = @UniqueConstraint(columnNames = "idempotency_key"),
+        indexes = {
+                // History is read per side, newest first: see TransactionLogRepository#SENT_HISTORY_SQL
+                @Index(name = "idx_tx_from_created_id", columnList = "from_account_id, created_on, id"),
+                @Index(name = "idx_tx_to_created_id", columnList = "to_account_id, created_on, id"),
+                // Admin search (AdminService): status and/or a created_on window, newest first
+                @Index(name = "idx_tx_status_created", columnList = "status, created_on"),
+                @Index(name = "idx_tx_created_id_amount", columnList = "created_on, id, amount")
+        }
 )
-public class TransactionLog {
+public class TransactionLog implements Persistable<String> {
 
     @Id
     @Column(name = "id", length = 36, nullable = false, updatable = false)
@@ -47,6 +56,31 @@ public class TransactionLog {
     @Column(name = "failure_reason", length = 500)
     private String failureReason;
 
+    @Enumerated(EnumType.STRING)
+    @Column(name = "failure_code", length = 32)
+    private TransferFailureCode failureCode;
+
     @Column(name = "created_on", nullable = false)
     private Instant createdOn;
+
+    /**
+     * The id is assigned by the application, so Spring Data cannot tell a new row from an existing one by
+     * looking at it. Without this flag every save() of a new log would merge (SELECT then INSERT), which
+     * also defeats JDBC insert batching.
+     */
+    @Transient
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private boolean newEntity = true;
+
+    @Override
+    public boolean isNew() {
+        return newEntity;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markPersisted() {
+        this.newEntity = false;
+    }
 }
@@ -1,15 +1,20 @@
 package com.mts.application.entities;
 
 import jakarta.persistence.*;
+import org.springframework.data.domain.Persistable;
+
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "transfer_authorizations")
-public class TransferAuthorization {
+@Table(name = "transfer_authorizations", indexes = {
+        // Approval queue listing and the pending-authorizations gauge
+        @Index(name = "idx_auth_status", columnList = "status")
+})
+public class TransferAuthorization implements Persistable<Long> {
 
+    /** Assigned from {@link com.mts.application.snowflake.SnowflakeIdGenerator}; IDENTITY would rule out batched inserts. */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
     @Column(nullable = false)
@@ -32,6 +37,21 @@ public class TransferAuthorization {
 
     private String rejectionReason;
 
+    @Transient
+    private boolean newEntity = true;
+
+    @Override
+    public boolean isNew() {
+        return newEntity;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markPersisted() {
+        this.newEntity = false;
+    }
+
+    @Override
     public Long getId() {
         return id;
     }
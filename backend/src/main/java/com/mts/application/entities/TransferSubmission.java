@@ -0,0 +1,100 @@
+package com.mts.application.entities;
+
+import com.mts.domain.enums.SubmissionStatus;
+import com.mts.domain.enums.TransactionStatus;
+import jakarta.persistence.*;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.data.domain.Persistable;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/**
+ * A transfer accepted by {@code POST /api/v1/transfers/async}, waiting for or processed by
+ * {@link com.mts.application.service.TransferSubmissionWorker}. The row is written before the 202 is
+ * returned, so accepted submissions survive a restart.
+ */
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@Table(
+        name = "transfer_submissions",
+        uniqueConstraints = @UniqueConstraint(columnNames = "idempotency_key"),
+        indexes = {
+                // Workers claim the oldest QUEUED rows, and requeue PROCESSING rows whose claim went stale
+                @Index(name = "idx_sub_status_id", columnList = "status, id"),
+                @Index(name = "idx_sub_claim_token", columnList = "claim_token")
+        }
+)
+public class TransferSubmission implements Persistable<String> {
+
+    /** Snowflake key, so submissions come out of the queue in arrival order. */
+    @Id
+    @Column(name = "id", length = 36, nullable = false, updatable = false)
+    private String id;
+
+    @Column(name = "idempotency_key", nullable = false, unique = true, length = 255)
+    private String idempotencyKey;
+
+    @Column(name = "source_account_id", nullable = false)
+    private String sourceAccountId;
+
+    @Column(name = "destination_account_id", nullable = false)
+    private String destinationAccountId;
+
+    @Column(nullable = false, precision = 19, scale = 2)
+    private BigDecimal amount;
+
+    @Column(length = 3)
+    private String currency;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private SubmissionStatus status;
+
+    @Column(nullable = false)
+    private int attempts;
+
+    /** Set per drain when the row is claimed; only that drain may record the outcome. */
+    @Column(name = "claim_token", length = 36)
+    private String claimToken;
+
+    @Column(name = "claimed_at")
+    private Instant claimedAt;
+
+    @Column(name = "transaction_id", length = 36)
+    private String transactionId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "transfer_status", length = 20)
+    private TransactionStatus transferStatus;
+
+    @Column(length = 500)
+    private String message;
+
+    @Column(name = "submitted_at", nullable = false)
+    private Instant submittedAt;
+
+    @Column(name = "completed_at")
+    private Instant completedAt;
+
+    @Transient
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private boolean newEntity = true;
+
+    @Override
+    public boolean isNew() {
+        return newEntity;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markPersisted() {
+        this.newEntity = false;
+    }
+}
@@ -1,9 +1,14 @@
 package com.mts.application.entities;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
+// Loaded with its roles on every authenticated request; writes go through AdminService and UserService
 @Entity
 @Table(name = "users")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "users")
 public class UserEntity {
 
     @Id
@@ -26,6 +31,7 @@ public class UserEntity {
     @ElementCollection(fetch = FetchType.EAGER)
     @CollectionTable(name = "user_roles", joinColumns = @JoinColumn(name = "user_id"))
     @Column(name = "role")
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "user-roles")
     private java.util.Set<String> roles = new java.util.HashSet<>();
 
     public Long getId() {
@@ -0,0 +1,49 @@
+package com.mts.application.entities;
+
+import jakarta.persistence.*;
+
+import java.time.Instant;
+
+/**
+ * Tokens issued to the user at or before {@code notBefore} are rejected, whatever their {@code jti}: set when
+ * an admin changes the user's roles or enabled flag, which tokens carry as claims. Rows are only needed for
+ * one token lifetime.
+ */
+@Entity
+@Table(name = "user_token_cutoffs", indexes = {
+        // Incremental refresh of the in-memory cutoffs on every instance
+        @Index(name = "idx_user_token_cutoffs_not_before", columnList = "not_before")
+})
+public class UserTokenCutoff {
+
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Column(name = "not_before", nullable = false)
+    private Instant notBefore;
+
+    public UserTokenCutoff() {
+    }
+
+    public UserTokenCutoff(Long userId, Instant notBefore) {
+        this.userId = userId;
+        this.notBefore = notBefore;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    public Instant getNotBefore() {
+        return notBefore;
+    }
+
+    public void setNotBefore(Instant notBefore) {
+        this.notBefore = notBefore;
+    }
+}
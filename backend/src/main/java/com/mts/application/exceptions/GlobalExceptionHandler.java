@@ -2,9 +2,14 @@ package com.mts.application.exceptions;
 
 import com.mts.domain.exceptions.AccountNotActiveException;
 import com.mts.domain.exceptions.AccountNotFoundException;
+import com.mts.domain.exceptions.DailyLimitExceededException;
 import com.mts.domain.exceptions.DuplicateTransferException;
 import com.mts.domain.exceptions.InsufficientBalanceException;
 import com.mts.domain.exceptions.OptimisticLockException;
+import com.mts.domain.exceptions.ReplayedTransferException;
+import com.mts.domain.dto.TransferResponse;
+import com.mts.domain.enums.TransactionStatus;
+import com.mts.domain.enums.TransferFailureCode;
 import org.springframework.dao.DataIntegrityViolationException;
 import com.mts.domain.dto.ErrorResponse;
 import org.springframework.http.HttpStatus;
@@ -22,6 +27,7 @@ import org.springframework.http.converter.HttpMessageNotReadableException;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
+import org.springframework.web.server.ResponseStatusException;
 
 import java.time.OffsetDateTime;
 import java.util.HashMap;
@@ -41,6 +47,18 @@ public class GlobalExceptionHandler {
         );
     }
 
+    @ExceptionHandler(DailyLimitExceededException.class)
+    public ResponseEntity<ErrorResponse> handleDailyLimitExceeded(
+            DailyLimitExceededException ex, HttpServletRequest request) {
+        return buildErrorResponse(
+                "DAILY_LIMIT_EXCEEDED",
+                ex.getMessage(),
+                HttpStatus.BAD_REQUEST,
+                request,
+                null
+        );
+    }
+
     @ExceptionHandler(InsufficientBalanceException.class)
     public ResponseEntity<ErrorResponse> handleInsufficientBalance(
             InsufficientBalanceException ex, HttpServletRequest request) {
@@ -77,6 +95,31 @@ public class GlobalExceptionHandler {
         );
     }
 
+    /**
+     * A resend of an already settled transfer gets its original result back, marked with
+     * {@code Idempotent-Replayed}: 200 for a completed or pending-approval transfer, and for one that failed
+     * the same error code, status and message the original request got. Failed rows written before the
+     * failure code was recorded fall back to a 422 with the transfer body.
+     */
+    @ExceptionHandler(ReplayedTransferException.class)
+    public ResponseEntity<?> handleReplayedTransfer(ReplayedTransferException ex, HttpServletRequest request) {
+        TransferResponse original = ex.getOriginalResponse();
+        if (original.status() == TransactionStatus.FAILED && original.failureCode() != null) {
+            TransferFailureCode failure = original.failureCode();
+            ResponseEntity<ErrorResponse> error = buildErrorResponse(failure.name(), original.message(),
+                    HttpStatusCode.valueOf(failure.httpStatus()), request, null);
+            return ResponseEntity.status(error.getStatusCode())
+                    .header("Idempotent-Replayed", "true")
+                    .body(error.getBody());
+        }
+        HttpStatusCode status = original.status() == TransactionStatus.FAILED
+                ? HttpStatusCode.valueOf(422)
+                : HttpStatus.OK;
+        return ResponseEntity.status(status)
+                .header("Idempotent-Replayed", "true")
+                .body(original);
+    }
+
     @ExceptionHandler(OptimisticLockException.class)
     public ResponseEntity<ErrorResponse> handleOptimisticLock(
             OptimisticLockException ex, HttpServletRequest request) {
@@ -164,6 +207,18 @@ public class GlobalExceptionHandler {
         );
     }
 
+    @ExceptionHandler(ResponseStatusException.class)
+    public ResponseEntity<ErrorResponse> handleResponseStatus(
+            ResponseStatusException ex, HttpServletRequest request) {
+        return buildErrorResponse(
+                ex.getStatusCode() instanceof HttpStatus status ? status.name() : "ERROR",
+                ex.getReason(),
+                ex.getStatusCode(),
+                request,
+                null
+        );
+    }
+
     @ExceptionHandler(MethodArgumentTypeMismatchException.class)
     public ResponseEntity<ErrorResponse> handleTypeMismatch(
             MethodArgumentTypeMismatchException ex, HttpServletRequest request) {
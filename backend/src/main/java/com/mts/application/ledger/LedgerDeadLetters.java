@@ -0,0 +1,153 @@
+package com.mts.application.ledger;
+
+import com.mts.domain.enums.TransactionStatus;
+import com.mts.domain.enums.TransferFailureCode;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The dead-letter file: ledger transfers the write-behind could not get into MySQL. Each entry is a
+ * tab-separated line, preceded by a {@code #} comment with when and why it failed.
+ *
+ * <p>An entry is only taken off the journal once it is in this file, and stays here, its idempotency key
+ * refused, until it is persisted: every start retries the file, so a restart after an operator has fixed
+ * the cause writes them. Deleting a line gives up on that transfer.
+ */
+final class LedgerDeadLetters {
+
+    private static final String COMMENT = "#";
+    private static final int FIELDS = 10;
+
+    /** An entry and why it could not be written. */
+    record Failed(LedgerEntry entry, Throwable failure) {
+    }
+
+    private final Path file;
+
+    LedgerDeadLetters(Path file) {
+        this.file = file;
+    }
+
+    Path file() {
+        return file;
+    }
+
+    /** Appends the entry and forces it to disk. */
+    synchronized void append(LedgerEntry entry, Throwable failure) throws IOException {
+        Files.createDirectories(file.getParent());
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND)) {
+            ByteBuffer bytes = StandardCharsets.UTF_8.encode(format(entry, failure, Instant.now()));
+            while (bytes.hasRemaining()) {
+                channel.write(bytes);
+            }
+            channel.force(true);
+        }
+    }
+
+    /** Every entry in the file, oldest first. */
+    synchronized List<LedgerEntry> readAll() {
+        if (!Files.exists(file)) {
+            return List.of();
+        }
+        List<String> lines;
+        try {
+            lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read ledger dead letters " + file, e);
+        }
+        List<LedgerEntry> entries = new ArrayList<>();
+        for (String line : lines) {
+            if (!line.isBlank() && !line.startsWith(COMMENT)) {
+                entries.add(parse(line));
+            }
+        }
+        return entries;
+    }
+
+    /** Replaces the file with the given entries, or deletes it when there are none left. */
+    synchronized void replace(List<Failed> remaining) {
+        try {
+            if (remaining.isEmpty()) {
+                Files.deleteIfExists(file);
+                return;
+            }
+            Instant now = Instant.now();
+            StringBuilder content = new StringBuilder();
+            for (Failed failed : remaining) {
+                content.append(format(failed.entry(), failed.failure(), now));
+            }
+            Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+            try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                ByteBuffer bytes = StandardCharsets.UTF_8.encode(content.toString());
+                while (bytes.hasRemaining()) {
+                    channel.write(bytes);
+                }
+                channel.force(true);
+            }
+            Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot rewrite ledger dead letters " + file, e);
+        }
+    }
+
+    private static String format(LedgerEntry entry, Throwable failure, Instant at) {
+        String comment = COMMENT + " " + at + " " + escape(String.valueOf(failure));
+        String line = String.join("\t",
+                String.valueOf(entry.txId()),
+                escape(entry.idempotencyKey()),
+                String.valueOf(entry.fromAccountId()),
+                String.valueOf(entry.toAccountId()),
+                String.valueOf(entry.cents()),
+                escape(entry.currency()),
+                entry.status().name(),
+                entry.failureCode() == null ? "" : entry.failureCode().name(),
+                String.valueOf(entry.createdOn().toEpochMilli()),
+                escape(entry.failureReason()));
+        return comment + System.lineSeparator() + line + System.lineSeparator();
+    }
+
+    private LedgerEntry parse(String line) {
+        String[] fields = line.split("\t", -1);
+        if (fields.length != FIELDS) {
+            throw new IllegalStateException("Malformed line in ledger dead letters " + file + ": " + line);
+        }
+        try {
+            return new LedgerEntry(Long.parseLong(fields[0]), unescape(fields[1]), Long.parseLong(fields[2]),
+                    Long.parseLong(fields[3]), Long.parseLong(fields[4]), unescape(fields[5]),
+                    TransactionStatus.valueOf(fields[6]),
+                    unescape(fields[9]),
+                    fields[7].isEmpty() ? null : TransferFailureCode.valueOf(fields[7]),
+                    Instant.ofEpochMilli(Long.parseLong(fields[8])));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalStateException("Malformed line in ledger dead letters " + file + ": " + line, e);
+        }
+    }
+
+    // Null is the empty field; '%', tabs and line breaks are percent-escaped so a line stays one entry
+    private static String escape(String value) {
+        if (value == null) {
+            return "";
+        }
+        return value.replace("%", "%25").replace("\t", "%09").replace("\n", "%0A").replace("\r", "%0D");
+    }
+
+    private static String unescape(String value) {
+        if (value.isEmpty()) {
+            return null;
+        }
+        return value.replace("%09", "\t").replace("%0A", "\n").replace("%0D", "\r").replace("%25", "%");
+    }
+}
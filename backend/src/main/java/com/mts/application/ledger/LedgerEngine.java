@@ -0,0 +1,444 @@
+package com.mts.application.ledger;
+
+import com.mts.application.cache.DailyLimitTracker;
+import com.mts.application.dto.AccountStatusChanged;
+import com.mts.application.entities.TransactionLog;
+import com.mts.application.mapper.TransactionMapper;
+import com.mts.application.repository.AccountRepository;
+import com.mts.application.repository.TransactionLogRepository;
+import com.mts.application.snowflake.SnowflakeIdGenerator;
+import com.mts.domain.dto.TransferRequest;
+import com.mts.domain.dto.TransferResponse;
+import com.mts.domain.enums.TransactionStatus;
+import com.mts.domain.exceptions.DuplicateTransferException;
+import com.mts.domain.exceptions.OptimisticLockException;
+import com.mts.domain.exceptions.ReplayedTransferException;
+import com.mts.domain.model.Account;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.Stream;
+
+/**
+ * In-memory transfer engine, enabled with {@code transfer.ledger.enabled}. Accounts are hash-partitioned
+ * over {@code transfer.ledger.partitions} single-writer {@link LedgerPartition}s that own their balances as
+ * domain {@link Account}s; MySQL is brought up to date behind them by {@link LedgerWriteBehind}.
+ *
+ * <p>A transfer within one partition is a single journaled TRANSFER. Across partitions it is reserve/commit:
+ * the source partition journals RESERVE and debits, the destination journals CREDIT and credits (or refuses,
+ * and the source RELEASEs the debit), then the source journals COMMIT and completes the caller.
+ *
+ * <p>At startup, MySQL is the snapshot: journaled transfers whose log row is missing are replayed into it
+ * (a RESERVE with a CREDIT counts as done), the journals are cleared, the {@link LedgerDeadLetters dead
+ * letters} are retried and the partitions load the accounts from MySQL. While the engine runs it owns the
+ * balances, so batch transfers are disabled; accounts opened since startup are loaded on first use. Account
+ * status changes are {@link #onAccountStatusChanged posted} to the owning partition once committed.
+ */
+@Component
+@ConditionalOnProperty(name = "transfer.ledger.enabled", havingValue = "true")
+public class LedgerEngine {
+
+    private static final Logger logger = LoggerFactory.getLogger(LedgerEngine.class);
+
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+    private static final long IDLE_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+    private static final long SHUTDOWN_WAIT_MS = 30_000;
+
+    private final AccountRepository accountRepository;
+    private final TransactionLogRepository logRepository;
+    private final LedgerStore store;
+    private final DailyLimitTracker dailyLimits;
+    private final SnowflakeIdGenerator idGenerator;
+    private final int partitionCount;
+    private final int ringSize;
+    private final Path journalDirectory;
+    private final int segmentBytes;
+    private final boolean fsync;
+    private final int batchSize;
+    private final int flushMaxAttempts;
+    private final long submitTimeoutMs;
+
+    // Accepted transfers by idempotency key, until their outcome is in MySQL (or needs no row)
+    private final Map<String, PendingTransfer> inFlight = new ConcurrentHashMap<>();
+    // Keys of the entries in the dead-letter file; refused until those are persisted
+    private final Set<String> deadLettered = ConcurrentHashMap.newKeySet();
+    private final LedgerDeadLetters deadLetters;
+    private LedgerPartition[] partitions;
+    private LedgerWriteBehind writeBehind;
+    private volatile boolean running;
+
+    public LedgerEngine(AccountRepository accountRepository,
+            TransactionLogRepository logRepository,
+            LedgerStore store,
+            DailyLimitTracker dailyLimits,
+            SnowflakeIdGenerator idGenerator,
+            @Value("${transfer.ledger.partitions:4}") int partitionCount,
+            @Value("${transfer.ledger.ring-size:65536}") int ringSize,
+            @Value("${transfer.ledger.journal.dir:data/ledger}") String journalDirectory,
+            @Value("${transfer.ledger.journal.segment-mb:64}") int segmentMb,
+            @Value("${transfer.ledger.journal.fsync:false}") boolean fsync,
+            @Value("${transfer.ledger.flush.batch-size:1000}") int batchSize,
+            @Value("${transfer.ledger.flush.max-attempts:5}") int flushMaxAttempts,
+            @Value("${transfer.ledger.submit-timeout-ms:5000}") long submitTimeoutMs) {
+        if (partitionCount < 1 || batchSize < 1 || segmentMb < 1 || flushMaxAttempts < 1) {
+            throw new IllegalArgumentException(
+                    "transfer.ledger.partitions, segment-mb, flush.batch-size and flush.max-attempts must be >= 1");
+        }
+        this.accountRepository = accountRepository;
+        this.logRepository = logRepository;
+        this.store = store;
+        this.dailyLimits = dailyLimits;
+        this.idGenerator = idGenerator;
+        this.partitionCount = partitionCount;
+        this.ringSize = ringSize;
+        this.journalDirectory = Paths.get(journalDirectory);
+        this.deadLetters = new LedgerDeadLetters(this.journalDirectory.resolve("dead-letters.log"));
+        this.segmentBytes = Math.multiplyExact(segmentMb, 1024 * 1024);
+        this.fsync = fsync;
+        this.batchSize = batchSize;
+        this.flushMaxAttempts = flushMaxAttempts;
+        this.submitTimeoutMs = submitTimeoutMs;
+    }
+
+    /** Runs before the other startup listeners, so e.g. daily totals are loaded after the replay. */
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        int replayed = recover();
+
+        writeBehind = new LedgerWriteBehind(store, ringSize, batchSize, flushMaxAttempts, deadLetters,
+                IDLE_PARK_NANOS);
+        partitions = new LedgerPartition[partitionCount];
+        for (int i = 0; i < partitionCount; i++) {
+            LedgerJournal journal = new LedgerJournal(journalDirectory.resolve("partition-" + i), segmentBytes, fsync);
+            partitions[i] = new LedgerPartition(i, this, journal, dailyLimits, this::loadAccount, ringSize,
+                    IDLE_PARK_NANOS);
+        }
+        int loaded = 0;
+        for (com.mts.application.entities.Account account : accountRepository.findAll()) {
+            partitionFor(account.getId()).add(toDomain(account));
+            loaded++;
+        }
+        writeBehind.start();
+        for (LedgerPartition partition : partitions) {
+            partition.start();
+        }
+        running = true;
+        logger.info("Ledger engine started: {} partition(s), {} account(s), {} transfer(s) replayed from the journal",
+                partitionCount, loaded, replayed);
+    }
+
+    /**
+     * Accepts the transfer and returns its outcome once the partitions have decided it; it is in the
+     * journal by then, but may not be in MySQL yet.
+     *
+     * @throws DuplicateTransferException if the key is in flight or already has a log row (a resend of
+     *         the same transfer gets a {@link ReplayedTransferException} carrying the original outcome)
+     * @throws OptimisticLockException    if the engine is not running, or the source partition's ring stays full
+     *                                    for the submit timeout
+     */
+    public CompletableFuture<TransferResponse> submit(TransferRequest request)
+            throws DuplicateTransferException, OptimisticLockException {
+        if (!running) {
+            // Starting up or shutting down: worth retrying, unlike a bad request
+            throw new OptimisticLockException("Ledger engine is not running, please retry the transfer");
+        }
+        long fromId = parseAccountId(request.getSourceAccountId(), "source");
+        long toId = parseAccountId(request.getDestinationAccountId(), "destination");
+        if (fromId == toId) {
+            throw new IllegalArgumentException("Source and destination accounts must be different");
+        }
+        String key = request.getIdempotencyKey();
+        if (key == null || key.isBlank()) {
+            throw new IllegalArgumentException("Idempotency key must be provided");
+        }
+        PendingTransfer transfer = new PendingTransfer(idGenerator.nextId(), fromId, toId, toCents(request.getAmount()),
+                request.getCurrency(), key, Instant.now());
+
+        if (deadLettered.contains(key) || inFlight.putIfAbsent(key, transfer) != null) {
+            throw new DuplicateTransferException("Duplicate transfer request: " + key + " (idempotency key already used)");
+        }
+        // Always asked, even when the idempotency index says the key is absent: the engine moves money before
+        // MySQL's unique key sees the row, so the index's hint is not enough to rule out a resend
+        TransactionLog prior = logRepository.findByIdempotencyKey(key).orElse(null);
+        if (prior != null) {
+            inFlight.remove(key, transfer);
+            throw duplicateKey(key, prior, transfer);
+        }
+
+        LedgerPartition partition = partitionFor(fromId);
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(submitTimeoutMs);
+        while (!partition.offer(transfer)) {
+            if (System.nanoTime() - deadline > 0) {
+                inFlight.remove(key, transfer);
+                throw new OptimisticLockException("Ledger engine is busy, please retry the transfer");
+            }
+            LockSupport.parkNanos(IDLE_PARK_NANOS);
+        }
+        return transfer.result;
+    }
+
+    /**
+     * Holds {@code key} as in flight while a transfer runs outside the engine (over the global limit, through
+     * the JPA path), so the engine cannot accept the same key until that transfer has its log row. Close the
+     * claim when done.
+     *
+     * @throws DuplicateTransferException if the engine has the key in flight
+     */
+    public KeyClaim claimKey(String key) throws DuplicateTransferException {
+        if (key == null || key.isBlank()) {
+            return () -> { };
+        }
+        PendingTransfer placeholder = new PendingTransfer(0L, 0L, 0L, 0L, null, key, Instant.now());
+        if (deadLettered.contains(key) || inFlight.putIfAbsent(key, placeholder) != null) {
+            throw new DuplicateTransferException("Duplicate transfer request: " + key + " (idempotency key already used)");
+        }
+        return () -> inFlight.remove(key, placeholder);
+    }
+
+    /** An idempotency key held by {@link #claimKey}. */
+    public interface KeyClaim extends AutoCloseable {
+        @Override
+        void close();
+    }
+
+    /**
+     * Applies an admin status change to the account's partition once it is committed, so freezing or closing
+     * an account the engine has loaded takes effect on its next transfer.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAccountStatusChanged(AccountStatusChanged event) {
+        if (running) {
+            LedgerPartition partition = partitionFor(event.accountId());
+            partition.post(() -> partition.updateStatus(event.accountId(), event.status()));
+        }
+    }
+
+    /** Stops taking transfers, waits for accepted ones to reach MySQL, then stops the threads. */
+    @PreDestroy
+    public synchronized void stop() throws InterruptedException {
+        if (!running) {
+            return;
+        }
+        running = false;
+        long deadline = System.currentTimeMillis() + SHUTDOWN_WAIT_MS;
+        while (!inFlight.isEmpty() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        for (LedgerPartition partition : partitions) {
+            partition.stop();
+        }
+        writeBehind.stop();
+        if (!inFlight.isEmpty()) {
+            logger.warn("Ledger engine stopped with {} transfer(s) not yet in MySQL; they are replayed on the next start",
+                    inFlight.size());
+        }
+    }
+
+    LedgerPartition partitionFor(long accountId) {
+        return partitions[Math.floorMod(Long.hashCode(accountId * GOLDEN_GAMMA), partitions.length)];
+    }
+
+    /** The transfer is journaled on every partition it touched: answer the caller and queue the log row. */
+    void completed(PendingTransfer transfer) {
+        transfer.result.complete(transfer.successResponse());
+        writeBehind.enqueue(transfer.entry(TransactionStatus.SUCCESS, null), () -> release(transfer),
+                () -> deadLettered(transfer));
+    }
+
+    /**
+     * The transfer was refused and no money moved. Refusals between existing accounts leave a FAILED log
+     * row, as in the JPA path; the rest free the key at once.
+     */
+    void rejected(PendingTransfer transfer, Exception reason, boolean logRow) {
+        transfer.result.completeExceptionally(reason);
+        if (logRow) {
+            writeBehind.enqueue(transfer.entry(TransactionStatus.FAILED, reason), () -> release(transfer),
+                    () -> deadLettered(transfer));
+        } else {
+            release(transfer);
+        }
+    }
+
+    private void release(PendingTransfer transfer) {
+        transfer.settle();
+        inFlight.remove(transfer.idempotencyKey, transfer);
+    }
+
+    // The dead-letter file holds the transfer now, so the journal can let it go; its key must stay refused
+    private void deadLettered(PendingTransfer transfer) {
+        deadLettered.add(transfer.idempotencyKey);
+        release(transfer);
+    }
+
+    /**
+     * Replays journaled transfers that never reached MySQL and clears the journals, then retries the dead
+     * letters. Returns the number of journaled transfers replayed.
+     */
+    int recover() {
+        List<Path> directories = journalDirectories();
+        Map<Long, List<LedgerRecord>> byTransfer = new LinkedHashMap<>();
+        for (Path directory : directories) {
+            for (LedgerRecord record : LedgerJournal.readAll(directory)) {
+                byTransfer.computeIfAbsent(record.txId(), id -> new ArrayList<>(3)).add(record);
+            }
+        }
+        List<LedgerEntry> replay = new ArrayList<>();
+        if (!byTransfer.isEmpty()) {
+            Set<Long> persisted = store.findPersisted(byTransfer.keySet());
+            byTransfer.forEach((txId, records) -> {
+                if (!persisted.contains(txId)) {
+                    LedgerEntry entry = replayedEntry(records);
+                    if (entry != null) {
+                        replay.add(entry);
+                    }
+                }
+            });
+            for (int from = 0; from < replay.size(); from += batchSize) {
+                store.persist(replay.subList(from, Math.min(replay.size(), from + batchSize)));
+            }
+        }
+        directories.forEach(LedgerJournal::deleteAll);
+        retryDeadLetters();
+        return replay.size();
+    }
+
+    // Each on its own, so one that still fails does not hold back the rest; those stay, keys refused
+    private void retryDeadLetters() {
+        List<LedgerEntry> entries = deadLetters.readAll();
+        if (entries.isEmpty()) {
+            return;
+        }
+        Set<Long> persisted = store.findPersisted(entries.stream().map(LedgerEntry::txId).toList());
+        List<LedgerDeadLetters.Failed> remaining = new ArrayList<>();
+        for (LedgerEntry entry : entries) {
+            if (persisted.contains(entry.txId())) {
+                continue;
+            }
+            try {
+                store.persist(List.of(entry));
+            } catch (RuntimeException e) {
+                remaining.add(new LedgerDeadLetters.Failed(entry, e));
+            }
+        }
+        deadLetters.replace(remaining);
+        deadLettered.clear();
+        for (LedgerDeadLetters.Failed failed : remaining) {
+            deadLettered.add(failed.entry().idempotencyKey());
+        }
+        if (!remaining.isEmpty()) {
+            logger.error("{} dead-lettered ledger transfer(s) in {} still cannot be written to MySQL; their "
+                    + "idempotency keys stay refused until they are reconciled", remaining.size(), deadLetters.file());
+        }
+    }
+
+    /** SUCCESS for a TRANSFER, or a RESERVE whose CREDIT was journaled; null when no money moved. */
+    private static LedgerEntry replayedEntry(List<LedgerRecord> records) {
+        LedgerRecord start = null;
+        boolean credited = false;
+        for (LedgerRecord record : records) {
+            switch (record.type()) {
+                case TRANSFER -> {
+                    start = record;
+                    credited = true;
+                }
+                case RESERVE -> start = record;
+                case CREDIT -> credited = true;
+                default -> {
+                }
+            }
+        }
+        if (start == null || !credited) {
+            return null;
+        }
+        return new LedgerEntry(start.txId(), start.idempotencyKey(), start.fromAccountId(), start.toAccountId(),
+                start.cents(), start.currency(), TransactionStatus.SUCCESS, null, null,
+                Instant.ofEpochMilli(start.createdMillis()));
+    }
+
+    private List<Path> journalDirectories() {
+        if (!Files.isDirectory(journalDirectory)) {
+            return List.of();
+        }
+        try (Stream<Path> children = Files.list(journalDirectory)) {
+            // Whatever the partition count was when they were written
+            return children.filter(Files::isDirectory)
+                    .filter(path -> path.getFileName().toString().startsWith("partition-"))
+                    .sorted()
+                    .toList();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot list ledger journals in " + journalDirectory, e);
+        }
+    }
+
+    // Partition thread, for accounts opened since startup
+    private Account loadAccount(long id) {
+        return accountRepository.findById(id).map(LedgerEngine::toDomain).orElse(null);
+    }
+
+    private static Account toDomain(com.mts.application.entities.Account entity) {
+        Account account = new Account(String.valueOf(entity.getId()), entity.getHolderName(), entity.getBalance(),
+                entity.getStatus());
+        account.setDailyLimit(entity.getDailyLimit());
+        return account;
+    }
+
+    private static DuplicateTransferException duplicateKey(String key, TransactionLog prior, PendingTransfer transfer) {
+        String message = "Duplicate transfer request: " + key + " (idempotency key already used)";
+        if (prior.getFromAccountId() == transfer.fromAccountId && prior.getToAccountId() == transfer.toAccountId
+                && prior.getAmount().compareTo(transfer.amount) == 0) {
+            return new ReplayedTransferException(message, TransactionMapper.toTransferResponse(prior));
+        }
+        return new DuplicateTransferException(message);
+    }
+
+    private static long parseAccountId(String id, String side) {
+        if (id == null || id.isBlank()) {
+            throw new IllegalArgumentException("Missing " + side + " account id");
+        }
+        try {
+            return Long.parseLong(id.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid " + side + " account id: " + id);
+        }
+    }
+
+    private static long toCents(BigDecimal amount) {
+        if (amount == null || amount.signum() <= 0) {
+            throw new IllegalArgumentException("Amount must be positive");
+        }
+        try {
+            return amount.movePointRight(2).longValueExact();
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("Amount must have at most 2 decimal places: " + amount);
+        }
+    }
+}
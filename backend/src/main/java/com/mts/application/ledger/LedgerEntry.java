@@ -0,0 +1,15 @@
+package com.mts.application.ledger;
+
+import com.mts.domain.enums.TransactionStatus;
+import com.mts.domain.enums.TransferFailureCode;
+
+import java.time.Instant;
+
+/**
+ * A transfer the ledger engine has decided, waiting to be written to MySQL by {@link LedgerStore}.
+ * SUCCESS entries move {@code cents} from one balance to the other; FAILED entries only leave a log row.
+ */
+public record LedgerEntry(long txId, String idempotencyKey, long fromAccountId, long toAccountId, long cents,
+        String currency, TransactionStatus status, String failureReason, TransferFailureCode failureCode,
+        Instant createdOn) {
+}
@@ -0,0 +1,262 @@
+package com.mts.application.ledger;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Write-ahead journal of one ledger partition: fixed-size memory-mapped segment files, appended to by the
+ * partition thread only. A record is {@code [int length][int crc32c][payload]}; a zero length marks the
+ * end of a segment's data, and a torn or corrupt record ends replay.
+ *
+ * <p>Each record is counted against its segment until it is {@link #settle settled}, i.e. its transfer
+ * has reached MySQL (or needs nothing persisted). A segment the journal has moved past is deleted once all
+ * of its records are settled, so the journal only holds what the write-behind has not persisted yet.
+ */
+final class LedgerJournal implements AutoCloseable {
+
+    private static final int HEADER_BYTES = 8;
+    private static final String SUFFIX = ".wal";
+
+    private final Path directory;
+    private final int segmentBytes;
+    private final boolean fsync;
+    private final Map<Long, Segment> segments = new HashMap<>(); // guarded by this
+    private Segment current; // partition thread only
+
+    LedgerJournal(Path directory, int segmentBytes, boolean fsync) {
+        this.directory = directory;
+        this.segmentBytes = segmentBytes;
+        this.fsync = fsync;
+        try {
+            Files.createDirectories(directory);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot create ledger journal directory " + directory, e);
+        }
+        this.current = openSegment(nextSegmentIndex());
+    }
+
+    /** Appends the record and returns the index of the segment it went to, for {@link #settle}. */
+    long append(LedgerRecord record) {
+        byte[] payload = encode(record);
+        int size = HEADER_BYTES + payload.length;
+        if (size + Integer.BYTES > segmentBytes) {
+            throw new IllegalArgumentException("Journal record of " + size + " bytes exceeds the segment size");
+        }
+        if (current.buffer.remaining() < size + Integer.BYTES) {
+            roll();
+        }
+        CRC32C crc = new CRC32C();
+        crc.update(payload);
+        MappedByteBuffer buffer = current.buffer;
+        int start = buffer.position();
+        buffer.position(start + Integer.BYTES);
+        buffer.putInt((int) crc.getValue());
+        buffer.put(payload);
+        // Length last, so a record is never visible to replay before its payload is in place
+        buffer.putInt(start, payload.length);
+        synchronized (this) {
+            current.outstanding++;
+        }
+        return current.index;
+    }
+
+    /** Makes everything appended so far durable; a no-op unless {@code transfer.ledger.journal.fsync} is on. */
+    void force() {
+        if (fsync) {
+            current.buffer.force();
+        }
+    }
+
+    /** One record of the segment no longer needs the journal. */
+    synchronized void settle(long segmentIndex) {
+        Segment segment = segments.get(segmentIndex);
+        if (segment == null) {
+            throw new IllegalStateException("Unknown journal segment " + segmentIndex);
+        }
+        segment.outstanding--;
+        deleteIfDone(segment);
+    }
+
+    @Override
+    public synchronized void close() {
+        current.buffer.force();
+        current.closed = true;
+        deleteIfDone(current);
+    }
+
+    /** Every record in the directory's segments, oldest first, up to the first torn or corrupt one. */
+    static List<LedgerRecord> readAll(Path directory) {
+        List<LedgerRecord> records = new ArrayList<>();
+        for (Path file : segmentFiles(directory)) {
+            ByteBuffer buffer;
+            try {
+                buffer = ByteBuffer.wrap(Files.readAllBytes(file));
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot read ledger journal " + file, e);
+            }
+            while (buffer.remaining() >= HEADER_BYTES) {
+                int length = buffer.getInt();
+                if (length <= 0 || length > buffer.remaining() - Integer.BYTES) {
+                    break;
+                }
+                int expectedCrc = buffer.getInt();
+                byte[] payload = new byte[length];
+                buffer.get(payload);
+                CRC32C crc = new CRC32C();
+                crc.update(payload);
+                if ((int) crc.getValue() != expectedCrc) {
+                    return records;
+                }
+                try {
+                    records.add(decode(ByteBuffer.wrap(payload)));
+                } catch (BufferUnderflowException | IllegalArgumentException e) {
+                    return records;
+                }
+            }
+        }
+        return records;
+    }
+
+    static void deleteAll(Path directory) {
+        for (Path file : segmentFiles(directory)) {
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot delete ledger journal " + file, e);
+            }
+        }
+    }
+
+    private void roll() {
+        Segment full = current;
+        full.buffer.force();
+        current = openSegment(full.index + 1);
+        synchronized (this) {
+            full.closed = true;
+            deleteIfDone(full);
+        }
+    }
+
+    private synchronized Segment openSegment(long index) {
+        Path file = directory.resolve(String.format("%020d%s", index, SUFFIX));
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ,
+                StandardOpenOption.WRITE)) {
+            Segment segment = new Segment(index, file, channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentBytes));
+            segments.put(index, segment);
+            return segment;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot create ledger journal segment " + file, e);
+        }
+    }
+
+    // Caller holds the lock
+    private void deleteIfDone(Segment segment) {
+        if (segment.closed && segment.outstanding == 0) {
+            segments.remove(segment.index);
+            try {
+                Files.deleteIfExists(segment.file);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot delete ledger journal segment " + segment.file, e);
+            }
+        }
+    }
+
+    private long nextSegmentIndex() {
+        List<Path> existing = segmentFiles(directory);
+        if (existing.isEmpty()) {
+            return 0L;
+        }
+        String name = existing.get(existing.size() - 1).getFileName().toString();
+        return Long.parseLong(name.substring(0, name.length() - SUFFIX.length())) + 1;
+    }
+
+    private static List<Path> segmentFiles(Path directory) {
+        if (!Files.isDirectory(directory)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> file.getFileName().toString().endsWith(SUFFIX)).sorted().toList();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot list ledger journal " + directory, e);
+        }
+    }
+
+    private static byte[] encode(LedgerRecord record) {
+        byte[] key = bytes(record.idempotencyKey());
+        byte[] currency = bytes(record.currency());
+        ByteBuffer buffer = ByteBuffer.allocate(1 + 5 * Long.BYTES + 2 * Short.BYTES + key.length + currency.length);
+        buffer.put((byte) record.type().ordinal());
+        buffer.putLong(record.txId());
+        buffer.putLong(record.fromAccountId());
+        buffer.putLong(record.toAccountId());
+        buffer.putLong(record.cents());
+        buffer.putLong(record.createdMillis());
+        buffer.putShort((short) key.length).put(key);
+        buffer.putShort((short) currency.length).put(currency);
+        return buffer.array();
+    }
+
+    private static LedgerRecord decode(ByteBuffer buffer) {
+        int type = buffer.get();
+        if (type < 0 || type >= LedgerRecord.Type.values().length) {
+            throw new IllegalArgumentException("Unknown journal record type " + type);
+        }
+        long txId = buffer.getLong();
+        long from = buffer.getLong();
+        long to = buffer.getLong();
+        long cents = buffer.getLong();
+        long createdMillis = buffer.getLong();
+        String key = string(buffer);
+        String currency = string(buffer);
+        return new LedgerRecord(LedgerRecord.Type.values()[type], txId, from, to, cents, createdMillis, key, currency);
+    }
+
+    private static byte[] bytes(String value) {
+        if (value == null) {
+            return new byte[0];
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > Short.MAX_VALUE) {
+            throw new IllegalArgumentException("Journal string field too long: " + bytes.length + " bytes");
+        }
+        return bytes;
+    }
+
+    private static String string(ByteBuffer buffer) {
+        int length = buffer.getShort();
+        if (length == 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static final class Segment {
+        private final long index;
+        private final Path file;
+        private final MappedByteBuffer buffer;
+        private int outstanding; // guarded by the journal
+        private boolean closed;
+
+        private Segment(long index, Path file, MappedByteBuffer buffer) {
+            this.index = index;
+            this.file = file;
+            this.buffer = buffer;
+        }
+    }
+}
@@ -0,0 +1,239 @@
+package com.mts.application.ledger;
+
+import com.mts.application.cache.DailyLimitTracker;
+import com.mts.domain.enums.AccountStatus;
+import com.mts.domain.exceptions.AccountNotActiveException;
+import com.mts.domain.exceptions.AccountNotFoundException;
+import com.mts.domain.exceptions.DailyLimitExceededException;
+import com.mts.domain.exceptions.InsufficientBalanceException;
+import com.mts.domain.model.Account;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.LongFunction;
+
+/**
+ * One single-writer shard of the ledger: the only thread that reads or changes the balances of the
+ * accounts hashed to it, so the domain {@link Account}s are never contended.
+ *
+ * <p>New transfers arrive on a bounded {@link MpscRingBuffer} from request threads, steps of cross-partition
+ * transfers as tasks from other partitions. Every balance change is appended to this partition's journal
+ * before it is applied; whatever depends on it (completing the caller, messaging the other partition) is
+ * deferred until the batch's journal writes have been forced, so one fsync covers a whole batch.
+ */
+final class LedgerPartition implements Runnable {
+
+    private static final int DRAIN_LIMIT = 256;
+
+    private final LedgerEngine engine;
+    private final LedgerJournal journal;
+    private final DailyLimitTracker dailyLimits;
+    private final LongFunction<Account> accountLoader;
+    private final long idleParkNanos;
+    private final MpscRingBuffer<PendingTransfer> requests;
+    private final Queue<Runnable> messages = new ConcurrentLinkedQueue<>();
+    private final Map<Long, Account> accounts = new HashMap<>();
+    private final List<Runnable> afterForce = new ArrayList<>();
+    private final Thread thread;
+    private volatile boolean running = true;
+
+    LedgerPartition(int index, LedgerEngine engine, LedgerJournal journal, DailyLimitTracker dailyLimits,
+            LongFunction<Account> accountLoader, int ringSize, long idleParkNanos) {
+        this.engine = engine;
+        this.journal = journal;
+        this.dailyLimits = dailyLimits;
+        this.accountLoader = accountLoader;
+        this.idleParkNanos = idleParkNanos;
+        this.requests = new MpscRingBuffer<>(ringSize);
+        this.thread = new Thread(this, "ledger-partition-" + index);
+        this.thread.setDaemon(true);
+    }
+
+    /** Before {@link #start} only: seeds the partition with an account loaded from MySQL. */
+    void add(Account account) {
+        accounts.put(Long.valueOf(account.getId()), account);
+    }
+
+    void start() {
+        thread.start();
+    }
+
+    boolean offer(PendingTransfer transfer) {
+        return requests.offer(transfer);
+    }
+
+    /** Partition thread: an admin changed the account's status; accounts not loaded yet read it from MySQL. */
+    void updateStatus(long accountId, AccountStatus status) {
+        Account account = accounts.get(accountId);
+        if (account != null) {
+            account.setStatus(status);
+        }
+    }
+
+    /** Runs {@code task} on this partition's thread. */
+    void post(Runnable task) {
+        messages.add(task);
+    }
+
+    void stop() throws InterruptedException {
+        running = false;
+        LockSupport.unpark(thread);
+        thread.join();
+        journal.close();
+    }
+
+    @Override
+    public void run() {
+        while (true) {
+            int work = 0;
+            Runnable message;
+            while (work < DRAIN_LIMIT && (message = messages.poll()) != null) {
+                message.run();
+                work++;
+            }
+            work += requests.drain(this::onRequest, DRAIN_LIMIT);
+            if (!afterForce.isEmpty()) {
+                journal.force();
+                for (Runnable task : afterForce) {
+                    task.run();
+                }
+                afterForce.clear();
+            }
+            if (work == 0) {
+                if (!running) {
+                    return;
+                }
+                LockSupport.parkNanos(idleParkNanos);
+            }
+        }
+    }
+
+    private void onRequest(PendingTransfer transfer) {
+        try {
+            begin(transfer);
+        } catch (RuntimeException e) {
+            if (transfer.reservation != null) {
+                transfer.reservation.cancel();
+            }
+            engine.rejected(transfer, e, false);
+        }
+    }
+
+    private void begin(PendingTransfer transfer) {
+        Account from = account(transfer.fromAccountId);
+        if (from == null) {
+            engine.rejected(transfer, notFound(transfer.fromAccountId), false);
+            return;
+        }
+        if (!from.isActive()) {
+            engine.rejected(transfer, notActive(from), true);
+            return;
+        }
+        LedgerPartition destination = engine.partitionFor(transfer.toAccountId);
+        Account to = null;
+        if (destination == this) {
+            to = account(transfer.toAccountId);
+            if (to == null) {
+                engine.rejected(transfer, notFound(transfer.toAccountId), false);
+                return;
+            }
+            if (!to.isActive()) {
+                engine.rejected(transfer, notActive(to), true);
+                return;
+            }
+        }
+        try {
+            transfer.reservation = dailyLimits.reserve(transfer.fromAccountId, transfer.amount);
+        } catch (DailyLimitExceededException e) {
+            engine.rejected(transfer, e, true);
+            return;
+        }
+        if (from.getBalanceMinor() < transfer.cents) {
+            transfer.reservation.cancel();
+            engine.rejected(transfer,
+                    new InsufficientBalanceException("Insufficient balance in account: " + from.getId()), true);
+            return;
+        }
+
+        if (to != null) {
+            transfer.mark(journal, journal.append(transfer.record(LedgerRecord.Type.TRANSFER)));
+            debit(from, transfer.cents);
+            credit(to, transfer.cents);
+            afterForce.add(() -> engine.completed(transfer));
+        } else {
+            transfer.mark(journal, journal.append(transfer.record(LedgerRecord.Type.RESERVE)));
+            debit(from, transfer.cents);
+            afterForce.add(() -> destination.post(() -> destination.onCredit(transfer, this)));
+        }
+    }
+
+    /** Second step of a cross-partition transfer, on the destination's partition. */
+    private void onCredit(PendingTransfer transfer, LedgerPartition source) {
+        Account to = account(transfer.toAccountId);
+        Exception refusal = to == null ? notFound(transfer.toAccountId) : to.isActive() ? null : notActive(to);
+        if (refusal != null) {
+            source.post(() -> source.onRelease(transfer, refusal));
+            return;
+        }
+        transfer.mark(journal, journal.append(new LedgerRecord(LedgerRecord.Type.CREDIT, transfer.txId, 0L,
+                transfer.toAccountId, transfer.cents, transfer.createdOn.toEpochMilli(), null, null)));
+        credit(to, transfer.cents);
+        afterForce.add(() -> source.post(() -> source.onCommit(transfer)));
+    }
+
+    private void onCommit(PendingTransfer transfer) {
+        transfer.mark(journal, journal.append(LedgerRecord.marker(LedgerRecord.Type.COMMIT, transfer.txId)));
+        afterForce.add(() -> engine.completed(transfer));
+    }
+
+    /** The destination refused the credit: give the reserved amount back. */
+    private void onRelease(PendingTransfer transfer, Exception refusal) {
+        transfer.mark(journal, journal.append(LedgerRecord.marker(LedgerRecord.Type.RELEASE, transfer.txId)));
+        credit(accounts.get(transfer.fromAccountId), transfer.cents);
+        transfer.reservation.cancel();
+        afterForce.add(() -> engine.rejected(transfer, refusal, false));
+    }
+
+    private Account account(long id) {
+        Account account = accounts.get(id);
+        if (account == null) {
+            // Opened after the engine started: its MySQL row is still untouched by the engine
+            account = accountLoader.apply(id);
+            if (account != null) {
+                accounts.put(id, account);
+            }
+        }
+        return account;
+    }
+
+    // Validated by the caller, so the domain checks cannot fail here
+    private static void debit(Account account, long cents) {
+        try {
+            account.debitMinor(cents);
+        } catch (InsufficientBalanceException | AccountNotActiveException e) {
+            throw new IllegalStateException("Journaled debit could not be applied to account " + account.getId(), e);
+        }
+    }
+
+    private static void credit(Account account, long cents) {
+        try {
+            account.creditMinor(cents);
+        } catch (AccountNotActiveException e) {
+            throw new IllegalStateException("Journaled credit could not be applied to account " + account.getId(), e);
+        }
+    }
+
+    private static AccountNotFoundException notFound(long id) {
+        return new AccountNotFoundException("Account with ID " + id + " not found");
+    }
+
+    private static AccountNotActiveException notActive(Account account) {
+        return new AccountNotActiveException(
+                "Account " + account.getId() + " is not ACTIVE (status=" + account.getStatus() + ")");
+    }
+}
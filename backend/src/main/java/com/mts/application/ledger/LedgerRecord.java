@@ -0,0 +1,16 @@
+package com.mts.application.ledger;
+
+/**
+ * One journal entry. TRANSFER moves money between two accounts of the same partition; a cross-partition
+ * transfer is RESERVE (debit, in the source partition's journal), CREDIT (destination partition) and then
+ * COMMIT, or RELEASE when the destination refused the credit and the debit was given back.
+ */
+record LedgerRecord(Type type, long txId, long fromAccountId, long toAccountId, long cents, long createdMillis,
+        String idempotencyKey, String currency) {
+
+    enum Type { TRANSFER, RESERVE, CREDIT, COMMIT, RELEASE }
+
+    static LedgerRecord marker(Type type, long txId) {
+        return new LedgerRecord(type, txId, 0L, 0L, 0L, 0L, null, null);
+    }
+}
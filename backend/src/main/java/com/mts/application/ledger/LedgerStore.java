@@ -0,0 +1,108 @@
+package com.mts.application.ledger;
+
+import com.mts.application.cache.BalanceTable;
+import com.mts.application.cache.DailyLimitTracker;
+import com.mts.application.cache.IdempotencyIndex;
+import com.mts.application.entities.TransactionLog;
+import com.mts.application.repository.AccountDailyDebitRepository;
+import com.mts.application.repository.AccountRepository;
+import com.mts.application.repository.TransactionLogRepository;
+import com.mts.application.snowflake.SnowflakeIdGenerator;
+import com.mts.domain.enums.TransactionStatus;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Write-behind target of the {@link LedgerEngine}: one transaction per batch inserts the log rows
+ * (JDBC-batched, Snowflake ids) and applies each touched account's net balance change and daily debit
+ * total once. Log rows and balance changes commit together, which is what lets recovery tell a journaled
+ * transfer that already reached MySQL (its log row exists) from one that did not.
+ */
+@Component
+@ConditionalOnProperty(name = "transfer.ledger.enabled", havingValue = "true")
+public class LedgerStore {
+
+    private final TransactionLogRepository logRepository;
+    private final AccountRepository accountRepository;
+    private final AccountDailyDebitRepository debitRepository;
+    private final DailyLimitTracker dailyLimits;
+    private final IdempotencyIndex idempotencyIndex;
+    private final BalanceTable balanceTable;
+
+    public LedgerStore(TransactionLogRepository logRepository,
+            AccountRepository accountRepository,
+            AccountDailyDebitRepository debitRepository,
+            DailyLimitTracker dailyLimits,
+            IdempotencyIndex idempotencyIndex,
+            BalanceTable balanceTable) {
+        this.logRepository = logRepository;
+        this.accountRepository = accountRepository;
+        this.debitRepository = debitRepository;
+        this.dailyLimits = dailyLimits;
+        this.idempotencyIndex = idempotencyIndex;
+        this.balanceTable = balanceTable;
+    }
+
+    @Transactional
+    public void persist(List<LedgerEntry> entries) {
+        List<TransactionLog> logs = new ArrayList<>(entries.size());
+        // Ascending id order, like every other multi-account writer, to stay deadlock-free
+        Map<Long, Long> balanceDeltas = new TreeMap<>();
+        Map<LocalDate, Map<Long, Long>> dailyDebits = new LinkedHashMap<>();
+        for (LedgerEntry entry : entries) {
+            TransactionLog log = new TransactionLog();
+            log.setId(SnowflakeIdGenerator.toKey(entry.txId()));
+            log.setIdempotencyKey(entry.idempotencyKey());
+            log.setFromAccountId(entry.fromAccountId());
+            log.setToAccountId(entry.toAccountId());
+            log.setAmount(BigDecimal.valueOf(entry.cents(), 2));
+            log.setCurrency(entry.currency());
+            log.setStatus(entry.status());
+            log.setFailureReason(entry.failureReason());
+            log.setFailureCode(entry.failureCode());
+            log.setCreatedOn(entry.createdOn());
+            logs.add(log);
+            if (entry.status() == TransactionStatus.SUCCESS) {
+                balanceDeltas.merge(entry.fromAccountId(), -entry.cents(), Long::sum);
+                balanceDeltas.merge(entry.toAccountId(), entry.cents(), Long::sum);
+                dailyDebits.computeIfAbsent(dailyLimits.businessDate(entry.createdOn()), day -> new TreeMap<>())
+                        .merge(entry.fromAccountId(), entry.cents(), Long::sum);
+            }
+        }
+        logRepository.saveAll(logs);
+        Instant now = Instant.now();
+        balanceDeltas.forEach((accountId, cents) -> {
+            if (cents != 0) {
+                accountRepository.adjustBalance(accountId, BigDecimal.valueOf(cents, 2), now);
+                balanceTable.invalidateAfterCommit(accountId);
+            }
+        });
+        dailyDebits.forEach((day, byAccount) -> byAccount.forEach(
+                (accountId, cents) -> debitRepository.addDebit(accountId, day, BigDecimal.valueOf(cents, 2))));
+        logs.forEach(log -> idempotencyIndex.recordClaimed(log.getIdempotencyKey()));
+    }
+
+    /** Which of these transaction ids already have a log row, i.e. were persisted before a restart. */
+    @Transactional(readOnly = true)
+    public Set<Long> findPersisted(Collection<Long> txIds) {
+        List<String> keys = txIds.stream().map(SnowflakeIdGenerator::toKey).toList();
+        Set<Long> persisted = new HashSet<>();
+        for (TransactionLog log : logRepository.findAllById(keys)) {
+            persisted.add(Long.parseLong(log.getId()));
+        }
+        return persisted;
+    }
+}
@@ -0,0 +1,169 @@
+package com.mts.application.ledger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.RecoverableDataAccessException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.transaction.CannotCreateTransactionException;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Single thread moving decided transfers from the partitions to MySQL through {@link LedgerStore}, up to
+ * {@code transfer.ledger.flush.batch-size} per transaction: under load batches fill up, when idle each
+ * transfer is written almost at once. A failed batch is retried with backoff rather than dropped, since its
+ * transfers are already visible to clients; when the partitions outrun MySQL the queue fills and they wait.
+ *
+ * <p>Connection losses and lock timeouts are retried for as long as they last. Any other failure is tried
+ * {@code transfer.ledger.flush.max-attempts} times, then the batch is split in halves to find the entries
+ * that cannot be written; each of those is moved to the {@link LedgerDeadLetters dead-letter file}, where
+ * the next start retries it, and the rest of the queue moves on.
+ */
+final class LedgerWriteBehind implements Runnable {
+
+    private static final Logger logger = LoggerFactory.getLogger(LedgerWriteBehind.class);
+
+    private static final long MAX_BACKOFF_MS = 1000;
+    private static final int ATTEMPTS_WHEN_STOPPING = 3;
+
+    /** An entry, what to release once it is committed, and what to do if it never can be. */
+    private record Queued(LedgerEntry entry, Runnable onPersisted, Runnable onDeadLettered) {
+    }
+
+    private final LedgerStore store;
+    private final MpscRingBuffer<Queued> queue;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final LedgerDeadLetters deadLetters;
+    private final long idleParkNanos;
+    private final Thread thread;
+    private volatile boolean running = true;
+
+    LedgerWriteBehind(LedgerStore store, int queueSize, int batchSize, int maxAttempts, LedgerDeadLetters deadLetters,
+            long idleParkNanos) {
+        this.store = store;
+        this.queue = new MpscRingBuffer<>(queueSize);
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.deadLetters = deadLetters;
+        this.idleParkNanos = idleParkNanos;
+        this.thread = new Thread(this, "ledger-write-behind");
+        this.thread.setDaemon(true);
+    }
+
+    void start() {
+        thread.start();
+    }
+
+    /** Called from partition threads; waits while the queue is full. */
+    void enqueue(LedgerEntry entry, Runnable onPersisted, Runnable onDeadLettered) {
+        Queued queued = new Queued(entry, onPersisted, onDeadLettered);
+        while (!queue.offer(queued)) {
+            LockSupport.parkNanos(idleParkNanos);
+        }
+    }
+
+    /** Writes out what is queued, then stops. Call after the partitions have stopped. */
+    void stop() throws InterruptedException {
+        running = false;
+        LockSupport.unpark(thread);
+        thread.join();
+    }
+
+    @Override
+    public void run() {
+        List<Queued> batch = new ArrayList<>(batchSize);
+        while (true) {
+            batch.clear();
+            queue.drain(batch::add, batchSize);
+            if (batch.isEmpty()) {
+                if (!running) {
+                    return;
+                }
+                LockSupport.parkNanos(idleParkNanos);
+                continue;
+            }
+            if (!write(batch)) {
+                return;
+            }
+        }
+    }
+
+    /** Writes the batch, splitting it to isolate entries that keep failing; false if it gave up at shutdown. */
+    private boolean write(List<Queued> batch) {
+        RuntimeException failure = persist(batch);
+        if (failure == null) {
+            for (Queued queued : batch) {
+                queued.onPersisted().run();
+            }
+            return true;
+        }
+        if (!running) {
+            // Still journaled: the next start replays them
+            logger.error("Giving up writing {} ledger transfer(s) at shutdown; they stay in the journal",
+                    batch.size(), failure);
+            return false;
+        }
+        if (batch.size() == 1) {
+            deadLetter(batch.get(0), failure);
+            return true;
+        }
+        int half = batch.size() / 2;
+        logger.warn("Writing {} ledger transfer(s) keeps failing, splitting the batch: {}", batch.size(),
+                failure.getMessage());
+        return write(batch.subList(0, half)) && write(batch.subList(half, batch.size()));
+    }
+
+    /** Null once the batch is committed, else the last failure after the allowed attempts. */
+    private RuntimeException persist(List<Queued> batch) {
+        List<LedgerEntry> entries = new ArrayList<>(batch.size());
+        for (Queued queued : batch) {
+            entries.add(queued.entry());
+        }
+        long backoffMs = 10;
+        int attempts = 0;
+        while (true) {
+            try {
+                store.persist(entries);
+                return null;
+            } catch (RuntimeException e) {
+                if (!isTransient(e) || !running) {
+                    attempts++;
+                }
+                if (attempts >= (running ? maxAttempts : ATTEMPTS_WHEN_STOPPING)) {
+                    return e;
+                }
+                logger.warn("Writing {} ledger transfer(s) failed, retrying: {}", entries.size(), e.getMessage());
+                LockSupport.parkNanos(backoffMs * 1_000_000L);
+                backoffMs = Math.min(MAX_BACKOFF_MS, backoffMs * 2);
+            }
+        }
+    }
+
+    private void deadLetter(Queued queued, RuntimeException failure) {
+        LedgerEntry entry = queued.entry();
+        logger.error("Ledger transfer {} ({}) cannot be written to MySQL, moving it to {}", entry.txId(),
+                entry.idempotencyKey(), deadLetters.file(), failure);
+        try {
+            deadLetters.append(entry, failure);
+        } catch (IOException e) {
+            // Not settled: the journal keeps it and its key stays in flight until the next start
+            logger.error("Could not append ledger transfer {} to {}; it stays in the journal", entry.txId(),
+                    deadLetters.file(), e);
+            return;
+        }
+        queued.onDeadLettered().run();
+    }
+
+    // Lost connections and lock timeouts clear up by themselves; constraint violations and bad data do not
+    private static boolean isTransient(RuntimeException e) {
+        return e instanceof TransientDataAccessException
+                || e instanceof RecoverableDataAccessException
+                || e instanceof DataAccessResourceFailureException
+                || e instanceof CannotCreateTransactionException;
+    }
+}
@@ -0,0 +1,76 @@
+package com.mts.application.ledger;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Consumer;
+
+/**
+ * Bounded lock-free queue for many producers and a single consumer. Each slot carries a sequence number:
+ * a producer claims a position with one CAS on the tail and publishes its element by advancing the
+ * slot's sequence; the consumer only reads slots whose sequence says they are published, so neither side
+ * ever blocks the other.
+ */
+final class MpscRingBuffer<E> {
+
+    private final Object[] slots;
+    private final AtomicLongArray sequences;
+    private final int mask;
+    private final AtomicLong tail = new AtomicLong();
+    private long head; // consumer thread only
+
+    MpscRingBuffer(int capacity) {
+        if (capacity < 2 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Ring capacity must be a power of two >= 2: " + capacity);
+        }
+        this.slots = new Object[capacity];
+        this.sequences = new AtomicLongArray(capacity);
+        this.mask = capacity - 1;
+        for (int i = 0; i < capacity; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    /** Adds the element, or returns false at once when the ring is full. */
+    boolean offer(E element) {
+        long position;
+        int index;
+        while (true) {
+            position = tail.get();
+            index = (int) (position & mask);
+            long available = sequences.get(index) - position;
+            if (available == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    break;
+                }
+            } else if (available < 0) {
+                return false; // the consumer has not freed this slot yet
+            }
+        }
+        slots[index] = element;
+        sequences.lazySet(index, position + 1);
+        return true;
+    }
+
+    /** Hands up to {@code limit} published elements to {@code consumer}, in order. Consumer thread only. */
+    @SuppressWarnings("unchecked")
+    int drain(Consumer<? super E> consumer, int limit) {
+        int drained = 0;
+        while (drained < limit) {
+            int index = (int) (head & mask);
+            if (sequences.get(index) != head + 1) {
+                break;
+            }
+            E element = (E) slots[index];
+            slots[index] = null;
+            sequences.lazySet(index, head + mask + 1);
+            head++;
+            drained++;
+            consumer.accept(element);
+        }
+        return drained;
+    }
+
+    int capacity() {
+        return mask + 1;
+    }
+}
@@ -0,0 +1,76 @@
+package com.mts.application.ledger;
+
+import com.mts.application.cache.DailyLimitTracker;
+import com.mts.application.snowflake.SnowflakeIdGenerator;
+import com.mts.domain.dto.TransferResponse;
+import com.mts.domain.enums.TransactionStatus;
+import com.mts.domain.enums.TransferFailureCode;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * A transfer inside the engine. It is handed from thread to thread (caller, source partition, destination
+ * partition, write-behind) through queues, so each step sees the fields the previous one set.
+ */
+final class PendingTransfer {
+
+    final long txId;
+    final long fromAccountId;
+    final long toAccountId;
+    final long cents;
+    final BigDecimal amount;
+    final String currency;
+    final String idempotencyKey;
+    final Instant createdOn;
+    final CompletableFuture<TransferResponse> result = new CompletableFuture<>();
+
+    DailyLimitTracker.Reservation reservation;
+
+    // Journal records to settle once the outcome no longer needs them: at most RESERVE, CREDIT and COMMIT
+    private final LedgerJournal[] journals = new LedgerJournal[3];
+    private final long[] segments = new long[3];
+    private int marks;
+
+    PendingTransfer(long txId, long fromAccountId, long toAccountId, long cents, String currency,
+            String idempotencyKey, Instant createdOn) {
+        this.txId = txId;
+        this.fromAccountId = fromAccountId;
+        this.toAccountId = toAccountId;
+        this.cents = cents;
+        this.amount = BigDecimal.valueOf(cents, 2);
+        this.currency = currency;
+        this.idempotencyKey = idempotencyKey;
+        this.createdOn = createdOn;
+    }
+
+    LedgerRecord record(LedgerRecord.Type type) {
+        return new LedgerRecord(type, txId, fromAccountId, toAccountId, cents, createdOn.toEpochMilli(),
+                idempotencyKey, currency);
+    }
+
+    void mark(LedgerJournal journal, long segment) {
+        journals[marks] = journal;
+        segments[marks] = segment;
+        marks++;
+    }
+
+    void settle() {
+        for (int i = 0; i < marks; i++) {
+            journals[i].settle(segments[i]);
+        }
+        marks = 0;
+    }
+
+    LedgerEntry entry(TransactionStatus status, Exception failure) {
+        return new LedgerEntry(txId, idempotencyKey, fromAccountId, toAccountId, cents, currency, status,
+                failure == null ? null : failure.getMessage(), TransferFailureCode.of(failure), createdOn);
+    }
+
+    TransferResponse successResponse() {
+        return new TransferResponse(SnowflakeIdGenerator.toKey(txId), String.valueOf(fromAccountId),
+                String.valueOf(toAccountId), amount, currency, TransactionStatus.SUCCESS,
+                "Transfer completed successfully", idempotencyKey, createdOn);
+    }
+}
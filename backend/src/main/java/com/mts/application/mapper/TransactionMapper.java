@@ -2,6 +2,8 @@ package com.mts.application.mapper;
 
 import com.mts.application.entities.TransactionLog;
 import com.mts.domain.dto.TransactionLogResponse;
+import com.mts.domain.dto.TransferResponse;
+import com.mts.domain.enums.TransactionStatus;
 
 public final class TransactionMapper {
     private TransactionMapper() {}
@@ -20,4 +22,29 @@ public final class TransactionMapper {
                 entity.getCreatedOn()
         );
     }
+
+    /** Rebuilds the response the transfer originally returned, from its log row. */
+    public static TransferResponse toTransferResponse(TransactionLog entity) {
+        if (entity == null) return null;
+        String message;
+        if (entity.getStatus() == TransactionStatus.SUCCESS) {
+            message = "Transfer completed successfully";
+        } else if (entity.getStatus() == TransactionStatus.PENDING) {
+            message = "Transfer requires approval";
+        } else {
+            message = entity.getFailureReason();
+        }
+        return new TransferResponse(
+                entity.getId(),
+                String.valueOf(entity.getFromAccountId()),
+                String.valueOf(entity.getToAccountId()),
+                entity.getAmount(),
+                entity.getCurrency(),
+                entity.getStatus(),
+                message,
+                entity.getIdempotencyKey(),
+                entity.getCreatedOn(),
+                entity.getFailureCode()
+        );
+    }
 }
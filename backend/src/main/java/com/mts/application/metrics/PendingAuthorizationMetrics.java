@@ -0,0 +1,37 @@
+package com.mts.application.metrics;
+
+import com.mts.application.repository.TransferAuthorizationRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * {@code transfer.authorizations.pending} gauge: transfers waiting for admin approval. The count is
+ * refreshed on a schedule rather than on every scrape, so scrapes never reach the database.
+ */
+@Component
+public class PendingAuthorizationMetrics implements MeterBinder {
+
+    private final TransferAuthorizationRepository transferAuthorizationRepository;
+    private final AtomicLong pending = new AtomicLong();
+
+    public PendingAuthorizationMetrics(TransferAuthorizationRepository transferAuthorizationRepository) {
+        this.transferAuthorizationRepository = transferAuthorizationRepository;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("transfer.authorizations.pending", pending, AtomicLong::get)
+                .description("Transfer authorizations in PENDING state")
+                .register(registry);
+    }
+
+    @Scheduled(fixedDelayString = "${transfer.metrics.pending-refresh-ms:30000}")
+    public void refresh() {
+        pending.set(transferAuthorizationRepository.countByStatus("PENDING"));
+    }
+}
@@ -0,0 +1,102 @@
+package com.mts.application.metrics;
+
+import com.mts.application.metrics.jfr.TransferEvents;
+import com.mts.domain.enums.TransactionStatus;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Meters for the transfer pipeline:
+ *
+ * <ul>
+ *   <li>{@code transfer.stage} timer per {@link Stage}, with a percentile histogram, so per-stage p50/p99
+ *       can be compared under load;</li>
+ *   <li>{@code transfer.attempt} timer per transactional attempt (commit included) by outcome;</li>
+ *   <li>{@code transfer.outcome} counter by final {@link TransactionStatus}, {@code transfer.errors} by
+ *       exception type, and {@code transfer.conflicts} for optimistic-lock / lock-wait conflicts.</li>
+ * </ul>
+ */
+@Component
+public class TransferMetrics {
+
+    public enum Stage {
+        IDEMPOTENCY_CHECK("idempotency_check"),
+        PENDING_INSERT("pending_insert"),
+        VALIDATION("validation"),
+        LIMIT_CHECK("limit_check"),
+        BALANCE_FLUSH("balance_flush"),
+        LOG_WRITE("log_write");
+
+        private final String tag;
+
+        Stage(String tag) {
+            this.tag = tag;
+        }
+    }
+
+    private final MeterRegistry registry;
+    private final Map<Stage, Timer> stageTimers = new EnumMap<>(Stage.class);
+    private final Map<TransactionStatus, Counter> outcomes = new EnumMap<>(TransactionStatus.class);
+    private final Counter conflicts;
+
+    public TransferMetrics(MeterRegistry registry) {
+        this.registry = registry;
+        for (Stage stage : Stage.values()) {
+            stageTimers.put(stage, Timer.builder("transfer.stage")
+                    .description("Time spent in one stage of TransferServiceImpl.transfer")
+                    .tag("stage", stage.tag)
+                    .publishPercentiles(0.5, 0.95, 0.99)
+                    .publishPercentileHistogram()
+                    .register(registry));
+        }
+        for (TransactionStatus status : TransactionStatus.values()) {
+            outcomes.put(status, Counter.builder("transfer.outcome")
+                    .description("Transfers by final status")
+                    .tag("status", status.name())
+                    .register(registry));
+        }
+        this.conflicts = Counter.builder("transfer.conflicts")
+                .description("Attempts that hit an optimistic-lock or lock-wait conflict")
+                .register(registry);
+    }
+
+    /**
+     * Records the time since {@code startNanos} (from {@link System#nanoTime()}) against the stage, and as a
+     * {@code com.mts.TransferStage} flight recorder event when a recording is running.
+     */
+    public void recordStage(Stage stage, long startNanos) {
+        long elapsed = System.nanoTime() - startNanos;
+        stageTimers.get(stage).record(elapsed, TimeUnit.NANOSECONDS);
+        TransferEvents.stage(stage.tag, elapsed);
+    }
+
+    public void recordAttempt(long startNanos, String outcome) {
+        Timer.builder("transfer.attempt")
+                .description("One transactional transfer attempt, commit included")
+                .tag("outcome", outcome)
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .publishPercentileHistogram()
+                .register(registry)
+                .record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordOutcome(TransactionStatus status) {
+        if (status != null) {
+            outcomes.get(status).increment();
+        }
+    }
+
+    public void recordError(Throwable error) {
+        registry.counter("transfer.errors", "exception", error.getClass().getSimpleName()).increment();
+    }
+
+    public void recordConflict() {
+        conflicts.increment();
+    }
+}
@@ -0,0 +1,22 @@
+package com.mts.application.metrics.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("com.mts.ApprovalRouted")
+@Label("Approval Routed")
+@Category({"MTS", "Transfer"})
+@Description("A transfer over the global limit, left PENDING for admin approval")
+@StackTrace(false)
+class ApprovalRoutedEvent extends Event {
+
+    @Label("Transaction Id")
+    String transactionId;
+
+    @Label("Amount")
+    String amount;
+}
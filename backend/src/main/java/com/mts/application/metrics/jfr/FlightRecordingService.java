@@ -0,0 +1,123 @@
+package com.mts.application.metrics.jfr;
+
+import com.mts.application.dto.FlightRecordingStatus;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * One on-demand flight recording at a time, started and stopped by an admin. Recordings are bounded by
+ * {@code profiling.recording.max-duration-seconds} (the JVM stops them itself when it elapses) and
+ * {@code profiling.recording.max-size-mb} of disk; the stopped recording is dumped to a temporary
+ * {@code .jfr} file for the caller to stream and delete.
+ */
+@Service
+public class FlightRecordingService {
+
+    private static final Logger logger = LoggerFactory.getLogger(FlightRecordingService.class);
+
+    // JDK-provided event settings; "profile" adds allocation and method sampling at roughly 2% overhead
+    private static final Set<String> SETTINGS = Set.of("default", "profile");
+
+    private final long maxDurationSeconds;
+    private final long maxSizeBytes;
+
+    private Recording recording;
+    private String settings;
+
+    public FlightRecordingService(@Value("${profiling.recording.max-duration-seconds:300}") long maxDurationSeconds,
+            @Value("${profiling.recording.max-size-mb:100}") long maxSizeMb) {
+        this.maxDurationSeconds = maxDurationSeconds;
+        this.maxSizeBytes = maxSizeMb * 1024 * 1024;
+    }
+
+    /** Starts a recording, or returns empty if one is already in progress. */
+    public synchronized Optional<FlightRecordingStatus> start(Long durationSeconds, String settings)
+            throws IOException, ParseException {
+        if (recording != null) {
+            return Optional.empty();
+        }
+        if (!SETTINGS.contains(settings)) {
+            throw new IllegalArgumentException("settings must be one of " + SETTINGS);
+        }
+        long seconds = durationSeconds == null ? maxDurationSeconds : durationSeconds;
+        if (seconds <= 0 || seconds > maxDurationSeconds) {
+            throw new IllegalArgumentException("durationSeconds must be between 1 and " + maxDurationSeconds);
+        }
+
+        Recording started = new Recording(Configuration.getConfiguration(settings));
+        started.setName("mts-admin-recording");
+        started.setToDisk(true);
+        started.setDuration(Duration.ofSeconds(seconds));
+        started.setMaxSize(maxSizeBytes);
+        started.enable(TransferStageEvent.class);
+        started.enable(TransferConflictEvent.class);
+        started.enable(IdempotencyHitEvent.class);
+        started.enable(ApprovalRoutedEvent.class);
+        started.start();
+
+        this.recording = started;
+        this.settings = settings;
+        logger.info("Started flight recording {} ({} settings, {} s)", started.getId(), settings, seconds);
+        return Optional.of(toStatus(started));
+    }
+
+    public synchronized Optional<FlightRecordingStatus> status() {
+        return Optional.ofNullable(recording).map(this::toStatus);
+    }
+
+    /**
+     * Stops the current recording (if its duration has not already) and dumps it to a temporary file, which
+     * the caller must delete. Empty if no recording was started.
+     */
+    public synchronized Optional<Path> stop() throws IOException {
+        if (recording == null) {
+            return Optional.empty();
+        }
+        Recording stopped = recording;
+        recording = null;
+        Path file = null;
+        boolean handedOver = false;
+        try {
+            if (stopped.getState() == RecordingState.RUNNING) {
+                stopped.stop();
+            }
+            file = Files.createTempFile("mts-recording-" + stopped.getId() + "-", ".jfr");
+            stopped.dump(file);
+            logger.info("Stopped flight recording {} ({} bytes)", stopped.getId(), Files.size(file));
+            handedOver = true;
+            return Optional.of(file);
+        } finally {
+            stopped.close();
+            // A failed dump leaves a partial file nobody else knows about
+            if (!handedOver && file != null) {
+                deleteQuietly(file);
+            }
+        }
+    }
+
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            logger.warn("Could not delete temporary recording {}", file, e);
+        }
+    }
+
+    private FlightRecordingStatus toStatus(Recording r) {
+        return new FlightRecordingStatus(r.getId(), r.getState().name(), settings, r.getStartTime(),
+                r.getDuration() != null ? r.getDuration().toSeconds() : 0, r.getMaxSize());
+    }
+}
@@ -0,0 +1,27 @@
+package com.mts.application.metrics.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("com.mts.IdempotencyHit")
+@Label("Idempotency Hit")
+@Category({"MTS", "Transfer"})
+@Description("A transfer whose idempotency key had already been used")
+@StackTrace(false)
+class IdempotencyHitEvent extends Event {
+
+    @Label("Idempotency Key")
+    String idempotencyKey;
+
+    @Label("Source")
+    @Description("Where the earlier use was found: response-cache or database")
+    String source;
+
+    @Label("Replayed")
+    @Description("Whether the original response was returned to the caller")
+    boolean replayed;
+}
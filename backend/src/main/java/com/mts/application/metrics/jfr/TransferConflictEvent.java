@@ -0,0 +1,25 @@
+package com.mts.application.metrics.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("com.mts.TransferConflict")
+@Label("Transfer Conflict")
+@Category({"MTS", "Transfer"})
+@Description("A transfer attempt that hit an optimistic-lock or lock-wait conflict")
+@StackTrace(false)
+class TransferConflictEvent extends Event {
+
+    @Label("Idempotency Key")
+    String idempotencyKey;
+
+    @Label("Attempt")
+    int attempt;
+
+    @Label("Exception")
+    String exception;
+}
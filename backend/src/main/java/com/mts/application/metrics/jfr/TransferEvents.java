@@ -0,0 +1,52 @@
+package com.mts.application.metrics.jfr;
+
+import java.math.BigDecimal;
+
+/**
+ * JDK Flight Recorder events for the transfer pipeline. Each method checks {@code isEnabled()} before
+ * filling in fields, so with no recording running (or the event disabled in its settings) a call costs an
+ * allocation the JIT normally eliminates and a flag read.
+ */
+public final class TransferEvents {
+
+    private TransferEvents() {
+    }
+
+    public static void stage(String stage, long elapsedNanos) {
+        TransferStageEvent event = new TransferStageEvent();
+        if (event.isEnabled()) {
+            event.stage = stage;
+            event.elapsed = elapsedNanos;
+            event.commit();
+        }
+    }
+
+    public static void conflict(String idempotencyKey, int attempt, Throwable error) {
+        TransferConflictEvent event = new TransferConflictEvent();
+        if (event.isEnabled()) {
+            event.idempotencyKey = idempotencyKey;
+            event.attempt = attempt;
+            event.exception = error.getClass().getSimpleName();
+            event.commit();
+        }
+    }
+
+    public static void idempotencyHit(String idempotencyKey, String source, boolean replayed) {
+        IdempotencyHitEvent event = new IdempotencyHitEvent();
+        if (event.isEnabled()) {
+            event.idempotencyKey = idempotencyKey;
+            event.source = source;
+            event.replayed = replayed;
+            event.commit();
+        }
+    }
+
+    public static void approvalRouted(String transactionId, BigDecimal amount) {
+        ApprovalRoutedEvent event = new ApprovalRoutedEvent();
+        if (event.isEnabled()) {
+            event.transactionId = transactionId;
+            event.amount = amount != null ? amount.toPlainString() : null;
+            event.commit();
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.mts.application.metrics.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+@Name("com.mts.TransferStage")
+@Label("Transfer Stage")
+@Category({"MTS", "Transfer"})
+@Description("One stage of TransferServiceImpl.transfer")
+@StackTrace(false)
+class TransferStageEvent extends Event {
+
+    @Label("Stage")
+    String stage;
+
+    @Label("Elapsed")
+    @Timespan(Timespan.NANOSECONDS)
+    long elapsed;
+}
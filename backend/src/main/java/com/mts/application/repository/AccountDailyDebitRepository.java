@@ -0,0 +1,56 @@
+package com.mts.application.repository;
+
+import com.mts.application.entities.AccountDailyDebit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface AccountDailyDebitRepository extends JpaRepository<AccountDailyDebit, AccountDailyDebit.Key> {
+
+    List<AccountDailyDebit> findByBusinessDate(LocalDate businessDate);
+
+    /** Adds to the account's bucket for the day, creating it on the first debit; a negative amount takes one back. */
+    @Modifying
+    @Query(value = "insert into account_daily_debits (account_id, business_date, debited) values (:accountId, :day, :amount) "
+            + "on duplicate key update debited = debited + :amount", nativeQuery = true)
+    int addDebit(@Param("accountId") Long accountId, @Param("day") LocalDate day, @Param("amount") BigDecimal amount);
+
+    /**
+     * Adds to the account's existing bucket for the day unless that would take it over {@code limit} (null
+     * for no limit). Returns 0 if there is no bucket yet or the debit does not fit.
+     */
+    @Modifying
+    @Query(value = "update account_daily_debits set debited = debited + :amount "
+            + "where account_id = :accountId and business_date = :day and (:limit is null or debited + :amount <= :limit)",
+            nativeQuery = true)
+    int addDebitWithinLimit(@Param("accountId") Long accountId, @Param("day") LocalDate day,
+            @Param("amount") BigDecimal amount, @Param("limit") BigDecimal limit);
+
+    /**
+     * Creates the account's bucket for the day with its first debit, if the debit fits {@code limit}.
+     * Returns 0 if the bucket already exists (another transaction may just have created it) or it does not fit.
+     */
+    @Modifying
+    @Query(value = "insert ignore into account_daily_debits (account_id, business_date, debited) "
+            + "select :accountId, :day, :amount from dual where :limit is null or :amount <= :limit", nativeQuery = true)
+    int insertDebitWithinLimit(@Param("accountId") Long accountId, @Param("day") LocalDate day,
+            @Param("amount") BigDecimal amount, @Param("limit") BigDecimal limit);
+
+    /** Creates the account's bucket for the day with {@code debited}; returns 0 and leaves it alone if it exists. */
+    @Modifying
+    @Query(value = "insert ignore into account_daily_debits (account_id, business_date, debited) "
+            + "values (:accountId, :day, :debited)", nativeQuery = true)
+    int insertIfAbsent(@Param("accountId") Long accountId, @Param("day") LocalDate day,
+            @Param("debited") BigDecimal debited);
+
+    @Modifying
+    @Query("delete from AccountDailyDebit d where d.businessDate < :before")
+    int deleteBefore(@Param("before") LocalDate before);
+}
@@ -1,10 +1,69 @@
 package com.mts.application.repository;
 
 import com.mts.application.entities.Account;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
 @Repository
 public interface AccountRepository extends JpaRepository<Account, Long> {
     java.util.List<Account> findByHolderName(String holderName);
-}
\ No newline at end of file
+
+    /**
+     * Conditional debit: only succeeds when the account is ACTIVE and holds at least {@code amount}.
+     * Bumps the version so concurrent entity-based writers still see the change as a conflict.
+     *
+     * @return number of rows updated (0 when the account is missing, inactive or underfunded)
+     */
+    @Modifying
+    @Query("update Account a set a.balance = a.balance - :amount, a.version = a.version + 1, a.lastUpdated = :now "
+            + "where a.id = :id and a.status = com.mts.domain.enums.AccountStatus.ACTIVE and a.balance >= :amount")
+    int debitIfSufficient(@Param("id") Long id, @Param("amount") BigDecimal amount, @Param("now") Instant now);
+
+    /**
+     * Conditional credit: only succeeds when the account is ACTIVE.
+     *
+     * @return number of rows updated (0 when the account is missing or inactive)
+     */
+    @Modifying
+    @Query("update Account a set a.balance = a.balance + :amount, a.version = a.version + 1, a.lastUpdated = :now "
+            + "where a.id = :id and a.status = com.mts.domain.enums.AccountStatus.ACTIVE")
+    int creditIfActive(@Param("id") Long id, @Param("amount") BigDecimal amount, @Param("now") Instant now);
+
+    /** Unconditional balance change, for writers that have already validated the debit themselves. */
+    @Modifying
+    @Query("update Account a set a.balance = a.balance + :delta, a.version = a.version + 1, a.lastUpdated = :now "
+            + "where a.id = :id")
+    int adjustBalance(@Param("id") Long id, @Param("delta") BigDecimal delta, @Param("now") Instant now);
+
+    /**
+     * Loads the account with {@code SELECT ... FOR UPDATE}. Callers locking more than one account
+     * must do so in ascending id order to stay deadlock-free.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select a from Account a where a.id = :id")
+    Optional<Account> findByIdForUpdate(@Param("id") Long id);
+
+    /** Batch variant of {@link #findByIdForUpdate}: rows are read and locked in ascending id order. */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select a from Account a where a.id in :ids order by a.id")
+    List<Account> findAllByIdForUpdate(@Param("ids") Collection<Long> ids);
+
+    /** (id, dailyLimit) of every account that has a daily limit. */
+    @Query("select a.id, a.dailyLimit from Account a where a.dailyLimit is not null")
+    List<Object[]> findDailyLimits();
+
+    /** (id, dailyLimit) of every account whose daily limit was changed at or after {@code since}. */
+    @Query("select a.id, a.dailyLimit from Account a where a.dailyLimitChangedOn >= :since")
+    List<Object[]> findDailyLimitsChangedSince(@Param("since") Instant since);
+}
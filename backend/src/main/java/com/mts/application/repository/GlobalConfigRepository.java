@@ -1,9 +1,22 @@
 package com.mts.application.repository;
 
+import com.mts.application.dto.TransferLimits;
 import com.mts.application.entities.GlobalConfig;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Optional;
+
 @Repository
 public interface GlobalConfigRepository extends JpaRepository<GlobalConfig, String> {
+
+    /** Primary-key read of the version column alone; bypasses the entity cache so other instances' writes show. */
+    @Query("select g.version from GlobalConfig g where g.id = :id")
+    Optional<Long> findVersionById(@Param("id") String id);
+
+    @Query("select new com.mts.application.dto.TransferLimits(g.version, g.globalTransferLimit) "
+            + "from GlobalConfig g where g.id = :id")
+    Optional<TransferLimits> findLimitsById(@Param("id") String id);
 }
@@ -0,0 +1,23 @@
+package com.mts.application.repository;
+
+import com.mts.application.entities.RevokedToken;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+
+@Repository
+public interface RevokedTokenRepository extends JpaRepository<RevokedToken, String> {
+
+    List<RevokedToken> findByExpiresAtAfter(Instant now);
+
+    List<RevokedToken> findByRevokedAtAfter(Instant since);
+
+    @Modifying
+    @Query("delete from RevokedToken r where r.expiresAt <= :now")
+    int deleteExpired(@Param("now") Instant now);
+}
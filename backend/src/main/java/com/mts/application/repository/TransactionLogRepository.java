@@ -1,15 +1,90 @@
 package com.mts.application.repository;
 
 import com.mts.application.entities.TransactionLog;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface TransactionLogRepository
         extends JpaRepository<TransactionLog, String>, JpaSpecificationExecutor<TransactionLog> {
 
+    /**
+     * Filters shared by both history branches; every one is optional. The keyset condition continues after
+     * {@code (afterCreatedOn, afterId)} in {@code created_on desc, id desc} order. With the account equality
+     * in front, each branch is a backward range scan of its composite index with no filesort
+     * (asserted by TransactionHistoryQueryPlanIT).
+     */
+    String HISTORY_FILTERS = " and (:status is null or status = :status)"
+            + " and (:from is null or created_on >= :from)"
+            + " and (:to is null or created_on <= :to)"
+            + " and (:afterCreatedOn is null or created_on < :afterCreatedOn"
+            + " or (created_on = :afterCreatedOn and id < :afterId))"
+            + " order by created_on desc, id desc limit :limit";
+
+    /** Served by {@code idx_tx_from_created_id}. */
+    String SENT_HISTORY_SQL = "select * from transaction_logs where from_account_id = :accountId" + HISTORY_FILTERS;
+
+    /** Served by {@code idx_tx_to_created_id}. */
+    String RECEIVED_HISTORY_SQL = "select * from transaction_logs where to_account_id = :accountId" + HISTORY_FILTERS;
+
     Optional<TransactionLog> findByIdempotencyKey(String idempotencyKey);
+
+    /**
+     * {@link #findByIdempotencyKey} in a transaction of its own, for a caller whose transaction cannot see a
+     * row committed after its snapshot (or is already rolling back). The entity comes back detached.
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW, readOnly = true)
+    @Query("select t from TransactionLog t where t.idempotencyKey = :key")
+    Optional<TransactionLog> findCommittedByIdempotencyKey(@Param("key") String idempotencyKey);
+
+    @Query(value = SENT_HISTORY_SQL, nativeQuery = true)
+    List<TransactionLog> findSentHistory(@Param("accountId") Long accountId, @Param("status") String status,
+            @Param("from") Instant from, @Param("to") Instant to, @Param("afterCreatedOn") Instant afterCreatedOn,
+            @Param("afterId") String afterId, @Param("limit") int limit);
+
+    @Query(value = RECEIVED_HISTORY_SQL, nativeQuery = true)
+    List<TransactionLog> findReceivedHistory(@Param("accountId") Long accountId, @Param("status") String status,
+            @Param("from") Instant from, @Param("to") Instant to, @Param("afterCreatedOn") Instant afterCreatedOn,
+            @Param("afterId") String afterId, @Param("limit") int limit);
+
+    List<TransactionLog> findAllByIdempotencyKeyIn(Collection<String> idempotencyKeys);
+
+    /**
+     * {@code [idempotencyKey, createdOn]} rows, streamed row by row (MySQL Connector/J streams when the fetch
+     * size is Integer.MIN_VALUE); needs a transaction.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + Integer.MIN_VALUE))
+    @Query("select t.idempotencyKey, t.createdOn from TransactionLog t where t.createdOn >= :since")
+    Stream<Object[]> streamIdempotencyKeysSince(@Param("since") Instant since);
+
+    /**
+     * Moves a FAILED row with the given failure reason back to PENDING.
+     *
+     * @return 1 if this caller re-opened the row, 0 if it was not (or no longer) in that state
+     */
+    @Modifying
+    @Query("update TransactionLog t set t.status = com.mts.domain.enums.TransactionStatus.PENDING, t.failureReason = null "
+            + "where t.id = :id and t.status = com.mts.domain.enums.TransactionStatus.FAILED and t.failureReason = :reason")
+    int reopenFailed(@Param("id") String id, @Param("reason") String reason);
+
+    /** (fromAccountId, total) of SUCCESS transfers created at or after {@code since}, per source account. */
+    @Query("select t.fromAccountId, sum(t.amount) from TransactionLog t "
+            + "where t.status = com.mts.domain.enums.TransactionStatus.SUCCESS and t.createdOn >= :since "
+            + "group by t.fromAccountId")
+    List<Object[]> sumSuccessfulDebitsSince(@Param("since") Instant since);
 }
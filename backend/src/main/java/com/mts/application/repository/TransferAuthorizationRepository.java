@@ -9,4 +9,6 @@ import java.util.List;
 @Repository
 public interface TransferAuthorizationRepository extends JpaRepository<TransferAuthorization, Long> {
     List<TransferAuthorization> findByStatus(String status);
+
+    long countByStatus(String status);
 }
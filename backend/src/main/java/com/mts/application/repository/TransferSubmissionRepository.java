@@ -0,0 +1,71 @@
+package com.mts.application.repository;
+
+import com.mts.application.entities.TransferSubmission;
+import com.mts.domain.enums.SubmissionStatus;
+import com.mts.domain.enums.TransactionStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * The queue operations are single statements in their own transaction: a claim marks up to {@code limit}
+ * of the oldest QUEUED rows with the caller's token in one UPDATE, so concurrent drains (on this or other
+ * instances) never pick the same row, and no lock is held while the transfers run.
+ */
+@Repository
+public interface TransferSubmissionRepository extends JpaRepository<TransferSubmission, String> {
+
+    Optional<TransferSubmission> findByIdempotencyKey(String idempotencyKey);
+
+    List<TransferSubmission> findByClaimTokenOrderById(String claimToken);
+
+    @Transactional
+    @Modifying
+    @Query(value = "update transfer_submissions set status = 'PROCESSING', claim_token = :token, claimed_at = :now, "
+            + "attempts = attempts + 1 where status = 'QUEUED' order by id limit :limit", nativeQuery = true)
+    int claim(@Param("token") String token, @Param("now") Instant now, @Param("limit") int limit);
+
+    @Transactional
+    @Modifying
+    @Query("update TransferSubmission s set s.status = com.mts.domain.enums.SubmissionStatus.COMPLETED, "
+            + "s.transactionId = :transactionId, s.transferStatus = :transferStatus, s.message = :message, "
+            + "s.completedAt = :now where s.id = :id and s.claimToken = :token "
+            + "and s.status = com.mts.domain.enums.SubmissionStatus.PROCESSING")
+    int complete(@Param("id") String id, @Param("token") String token, @Param("transactionId") String transactionId,
+            @Param("transferStatus") TransactionStatus transferStatus, @Param("message") String message,
+            @Param("now") Instant now);
+
+    @Transactional
+    @Modifying
+    @Query("update TransferSubmission s set s.status = com.mts.domain.enums.SubmissionStatus.FAILED, "
+            + "s.transferStatus = com.mts.domain.enums.TransactionStatus.FAILED, s.message = :message, "
+            + "s.completedAt = :now where s.id = :id and s.claimToken = :token "
+            + "and s.status = com.mts.domain.enums.SubmissionStatus.PROCESSING")
+    int fail(@Param("id") String id, @Param("token") String token, @Param("message") String message,
+            @Param("now") Instant now);
+
+    /** Puts a claimed row back for another drain, e.g. after a database error. */
+    @Transactional
+    @Modifying
+    @Query("update TransferSubmission s set s.status = com.mts.domain.enums.SubmissionStatus.QUEUED, "
+            + "s.claimToken = null, s.claimedAt = null where s.id = :id and s.claimToken = :token "
+            + "and s.status = com.mts.domain.enums.SubmissionStatus.PROCESSING")
+    int release(@Param("id") String id, @Param("token") String token);
+
+    /** Requeues rows whose worker went away (crash, shutdown) before recording an outcome. */
+    @Transactional
+    @Modifying
+    @Query("update TransferSubmission s set s.status = com.mts.domain.enums.SubmissionStatus.QUEUED, "
+            + "s.claimToken = null, s.claimedAt = null "
+            + "where s.status = com.mts.domain.enums.SubmissionStatus.PROCESSING and s.claimedAt < :before")
+    int requeueStale(@Param("before") Instant before);
+
+    long countByStatus(SubmissionStatus status);
+}
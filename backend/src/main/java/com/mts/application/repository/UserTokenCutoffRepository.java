@@ -0,0 +1,33 @@
+package com.mts.application.repository;
+
+import com.mts.application.entities.UserTokenCutoff;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+
+@Repository
+public interface UserTokenCutoffRepository extends JpaRepository<UserTokenCutoff, Long> {
+
+    List<UserTokenCutoff> findByNotBeforeAfter(Instant since);
+
+    /**
+     * Moves the user's cutoff forward to {@code notBefore} (never back), in a transaction of its own so it
+     * can be called once the change that caused it has committed.
+     */
+    @Modifying
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    @Query(value = "insert into user_token_cutoffs (user_id, not_before) values (:userId, :notBefore) "
+            + "on duplicate key update not_before = greatest(not_before, :notBefore)", nativeQuery = true)
+    int raise(@Param("userId") Long userId, @Param("notBefore") Instant notBefore);
+
+    @Modifying
+    @Query("delete from UserTokenCutoff c where c.notBefore < :before")
+    int deleteBefore(@Param("before") Instant before);
+}
@@ -1,10 +1,15 @@
 package com.mts.application.repository.spec;
 
+import com.mts.application.dto.TransactionFilter;
 import com.mts.application.entities.TransactionLog;
+import com.mts.domain.enums.Direction;
 import com.mts.domain.enums.TransactionStatus;
 import org.springframework.data.jpa.domain.Specification;
 
+import java.math.BigDecimal;
 import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
 
 public final class TransactionLogSpecs {
     private TransactionLogSpecs() {}
@@ -33,6 +38,88 @@ public final class TransactionLogSpecs {
         return (root, q, cb) -> status == null ? cb.conjunction() : cb.equal(root.get("status"), status);
     }
 
+    public static Specification<TransactionLog> amountAtLeast(BigDecimal min) {
+        return (root, q, cb) -> min == null ? cb.conjunction() : cb.greaterThanOrEqualTo(root.get("amount"), min);
+    }
+
+    public static Specification<TransactionLog> amountAtMost(BigDecimal max) {
+        return (root, q, cb) -> max == null ? cb.conjunction() : cb.lessThanOrEqualTo(root.get("amount"), max);
+    }
+
+    /**
+     * Keyset predicate for listings ordered by {@code (createdOn desc, id desc)}: rows strictly after the
+     * given position, i.e. {@code created_on < :createdOn or (created_on = :createdOn and id < :id)}.
+     */
+    public static Specification<TransactionLog> before(Instant createdOn, String id) {
+        return (root, q, cb) -> cb.or(
+                cb.lessThan(root.get("createdOn"), createdOn),
+                cb.and(cb.equal(root.get("createdOn"), createdOn), cb.lessThan(root.get("id"), id))
+        );
+    }
+
+    /** Account history as served by the history endpoints: one side or both, plus date and status filters. */
+    public static Specification<TransactionLog> history(Long accountId, Direction direction,
+            Instant from, Instant to, TransactionStatus status) {
+        Specification<TransactionLog> account;
+        if (direction == Direction.SENT) {
+            account = directionSentOnly(accountId);
+        } else if (direction == Direction.RECEIVED) {
+            account = directionReceivedOnly(accountId);
+        } else {
+            account = forAccount(accountId);
+        }
+        return Specification.where(account)
+                .and(createdOnFrom(from))
+                .and(createdOnTo(to))
+                .and(status(status));
+    }
+
+    /**
+     * Every criterion of an admin {@link TransactionFilter}; dates are read in the server time zone, as
+     * {@code AdminService} renders them.
+     */
+    public static Specification<TransactionLog> matching(TransactionFilter filter) {
+        return matching(filter, Direction.ALL);
+    }
+
+    /**
+     * As {@link #matching(TransactionFilter)}, with the account criterion restricted to one side so the
+     * query can use that side's {@code (account, created_on, id)} index.
+     */
+    public static Specification<TransactionLog> matching(TransactionFilter filter, Direction side) {
+        Long accountId = accountIdOf(filter);
+        Specification<TransactionLog> account;
+        if (side == Direction.SENT) {
+            account = directionSentOnly(accountId);
+        } else if (side == Direction.RECEIVED) {
+            account = directionReceivedOnly(accountId);
+        } else {
+            account = forAccount(accountId);
+        }
+        return Specification.where(account)
+                .and(status(filter.status()))
+                .and(amountAtLeast(filter.minAmount()))
+                .and(amountAtMost(filter.maxAmount()))
+                .and(createdOnFrom(toInstant(filter.fromDate())))
+                .and(createdOnTo(toInstant(filter.toDate())));
+    }
+
+    /** The filter's account id, or {@code null} when it does not filter by account. */
+    public static Long accountIdOf(TransactionFilter filter) {
+        if (filter.accountId() == null || filter.accountId().isBlank()) {
+            return null;
+        }
+        try {
+            return Long.valueOf(filter.accountId().trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid account id: " + filter.accountId());
+        }
+    }
+
+    private static Instant toInstant(LocalDateTime dateTime) {
+        return dateTime == null ? null : dateTime.atZone(ZoneId.systemDefault()).toInstant();
+    }
+
     public static Specification<TransactionLog> directionSentOnly(Long accountId) {
         if (accountId == null) return (root, q, cb) -> cb.conjunction();
         return (root, q, cb) -> cb.equal(root.get("fromAccountId"), accountId);
@@ -1,6 +1,9 @@
 package com.mts.application.security.jwt;
 
+import com.mts.application.security.services.TokenRevocationService;
+import com.mts.application.security.services.UserDetailsImpl;
 import com.mts.application.security.services.UserDetailsServiceImpl;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -29,16 +32,21 @@ public class AuthTokenFilter extends OncePerRequestFilter {
     @Autowired
     private UserDetailsServiceImpl userDetailsService;
 
+    @Autowired
+    private TokenRevocationService tokenRevocationService;
+
+    private static final int VERIFIED_TOKEN_CACHE_SIZE = 10_000;
+
+    private final VerifiedTokenCache verifiedTokenCache = new VerifiedTokenCache(VERIFIED_TOKEN_CACHE_SIZE);
+
     @Override
     protected void doFilterInternal(HttpServletRequest request,
                                     HttpServletResponse response,
                                     FilterChain filterChain) throws ServletException, IOException {
         try {
             String jwt = parseJwt(request);
-            if (jwt != null && jwtUtils.validateJwtToken(jwt)) {
-                String username = jwtUtils.getUserNameFromJwtToken(jwt);
-
-                UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+            UserDetails userDetails = jwt != null ? authenticate(jwt) : null;
+            if (userDetails != null && userDetails.isEnabled()) {
                 UsernamePasswordAuthenticationToken authentication =
                         new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
                 authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
@@ -52,6 +60,42 @@ public class AuthTokenFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
 
+    /**
+     * The principal for a token: from the verified-token cache, else from the token's own claims after a
+     * single verify-and-parse. Only tokens issued before roles were carried in the token hit the database.
+     * Revocation is checked on every request, cached or not, against the in-memory revocation list and the
+     * per-user cutoffs set when a user's roles or status change; a token revoked either way leaves the cache.
+     */
+    private UserDetails authenticate(String jwt) {
+        VerifiedTokenCache.VerifiedToken verified = verifiedTokenCache.get(jwt);
+        if (verified == null) {
+            Claims claims = jwtUtils.parseClaims(jwt);
+            if (claims == null) {
+                return null;
+            }
+            UserDetails userDetails = jwtUtils.getPrincipalFromClaims(claims);
+            if (userDetails == null) {
+                userDetails = userDetailsService.loadUserByUsername(claims.getSubject());
+            }
+            verified = new VerifiedTokenCache.VerifiedToken(userDetails, claims.getId(),
+                    claims.getIssuedAt() == null ? null : claims.getIssuedAt().toInstant(),
+                    claims.getExpiration().toInstant());
+            verifiedTokenCache.put(jwt, verified);
+        }
+        if (tokenRevocationService.isRevoked(verified.jti())) {
+            logger.debug("Rejected revoked token {}", verified.jti());
+            verifiedTokenCache.remove(jwt);
+            return null;
+        }
+        Long userId = verified.principal() instanceof UserDetailsImpl user ? user.getId() : null;
+        if (tokenRevocationService.isRevokedForUser(userId, verified.issuedAt())) {
+            logger.debug("Rejected token {} issued before user {} changed", verified.jti(), userId);
+            verifiedTokenCache.remove(jwt);
+            return null;
+        }
+        return verified.principal();
+    }
+
     private String parseJwt(HttpServletRequest request) {
         String headerAuth = request.getHeader("Authorization");
 
@@ -1,7 +1,9 @@
 package com.mts.application.security.jwt;
 
 import com.mts.application.security.services.UserDetailsImpl;
+import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.MalformedJwtException;
 import io.jsonwebtoken.SignatureAlgorithm;
@@ -11,15 +13,25 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.stereotype.Component;
 
+import java.security.Key;
 import java.util.Date;
+import java.util.List;
+import java.util.UUID;
 
 @Component
 public class JwtUtils {
 
     private static final Logger logger = LoggerFactory.getLogger(JwtUtils.class);
 
+    // Principal claims, so a request can be authenticated from the token alone
+    static final String CLAIM_USER_ID = "uid";
+    static final String CLAIM_ROLES = "roles";
+    static final String CLAIM_ENABLED = "enabled";
+
     @Value("${security.jwt.secret}")
     private String jwtSecret;
 
@@ -27,8 +39,20 @@ public class JwtUtils {
     @Value("${security.jwt.expiry-minutes:30}")
     private long jwtExpiryMinutes;
 
-    private java.security.Key getSignInKey() {
-        return io.jsonwebtoken.security.Keys.hmacShaKeyFor(io.jsonwebtoken.io.Decoders.BASE64.decode(jwtSecret));
+    private volatile SigningKey signingKey;
+
+    /** Decoded key and its parser, built once per configured secret instead of on every call. */
+    private record SigningKey(String secret, Key key, JwtParser parser) {
+    }
+
+    private SigningKey signingKey() {
+        SigningKey current = signingKey;
+        if (current == null || !current.secret().equals(jwtSecret)) {
+            Key key = io.jsonwebtoken.security.Keys.hmacShaKeyFor(io.jsonwebtoken.io.Decoders.BASE64.decode(jwtSecret));
+            current = new SigningKey(jwtSecret, key, Jwts.parserBuilder().setSigningKey(key).build());
+            signingKey = current;
+        }
+        return current;
     }
 
     public String generateJwtToken(Authentication authentication) {
@@ -38,27 +62,37 @@ public class JwtUtils {
         long ttlMs = jwtExpiryMinutes * 60_000L;
         Date expiry = new Date(now.getTime() + ttlMs);
 
+        List<String> roles = userPrincipal.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .toList();
+
         return Jwts.builder()
+                .setId(UUID.randomUUID().toString())
                 .setSubject(userPrincipal.getUsername())
+                .claim(CLAIM_USER_ID, userPrincipal.getId())
+                .claim(CLAIM_ROLES, roles)
+                .claim(CLAIM_ENABLED, userPrincipal.isEnabled())
                 .setIssuedAt(now)
                 .setExpiration(expiry)
-                .signWith(getSignInKey(), SignatureAlgorithm.HS512)
+                .signWith(signingKey().key(), SignatureAlgorithm.HS512)
                 .compact();
     }
 
     public String getUserNameFromJwtToken(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSignInKey())
-                .build()
+        return signingKey().parser()
                 .parseClaimsJws(token)
                 .getBody()
                 .getSubject();
     }
 
     public boolean validateJwtToken(String authToken) {
+        return parseClaims(authToken) != null;
+    }
+
+    /** Verifies the signature and expiry and returns the claims in one pass, or null if the token is invalid. */
+    public Claims parseClaims(String authToken) {
         try {
-            Jwts.parserBuilder().setSigningKey(getSignInKey()).build().parseClaimsJws(authToken);
-            return true;
+            return signingKey().parser().parseClaimsJws(authToken).getBody();
         } catch (SignatureException e) {
             logger.error("Invalid JWT signature: {}", e.getMessage());
         } catch (MalformedJwtException e) {
@@ -70,6 +104,23 @@ public class JwtUtils {
         } catch (IllegalArgumentException e) {
             logger.error("JWT claims string is empty: {}", e.getMessage());
         }
-        return false;
+        return null;
+    }
+
+    /**
+     * The principal carried by verified claims, or null for tokens issued before roles were put in the
+     * token; those still need a user lookup.
+     */
+    public UserDetailsImpl getPrincipalFromClaims(Claims claims) {
+        List<?> roles = claims.get(CLAIM_ROLES, List.class);
+        Long userId = claims.get(CLAIM_USER_ID, Long.class);
+        if (roles == null || userId == null) {
+            return null;
+        }
+        List<GrantedAuthority> authorities = roles.stream()
+                .map(role -> (GrantedAuthority) new SimpleGrantedAuthority(String.valueOf(role)))
+                .toList();
+        return new UserDetailsImpl(userId, claims.getSubject(), null, authorities,
+                !Boolean.FALSE.equals(claims.get(CLAIM_ENABLED, Boolean.class)));
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,80 @@
+package com.mts.application.security.jwt;
+
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Principals of recently verified tokens, so a client sending the same bearer token again skips the
+ * HMAC check and claim parsing. Entries are keyed by the SHA-256 of the token (the token itself is not
+ * kept) and are only returned until the token's own expiry.
+ */
+class VerifiedTokenCache {
+
+    /**
+     * A verified token's principal, id ({@code jti}, null for tokens issued without one), issue time (null
+     * when absent) and expiry.
+     */
+    record VerifiedToken(UserDetails principal, String jti, Instant issuedAt, Instant expiresAt) {
+    }
+
+    private final Map<String, VerifiedToken> entries;
+
+    VerifiedTokenCache(int maxSize) {
+        this.entries = new LinkedHashMap<>(Math.min(maxSize, 1 << 16), 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, VerifiedToken> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    /** The verified token, or null when absent or the token has expired since. */
+    VerifiedToken get(String token) {
+        String key = hash(token);
+        synchronized (entries) {
+            VerifiedToken entry = entries.get(key);
+            if (entry == null) {
+                return null;
+            }
+            if (!entry.expiresAt().isAfter(Instant.now())) {
+                entries.remove(key);
+                return null;
+            }
+            return entry;
+        }
+    }
+
+    void put(String token, VerifiedToken verified) {
+        if (verified.expiresAt() == null || !verified.expiresAt().isAfter(Instant.now())) {
+            return;
+        }
+        String key = hash(token);
+        synchronized (entries) {
+            entries.put(key, verified);
+        }
+    }
+
+    /** Forgets the token, so it is verified again if it is ever accepted. */
+    void remove(String token) {
+        String key = hash(token);
+        synchronized (entries) {
+            entries.remove(key);
+        }
+    }
+
+    private static String hash(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
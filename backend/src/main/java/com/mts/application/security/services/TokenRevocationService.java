@@ -0,0 +1,195 @@
+package com.mts.application.security.services;
+
+import com.mts.application.cache.ScalableBloomFilter;
+import com.mts.application.entities.RevokedToken;
+import com.mts.application.entities.UserTokenCutoff;
+import com.mts.application.repository.RevokedTokenRepository;
+import com.mts.application.repository.UserTokenCutoffRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Revoked token ids ({@code jti}) checked on every authenticated request without a database read.
+ *
+ * <p>{@code revoked_tokens} is the shared record; each instance keeps a Bloom filter in front of an exact
+ * jti -> expiry map, loaded at startup and topped up every {@code security.jwt.revocation.refresh-ms} with
+ * rows revoked since the last refresh (re-reading a short overlap, since rows from other instances may
+ * commit late). Entries are purged, and the filter rebuilt, once their token has expired; an expired token
+ * is rejected by its own {@code exp} claim anyway.
+ *
+ * <p>Role and status changes revoke a user's tokens wholesale: {@code user_token_cutoffs} holds, per user, an
+ * instant at or before which their tokens are rejected, since such tokens carry stale claims. The cutoffs are
+ * held in memory the same way, refreshed with the same overlap, and dropped one token lifetime later.
+ */
+@Service
+public class TokenRevocationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TokenRevocationService.class);
+
+    // Rows revoked on other instances may commit up to this long after their revoked_at
+    private static final Duration REFRESH_OVERLAP = Duration.ofSeconds(10);
+
+    private final RevokedTokenRepository revokedTokenRepository;
+    private final UserTokenCutoffRepository userTokenCutoffRepository;
+    private final long expectedTokens;
+    private final double falsePositiveRate;
+    private final Duration tokenLifetime;
+
+    private final Map<String, Instant> revoked = new ConcurrentHashMap<>();
+    private final Map<Long, Instant> userCutoffs = new ConcurrentHashMap<>();
+    private volatile ScalableBloomFilter filter;
+    private volatile Instant lastRefresh;
+
+    public TokenRevocationService(RevokedTokenRepository revokedTokenRepository,
+            UserTokenCutoffRepository userTokenCutoffRepository,
+            @Value("${security.jwt.revocation.expected-tokens:10000}") long expectedTokens,
+            @Value("${security.jwt.revocation.false-positive-rate:0.001}") double falsePositiveRate,
+            @Value("${security.jwt.expiry-minutes:30}") long expiryMinutes) {
+        this.revokedTokenRepository = revokedTokenRepository;
+        this.userTokenCutoffRepository = userTokenCutoffRepository;
+        this.expectedTokens = expectedTokens;
+        this.falsePositiveRate = falsePositiveRate;
+        this.tokenLifetime = Duration.ofMinutes(expiryMinutes);
+        this.filter = new ScalableBloomFilter(expectedTokens, falsePositiveRate);
+    }
+
+    public boolean isRevoked(String jti) {
+        if (jti == null || !filter.mightContain(jti)) {
+            return false;
+        }
+        return revoked.containsKey(jti);
+    }
+
+    /**
+     * Whether the user's tokens issued at {@code issuedAt} were revoked by a later change to the user. A token
+     * without an {@code iat} claim is treated as issued before any cutoff.
+     */
+    public boolean isRevokedForUser(Long userId, Instant issuedAt) {
+        if (userId == null) {
+            return false;
+        }
+        Instant cutoff = userCutoffs.get(userId);
+        return cutoff != null && (issuedAt == null || !issuedAt.isAfter(cutoff));
+    }
+
+    /**
+     * Revokes every token issued to the user so far, once the surrounding transaction commits (at once when
+     * there is none), so a token issued in between cannot carry the old roles or status.
+     */
+    public void revokeUserTokensAfterCommit(Long userId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            revokeUserTokens(userId);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                revokeUserTokens(userId);
+            }
+        });
+    }
+
+    /** Revokes the user's tokens on this instance now and records the cutoff for the others. */
+    public void revokeUserTokens(Long userId) {
+        if (userId == null) {
+            return;
+        }
+        // iat has second precision: tokens issued within this second are rejected too, before or after
+        Instant cutoff = Instant.now().truncatedTo(ChronoUnit.SECONDS);
+        rememberCutoff(userId, cutoff);
+        userTokenCutoffRepository.raise(userId, cutoff);
+    }
+
+    /** Revokes the token on this instance now and records it for the others. */
+    @Transactional
+    public void revoke(String jti, Instant expiresAt) {
+        if (jti == null || expiresAt == null || !expiresAt.isAfter(Instant.now())) {
+            return;
+        }
+        revokedTokenRepository.save(new RevokedToken(jti, expiresAt, Instant.now()));
+        remember(jti, expiresAt);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void load() {
+        Instant now = Instant.now();
+        List<RevokedToken> rows = revokedTokenRepository.findByExpiresAtAfter(now);
+        rows.forEach(row -> remember(row.getJti(), row.getExpiresAt()));
+        List<UserTokenCutoff> cutoffs = userTokenCutoffRepository.findByNotBeforeAfter(now.minus(tokenLifetime));
+        cutoffs.forEach(row -> rememberCutoff(row.getUserId(), row.getNotBefore()));
+        lastRefresh = now;
+        logger.info("Loaded {} revoked token(s) and {} user token cutoff(s)", rows.size(), cutoffs.size());
+    }
+
+    @Scheduled(fixedDelayString = "${security.jwt.revocation.refresh-ms:5000}")
+    @Transactional(readOnly = true)
+    public void refresh() {
+        Instant since = lastRefresh;
+        if (since == null) {
+            return; // not loaded yet
+        }
+        Instant now = Instant.now();
+        for (RevokedToken row : revokedTokenRepository.findByRevokedAtAfter(since.minus(REFRESH_OVERLAP))) {
+            if (row.getExpiresAt().isAfter(now)) {
+                remember(row.getJti(), row.getExpiresAt());
+            }
+        }
+        for (UserTokenCutoff row : userTokenCutoffRepository.findByNotBeforeAfter(since.minus(REFRESH_OVERLAP))) {
+            rememberCutoff(row.getUserId(), row.getNotBefore());
+        }
+        lastRefresh = now;
+    }
+
+    /** Drops expired entries here and in the table; the filter is rebuilt since a Bloom filter cannot delete. */
+    @Scheduled(fixedDelayString = "${security.jwt.revocation.purge-ms:600000}")
+    @Transactional
+    public void purgeExpired() {
+        Instant now = Instant.now();
+        int before = revoked.size();
+        synchronized (this) {
+            revoked.values().removeIf(expiresAt -> !expiresAt.isAfter(now));
+            ScalableBloomFilter rebuilt = new ScalableBloomFilter(Math.max(expectedTokens, revoked.size()),
+                    falsePositiveRate);
+            revoked.keySet().forEach(rebuilt::put);
+            filter = rebuilt;
+        }
+        int deleted = revokedTokenRepository.deleteExpired(now);
+        logger.debug("Purged {} expired revocation(s) from memory and {} from the table", before - revoked.size(), deleted);
+
+        // Every token issued before an older cutoff has expired by now
+        Instant oldest = now.minus(tokenLifetime);
+        userCutoffs.values().removeIf(cutoff -> cutoff.isBefore(oldest));
+        userTokenCutoffRepository.deleteBefore(oldest);
+    }
+
+    int size() {
+        return revoked.size();
+    }
+
+    // Cutoffs only move forward, whichever instance or refresh reports them first
+    private void rememberCutoff(Long userId, Instant cutoff) {
+        userCutoffs.merge(userId, cutoff, (current, next) -> next.isAfter(current) ? next : current);
+    }
+
+    // Serialized with purgeExpired so a jti added during a rebuild cannot miss the new filter
+    private synchronized void remember(String jti, Instant expiresAt) {
+        revoked.put(jti, expiresAt);
+        filter.put(jti);
+    }
+}
@@ -23,14 +23,25 @@ public class UserDetailsImpl implements UserDetails {
 
     private Collection<? extends GrantedAuthority> authorities;
 
+    private boolean enabled;
+
     public UserDetailsImpl(Long id,
             String username,
             String password,
             Collection<? extends GrantedAuthority> authorities) {
+        this(id, username, password, authorities, true);
+    }
+
+    public UserDetailsImpl(Long id,
+            String username,
+            String password,
+            Collection<? extends GrantedAuthority> authorities,
+            boolean enabled) {
         this.id = id;
         this.username = username;
         this.password = password;
         this.authorities = authorities;
+        this.enabled = enabled;
     }
 
     public static UserDetailsImpl build(UserEntity user) {
@@ -52,7 +63,8 @@ public class UserDetailsImpl implements UserDetails {
                 user.getId(),
                 user.getUsername(),
                 user.getPassword(),
-                authorities);
+                authorities,
+                user.isEnabled());
     }
 
     @Override
@@ -91,7 +103,7 @@ public class UserDetailsImpl implements UserDetails {
 
     @Override
     public boolean isEnabled() {
-        return true;
+        return enabled;
     }
 
     @Override
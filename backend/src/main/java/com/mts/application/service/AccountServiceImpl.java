@@ -1,5 +1,6 @@
 package com.mts.application.service;
 
+import com.mts.application.cache.BalanceTable;
 import com.mts.application.entities.Account;
 import com.mts.application.repository.AccountRepository;
 import com.mts.domain.exceptions.AccountNotActiveException;
@@ -9,13 +10,20 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 
+/**
+ * Balance reads and transfer pre-validation are served from the off-heap {@link BalanceTable} and only go to
+ * the repository (and fill the table) on a miss; {@code getBalance} is not transactional, so a hit does not
+ * even take a connection.
+ */
 @Service
 public class AccountServiceImpl implements AccountService {
 
     private final AccountRepository accountRepository;
+    private final BalanceTable balanceTable;
 
-    public AccountServiceImpl(AccountRepository accountRepository) {
+    public AccountServiceImpl(AccountRepository accountRepository, BalanceTable balanceTable) {
         this.accountRepository = accountRepository;
+        this.balanceTable = balanceTable;
     }
 
     @Override
@@ -27,22 +35,42 @@ public class AccountServiceImpl implements AccountService {
     }
 
     @Override
-    @Transactional(readOnly = true)
     public BigDecimal getBalance(String id) throws AccountNotFoundException {
-        return getAccountById(id).getBalance();
+        long accountId = parseAccountId(id);
+        BalanceTable.Entry cached = balanceTable.get(accountId);
+        if (cached != null) {
+            return cached.balance();
+        }
+        // Taken before the read, so an UPDATE committed meanwhile keeps this row out of the table
+        long invalidations = balanceTable.invalidations(accountId);
+        Account account = getAccountById(id);
+        balanceTable.putLoaded(account, invalidations);
+        return account.getBalance();
     }
 
     @Override
     @Transactional
     public void createAccount(Account account) {
-        accountRepository.save(account);
+        balanceTable.putAfterCommit(accountRepository.save(account));
     }
 
     @Override
     @Transactional(readOnly = true)
     public void validateAccountForTransfer(String id)
             throws AccountNotActiveException, AccountNotFoundException {
+        long accountId = parseAccountId(id);
+        BalanceTable.Entry cached = balanceTable.get(accountId);
+        if (cached != null) {
+            if (!cached.isActive()) {
+                throw new AccountNotActiveException(
+                        "Account " + id + " is not ACTIVE (status=" + cached.status() + ")"
+                );
+            }
+            return;
+        }
+        long invalidations = balanceTable.invalidations(accountId);
         Account account = getAccountById(id);
+        balanceTable.putLoaded(account, invalidations);
         if (!account.isActive()) {
             throw new AccountNotActiveException(
                     "Account " + id + " is not ACTIVE (status=" + account.getStatus() + ")"
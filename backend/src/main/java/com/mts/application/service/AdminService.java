@@ -1,7 +1,11 @@
 package com.mts.application.service;
 
+import com.mts.application.cache.BalanceTable;
+import com.mts.application.cache.DailyLimitTracker;
+import com.mts.application.cache.GlobalConfigSnapshot;
 import com.mts.application.dto.AccountCreateRequest;
 import com.mts.application.dto.AccountResponse;
+import com.mts.application.dto.AccountStatusChanged;
 import com.mts.application.dto.AccountUpdateRequest;
 import com.mts.application.dto.TransactionFilter;
 import com.mts.application.dto.TransactionResponse;
@@ -18,17 +22,27 @@ import com.mts.application.repository.GlobalConfigRepository;
 import com.mts.application.repository.TransactionLogRepository;
 import com.mts.application.repository.TransferAuthorizationRepository;
 import com.mts.application.repository.UserRepository;
+import com.mts.application.repository.spec.TransactionLogSpecs;
+import com.mts.application.security.services.TokenRevocationService;
+import com.mts.domain.dto.CursorPage;
 import com.mts.domain.enums.AccountStatus;
+import com.mts.domain.enums.Direction;
 
 import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDateTime;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
@@ -44,6 +58,20 @@ public class AdminService {
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
     private final com.mts.application.service.TransferService transferService;
+    private final DailyLimitTracker dailyLimits;
+    private final GlobalConfigSnapshot transferLimits;
+    private final BalanceTable balanceTable;
+    private final ApplicationEventPublisher events;
+    private final TokenRevocationService tokenRevocationService;
+
+    static final int MAX_SEARCH_PAGE_SIZE = 200;
+    // An account-scoped offset page reads offset + size rows from each side; deeper pages use the cursor search
+    static final int MAX_MERGED_SEARCH_ROWS = 10_000;
+    private static final Sort NEWEST_FIRST = Sort.by(Sort.Order.desc("createdOn"), Sort.Order.desc("id"));
+
+    // Window applied when a search leaves one or both ends of the date range open
+    @Value("${transfer.admin-search.default-window-days:30}")
+    private long defaultSearchWindowDays = 30;
 
     public AdminService(AccountRepository accountRepository,
             TransactionLogRepository transactionLogRepository,
@@ -51,7 +79,12 @@ public class AdminService {
             TransferAuthorizationRepository transferAuthorizationRepository,
             UserRepository userRepository,
             PasswordEncoder passwordEncoder,
-            com.mts.application.service.TransferService transferService) {
+            com.mts.application.service.TransferService transferService,
+            DailyLimitTracker dailyLimits,
+            GlobalConfigSnapshot transferLimits,
+            BalanceTable balanceTable,
+            ApplicationEventPublisher events,
+            TokenRevocationService tokenRevocationService) {
         this.accountRepository = accountRepository;
         this.transactionLogRepository = transactionLogRepository;
         this.globalConfigRepository = globalConfigRepository;
@@ -59,6 +92,11 @@ public class AdminService {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
         this.transferService = transferService;
+        this.dailyLimits = dailyLimits;
+        this.transferLimits = transferLimits;
+        this.balanceTable = balanceTable;
+        this.events = events;
+        this.tokenRevocationService = tokenRevocationService;
     }
 
     @Transactional
@@ -69,6 +107,7 @@ public class AdminService {
         account.setStatus(AccountStatus.ACTIVE);
 
         account = accountRepository.save(account);
+        balanceTable.putAfterCommit(account);
         return mapToResponse(account);
     }
 
@@ -83,9 +122,11 @@ public class AdminService {
 
         if (req.dailyLimit() != null) {
             account.setDailyLimit(req.dailyLimit());
+            account.setDailyLimitChangedOn(Instant.now());
         }
 
         accountRepository.save(account);
+        dailyLimits.updateLimitAfterCommit(accountId, account.getDailyLimit());
         return mapToResponse(account);
     }
 
@@ -95,6 +136,8 @@ public class AdminService {
         Account account = getAccountOrThrowWrapped(accountId);
         account.setStatus(newStatus);
         accountRepository.save(account);
+        balanceTable.putAfterCommit(account);
+        events.publishEvent(new AccountStatusChanged(accountId, newStatus));
         return mapToResponse(account);
     }
 
@@ -104,28 +147,100 @@ public class AdminService {
         Account account = getAccountOrThrowWrapped(accountId);
         account.setStatus(AccountStatus.CLOSED);
         accountRepository.save(account);
+        balanceTable.putAfterCommit(account);
+        events.publishEvent(new AccountStatusChanged(accountId, AccountStatus.CLOSED));
     }
 
+    /**
+     * Offset-paginated search. With an account filter, each side is read through its own index and the two
+     * are merged newest first, so that search is always ordered by {@code (createdOn desc, id desc)}, and
+     * must end within the first {@value #MAX_MERGED_SEARCH_ROWS} rows.
+     */
+    @Transactional(readOnly = true)
     public Page<TransactionResponse> searchTransactions(TransactionFilter filter, Pageable pageable) {
-        Specification<TransactionLog> spec = Specification.where(null);
-
-        if (filter.accountId() != null) {
-            try {
-                Long accId = Long.parseLong(filter.accountId());
-                spec = spec.and((root, query, cb) -> cb.or(
-                        cb.equal(root.get("fromAccountId"), accId),
-                        cb.equal(root.get("toAccountId"), accId)));
-            } catch (NumberFormatException e) {
-                // Ignore invalid ID format in filter
-            }
+        TransactionFilter bounded = withDateWindow(filter);
+        if (TransactionLogSpecs.accountIdOf(bounded) == null || pageable.isUnpaged()) {
+            return transactionLogRepository.findAll(TransactionLogSpecs.matching(bounded), pageable)
+                    .map(this::mapToTransactionResponse);
+        }
+        if (pageable.getOffset() + pageable.getPageSize() > MAX_MERGED_SEARCH_ROWS) {
+            throw new IllegalArgumentException("Pages of an account's transactions must end within the first "
+                    + MAX_MERGED_SEARCH_ROWS + " rows; use /api/v1/admin/transactions/cursor to page further");
         }
+        Specification<TransactionLog> sent = TransactionLogSpecs.matching(bounded, Direction.SENT);
+        Specification<TransactionLog> received = TransactionLogSpecs.matching(bounded, Direction.RECEIVED);
+        int end = (int) (pageable.getOffset() + pageable.getPageSize());
+        List<TransactionLog> rows = TransferServiceImpl.mergeNewestFirst(
+                newestFirst(sent, end), newestFirst(received, end), end);
+        int start = (int) Math.min(pageable.getOffset(), rows.size());
+        long total = transactionLogRepository.count(sent) + transactionLogRepository.count(received);
+        return new PageImpl<>(rows.subList(start, rows.size()), pageable, total)
+                .map(this::mapToTransactionResponse);
+    }
 
-        if (filter.status() != null) {
-            spec = spec.and((root, query, cb) -> cb.equal(root.get("status"), filter.status()));
+    /**
+     * Keyset-paginated search, newest first on {@code (createdOn, id)}, without OFFSET or a count query.
+     * Pass the previous page's {@code nextCursor} to continue.
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<TransactionResponse> searchTransactionsByCursor(TransactionFilter filter, String cursor, int size) {
+        if (size < 1 || size > MAX_SEARCH_PAGE_SIZE) {
+            throw new IllegalArgumentException("Page size must be between 1 and " + MAX_SEARCH_PAGE_SIZE);
+        }
+        TransactionFilter bounded = withDateWindow(filter);
+        Specification<TransactionLog> after = (root, q, cb) -> cb.conjunction();
+        if (cursor != null && !cursor.isBlank()) {
+            HistoryCursor position = HistoryCursor.decode(cursor);
+            after = TransactionLogSpecs.before(position.createdOn(), position.id());
         }
 
-        return transactionLogRepository.findAll(spec, pageable)
-                .map(this::mapToTransactionResponse);
+        // One row past the page tells whether there is a next page; an account filter reads each side
+        // through its own index and merges them rather than OR-ing the two columns into a scan.
+        int limit = size + 1;
+        List<TransactionLog> rows;
+        if (TransactionLogSpecs.accountIdOf(bounded) == null) {
+            rows = newestFirst(TransactionLogSpecs.matching(bounded).and(after), limit);
+        } else {
+            rows = TransferServiceImpl.mergeNewestFirst(
+                    newestFirst(TransactionLogSpecs.matching(bounded, Direction.SENT).and(after), limit),
+                    newestFirst(TransactionLogSpecs.matching(bounded, Direction.RECEIVED).and(after), limit),
+                    limit);
+        }
+        boolean hasNext = rows.size() > size;
+        List<TransactionLog> page = hasNext ? rows.subList(0, size) : rows;
+        String nextCursor = null;
+        if (hasNext) {
+            TransactionLog last = page.get(page.size() - 1);
+            nextCursor = new HistoryCursor(last.getCreatedOn(), last.getId()).encode();
+        }
+        return new CursorPage<>(page.stream().map(this::mapToTransactionResponse).toList(), nextCursor);
+    }
+
+    private List<TransactionLog> newestFirst(Specification<TransactionLog> spec, int limit) {
+        return transactionLogRepository.findBy(spec, q -> q.sortBy(NEWEST_FIRST).limit(limit).all());
+    }
+
+    /**
+     * Closes an open date range so no search scans the whole log: a missing start defaults to
+     * {@code transfer.admin-search.default-window-days} before the end, and a missing end to that many days
+     * after the start, or now if sooner.
+     */
+    TransactionFilter withDateWindow(TransactionFilter filter) {
+        if (filter.fromDate() != null && filter.toDate() != null) {
+            if (filter.fromDate().isAfter(filter.toDate())) {
+                throw new IllegalArgumentException("fromDate must not be after toDate");
+            }
+            return filter;
+        }
+        LocalDateTime to = filter.toDate();
+        if (to == null) {
+            LocalDateTime now = LocalDateTime.now();
+            LocalDateTime windowEnd = filter.fromDate() != null ? filter.fromDate().plusDays(defaultSearchWindowDays) : now;
+            to = windowEnd.isBefore(now) ? windowEnd : now;
+        }
+        LocalDateTime from = filter.fromDate() != null ? filter.fromDate() : to.minusDays(defaultSearchWindowDays);
+        return new TransactionFilter(filter.accountId(), filter.status(), filter.minAmount(), filter.maxAmount(),
+                from, to);
     }
 
     @Transactional
@@ -142,13 +257,11 @@ public class AdminService {
                 .orElse(new GlobalConfig());
         config.setId("DEFAULT"); // Ensure ID is set if new
         config.setGlobalTransferLimit(limit);
-        globalConfigRepository.save(config);
+        transferLimits.publishAfterCommit(globalConfigRepository.save(config));
     }
 
     public BigDecimal getGlobalTransferLimit() {
-        return globalConfigRepository.findById("DEFAULT")
-                .map(GlobalConfig::getGlobalTransferLimit)
-                .orElse(null);
+        return transferLimits.current().globalTransferLimit();
     }
 
     @Transactional
@@ -289,15 +402,23 @@ public class AdminService {
             user.setEmail(request.getEmail());
         }
 
-        if (request.getRoles() != null && !request.getRoles().isEmpty()) {
+        // Tokens carry the roles and enabled flag as claims, so changing either revokes the user's tokens
+        boolean claimsChanged = false;
+        if (request.getRoles() != null && !request.getRoles().isEmpty()
+                && !request.getRoles().equals(user.getRoles())) {
             user.setRoles(request.getRoles());
+            claimsChanged = true;
         }
 
-        if (request.getEnabled() != null) {
+        if (request.getEnabled() != null && request.getEnabled() != user.isEnabled()) {
             user.setEnabled(request.getEnabled());
+            claimsChanged = true;
         }
 
         user = userRepository.save(user);
+        if (claimsChanged) {
+            tokenRevocationService.revokeUserTokensAfterCommit(user.getId());
+        }
         return mapToUserResponse(user);
     }
 
@@ -309,6 +430,7 @@ public class AdminService {
         // Soft delete by disabling the user
         user.setEnabled(false);
         userRepository.save(user);
+        tokenRevocationService.revokeUserTokensAfterCommit(user.getId());
     }
 
     private UserResponse mapToUserResponse(UserEntity user) {
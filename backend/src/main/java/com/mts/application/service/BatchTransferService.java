@@ -0,0 +1,347 @@
+package com.mts.application.service;
+
+import com.mts.application.cache.BalanceTable;
+import com.mts.application.cache.DailyLimitTracker;
+import com.mts.application.cache.GlobalConfigSnapshot;
+import com.mts.application.cache.IdempotencyIndex;
+import com.mts.application.cache.TransferResponseCache;
+import com.mts.application.dto.TransferLimits;
+import com.mts.application.mapper.TransactionMapper;
+import com.mts.application.entities.Account;
+import com.mts.application.entities.TransactionLog;
+import com.mts.application.entities.TransferAuthorization;
+import com.mts.application.repository.AccountRepository;
+import com.mts.application.repository.TransactionLogRepository;
+import com.mts.application.repository.TransferAuthorizationRepository;
+import com.mts.application.snowflake.SnowflakeIdGenerator;
+import com.mts.domain.dto.TransferRequest;
+import com.mts.domain.dto.TransferResponse;
+import com.mts.domain.enums.TransactionStatus;
+import com.mts.domain.enums.TransferFailureCode;
+import com.mts.domain.exceptions.AccountNotActiveException;
+import com.mts.domain.exceptions.DuplicateTransferException;
+import com.mts.domain.exceptions.InsufficientBalanceException;
+import com.mts.domain.exceptions.ReplayedTransferException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Executes many transfers in one transaction with a fixed number of round-trips:
+ * one idempotency lookup for all keys, one locking read of every involved account (ascending id order),
+ * one UPDATE per touched account at flush, and JDBC-batched INSERTs for the log rows.
+ *
+ * <p>Items are applied in request order against the in-memory balances, so each item sees the effect of
+ * the ones before it. A bad item does not fail the batch; it gets its own FAILED response.
+ *
+ * <p>Used keys follow {@link TransferServiceImpl}: a key whose earlier attempt gave up on a conflict is
+ * re-opened and used again, a resend of a settled transfer gets its original response, and any other
+ * reuse is a FAILED duplicate.
+ *
+ * <p>Not available with {@code transfer.ledger.enabled}: it writes balances straight to MySQL, which the
+ * ledger engine would overwrite with the balances it holds.
+ */
+@Service
+@ConditionalOnProperty(name = "transfer.ledger.enabled", havingValue = "false", matchIfMissing = true)
+public class BatchTransferService {
+
+    private final AccountRepository accountRepository;
+    private final TransactionLogRepository logRepository;
+    private final GlobalConfigSnapshot transferLimits;
+    private final TransferAuthorizationRepository transferAuthorizationRepository;
+    private final IdempotencyIndex idempotencyIndex;
+    private final TransferResponseCache responseCache;
+    private final SnowflakeIdGenerator idGenerator;
+    private final DailyLimitTracker dailyLimits;
+    private final BalanceTable balanceTable;
+    private final int maxBatchSize;
+
+    public BatchTransferService(AccountRepository accountRepository,
+            TransactionLogRepository logRepository,
+            GlobalConfigSnapshot transferLimits,
+            TransferAuthorizationRepository transferAuthorizationRepository,
+            IdempotencyIndex idempotencyIndex,
+            TransferResponseCache responseCache,
+            SnowflakeIdGenerator idGenerator,
+            DailyLimitTracker dailyLimits,
+            BalanceTable balanceTable,
+            @Value("${transfer.batch.max-size:5000}") int maxBatchSize) {
+        this.accountRepository = accountRepository;
+        this.logRepository = logRepository;
+        this.transferLimits = transferLimits;
+        this.transferAuthorizationRepository = transferAuthorizationRepository;
+        this.idempotencyIndex = idempotencyIndex;
+        this.responseCache = responseCache;
+        this.idGenerator = idGenerator;
+        this.dailyLimits = dailyLimits;
+        this.balanceTable = balanceTable;
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    @Transactional
+    public List<TransferResponse> transferBatch(List<TransferRequest> requests) {
+        if (requests == null || requests.isEmpty()) {
+            throw new IllegalArgumentException("Batch must contain at least one transfer");
+        }
+        if (requests.size() > maxBatchSize) {
+            throw new IllegalArgumentException("Batch size " + requests.size() + " exceeds maximum of " + maxBatchSize);
+        }
+
+        int n = requests.size();
+        TransferResponse[] responses = new TransferResponse[n];
+        Long[] fromIds = new Long[n];
+        Long[] toIds = new Long[n];
+
+        // 1) Shape checks and in-batch duplicate keys
+        Set<String> keys = new HashSet<>(n * 2);
+        for (int i = 0; i < n; i++) {
+            TransferRequest req = requests.get(i);
+            String problem = shapeProblem(req);
+            if (problem == null) {
+                fromIds[i] = parseId(TransferServiceImpl.resolveFromId(req));
+                toIds[i] = parseId(TransferServiceImpl.resolveToId(req));
+                if (fromIds[i] == null || toIds[i] == null) {
+                    problem = "Invalid account id";
+                } else if (fromIds[i].equals(toIds[i])) {
+                    problem = "Source and destination accounts must be different";
+                } else if (!keys.add(req.getIdempotencyKey())) {
+                    problem = "Duplicate idempotency key within batch: " + req.getIdempotencyKey();
+                }
+            }
+            if (problem != null) {
+                responses[i] = rejected(req, problem);
+            }
+        }
+
+        // 2) Keys already used by earlier requests: one query for the keys the index and the response cache
+        //    cannot settle. Conflict give-ups are re-opened for this batch, everything else is a duplicate.
+        Map<String, Integer> unsure = new HashMap<>();
+        for (int i = 0; i < n; i++) {
+            if (responses[i] != null) {
+                continue;
+            }
+            TransferRequest req = requests.get(i);
+            String key = req.getIdempotencyKey();
+            IdempotencyIndex.Lookup hint = idempotencyIndex.lookup(key);
+            if (hint == IdempotencyIndex.Lookup.ABSENT) {
+                continue;
+            }
+            TransferResponse cached = hint == IdempotencyIndex.Lookup.KNOWN ? responseCache.get(key) : null;
+            if (cached != null) {
+                responses[i] = duplicate(req, cached, fromIds[i], toIds[i]);
+            } else {
+                unsure.put(key, i);
+            }
+        }
+        Map<String, TransactionLog> resumed = new HashMap<>();
+        if (!unsure.isEmpty()) {
+            for (TransactionLog prior : logRepository.findAllByIdempotencyKeyIn(unsure.keySet())) {
+                int i = unsure.get(prior.getIdempotencyKey());
+                if (prior.getStatus() == TransactionStatus.FAILED
+                        && TransferServiceImpl.CONFLICT_REASON.equals(prior.getFailureReason())
+                        && logRepository.reopenFailed(prior.getId(), TransferServiceImpl.CONFLICT_REASON) == 1) {
+                    resumed.put(prior.getIdempotencyKey(), prior);
+                    continue;
+                }
+                idempotencyIndex.recordExisting(prior.getIdempotencyKey());
+                TransferResponse original = null;
+                if (responseCache.isReplayable(prior.getCreatedOn())) {
+                    original = TransactionMapper.toTransferResponse(prior);
+                    if (prior.getStatus() != TransactionStatus.PENDING) {
+                        responseCache.put(original);
+                    }
+                }
+                responses[i] = duplicate(requests.get(i), original, fromIds[i], toIds[i]);
+            }
+        }
+
+        // 3) Lock every involved account once, lower ids first
+        Set<Long> accountIds = new TreeSet<>();
+        for (int i = 0; i < n; i++) {
+            if (responses[i] == null) {
+                accountIds.add(fromIds[i]);
+                accountIds.add(toIds[i]);
+            }
+        }
+        Map<Long, Account> accounts = new HashMap<>(accountIds.size() * 2);
+        if (!accountIds.isEmpty()) {
+            for (Account account : accountRepository.findAllByIdForUpdate(accountIds)) {
+                accounts.put(account.getId(), account);
+                balanceTable.putAfterCommit(account);
+            }
+        }
+
+        TransferLimits limits = transferLimits.current();
+
+        // 4) Apply in request order; balances are flushed once per account at commit
+        List<TransactionLog> logs = new ArrayList<>(n);
+        List<TransferAuthorization> authorizations = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            if (responses[i] != null) {
+                continue;
+            }
+            TransferRequest req = requests.get(i);
+            Account sender = accounts.get(fromIds[i]);
+            Account receiver = accounts.get(toIds[i]);
+            if (sender == null || receiver == null) {
+                // No log row: transaction_logs has foreign keys on both account ids
+                Long missing = sender == null ? fromIds[i] : toIds[i];
+                responses[i] = rejected(req, "Account with ID " + missing + " not found");
+                continue;
+            }
+
+            TransactionLog log = newLog(resumed.get(req.getIdempotencyKey()), req, fromIds[i], toIds[i]);
+            logs.add(log);
+            try {
+                if (!sender.isActive() || !receiver.isActive()) {
+                    Account inactive = sender.isActive() ? receiver : sender;
+                    throw new AccountNotActiveException(
+                            "Account " + inactive.getId() + " is not ACTIVE (status=" + inactive.getStatus() + ")");
+                }
+                if (limits.exceedsGlobalLimit(req.getAmount())) {
+                    log.setStatus(TransactionStatus.PENDING);
+                    log.setFailureReason("Pending Approval: Amount exceeds global limit");
+                    authorizations.add(authorizationFor(log, req));
+                    responses[i] = response(log, req, "Transfer requires approval");
+                    continue;
+                }
+                DailyLimitTracker.Reservation reservation =
+                        dailyLimits.reserve(sender.getId(), sender.getDailyLimit(), req.getAmount());
+                sender.debit(req.getAmount());
+                receiver.credit(req.getAmount());
+                reservation.confirm();
+                log.setStatus(TransactionStatus.SUCCESS);
+                responses[i] = response(log, req, "Transfer completed successfully");
+            } catch (InsufficientBalanceException | AccountNotActiveException e) {
+                log.setStatus(TransactionStatus.FAILED);
+                log.setFailureReason(e.getMessage());
+                log.setFailureCode(TransferFailureCode.of(e));
+                responses[i] = response(log, req, e.getMessage());
+            }
+        }
+
+        // 5) Log rows go out as batched INSERTs (see hibernate.jdbc.batch_size)
+        logRepository.saveAll(logs);
+        for (TransactionLog log : logs) {
+            idempotencyIndex.recordClaimed(log.getIdempotencyKey());
+            if (log.getStatus() != TransactionStatus.PENDING) {
+                responseCache.put(TransactionMapper.toTransferResponse(log));
+            }
+        }
+        if (!authorizations.isEmpty()) {
+            transferAuthorizationRepository.saveAll(authorizations);
+        }
+        return List.of(responses);
+    }
+
+    private static String shapeProblem(TransferRequest req) {
+        if (req == null) {
+            return "Transfer must not be null";
+        }
+        String fromId = TransferServiceImpl.resolveFromId(req);
+        if (fromId == null || fromId.isBlank()) {
+            return "Missing source account id";
+        }
+        String toId = TransferServiceImpl.resolveToId(req);
+        if (toId == null || toId.isBlank()) {
+            return "Missing destination account id";
+        }
+        if (req.getAmount() == null || req.getAmount().signum() <= 0) {
+            return "Amount must be positive";
+        }
+        if (req.getIdempotencyKey() == null || req.getIdempotencyKey().isBlank()) {
+            return "Idempotency key must be provided";
+        }
+        return null;
+    }
+
+    private static Long parseId(String id) {
+        try {
+            return Long.valueOf(id.trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /** A new row, or the re-opened conflict give-up for the same key (which keeps its id and createdOn). */
+    private TransactionLog newLog(TransactionLog resumed, TransferRequest req, Long fromId, Long toId) {
+        TransactionLog log = resumed;
+        if (log == null) {
+            log = new TransactionLog();
+            log.setId(idGenerator.nextKey());
+            log.setIdempotencyKey(req.getIdempotencyKey());
+            log.setCreatedOn(Instant.now());
+        }
+        log.setFromAccountId(fromId);
+        log.setToAccountId(toId);
+        log.setAmount(req.getAmount());
+        log.setCurrency(req.getCurrency());
+        log.setFailureReason(null);
+        log.setFailureCode(null);
+        return log;
+    }
+
+    /** The original outcome for a resend of the same transfer, a FAILED duplicate for anything else. */
+    private static TransferResponse duplicate(TransferRequest req, TransferResponse original, Long fromId, Long toId) {
+        DuplicateTransferException duplicate = TransferServiceImpl.duplicateKey(req.getIdempotencyKey(), original,
+                fromId, toId, req.getAmount());
+        if (duplicate instanceof ReplayedTransferException replayed) {
+            return replayed.getOriginalResponse();
+        }
+        return rejected(req, duplicate.getMessage());
+    }
+
+    private TransferAuthorization authorizationFor(TransactionLog log, TransferRequest req) {
+        TransferAuthorization auth = new TransferAuthorization();
+        auth.setId(idGenerator.nextId());
+        auth.setTransactionId(log.getId());
+        auth.setAmount(req.getAmount());
+        auth.setFromAccountId(String.valueOf(log.getFromAccountId()));
+        auth.setToAccountId(String.valueOf(log.getToAccountId()));
+        auth.setStatus("PENDING");
+        auth.setRequestedAt(LocalDateTime.now());
+        return auth;
+    }
+
+    private static TransferResponse response(TransactionLog log, TransferRequest req, String message) {
+        return new TransferResponse(
+                log.getId(),
+                String.valueOf(log.getFromAccountId()),
+                String.valueOf(log.getToAccountId()),
+                log.getAmount(),
+                req.getCurrency(),
+                log.getStatus(),
+                message,
+                log.getIdempotencyKey(),
+                log.getCreatedOn());
+    }
+
+    private static TransferResponse rejected(TransferRequest req, String message) {
+        if (req == null) {
+            return new TransferResponse(null, null, null, null, null,
+                    TransactionStatus.FAILED, message, null, Instant.now());
+        }
+        return new TransferResponse(
+                null,
+                TransferServiceImpl.resolveFromId(req),
+                TransferServiceImpl.resolveToId(req),
+                req.getAmount(),
+                req.getCurrency(),
+                TransactionStatus.FAILED,
+                message,
+                req.getIdempotencyKey(),
+                Instant.now());
+    }
+}
@@ -0,0 +1,33 @@
+package com.mts.application.service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Position in a history listing ordered by {@code (createdOn desc, id desc)}: the last row of the previous
+ * page. Encoded as URL-safe Base64 so clients treat it as opaque.
+ */
+record HistoryCursor(Instant createdOn, String id) {
+
+    private static final char SEPARATOR = '|';
+
+    String encode() {
+        String raw = createdOn.toString() + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static HistoryCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int sep = raw.indexOf(SEPARATOR);
+            if (sep <= 0 || sep == raw.length() - 1) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            return new HistoryCursor(Instant.parse(raw.substring(0, sep)), raw.substring(sep + 1));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+    }
+}
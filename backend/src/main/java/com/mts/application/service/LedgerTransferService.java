@@ -0,0 +1,110 @@
+package com.mts.application.service;
+
+import com.mts.application.cache.GlobalConfigSnapshot;
+import com.mts.application.ledger.LedgerEngine;
+import com.mts.application.metrics.TransferMetrics;
+import com.mts.domain.dto.CursorPage;
+import com.mts.domain.dto.TransactionLogResponse;
+import com.mts.domain.dto.TransferRequest;
+import com.mts.domain.dto.TransferResponse;
+import com.mts.domain.enums.Direction;
+import com.mts.domain.enums.TransactionStatus;
+import com.mts.domain.exceptions.*;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * {@link TransferService} in front of the {@link LedgerEngine}, replacing {@link RetryingTransferService}
+ * when {@code transfer.ledger.enabled} is set. Transfers over the global limit still go to
+ * {@link TransferServiceImpl}, which only records them for approval and moves no money; history reads
+ * come from MySQL and may trail the engine by one write-behind batch.
+ */
+@Service
+@Primary
+@ConditionalOnProperty(name = "transfer.ledger.enabled", havingValue = "true")
+public class LedgerTransferService implements TransferService {
+
+    private final LedgerEngine engine;
+    private final TransferServiceImpl delegate;
+    private final GlobalConfigSnapshot transferLimits;
+    private final TransferMetrics metrics;
+    private final long timeoutMs;
+
+    public LedgerTransferService(LedgerEngine engine,
+            TransferServiceImpl delegate,
+            GlobalConfigSnapshot transferLimits,
+            TransferMetrics metrics,
+            @Value("${transfer.ledger.submit-timeout-ms:5000}") long timeoutMs) {
+        this.engine = engine;
+        this.delegate = delegate;
+        this.transferLimits = transferLimits;
+        this.metrics = metrics;
+        this.timeoutMs = timeoutMs;
+    }
+
+    @Override
+    public TransferResponse transfer(TransferRequest request)
+            throws AccountNotFoundException,
+            AccountNotActiveException,
+            InsufficientBalanceException,
+            DuplicateTransferException,
+            OptimisticLockException {
+        if (request.getAmount() != null && transferLimits.current().exceedsGlobalLimit(request.getAmount())) {
+            // The engine must not take the same key while the JPA path has not written its log row yet
+            try (LedgerEngine.KeyClaim claim = engine.claimKey(request.getIdempotencyKey())) {
+                return delegate.transfer(request);
+            }
+        }
+        try {
+            TransferResponse response = engine.submit(request).get(timeoutMs, TimeUnit.MILLISECONDS);
+            metrics.recordOutcome(response.status());
+            return response;
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            metrics.recordError(cause);
+            if (cause instanceof InsufficientBalanceException || cause instanceof AccountNotActiveException) {
+                metrics.recordOutcome(TransactionStatus.FAILED);
+            }
+            if (cause instanceof InsufficientBalanceException ibe) {
+                throw ibe;
+            }
+            if (cause instanceof AccountNotActiveException anae) {
+                throw anae;
+            }
+            if (cause instanceof AccountNotFoundException anfe) {
+                throw anfe;
+            }
+            if (cause instanceof RuntimeException re) {
+                throw re;
+            }
+            throw new IllegalStateException("Ledger transfer failed", cause);
+        } catch (TimeoutException e) {
+            // Still in the engine: a resend with the same key reports it as a duplicate until it settles
+            throw new OptimisticLockException("Transfer is still being processed, please retry the transfer", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new OptimisticLockException("Interrupted while waiting for the transfer", e);
+        }
+    }
+
+    @Override
+    public Page<TransactionLogResponse> getAccountTransactions(String accountId, Instant from, Instant to,
+            TransactionStatus status, Direction direction, Pageable pageable) {
+        return delegate.getAccountTransactions(accountId, from, to, status, direction, pageable);
+    }
+
+    @Override
+    public CursorPage<TransactionLogResponse> getAccountTransactionsByCursor(String accountId, Instant from,
+            Instant to, TransactionStatus status, Direction direction, String cursor, int size) {
+        return delegate.getAccountTransactionsByCursor(accountId, from, to, status, direction, cursor, size);
+    }
+}
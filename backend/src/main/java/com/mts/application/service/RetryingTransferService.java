@@ -0,0 +1,206 @@
+package com.mts.application.service;
+
+import com.mts.application.metrics.TransferMetrics;
+import com.mts.application.metrics.jfr.TransferEvents;
+import com.mts.domain.dto.CursorPage;
+import com.mts.domain.dto.TransactionLogResponse;
+import com.mts.domain.dto.TransferRequest;
+import com.mts.domain.dto.TransferResponse;
+import com.mts.domain.enums.Direction;
+import com.mts.domain.enums.TransactionStatus;
+import com.mts.domain.exceptions.*;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Instant;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Retry layer in front of {@link TransferServiceImpl}, deliberately outside its {@code @Transactional}
+ * boundary: every attempt runs in a new transaction under the same idempotency key. Conflicted attempts
+ * roll back completely, so the key ends up owning a single log row whatever the number of attempts.
+ * Backoff is exponential with full jitter, capped at {@code transfer.retry.max-backoff-ms}.
+ *
+ * <p>Being the outermost layer, this is where final outcomes, error types and per-attempt latency are
+ * recorded (see {@link TransferMetrics}); the attempt/retry/give-up counters are bound as meters too.
+ */
+@Service
+@Primary
+@ConditionalOnProperty(name = "transfer.ledger.enabled", havingValue = "false", matchIfMissing = true)
+public class RetryingTransferService implements TransferService, MeterBinder {
+
+    private static final Logger logger = LoggerFactory.getLogger(RetryingTransferService.class);
+
+    private final TransferServiceImpl delegate;
+    private final TransferMetrics metrics;
+    private final int maxAttempts;
+    private final long initialBackoffMs;
+    private final long maxBackoffMs;
+
+    private final LongAdder attempts = new LongAdder();
+    private final LongAdder retries = new LongAdder();
+    private final LongAdder giveUps = new LongAdder();
+
+    public RetryingTransferService(TransferServiceImpl delegate,
+            TransferMetrics metrics,
+            @Value("${transfer.retry.max-attempts:3}") int maxAttempts,
+            @Value("${transfer.retry.initial-backoff-ms:10}") long initialBackoffMs,
+            @Value("${transfer.retry.max-backoff-ms:200}") long maxBackoffMs) {
+        if (maxAttempts < 1) {
+            throw new IllegalArgumentException("transfer.retry.max-attempts must be >= 1");
+        }
+        this.delegate = delegate;
+        this.metrics = metrics;
+        this.maxAttempts = maxAttempts;
+        this.initialBackoffMs = initialBackoffMs;
+        this.maxBackoffMs = maxBackoffMs;
+    }
+
+    @Override
+    public TransferResponse transfer(TransferRequest request)
+            throws AccountNotFoundException,
+            AccountNotActiveException,
+            InsufficientBalanceException,
+            DuplicateTransferException,
+            OptimisticLockException {
+        try {
+            TransferResponse response = transferWithRetry(request);
+            metrics.recordOutcome(response.status());
+            return response;
+        } catch (InsufficientBalanceException | AccountNotActiveException | AccountNotFoundException
+                | OptimisticLockException e) {
+            // These leave a FAILED log row behind (give-ups via recordConflictFailure)
+            metrics.recordOutcome(TransactionStatus.FAILED);
+            metrics.recordError(e);
+            throw e;
+        } catch (DuplicateTransferException | RuntimeException e) {
+            metrics.recordError(e);
+            throw e;
+        }
+    }
+
+    private TransferResponse transferWithRetry(TransferRequest request)
+            throws AccountNotFoundException,
+            AccountNotActiveException,
+            InsufficientBalanceException,
+            DuplicateTransferException,
+            OptimisticLockException {
+
+        // Inside a caller's transaction a retry would reuse the same (now rollback-only) transaction
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return attempt(request, 1);
+        }
+
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return attempt(request, attempt);
+            } catch (OptimisticLockException | ConcurrencyFailureException e) {
+                if (attempt >= maxAttempts) {
+                    giveUps.increment();
+                    recordGiveUp(request);
+                    if (e instanceof OptimisticLockException ole) {
+                        throw ole;
+                    }
+                    throw new OptimisticLockException("Concurrent modification detected, please retry the transfer", e);
+                }
+                retries.increment();
+                backoff(attempt);
+            }
+        }
+    }
+
+    @Override
+    public Page<TransactionLogResponse> getAccountTransactions(String accountId, Instant from, Instant to,
+            TransactionStatus status, Direction direction, Pageable pageable) {
+        return delegate.getAccountTransactions(accountId, from, to, status, direction, pageable);
+    }
+
+    @Override
+    public CursorPage<TransactionLogResponse> getAccountTransactionsByCursor(String accountId, Instant from,
+            Instant to, TransactionStatus status, Direction direction, String cursor, int size) {
+        return delegate.getAccountTransactionsByCursor(accountId, from, to, status, direction, cursor, size);
+    }
+
+    private TransferResponse attempt(TransferRequest request, int attemptNumber)
+            throws AccountNotFoundException,
+            AccountNotActiveException,
+            InsufficientBalanceException,
+            DuplicateTransferException,
+            OptimisticLockException {
+        attempts.increment();
+        long start = System.nanoTime();
+        String outcome = "error";
+        try {
+            TransferResponse response = delegate.transfer(request);
+            outcome = "ok";
+            return response;
+        } catch (OptimisticLockException | ConcurrencyFailureException e) {
+            outcome = "conflict";
+            metrics.recordConflict();
+            TransferEvents.conflict(request.getIdempotencyKey(), attemptNumber, e);
+            throw e;
+        } finally {
+            metrics.recordAttempt(start, outcome);
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("transfer.retry.attempts", attempts, LongAdder::sum)
+                .description("Transfer attempts, first tries included")
+                .register(registry);
+        FunctionCounter.builder("transfer.retry.retries", retries, LongAdder::sum)
+                .description("Attempts re-run after a conflict")
+                .register(registry);
+        FunctionCounter.builder("transfer.retry.give-ups", giveUps, LongAdder::sum)
+                .description("Transfers that still conflicted after max-attempts")
+                .register(registry);
+    }
+
+    /** Total transfer attempts, first tries included. */
+    public long getAttemptCount() {
+        return attempts.sum();
+    }
+
+    /** Attempts that were re-run after a conflict. */
+    public long getRetryCount() {
+        return retries.sum();
+    }
+
+    /** Transfers that still conflicted after {@code maxAttempts}. */
+    public long getGiveUpCount() {
+        return giveUps.sum();
+    }
+
+    private void recordGiveUp(TransferRequest request) {
+        try {
+            delegate.recordConflictFailure(request);
+        } catch (RuntimeException e) {
+            // Bookkeeping only: the caller still gets the conflict, and may resend with the same key
+            logger.warn("Could not record conflict failure for key {}: {}", request.getIdempotencyKey(), e.getMessage());
+        }
+    }
+
+    private void backoff(int attempt) throws OptimisticLockException {
+        long ceiling = Math.min(maxBackoffMs, initialBackoffMs << Math.min(attempt - 1, 20));
+        long sleepMs = ThreadLocalRandom.current().nextLong(ceiling + 1);
+        try {
+            Thread.sleep(sleepMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new OptimisticLockException("Interrupted while waiting to retry the transfer", e);
+        }
+    }
+}
@@ -0,0 +1,176 @@
+package com.mts.application.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mts.application.entities.TransactionLog;
+import com.mts.application.mapper.TransactionMapper;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.SessionFactory;
+import org.hibernate.StatelessSession;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Writes transaction logs matching a {@link Specification} straight to an output stream. Rows come from a
+ * forward-only cursor on a read-only {@link StatelessSession}: nothing is kept in a persistence context and
+ * MySQL streams the result set row by row, so memory stays flat whatever the export size.
+ */
+@Service
+public class TransactionExportService {
+
+    public enum Format {
+        CSV("text/csv", "csv"),
+        NDJSON("application/x-ndjson", "ndjson");
+
+        private final String contentType;
+        private final String extension;
+
+        Format(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+    }
+
+    static final String CSV_HEADER =
+            "id,idempotencyKey,fromAccountId,toAccountId,amount,currency,status,failureReason,createdOn";
+    private static final int FLUSH_EVERY = 1_000;
+
+    private final SessionFactory sessionFactory;
+    private final ObjectMapper objectMapper;
+    private final int fetchSize;
+
+    public TransactionExportService(EntityManagerFactory entityManagerFactory, ObjectMapper objectMapper,
+            @Value("${transfer.export.fetch-size:" + Integer.MIN_VALUE + "}") int fetchSize) {
+        this.sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        this.objectMapper = objectMapper;
+        this.fetchSize = fetchSize;
+    }
+
+    /** Streams every matching row, oldest first; returns the number of rows written. */
+    public long export(Specification<TransactionLog> spec, Format format, OutputStream out) throws IOException {
+        try (StatelessSession session = sessionFactory.openStatelessSession()) {
+            session.doWork(connection -> connection.setReadOnly(true));
+            CriteriaBuilder cb = session.getCriteriaBuilder();
+            CriteriaQuery<TransactionLog> query = cb.createQuery(TransactionLog.class);
+            Root<TransactionLog> root = query.from(TransactionLog.class);
+            Predicate predicate = spec.toPredicate(root, query, cb);
+            if (predicate != null) {
+                query.where(predicate);
+            }
+            query.orderBy(cb.asc(root.get("createdOn")), cb.asc(root.get("id")));
+
+            try (ScrollableResults<TransactionLog> rows = session.createSelectionQuery(query)
+                    .setFetchSize(fetchSize)
+                    .scroll(ScrollMode.FORWARD_ONLY)) {
+                return write(new ScrollIterator(rows), format, out);
+            }
+        }
+    }
+
+    long write(Iterator<TransactionLog> rows, Format format, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        if (format == Format.CSV) {
+            writer.write(CSV_HEADER);
+            writer.write('\n');
+        }
+        long count = 0;
+        while (rows.hasNext()) {
+            TransactionLog log = rows.next();
+            if (format == Format.CSV) {
+                writeCsv(writer, log);
+            } else {
+                writer.write(objectMapper.writeValueAsString(TransactionMapper.toResponse(log)));
+            }
+            writer.write('\n');
+            if (++count % FLUSH_EVERY == 0) {
+                writer.flush();
+            }
+        }
+        writer.flush();
+        return count;
+    }
+
+    private static void writeCsv(Writer writer, TransactionLog log) throws IOException {
+        writer.write(csv(log.getId()));
+        writer.write(',');
+        writer.write(csv(log.getIdempotencyKey()));
+        writer.write(',');
+        writer.write(String.valueOf(log.getFromAccountId()));
+        writer.write(',');
+        writer.write(String.valueOf(log.getToAccountId()));
+        writer.write(',');
+        writer.write(log.getAmount() != null ? log.getAmount().toPlainString() : "");
+        writer.write(',');
+        writer.write(csv(log.getCurrency()));
+        writer.write(',');
+        writer.write(log.getStatus() != null ? log.getStatus().name() : "");
+        writer.write(',');
+        writer.write(csv(log.getFailureReason()));
+        writer.write(',');
+        writer.write(log.getCreatedOn() != null ? log.getCreatedOn().toString() : "");
+    }
+
+    /** RFC 4180 quoting, plus a leading quote for values a spreadsheet would evaluate as a formula. */
+    static String csv(String value) {
+        if (value == null || value.isEmpty()) {
+            return "";
+        }
+        char first = value.charAt(0);
+        if (first == '=' || first == '+' || first == '-' || first == '@') {
+            value = "'" + value;
+        }
+        if (value.indexOf(',') >= 0 || value.indexOf('"') >= 0 || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0) {
+            return '"' + value.replace("\"", "\"\"") + '"';
+        }
+        return value;
+    }
+
+    private static final class ScrollIterator implements Iterator<TransactionLog> {
+        private final ScrollableResults<TransactionLog> rows;
+        private Boolean hasNext;
+
+        ScrollIterator(ScrollableResults<TransactionLog> rows) {
+            this.rows = rows;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (hasNext == null) {
+                hasNext = rows.next();
+            }
+            return hasNext;
+        }
+
+        @Override
+        public TransactionLog next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            hasNext = null;
+            return rows.get();
+        }
+    }
+}
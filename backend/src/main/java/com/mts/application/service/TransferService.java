@@ -1,8 +1,10 @@
 package com.mts.application.service;
 
+import com.mts.domain.dto.CursorPage;
 import com.mts.domain.dto.TransferRequest;
 import com.mts.domain.dto.TransferResponse;
 import com.mts.domain.dto.TransactionLogResponse;
+import com.mts.domain.enums.Direction;
 import com.mts.domain.enums.TransactionStatus;
 import com.mts.domain.exceptions.*;
 
@@ -20,7 +22,19 @@ public interface TransferService {
             DuplicateTransferException,
             OptimisticLockException;
 
-    enum Direction { ALL, SENT, RECEIVED }
+    /**
+     * How balances are moved.
+     * ENTITY loads both accounts and saves them back (optimistic {@code @Version} locking);
+     * SET_BASED issues two conditional UPDATEs and lets the database do the check-and-set.
+     */
+    enum ExecutionMode { ENTITY, SET_BASED }
+
+    /**
+     * Row locking used by the ENTITY execution mode.
+     * OPTIMISTIC relies on the {@code @Version} check at flush; PESSIMISTIC takes
+     * {@code SELECT ... FOR UPDATE} on both accounts in ascending id order before touching balances.
+     */
+    enum LockStrategy { OPTIMISTIC, PESSIMISTIC }
 
     Page<TransactionLogResponse> getAccountTransactions(
             String accountId,
@@ -30,4 +44,19 @@ public interface TransferService {
             Direction direction,
             Pageable pageable
     );
+
+    /**
+     * Keyset-paginated variant of {@link #getAccountTransactions}: newest first, ordered by
+     * {@code (createdOn, id)}, with no count query. Pass the previous page's {@code nextCursor} to continue;
+     * null or blank starts from the newest transaction.
+     */
+    CursorPage<TransactionLogResponse> getAccountTransactionsByCursor(
+            String accountId,
+            Instant from,
+            Instant to,
+            TransactionStatus status,
+            Direction direction,
+            String cursor,
+            int size
+    );
 }
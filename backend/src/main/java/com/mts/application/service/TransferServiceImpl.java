@@ -1,19 +1,32 @@
 package com.mts.application.service;
 
+import com.mts.application.cache.BalanceTable;
+import com.mts.application.cache.DailyLimitTracker;
+import com.mts.application.cache.GlobalConfigSnapshot;
+import com.mts.application.cache.IdempotencyIndex;
+import com.mts.application.cache.TransferResponseCache;
 import com.mts.application.entities.Account;
 import com.mts.application.entities.TransactionLog;
 import com.mts.application.mapper.TransactionMapper;
+import com.mts.application.metrics.TransferMetrics;
+import com.mts.application.metrics.TransferMetrics.Stage;
+import com.mts.application.metrics.jfr.TransferEvents;
 import com.mts.application.repository.AccountRepository;
 import com.mts.application.repository.TransactionLogRepository;
 import com.mts.application.repository.spec.TransactionLogSpecs;
+import com.mts.application.snowflake.SnowflakeIdGenerator;
+import com.mts.domain.dto.CursorPage;
 import com.mts.domain.dto.TransferRequest;
 import com.mts.domain.dto.TransferResponse;
 import com.mts.domain.dto.TransactionLogResponse;
+import com.mts.domain.enums.Direction;
 import com.mts.domain.enums.TransactionStatus;
+import com.mts.domain.enums.TransferFailureCode;
 import com.mts.domain.exceptions.*;
 
 import lombok.RequiredArgsConstructor;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -23,22 +36,51 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.Instant;
-import java.util.UUID;
-
-import static org.springframework.data.jpa.domain.Specification.where;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 @Service
 @RequiredArgsConstructor
 public class TransferServiceImpl implements TransferService {
 
+    static final String CONFLICT_REASON = "Concurrent modification conflict";
+    static final int MAX_CURSOR_PAGE_SIZE = 200;
+    private static final Comparator<TransactionLog> HISTORY_COMPARATOR = Comparator
+            .comparing(TransactionLog::getCreatedOn, Comparator.reverseOrder())
+            .thenComparing(TransactionLog::getId, Comparator.reverseOrder());
+
     private final AccountService accountService;
     private final AccountRepository accountRepository;
     private final TransactionLogRepository logRepository;
-    private final com.mts.application.repository.GlobalConfigRepository globalConfigRepository;
+    private final GlobalConfigSnapshot transferLimits;
     private final com.mts.application.repository.TransferAuthorizationRepository transferAuthorizationRepository;
+    private final IdempotencyIndex idempotencyIndex;
+    private final TransferResponseCache responseCache;
+    private final SnowflakeIdGenerator idGenerator;
+    private final TransferMetrics metrics;
+    private final DailyLimitTracker dailyLimits;
+    private final BalanceTable balanceTable;
+
+    @Value("${transfer.execution-mode:ENTITY}")
+    private ExecutionMode executionMode = ExecutionMode.ENTITY;
+
+    @Value("${transfer.lock-strategy:OPTIMISTIC}")
+    private LockStrategy lockStrategy = LockStrategy.OPTIMISTIC;
+
+    // Hot accounts (payroll, merchants) that always use PESSIMISTIC locking regardless of the global strategy
+    @Value("${transfer.pessimistic-account-ids:}")
+    private Set<Long> pessimisticAccountIds = Set.of();
 
+    /**
+     * A concurrency conflict rolls the whole attempt back (including its log row) so that
+     * {@link RetryingTransferService} can re-run it in a fresh transaction under the same idempotency key.
+     */
     @Override
-    @Transactional
+    @Transactional(rollbackFor = { OptimisticLockException.class, DuplicateTransferException.class })
     public TransferResponse transfer(TransferRequest request)
             throws AccountNotFoundException,
             AccountNotActiveException,
@@ -51,92 +93,388 @@ public class TransferServiceImpl implements TransferService {
         Long fromId = parseAccountId(fromIdStr, "source");
         Long toId = parseAccountId(toIdStr, "destination");
 
-        // 1) Idempotency
-        if (logRepository.findByIdempotencyKey(request.getIdempotencyKey()).isPresent()) {
-            throw new DuplicateTransferException(
-                    "Duplicate transfer request: " + request.getIdempotencyKey() + " (idempotency key already used)");
+        // 1) Idempotency (a key whose earlier attempt gave up on a conflict may be used again)
+        long stageStart = System.nanoTime();
+        TransactionLog resumed = claimIdempotencyKey(request, fromId, toId);
+        metrics.recordStage(Stage.IDEMPOTENCY_CHECK, stageStart);
+
+        if (executionMode == ExecutionMode.SET_BASED) {
+            return transferSetBased(request, resumed, fromIdStr, toIdStr, fromId, toId);
         }
 
         // 2) Create and persist PENDING log
-        TransactionLog log = new TransactionLog();
-        log.setId(UUID.randomUUID().toString());
-        log.setIdempotencyKey(request.getIdempotencyKey());
-        log.setFromAccountId(fromId);
-        log.setToAccountId(toId);
-        log.setAmount(request.getAmount());
-        log.setCurrency(request.getCurrency());
-        log.setStatus(TransactionStatus.PENDING);
-        log.setFailureReason(null);
-        log.setCreatedOn(Instant.now());
-
-        try {
-            log = logRepository.saveAndFlush(log);
-        } catch (DataIntegrityViolationException e) {
-            throw new DuplicateTransferException("Duplicate transfer request (idempotency key already used)", e);
-        }
+        stageStart = System.nanoTime();
+        TransactionLog log = persistLog(resumed, request, fromId, toId, TransactionStatus.PENDING);
+        metrics.recordStage(Stage.PENDING_INSERT, stageStart);
 
         try {
             // 3) Validate and load accounts
-            validateTransfer(fromIdStr, toIdStr, request.getAmount());
-            Account sender = accountService.getAccountById(fromIdStr);
-            Account receiver = accountService.getAccountById(toIdStr);
+            stageStart = System.nanoTime();
+            Account sender;
+            Account receiver;
+            if (lockStrategyFor(fromId, toId) == LockStrategy.PESSIMISTIC) {
+                validateTransferRequest(fromIdStr, toIdStr, request.getAmount());
+                Map<Long, Account> locked = lockInAscendingOrder(fromId, toId);
+                sender = locked.get(fromId);
+                receiver = locked.get(toId);
+            } else {
+                validateTransfer(fromIdStr, toIdStr, request.getAmount());
+                sender = accountService.getAccountById(fromIdStr);
+                receiver = accountService.getAccountById(toIdStr);
+            }
+            metrics.recordStage(Stage.VALIDATION, stageStart);
 
             // --- CHECK GLOBAL LIMIT & HIGH VALUE ---
-            BigDecimal globalLimit = globalConfigRepository.findById("DEFAULT")
-                    .map(com.mts.application.entities.GlobalConfig::getGlobalTransferLimit)
-                    .orElse(null);
-
             // If limit exists and amount > limit, require approval
-            if (globalLimit != null && request.getAmount().compareTo(globalLimit) > 0) {
-                log.setStatus(TransactionStatus.PENDING); // Remains pending
-                log.setFailureReason("Pending Approval: Amount exceeds global limit");
-                logRepository.save(log);
-
-                // Create Authorization Request
-                com.mts.application.entities.TransferAuthorization auth = new com.mts.application.entities.TransferAuthorization();
-                auth.setTransactionId(log.getId());
-                auth.setAmount(request.getAmount());
-                auth.setFromAccountId(fromIdStr); // Store as string for flexibility
-                auth.setToAccountId(toIdStr);
-                auth.setStatus("PENDING");
-                auth.setRequestedAt(java.time.LocalDateTime.now());
-                transferAuthorizationRepository.save(auth);
-
-                return new TransferResponse(
-                        log.getId(), fromIdStr, toIdStr, request.getAmount(), request.getCurrency(),
-                        TransactionStatus.PENDING, "Transfer requires approval", log.getIdempotencyKey(),
-                        log.getCreatedOn());
+            stageStart = System.nanoTime();
+            boolean needsApproval = exceedsGlobalLimit(request.getAmount());
+            if (needsApproval) {
+                metrics.recordStage(Stage.LIMIT_CHECK, stageStart);
+                return routeForApproval(log, request, fromIdStr, toIdStr);
             }
+            // Per-account daily limit, from in-memory totals (released again unless the debit commits)
+            DailyLimitTracker.Reservation reservation =
+                    dailyLimits.reserve(fromId, sender.getDailyLimit(), request.getAmount());
+            metrics.recordStage(Stage.LIMIT_CHECK, stageStart);
 
             // 4) Debit and credit
+            stageStart = System.nanoTime();
             sender.debit(request.getAmount());
             receiver.credit(request.getAmount());
 
             // 5) Persist updated accounts
             accountRepository.saveAndFlush(sender);
             accountRepository.saveAndFlush(receiver);
+            reservation.confirm();
+            balanceTable.putAfterCommit(sender);
+            balanceTable.putAfterCommit(receiver);
+            metrics.recordStage(Stage.BALANCE_FLUSH, stageStart);
 
-            // 6) Mark SUCCESS
+            // 6) Mark SUCCESS (the UPDATE itself is flushed at commit, see transfer.attempt)
+            stageStart = System.nanoTime();
             log.setStatus(TransactionStatus.SUCCESS);
             logRepository.save(log);
+            TransferResponse response = remember(log, buildSuccessResponse(log, fromIdStr, toIdStr, request));
+            metrics.recordStage(Stage.LOG_WRITE, stageStart);
+            return response;
 
-            return buildSuccessResponse(log, fromIdStr, toIdStr, request);
-
-        } catch (org.springframework.orm.ObjectOptimisticLockingFailureException e) {
-            log.setStatus(TransactionStatus.FAILED);
-            log.setFailureReason("Concurrent modification conflict");
-            logRepository.save(log);
+        } catch (org.springframework.dao.ConcurrencyFailureException e) {
+            // Optimistic version conflict, or lock wait timeout / deadlock victim under PESSIMISTIC
             throw new OptimisticLockException("Concurrent modification detected, please retry the transfer", e);
         } catch (InsufficientBalanceException | AccountNotActiveException | AccountNotFoundException e) {
-            log.setStatus(TransactionStatus.FAILED);
-            log.setFailureReason(e.getMessage());
-            logRepository.save(log);
+            markFailed(log, e);
+            throw e;
+        }
+    }
+
+    private LockStrategy lockStrategyFor(Long fromId, Long toId) {
+        if (pessimisticAccountIds.contains(fromId) || pessimisticAccountIds.contains(toId)) {
+            return LockStrategy.PESSIMISTIC;
+        }
+        return lockStrategy;
+    }
+
+    /**
+     * Takes row locks on both accounts, lower id first, so concurrent A->B and B->A transfers queue up
+     * instead of deadlocking. The accounts must not already be in the persistence context, otherwise the
+     * lock query would hand back the stale managed instance; that is why this path skips the
+     * {@link AccountService#validateAccountForTransfer} pre-load and checks status on the locked rows.
+     */
+    private Map<Long, Account> lockInAscendingOrder(Long fromId, Long toId)
+            throws AccountNotFoundException, AccountNotActiveException {
+        Map<Long, Account> locked = new HashMap<>(4);
+        for (Long id : new Long[] { Math.min(fromId, toId), Math.max(fromId, toId) }) {
+            Account account = accountRepository.findByIdForUpdate(id)
+                    .orElseThrow(() -> new AccountNotFoundException("Account with ID " + id + " not found"));
+            if (!account.isActive()) {
+                throw new AccountNotActiveException(
+                        "Account " + id + " is not ACTIVE (status=" + account.getStatus() + ")");
+            }
+            locked.put(id, account);
+        }
+        return locked;
+    }
+
+    /**
+     * Set-based path: the PENDING-then-SUCCESS log rewrite and the account load/save round-trips are
+     * replaced by one log INSERT and two conditional UPDATEs. The affected-row counts decide the outcome;
+     * accounts are only read back when an UPDATE matched nothing, to pick the right exception.
+     */
+    private TransferResponse transferSetBased(TransferRequest request, TransactionLog resumed,
+            String fromIdStr, String toIdStr, Long fromId, Long toId)
+            throws AccountNotFoundException,
+            AccountNotActiveException,
+            InsufficientBalanceException,
+            DuplicateTransferException {
+
+        long stageStart = System.nanoTime();
+        validateTransferRequest(fromIdStr, toIdStr, request.getAmount());
+        metrics.recordStage(Stage.VALIDATION, stageStart);
+
+        stageStart = System.nanoTime();
+        boolean needsApproval = exceedsGlobalLimit(request.getAmount());
+        metrics.recordStage(Stage.LIMIT_CHECK, stageStart);
+        if (needsApproval) {
+            TransactionLog log = persistLog(resumed, request, fromId, toId, TransactionStatus.PENDING);
+            try {
+                accountService.validateAccountForTransfer(fromIdStr);
+                accountService.validateAccountForTransfer(toIdStr);
+            } catch (AccountNotActiveException | AccountNotFoundException e) {
+                markFailed(log, e);
+                throw e;
+            }
+            return routeForApproval(log, request, fromIdStr, toIdStr);
+        }
+
+        // The log row claims the idempotency key before any balance moves; both happen in this transaction.
+        stageStart = System.nanoTime();
+        TransactionLog log = persistLog(resumed, request, fromId, toId, TransactionStatus.SUCCESS);
+        metrics.recordStage(Stage.PENDING_INSERT, stageStart);
+        try {
+            // The set-based path never loads the sender, so the check uses the cached (polled) daily limit
+            DailyLimitTracker.Reservation reservation = dailyLimits.reserve(fromId, request.getAmount());
+            stageStart = System.nanoTime();
+            applyConditionalUpdates(fromId, toId, request.getAmount());
+            reservation.confirm();
+            // The UPDATEs do not return the new balances, so the cached ones are dropped instead
+            balanceTable.invalidateAfterCommit(fromId);
+            balanceTable.invalidateAfterCommit(toId);
+            metrics.recordStage(Stage.BALANCE_FLUSH, stageStart);
+        } catch (InsufficientBalanceException | AccountNotActiveException | AccountNotFoundException e) {
+            markFailed(log, e);
             throw e;
         }
+        return remember(log, buildSuccessResponse(log, fromIdStr, toIdStr, request));
+    }
+
+    /**
+     * Runs the debit and credit UPDATEs in ascending account-id order so that opposite-direction transfers
+     * between the same pair lock rows in the same order. If the second statement matches nothing, the first
+     * one is undone (its row is already locked by this transaction) before the failure is reported.
+     */
+    private void applyConditionalUpdates(Long fromId, Long toId, BigDecimal amount)
+            throws AccountNotFoundException, AccountNotActiveException, InsufficientBalanceException {
+        Instant now = Instant.now();
+        if (fromId < toId) {
+            if (accountRepository.debitIfSufficient(fromId, amount, now) == 0) {
+                rejectDebit(fromId);
+            }
+            if (accountRepository.creditIfActive(toId, amount, now) == 0) {
+                accountRepository.creditIfActive(fromId, amount, now);
+                rejectCredit(toId);
+            }
+        } else {
+            if (accountRepository.creditIfActive(toId, amount, now) == 0) {
+                rejectCredit(toId);
+            }
+            if (accountRepository.debitIfSufficient(fromId, amount, now) == 0) {
+                accountRepository.debitIfSufficient(toId, amount, now);
+                rejectDebit(fromId);
+            }
+        }
+    }
+
+    private void rejectDebit(Long id)
+            throws AccountNotFoundException, AccountNotActiveException, InsufficientBalanceException {
+        Account account = loadForDiagnosis(id);
+        throw new InsufficientBalanceException("Insufficient balance in account: " + account.getId());
+    }
+
+    private void rejectCredit(Long id) throws AccountNotFoundException, AccountNotActiveException {
+        loadForDiagnosis(id);
+        // The row exists and is ACTIVE, so it can only have changed between the UPDATE and this read.
+        throw new AccountNotActiveException("Account " + id + " could not be credited");
+    }
+
+    private Account loadForDiagnosis(Long id) throws AccountNotFoundException, AccountNotActiveException {
+        Account account = accountRepository.findById(id)
+                .orElseThrow(() -> new AccountNotFoundException("Account with ID " + id + " not found"));
+        if (!account.isActive()) {
+            throw new AccountNotActiveException(
+                    "Account " + id + " is not ACTIVE (status=" + account.getStatus() + ")");
+        }
+        return account;
+    }
+
+    /**
+     * Records the final FAILED row for a transfer that {@link RetryingTransferService} gave up on.
+     * The attempts themselves rolled back, so normally no row exists for the key yet.
+     */
+    @Transactional
+    public void recordConflictFailure(TransferRequest request) {
+        if (logRepository.findByIdempotencyKey(request.getIdempotencyKey()).isPresent()) {
+            return;
+        }
+        TransactionLog log = newLog(request, parseAccountId(resolveFromId(request), "source"),
+                parseAccountId(resolveToId(request), "destination"), TransactionStatus.FAILED);
+        log.setFailureReason(CONFLICT_REASON);
+        logRepository.save(log);
+        idempotencyIndex.recordResumable(request.getIdempotencyKey());
+    }
+
+    /**
+     * Returns null when the key is unused, or the existing row when it only holds a conflict give-up
+     * (re-opened atomically so two concurrent resends cannot both resume it).
+     * Keys the {@link IdempotencyIndex} has never seen skip the SELECT; the unique constraint on the
+     * INSERT stays the final authority. A settled key is rejected with its original response when the
+     * resend matches it and is still inside the replay window.
+     */
+    private TransactionLog claimIdempotencyKey(TransferRequest request, Long fromId, Long toId)
+            throws DuplicateTransferException {
+        String idempotencyKey = request.getIdempotencyKey();
+        IdempotencyIndex.Lookup hint = idempotencyIndex.lookup(idempotencyKey);
+        if (hint == IdempotencyIndex.Lookup.ABSENT) {
+            return null;
+        }
+        if (hint == IdempotencyIndex.Lookup.KNOWN) {
+            TransferResponse cached = responseCache.get(idempotencyKey);
+            if (cached != null) {
+                DuplicateTransferException duplicate = duplicateKey(idempotencyKey, cached, fromId, toId, request.getAmount());
+                TransferEvents.idempotencyHit(idempotencyKey, "response-cache", duplicate instanceof ReplayedTransferException);
+                throw duplicate;
+            }
+        }
+        TransactionLog prior = logRepository.findByIdempotencyKey(idempotencyKey).orElse(null);
+        if (prior == null) {
+            return null;
+        }
+        if (prior.getStatus() == TransactionStatus.FAILED && CONFLICT_REASON.equals(prior.getFailureReason())
+                && logRepository.reopenFailed(prior.getId(), CONFLICT_REASON) == 1) {
+            return prior;
+        }
+        throw usedKey(request, prior, fromId, toId);
+    }
+
+    /** The error for a request whose key {@code prior} holds, with its response when it may be replayed. */
+    private DuplicateTransferException usedKey(TransferRequest request, TransactionLog prior, Long fromId, Long toId) {
+        String idempotencyKey = request.getIdempotencyKey();
+        idempotencyIndex.recordExisting(idempotencyKey);
+        TransferResponse original = null;
+        if (responseCache.isReplayable(prior.getCreatedOn())) {
+            original = TransactionMapper.toTransferResponse(prior);
+            if (prior.getStatus() != TransactionStatus.PENDING) {
+                responseCache.put(original);
+            }
+        }
+        DuplicateTransferException duplicate = duplicateKey(idempotencyKey, original, fromId, toId, request.getAmount());
+        TransferEvents.idempotencyHit(idempotencyKey, "database", duplicate instanceof ReplayedTransferException);
+        return duplicate;
+    }
+
+    /**
+     * The original response is only replayed to a resend of the same transfer; a different payload
+     * under a used key stays a plain conflict.
+     */
+    static DuplicateTransferException duplicateKey(String idempotencyKey, TransferResponse original,
+            Long fromId, Long toId, BigDecimal amount) {
+        String message = "Duplicate transfer request: " + idempotencyKey + " (idempotency key already used)";
+        if (original != null
+                && String.valueOf(fromId).equals(original.sourceAccountId())
+                && String.valueOf(toId).equals(original.destinationAccountId())
+                && original.amount() != null && amount != null && original.amount().compareTo(amount) == 0) {
+            return new ReplayedTransferException(message, original);
+        }
+        return new DuplicateTransferException(message);
+    }
+
+    /** Caches the outcome keyed on the row's canonical ids, which is what a resend is compared against. */
+    private TransferResponse remember(TransactionLog log, TransferResponse response) {
+        responseCache.put(TransactionMapper.toTransferResponse(log));
+        return response;
+    }
+
+    private TransactionLog persistLog(TransactionLog resumed, TransferRequest request, Long fromId, Long toId,
+            TransactionStatus status) throws DuplicateTransferException {
+        if (resumed != null) {
+            resumed.setFromAccountId(fromId);
+            resumed.setToAccountId(toId);
+            resumed.setAmount(request.getAmount());
+            resumed.setCurrency(request.getCurrency());
+            resumed.setStatus(status);
+            resumed.setFailureReason(null);
+            resumed.setFailureCode(null);
+            TransactionLog saved = logRepository.saveAndFlush(resumed);
+            idempotencyIndex.recordClaimed(request.getIdempotencyKey());
+            return saved;
+        }
+
+        TransactionLog log = newLog(request, fromId, toId, status);
+
+        try {
+            log = logRepository.saveAndFlush(log);
+        } catch (DataIntegrityViolationException e) {
+            // A concurrent request took the key; the INSERT waited for its row to commit, but only a new
+            // transaction is sure to see it
+            TransactionLog prior = logRepository.findCommittedByIdempotencyKey(request.getIdempotencyKey())
+                    .orElse(null);
+            if (prior != null) {
+                throw usedKey(request, prior, fromId, toId);
+            }
+            TransferEvents.idempotencyHit(request.getIdempotencyKey(), "database", false);
+            throw new DuplicateTransferException("Duplicate transfer request (idempotency key already used)", e);
+        }
+        idempotencyIndex.recordClaimed(request.getIdempotencyKey());
+        return log;
+    }
+
+    private TransactionLog newLog(TransferRequest request, Long fromId, Long toId, TransactionStatus status) {
+        TransactionLog log = new TransactionLog();
+        log.setId(idGenerator.nextKey());
+        log.setIdempotencyKey(request.getIdempotencyKey());
+        log.setFromAccountId(fromId);
+        log.setToAccountId(toId);
+        log.setAmount(request.getAmount());
+        log.setCurrency(request.getCurrency());
+        log.setStatus(status);
+        log.setFailureReason(null);
+        log.setCreatedOn(Instant.now());
+        return log;
+    }
+
+    private void markFailed(TransactionLog log, Exception failure) {
+        log.setStatus(TransactionStatus.FAILED);
+        log.setFailureReason(failure.getMessage());
+        log.setFailureCode(TransferFailureCode.of(failure));
+        logRepository.save(log);
+        responseCache.put(TransactionMapper.toTransferResponse(log));
+    }
+
+    private boolean exceedsGlobalLimit(BigDecimal amount) {
+        return transferLimits.current().exceedsGlobalLimit(amount);
+    }
+
+    private TransferResponse routeForApproval(TransactionLog log, TransferRequest request,
+            String fromIdStr, String toIdStr) {
+        log.setStatus(TransactionStatus.PENDING); // Remains pending
+        log.setFailureReason("Pending Approval: Amount exceeds global limit");
+        logRepository.save(log);
+
+        // Create Authorization Request
+        com.mts.application.entities.TransferAuthorization auth = new com.mts.application.entities.TransferAuthorization();
+        auth.setId(idGenerator.nextId());
+        auth.setTransactionId(log.getId());
+        auth.setAmount(request.getAmount());
+        auth.setFromAccountId(fromIdStr); // Store as string for flexibility
+        auth.setToAccountId(toIdStr);
+        auth.setStatus("PENDING");
+        auth.setRequestedAt(java.time.LocalDateTime.now());
+        transferAuthorizationRepository.save(auth);
+        TransferEvents.approvalRouted(log.getId(), request.getAmount());
+
+        return new TransferResponse(
+                log.getId(), fromIdStr, toIdStr, request.getAmount(), request.getCurrency(),
+                TransactionStatus.PENDING, "Transfer requires approval", log.getIdempotencyKey(),
+                log.getCreatedOn());
     }
 
     private void validateTransfer(String fromId, String toId, BigDecimal amount)
             throws AccountNotFoundException, AccountNotActiveException {
+        validateTransferRequest(fromId, toId, amount);
+        accountService.validateAccountForTransfer(fromId);
+        accountService.validateAccountForTransfer(toId);
+    }
+
+    private static void validateTransferRequest(String fromId, String toId, BigDecimal amount) {
         if (fromId == null || fromId.isBlank()) {
             throw new IllegalArgumentException("Missing source account id");
         }
@@ -149,8 +487,6 @@ public class TransferServiceImpl implements TransferService {
         if (amount == null || amount.signum() <= 0) {
             throw new IllegalArgumentException("Amount must be positive");
         }
-        accountService.validateAccountForTransfer(fromId);
-        accountService.validateAccountForTransfer(toId);
     }
 
     private TransferResponse buildSuccessResponse(TransactionLog log, String sourceId, String destId,
@@ -178,7 +514,7 @@ public class TransferServiceImpl implements TransferService {
         }
     }
 
-    private String resolveFromId(TransferRequest req) {
+    static String resolveFromId(TransferRequest req) {
         String id = req.getSourceAccountId();
         if (id == null || id.isBlank()) {
             Long from = req.getFromAccountId();
@@ -187,7 +523,7 @@ public class TransferServiceImpl implements TransferService {
         return id != null ? id.trim() : null;
     }
 
-    private String resolveToId(TransferRequest req) {
+    static String resolveToId(TransferRequest req) {
         String id = req.getDestinationAccountId();
         if (id == null || id.isBlank()) {
             Long to = req.getToAccountId();
@@ -206,23 +542,65 @@ public class TransferServiceImpl implements TransferService {
             Direction direction,
             Pageable pageable) {
         Long accountIdLong = parseAccountId(accountId, "account");
-        Specification<TransactionLog> spec = where(TransactionLogSpecs.forAccount(accountIdLong))
-                .and(TransactionLogSpecs.createdOnFrom(from))
-                .and(TransactionLogSpecs.createdOnTo(to))
-                .and(TransactionLogSpecs.status(status));
+        Specification<TransactionLog> spec = TransactionLogSpecs.history(accountIdLong, direction, from, to, status);
+        return logRepository.findAll(spec, pageable).map(TransactionMapper::toResponse);
+    }
 
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<TransactionLogResponse> getAccountTransactionsByCursor(
+            String accountId,
+            Instant from,
+            Instant to,
+            TransactionStatus status,
+            Direction direction,
+            String cursor,
+            int size) {
+        if (size < 1 || size > MAX_CURSOR_PAGE_SIZE) {
+            throw new IllegalArgumentException("Page size must be between 1 and " + MAX_CURSOR_PAGE_SIZE);
+        }
+        Long accountIdLong = parseAccountId(accountId, "account");
+        HistoryCursor after = cursor != null && !cursor.isBlank() ? HistoryCursor.decode(cursor) : null;
+        Instant afterCreatedOn = after != null ? after.createdOn() : null;
+        String afterId = after != null ? after.id() : null;
+        String statusName = status != null ? status.name() : null;
+
+        // One row past the page tells whether there is a next page, without a count query.
+        // Each side is its own index range scan; ALL merges the two instead of OR-ing them into a filesort.
+        int limit = size + 1;
+        List<TransactionLog> rows;
         if (direction == Direction.SENT) {
-            spec = where(TransactionLogSpecs.directionSentOnly(accountIdLong))
-                    .and(TransactionLogSpecs.createdOnFrom(from))
-                    .and(TransactionLogSpecs.createdOnTo(to))
-                    .and(TransactionLogSpecs.status(status));
+            rows = logRepository.findSentHistory(accountIdLong, statusName, from, to, afterCreatedOn, afterId, limit);
         } else if (direction == Direction.RECEIVED) {
-            spec = where(TransactionLogSpecs.directionReceivedOnly(accountIdLong))
-                    .and(TransactionLogSpecs.createdOnFrom(from))
-                    .and(TransactionLogSpecs.createdOnTo(to))
-                    .and(TransactionLogSpecs.status(status));
+            rows = logRepository.findReceivedHistory(accountIdLong, statusName, from, to, afterCreatedOn, afterId, limit);
+        } else {
+            rows = mergeNewestFirst(
+                    logRepository.findSentHistory(accountIdLong, statusName, from, to, afterCreatedOn, afterId, limit),
+                    logRepository.findReceivedHistory(accountIdLong, statusName, from, to, afterCreatedOn, afterId, limit),
+                    limit);
+        }
+        boolean hasNext = rows.size() > size;
+        List<TransactionLog> page = hasNext ? rows.subList(0, size) : rows;
+        String nextCursor = null;
+        if (hasNext) {
+            TransactionLog last = page.get(page.size() - 1);
+            nextCursor = new HistoryCursor(last.getCreatedOn(), last.getId()).encode();
         }
+        return new CursorPage<>(page.stream().map(TransactionMapper::toResponse).toList(), nextCursor);
+    }
 
-        return logRepository.findAll(spec, pageable).map(TransactionMapper::toResponse);
+    /** Merges two lists already in {@code (createdOn desc, id desc)} order, keeping the first {@code limit}. */
+    static List<TransactionLog> mergeNewestFirst(List<TransactionLog> a, List<TransactionLog> b, int limit) {
+        List<TransactionLog> merged = new ArrayList<>(Math.min(limit, a.size() + b.size()));
+        int i = 0;
+        int j = 0;
+        while (merged.size() < limit && (i < a.size() || j < b.size())) {
+            if (j >= b.size() || (i < a.size() && HISTORY_COMPARATOR.compare(a.get(i), b.get(j)) <= 0)) {
+                merged.add(a.get(i++));
+            } else {
+                merged.add(b.get(j++));
+            }
+        }
+        return merged;
     }
 }
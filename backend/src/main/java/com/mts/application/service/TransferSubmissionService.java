@@ -0,0 +1,102 @@
+package com.mts.application.service;
+
+import com.mts.application.entities.TransferSubmission;
+import com.mts.application.mapper.TransactionMapper;
+import com.mts.application.repository.TransactionLogRepository;
+import com.mts.application.repository.TransferSubmissionRepository;
+import com.mts.application.snowflake.SnowflakeIdGenerator;
+import com.mts.domain.dto.TransferRequest;
+import com.mts.domain.dto.TransferResponse;
+import com.mts.domain.dto.TransferSubmissionResponse;
+import com.mts.domain.enums.SubmissionStatus;
+import com.mts.domain.exceptions.DuplicateTransferException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Accepts transfers for asynchronous execution: the request is written to {@code transfer_submissions}
+ * and picked up by {@link TransferSubmissionWorker}. Resubmitting the same transfer under its idempotency
+ * key returns the existing submission instead of queueing it twice.
+ */
+@Service
+public class TransferSubmissionService {
+
+    private final TransferSubmissionRepository submissionRepository;
+    private final TransactionLogRepository logRepository;
+    private final SnowflakeIdGenerator idGenerator;
+
+    public TransferSubmissionService(TransferSubmissionRepository submissionRepository,
+            TransactionLogRepository logRepository,
+            SnowflakeIdGenerator idGenerator) {
+        this.submissionRepository = submissionRepository;
+        this.logRepository = logRepository;
+        this.idGenerator = idGenerator;
+    }
+
+    @Transactional
+    public TransferSubmissionResponse submit(TransferRequest request) throws DuplicateTransferException {
+        TransferSubmission existing = submissionRepository.findByIdempotencyKey(request.getIdempotencyKey()).orElse(null);
+        if (existing != null) {
+            if (!sameTransfer(existing, request)) {
+                throw new DuplicateTransferException("Duplicate transfer request: " + request.getIdempotencyKey()
+                        + " (idempotency key already used)");
+            }
+            return toResponse(existing);
+        }
+
+        TransferSubmission submission = new TransferSubmission();
+        submission.setId(idGenerator.nextKey());
+        submission.setIdempotencyKey(request.getIdempotencyKey());
+        submission.setSourceAccountId(request.getSourceAccountId());
+        submission.setDestinationAccountId(request.getDestinationAccountId());
+        submission.setAmount(request.getAmount());
+        submission.setCurrency(request.getCurrency());
+        submission.setStatus(SubmissionStatus.QUEUED);
+        submission.setSubmittedAt(Instant.now());
+        // Flushed here so a concurrent submission of the same key fails this request, not a later commit
+        return toResponse(submissionRepository.saveAndFlush(submission));
+    }
+
+    /**
+     * Status of a submission, or of a transfer executed synchronously when {@code id} is a transaction id
+     * (both come from the same Snowflake generator, so they cannot collide).
+     */
+    @Transactional(readOnly = true)
+    public Optional<TransferSubmissionResponse> getStatus(String id) {
+        Optional<TransferSubmission> submission = submissionRepository.findById(id);
+        if (submission.isPresent()) {
+            return submission.map(TransferSubmissionService::toResponse);
+        }
+        return logRepository.findById(id).map(log -> new TransferSubmissionResponse(log.getId(),
+                SubmissionStatus.COMPLETED, log.getIdempotencyKey(), log.getCreatedOn(), log.getCreatedOn(),
+                TransactionMapper.toTransferResponse(log)));
+    }
+
+    static TransferSubmissionResponse toResponse(TransferSubmission submission) {
+        TransferResponse result = null;
+        if (submission.getStatus() == SubmissionStatus.COMPLETED || submission.getStatus() == SubmissionStatus.FAILED) {
+            result = new TransferResponse(
+                    submission.getTransactionId(),
+                    submission.getSourceAccountId(),
+                    submission.getDestinationAccountId(),
+                    submission.getAmount(),
+                    submission.getCurrency(),
+                    submission.getTransferStatus(),
+                    submission.getMessage(),
+                    submission.getIdempotencyKey(),
+                    submission.getCompletedAt());
+        }
+        return new TransferSubmissionResponse(submission.getId(), submission.getStatus(),
+                submission.getIdempotencyKey(), submission.getSubmittedAt(), submission.getCompletedAt(), result);
+    }
+
+    private static boolean sameTransfer(TransferSubmission submission, TransferRequest request) {
+        return Objects.equals(submission.getSourceAccountId(), request.getSourceAccountId())
+                && Objects.equals(submission.getDestinationAccountId(), request.getDestinationAccountId())
+                && request.getAmount() != null && submission.getAmount().compareTo(request.getAmount()) == 0;
+    }
+}
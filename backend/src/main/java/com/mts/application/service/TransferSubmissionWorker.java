@@ -0,0 +1,226 @@
+package com.mts.application.service;
+
+import com.mts.application.entities.TransferSubmission;
+import com.mts.application.repository.TransferSubmissionRepository;
+import com.mts.application.snowflake.SnowflakeIdGenerator;
+import com.mts.domain.dto.TransferRequest;
+import com.mts.domain.dto.TransferResponse;
+import com.mts.domain.exceptions.*;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PreDestroy;
+import jakarta.validation.ValidationException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.TransactionException;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Drains {@code transfer_submissions} into a fixed pool of {@code transfer.async.workers} threads.
+ *
+ * <p>Every {@code transfer.async.poll-ms} the queue is claimed in batches of up to
+ * {@code transfer.async.batch-size}, never more than the pool's hand-off queue has room for, so a backlog
+ * stays in the table rather than in memory. Each submission runs through {@link TransferService} under its
+ * own idempotency key; running one twice (a requeued stale claim) replays the first outcome instead of
+ * moving money again. Rows left PROCESSING by a crashed or stopped instance are requeued once their claim
+ * is older than {@code transfer.async.stale-after-ms}.
+ *
+ * <p>Rejected or invalid requests fail the submission with their message. Data-access errors requeue it
+ * until it has been claimed {@code transfer.async.max-attempts} times; any other error fails it at once.
+ * With {@code transfer.ledger.enabled}, a submit timeout or a key the engine still has in flight means the
+ * transfer may yet go through, so those are requeued too and the replay picks up the outcome.
+ */
+@Component
+public class TransferSubmissionWorker implements MeterBinder {
+
+    private static final Logger logger = LoggerFactory.getLogger(TransferSubmissionWorker.class);
+
+    private static final int MAX_MESSAGE_LENGTH = 500;
+
+    private final TransferService transferService;
+    private final TransferSubmissionRepository submissionRepository;
+    private final SnowflakeIdGenerator idGenerator;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final Duration staleAfter;
+    private final boolean ledgerEnabled;
+    private final ThreadPoolExecutor executor;
+
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder released = new LongAdder();
+
+    public TransferSubmissionWorker(TransferService transferService,
+            TransferSubmissionRepository submissionRepository,
+            SnowflakeIdGenerator idGenerator,
+            @Value("${transfer.async.workers:4}") int workers,
+            @Value("${transfer.async.queue-capacity:1000}") int queueCapacity,
+            @Value("${transfer.async.batch-size:100}") int batchSize,
+            @Value("${transfer.async.max-attempts:5}") int maxAttempts,
+            @Value("${transfer.async.stale-after-ms:60000}") long staleAfterMs,
+            @Value("${transfer.ledger.enabled:false}") boolean ledgerEnabled) {
+        if (workers < 1 || queueCapacity < 1 || batchSize < 1) {
+            throw new IllegalArgumentException("transfer.async.workers, queue-capacity and batch-size must be >= 1");
+        }
+        this.transferService = transferService;
+        this.submissionRepository = submissionRepository;
+        this.idGenerator = idGenerator;
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.staleAfter = Duration.ofMillis(staleAfterMs);
+        this.ledgerEnabled = ledgerEnabled;
+        this.executor = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), new WorkerThreadFactory());
+    }
+
+    /**
+     * Claims and hands off submissions until the queue is empty or the pool is full. Only this method
+     * adds to the executor, so the capacity read before a claim cannot shrink before the hand-off.
+     */
+    @Scheduled(fixedDelayString = "${transfer.async.poll-ms:200}")
+    public void drain() {
+        while (!executor.isShutdown()) {
+            int room = Math.min(batchSize, executor.getQueue().remainingCapacity());
+            if (room == 0) {
+                return;
+            }
+            String token = idGenerator.nextKey();
+            int claimed = submissionRepository.claim(token, Instant.now(), room);
+            if (claimed == 0) {
+                return;
+            }
+            List<TransferSubmission> batch = submissionRepository.findByClaimTokenOrderById(token);
+            for (TransferSubmission submission : batch) {
+                executor.execute(() -> process(submission, token));
+            }
+            if (claimed < room) {
+                return;
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${transfer.async.stale-after-ms:60000}")
+    public void requeueStale() {
+        int requeued = submissionRepository.requeueStale(Instant.now().minus(staleAfter));
+        if (requeued > 0) {
+            logger.warn("Requeued {} transfer submission(s) whose claim went stale", requeued);
+        }
+    }
+
+    void process(TransferSubmission submission, String token) {
+        TransferRequest request = new TransferRequest(submission.getSourceAccountId(),
+                submission.getDestinationAccountId(), submission.getAmount(), submission.getCurrency(),
+                submission.getIdempotencyKey());
+        try {
+            complete(submission, token, transferService.transfer(request));
+        } catch (ReplayedTransferException e) {
+            complete(submission, token, e.getOriginalResponse());
+        } catch (DuplicateTransferException | OptimisticLockException e) {
+            if (ledgerEnabled) {
+                retry(submission, token, e, e.getMessage());
+            } else {
+                fail(submission, token, e.getMessage());
+            }
+        } catch (AccountNotFoundException | AccountNotActiveException | InsufficientBalanceException
+                | IllegalArgumentException | ValidationException e) {
+            // Rejected as submitted: running it again gives the same answer
+            fail(submission, token, e.getMessage());
+        } catch (DataAccessException | TransactionException e) {
+            retry(submission, token, e, "Transfer could not be processed");
+        } catch (RuntimeException e) {
+            logger.error("Transfer submission {} failed", submission.getId(), e);
+            fail(submission, token, "Transfer could not be processed");
+        }
+    }
+
+    /** Puts the submission back on the queue, or fails it with {@code finalMessage} after max attempts. */
+    private void retry(TransferSubmission submission, String token, Exception e, String finalMessage) {
+        if (submission.getAttempts() >= maxAttempts) {
+            logger.error("Transfer submission {} failed after {} attempt(s)", submission.getId(),
+                    submission.getAttempts(), e);
+            fail(submission, token, finalMessage);
+        } else {
+            logger.warn("Transfer submission {} will be retried: {}", submission.getId(), e.getMessage());
+            record(() -> submissionRepository.release(submission.getId(), token), submission);
+            released.increment();
+        }
+    }
+
+    private void complete(TransferSubmission submission, String token, TransferResponse response) {
+        record(() -> submissionRepository.complete(submission.getId(), token, response.transactionId(),
+                response.status(), truncate(response.message()), Instant.now()), submission);
+        completed.increment();
+    }
+
+    private void fail(TransferSubmission submission, String token, String message) {
+        record(() -> submissionRepository.fail(submission.getId(), token, truncate(message), Instant.now()),
+                submission);
+        failed.increment();
+    }
+
+    // A lost update leaves the row PROCESSING; requeueStale picks it up and the replay restores the outcome
+    private void record(Runnable update, TransferSubmission submission) {
+        try {
+            update.run();
+        } catch (RuntimeException e) {
+            logger.warn("Could not record the outcome of transfer submission {}: {}", submission.getId(),
+                    e.getMessage());
+        }
+    }
+
+    private static String truncate(String message) {
+        return message == null || message.length() <= MAX_MESSAGE_LENGTH ? message
+                : message.substring(0, MAX_MESSAGE_LENGTH);
+    }
+
+    /** Lets running transfers finish; anything still queued is requeued as stale on the next start. */
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        executor.shutdown();
+        if (!executor.awaitTermination(30, TimeUnit.SECONDS)) {
+            executor.shutdownNow();
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("transfer.async.in-flight", executor, e -> e.getActiveCount() + e.getQueue().size())
+                .description("Claimed submissions running or waiting for a worker")
+                .register(registry);
+        FunctionCounter.builder("transfer.async.completed", completed, LongAdder::sum)
+                .description("Submissions processed to a transfer outcome")
+                .register(registry);
+        FunctionCounter.builder("transfer.async.failed", failed, LongAdder::sum)
+                .description("Submissions that ended FAILED")
+                .register(registry);
+        FunctionCounter.builder("transfer.async.released", released, LongAdder::sum)
+                .description("Submissions put back on the queue to be tried again")
+                .register(registry);
+    }
+
+    private static final class WorkerThreadFactory implements ThreadFactory {
+        private final AtomicInteger next = new AtomicInteger(1);
+
+        @Override
+        public Thread newThread(Runnable task) {
+            Thread thread = new Thread(task, "transfer-submission-" + next.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package com.mts.application.snowflake;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.time.Instant;
+import java.util.function.LongSupplier;
+
+/**
+ * Time-ordered 64-bit ids: 41 bits of milliseconds since {@link #EPOCH}, 10 bits of worker id and a 12-bit
+ * per-millisecond sequence. Ids from one worker are strictly increasing, so primary-key inserts land at the
+ * right edge of the InnoDB clustered index instead of at random pages as with random UUIDs.
+ *
+ * <p>Worker ids must be unique per running instance; set {@code transfer.id.worker-id} explicitly when
+ * several nodes share a database. Without it the id is derived from the host name, which is only safe for
+ * a single node. If the clock steps back by up to {@code transfer.id.max-backward-ms} the generator waits
+ * it out; a larger step fails id generation rather than risk duplicates.
+ */
+@Component
+public class SnowflakeIdGenerator {
+
+    private static final Logger logger = LoggerFactory.getLogger(SnowflakeIdGenerator.class);
+
+    /** 2024-01-01T00:00:00Z; 41 bits of milliseconds from here last until 2093. */
+    public static final long EPOCH = 1704067200000L;
+
+    static final int WORKER_BITS = 10;
+    static final int SEQUENCE_BITS = 12;
+    public static final long MAX_WORKER_ID = (1L << WORKER_BITS) - 1;
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+
+    /** Width of {@link Long#MAX_VALUE} in decimal; keys are zero-padded to it so they sort like the ids. */
+    private static final int KEY_WIDTH = 19;
+
+    private final long workerId;
+    private final long maxBackwardMs;
+    private final LongSupplier clock;
+
+    private long lastTimestamp = -1L;
+    private long sequence;
+
+    public SnowflakeIdGenerator(long workerId) {
+        this(workerId, 10, System::currentTimeMillis);
+    }
+
+    @Autowired
+    public SnowflakeIdGenerator(@Value("${transfer.id.worker-id:-1}") long workerId,
+            @Value("${transfer.id.max-backward-ms:10}") long maxBackwardMs) {
+        this(workerId < 0 ? workerIdFromHost() : workerId, maxBackwardMs, System::currentTimeMillis);
+    }
+
+    SnowflakeIdGenerator(long workerId, long maxBackwardMs, LongSupplier clock) {
+        if (workerId < 0 || workerId > MAX_WORKER_ID) {
+            throw new IllegalArgumentException("transfer.id.worker-id must be between 0 and " + MAX_WORKER_ID);
+        }
+        this.workerId = workerId;
+        this.maxBackwardMs = maxBackwardMs;
+        this.clock = clock;
+    }
+
+    public synchronized long nextId() {
+        long now = clock.getAsLong();
+        if (now < lastTimestamp) {
+            long drift = lastTimestamp - now;
+            if (drift > maxBackwardMs) {
+                throw new IllegalStateException("Clock moved back by " + drift + " ms; refusing to generate ids");
+            }
+            now = waitUntilAfter(lastTimestamp - 1);
+        }
+        if (now == lastTimestamp) {
+            sequence = (sequence + 1) & SEQUENCE_MASK;
+            if (sequence == 0) {
+                // Sequence exhausted for this millisecond: wait for the next one
+                now = waitUntilAfter(lastTimestamp);
+            }
+        } else {
+            sequence = 0;
+        }
+        lastTimestamp = now;
+        return ((now - EPOCH) << (WORKER_BITS + SEQUENCE_BITS)) | (workerId << SEQUENCE_BITS) | sequence;
+    }
+
+    /**
+     * {@link #nextId()} as a fixed-width decimal string, for the existing VARCHAR primary keys: the
+     * lexicographic order of these strings is the numeric (and so chronological) order of the ids.
+     */
+    public String nextKey() {
+        return toKey(nextId());
+    }
+
+    public long getWorkerId() {
+        return workerId;
+    }
+
+    public static String toKey(long id) {
+        String digits = Long.toString(id);
+        return "0".repeat(KEY_WIDTH - digits.length()) + digits;
+    }
+
+    public static Instant timestampOf(long id) {
+        return Instant.ofEpochMilli((id >>> (WORKER_BITS + SEQUENCE_BITS)) + EPOCH);
+    }
+
+    public static long workerOf(long id) {
+        return (id >>> SEQUENCE_BITS) & MAX_WORKER_ID;
+    }
+
+    private long waitUntilAfter(long timestamp) {
+        long now = clock.getAsLong();
+        while (now <= timestamp) {
+            Thread.onSpinWait();
+            now = clock.getAsLong();
+        }
+        return now;
+    }
+
+    private static long workerIdFromHost() {
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            host = String.valueOf(ProcessHandle.current().pid());
+        }
+        long derived = Math.floorMod(host.hashCode(), MAX_WORKER_ID + 1);
+        logger.warn("transfer.id.worker-id not set; derived worker id {} from host '{}'. "
+                + "Set it explicitly when running more than one instance.", derived, host);
+        return derived;
+    }
+}
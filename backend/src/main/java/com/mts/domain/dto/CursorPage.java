@@ -0,0 +1,12 @@
+package com.mts.domain.dto;
+
+import java.util.List;
+
+/**
+ * One page of a keyset-paginated listing. {@code nextCursor} is opaque to clients and is null on the
+ * last page; no total count is computed.
+ */
+public record CursorPage<T>(
+        List<T> content,
+        String nextCursor
+) {}
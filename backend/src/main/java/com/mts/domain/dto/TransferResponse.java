@@ -1,6 +1,8 @@
 package com.mts.domain.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.mts.domain.enums.TransactionStatus;
+import com.mts.domain.enums.TransferFailureCode;
 
 import java.math.BigDecimal;
 import java.time.Instant;
@@ -14,8 +16,17 @@ public record TransferResponse(
         TransactionStatus status,
         String message,
         String idempotencyKey,
-        Instant createdOn
+        Instant createdOn,
+        // Not part of the JSON body: lets a replayed FAILED transfer answer with its original error
+        @JsonIgnore TransferFailureCode failureCode
 ) {
+    public TransferResponse(String transactionId, String sourceAccountId, String destinationAccountId,
+            BigDecimal amount, String currency, TransactionStatus status, String message, String idempotencyKey,
+            Instant createdOn) {
+        this(transactionId, sourceAccountId, destinationAccountId, amount, currency, status, message,
+                idempotencyKey, createdOn, null);
+    }
+
     // Custom constructor for simple messages
     public TransferResponse(String transactionId, String message) {
         this(
@@ -0,0 +1,19 @@
+package com.mts.domain.dto;
+
+import com.mts.domain.enums.SubmissionStatus;
+
+import java.time.Instant;
+
+/**
+ * Status of a transfer accepted with 202. {@code result} stays null until the submission has been
+ * processed; a FAILED submission carries the rejection message in it.
+ */
+public record TransferSubmissionResponse(
+        String submissionId,
+        SubmissionStatus status,
+        String idempotencyKey,
+        Instant submittedAt,
+        Instant completedAt,
+        TransferResponse result
+) {
+}
@@ -0,0 +1,8 @@
+package com.mts.domain.enums;
+
+/** Which side of an account's transfers a history listing or export covers. */
+public enum Direction {
+    ALL,
+    SENT,
+    RECEIVED
+}
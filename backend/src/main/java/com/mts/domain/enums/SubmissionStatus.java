@@ -0,0 +1,9 @@
+package com.mts.domain.enums;
+
+/** Lifecycle of an asynchronously submitted transfer; the transfer's own outcome is a {@link TransactionStatus}. */
+public enum SubmissionStatus {
+    QUEUED,
+    PROCESSING,
+    COMPLETED,
+    FAILED
+}
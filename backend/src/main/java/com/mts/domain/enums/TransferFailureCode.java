@@ -0,0 +1,44 @@
+package com.mts.domain.enums;
+
+import com.mts.domain.exceptions.AccountNotActiveException;
+import com.mts.domain.exceptions.AccountNotFoundException;
+import com.mts.domain.exceptions.DailyLimitExceededException;
+import com.mts.domain.exceptions.InsufficientBalanceException;
+
+/**
+ * Why a transfer ended FAILED, kept on its log row so that a resend of it gets the same error code and HTTP
+ * status the original request did.
+ */
+public enum TransferFailureCode {
+    INSUFFICIENT_BALANCE(400),
+    DAILY_LIMIT_EXCEEDED(400),
+    ACCOUNT_NOT_ACTIVE(403),
+    ACCOUNT_NOT_FOUND(404);
+
+    private final int httpStatus;
+
+    TransferFailureCode(int httpStatus) {
+        this.httpStatus = httpStatus;
+    }
+
+    public int httpStatus() {
+        return httpStatus;
+    }
+
+    /** The code for a refusal, or null for failures that are not recorded with one. */
+    public static TransferFailureCode of(Throwable failure) {
+        if (failure instanceof DailyLimitExceededException) {
+            return DAILY_LIMIT_EXCEEDED;
+        }
+        if (failure instanceof InsufficientBalanceException) {
+            return INSUFFICIENT_BALANCE;
+        }
+        if (failure instanceof AccountNotActiveException) {
+            return ACCOUNT_NOT_ACTIVE;
+        }
+        if (failure instanceof AccountNotFoundException) {
+            return ACCOUNT_NOT_FOUND;
+        }
+        return null;
+    }
+}
@@ -0,0 +1,13 @@
+package com.mts.domain.exceptions;
+
+/**
+ * A debit that would take the source account over its daily limit. It is an
+ * {@link InsufficientBalanceException} (the account has too little of its allowance left), so callers that
+ * already handle that case record it as a FAILED transfer.
+ */
+public class DailyLimitExceededException extends InsufficientBalanceException {
+
+    public DailyLimitExceededException(String message) {
+        super(message);
+    }
+}
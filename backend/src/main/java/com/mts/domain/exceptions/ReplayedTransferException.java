@@ -0,0 +1,21 @@
+package com.mts.domain.exceptions;
+
+import com.mts.domain.dto.TransferResponse;
+
+/**
+ * A duplicate idempotency key whose original outcome is still within the replay window.
+ * Carries that outcome so it can be returned to the client instead of a bare conflict.
+ */
+public class ReplayedTransferException extends DuplicateTransferException {
+
+    private final TransferResponse originalResponse;
+
+    public ReplayedTransferException(String message, TransferResponse originalResponse) {
+        super(message);
+        this.originalResponse = originalResponse;
+    }
+
+    public TransferResponse getOriginalResponse() {
+        return originalResponse;
+    }
+}
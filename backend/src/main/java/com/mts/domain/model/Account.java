@@ -3,7 +3,10 @@ package com.mts.domain.model;
 import com.mts.domain.enums.AccountStatus;
 import com.mts.domain.exceptions.AccountNotActiveException;
 import com.mts.domain.exceptions.InsufficientBalanceException;
+import com.mts.domain.util.MinorUnits;
 
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.time.Instant;
@@ -11,16 +14,35 @@ import java.util.Objects;
 
 /**
  * Domain entity representing a bank account.
+ *
+ * The balance is kept in minor units (see {@link MinorUnits}); BigDecimal amounts are rounded HALF_UP to
+ * two decimals once, on the way in, and {@link #debitMinor} / {@link #creditMinor} take them already converted.
+ *
+ * Balance, status, version and timestamp live together in one immutable {@link State} that every mutation
+ * replaces by compare-and-set, retrying when another thread got there first. Checks (ACTIVE, sufficient
+ * funds) are made against the same state the update is built from, so they cannot be invalidated in
+ * between, and no thread ever blocks on the account.
  */
 public class Account {
 
+    private static final VarHandle STATE;
+
+    static {
+        try {
+            STATE = MethodHandles.lookup().findVarHandle(Account.class, "state", State.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    /** One consistent snapshot of the mutable part of the account. */
+    public record State(long balanceMinor, AccountStatus status, long version, Instant lastUpdated) {
+    }
+
     private final String id;
     private final String holderName;
-    private BigDecimal balance;
-    private AccountStatus status;
-    private long version;
-    private Instant lastUpdated;
-    private BigDecimal dailyLimit;
+    private volatile State state;
+    private volatile BigDecimal dailyLimit;
 
     public Account(String id,
             String holderName,
@@ -29,38 +51,67 @@ public class Account {
 
         this.id = requireNonBlank(id, "id");
         this.holderName = requireNonBlank(holderName, "holderName");
-        this.balance = normalizeNonNegative(openingBalance, "openingBalance");
-        this.status = Objects.requireNonNull(status, "status");
-        this.version = 0L;
-        this.lastUpdated = Instant.now();
+        this.state = new State(normalizeNonNegative(openingBalance, "openingBalance"),
+                Objects.requireNonNull(status, "status"), 0L, Instant.now());
     }
 
     public Account(String id, String holderName, BigDecimal openingBalance) {
         this(id, holderName, openingBalance, AccountStatus.ACTIVE);
     }
 
-    public synchronized void credit(BigDecimal amount) throws AccountNotActiveException {
-        ensureActive();
-        BigDecimal normalized = normalizePositive(amount, "amount");
-        this.balance = this.balance.add(normalized).setScale(2, RoundingMode.HALF_UP);
-        touch();
-    }
-
-    public synchronized void debit(BigDecimal amount) throws InsufficientBalanceException, AccountNotActiveException {
-        ensureActive();
-        BigDecimal normalized = normalizePositive(amount, "amount");
-
-        if (this.balance.compareTo(normalized) < 0) {
-            throw new InsufficientBalanceException(
-                    "Insufficient balance: attempted " + normalized + ", available " + balance);
-        }
-
-        this.balance = this.balance.subtract(normalized).setScale(2, RoundingMode.HALF_UP);
-        touch();
+    public void credit(BigDecimal amount) throws AccountNotActiveException {
+        ensureActive(state);
+        creditMinor(normalizePositive(amount, "amount"));
+    }
+
+    public void debit(BigDecimal amount) throws InsufficientBalanceException, AccountNotActiveException {
+        ensureActive(state);
+        debitMinor(normalizePositive(amount, "amount"));
+    }
+
+    public void creditMinor(long amountMinor) throws AccountNotActiveException {
+        requirePositive(amountMinor);
+        State current;
+        State next;
+        do {
+            current = state;
+            ensureActive(current);
+            next = touch(current, MinorUnits.add(current.balanceMinor(), amountMinor), current.status());
+        } while (!STATE.compareAndSet(this, current, next));
+    }
+
+    public void debitMinor(long amountMinor) throws InsufficientBalanceException, AccountNotActiveException {
+        requirePositive(amountMinor);
+        State current;
+        State next;
+        do {
+            current = state;
+            ensureActive(current);
+            if (current.balanceMinor() < amountMinor) {
+                throw new InsufficientBalanceException("Insufficient balance: attempted "
+                        + MinorUnits.toBigDecimal(amountMinor) + ", available "
+                        + MinorUnits.toBigDecimal(current.balanceMinor()));
+            }
+            next = touch(current, current.balanceMinor() - amountMinor, current.status());
+        } while (!STATE.compareAndSet(this, current, next));
+    }
+
+    /**
+     * Gives back an amount taken by {@link #debitMinor} whose transfer could not complete. Unlike a credit
+     * it is allowed whatever the status, since the account may have been locked in between.
+     */
+    public void reverseDebitMinor(long amountMinor) {
+        requirePositive(amountMinor);
+        State current;
+        State next;
+        do {
+            current = state;
+            next = touch(current, MinorUnits.add(current.balanceMinor(), amountMinor), current.status());
+        } while (!STATE.compareAndSet(this, current, next));
     }
 
     public boolean isActive() {
-        return status == AccountStatus.ACTIVE;
+        return state.status() == AccountStatus.ACTIVE;
     }
 
     // ---------- Helpers ----------
@@ -72,39 +123,43 @@ public class Account {
         return value;
     }
 
-    private static BigDecimal normalizeNonNegative(BigDecimal value, String field) {
+    private static long normalizeNonNegative(BigDecimal value, String field) {
         if (value == null)
             throw new IllegalArgumentException(field + " cannot be null");
-        BigDecimal scaled = value.setScale(2, RoundingMode.HALF_UP);
-        if (scaled.signum() < 0)
+        long minor = MinorUnits.of(value, RoundingMode.HALF_UP);
+        if (minor < 0)
             throw new IllegalArgumentException(field + " must be >= 0.00");
-        return scaled;
+        return minor;
     }
 
-    private static BigDecimal normalizePositive(BigDecimal value, String field) {
+    private static long normalizePositive(BigDecimal value, String field) {
         if (value == null)
             throw new IllegalArgumentException(field + " cannot be null");
-        BigDecimal scaled = value.setScale(2, RoundingMode.HALF_UP);
-        if (scaled.signum() <= 0)
+        long minor = MinorUnits.of(value, RoundingMode.HALF_UP);
+        if (minor <= 0)
             throw new IllegalArgumentException(field + " must be > 0.00");
-        return scaled;
+        return minor;
     }
 
-    private void ensureActive() throws AccountNotActiveException {
-        if (!isActive()) {
+    private static void requirePositive(long amountMinor) {
+        if (amountMinor <= 0)
+            throw new IllegalArgumentException("amount must be > 0.00");
+    }
+
+    private void ensureActive(State current) throws AccountNotActiveException {
+        if (current.status() != AccountStatus.ACTIVE) {
             throw new AccountNotActiveException(
-                    "Account " + id + " is not ACTIVE (status=" + status + ")");
+                    "Account " + id + " is not ACTIVE (status=" + current.status() + ")");
         }
     }
 
-    /** Ensure version increments and lastUpdated is strictly monotonic. */
-    private void touch() {
-        version++;
+    /** Next state: version increments and lastUpdated is strictly monotonic. */
+    private static State touch(State current, long balanceMinor, AccountStatus status) {
         Instant now = Instant.now();
-        if (lastUpdated != null && !now.isAfter(lastUpdated)) {
-            now = lastUpdated.plusNanos(1); // ensure strictly increasing
+        if (!now.isAfter(current.lastUpdated())) {
+            now = current.lastUpdated().plusNanos(1); // ensure strictly increasing
         }
-        lastUpdated = now;
+        return new State(balanceMinor, status, current.version() + 1, now);
     }
 
     // ---------- Getters ----------
@@ -117,39 +172,51 @@ public class Account {
         return holderName;
     }
 
-    /** Defensive scaling */
+    /** Converted on each call; hot paths should prefer {@link #getBalanceMinor()}. */
     public BigDecimal getBalance() {
-        return balance.setScale(2, RoundingMode.HALF_UP);
+        return MinorUnits.toBigDecimal(state.balanceMinor());
+    }
+
+    public long getBalanceMinor() {
+        return state.balanceMinor();
     }
 
     public AccountStatus getStatus() {
-        return status;
+        return state.status();
     }
 
     public long getVersion() {
-        return version;
+        return state.version();
     }
 
     public Instant getLastUpdated() {
-        return lastUpdated;
+        return state.lastUpdated();
+    }
+
+    /** Balance, status and version read together; the separate getters may each see a different update. */
+    public State getState() {
+        return state;
     }
 
     // ---------- Mutators ----------
 
     public void setStatus(AccountStatus status) {
         Objects.requireNonNull(status, "status");
-        if (this.status != status) {
-            this.status = status;
-            touch();
-        }
+        State current;
+        do {
+            current = state;
+            if (current.status() == status) {
+                return;
+            }
+        } while (!STATE.compareAndSet(this, current, touch(current, current.balanceMinor(), status)));
     }
 
     public boolean isLocked() {
-        return status == AccountStatus.LOCKED;
+        return state.status() == AccountStatus.LOCKED;
     }
 
     public boolean isClosed() {
-        return status == AccountStatus.CLOSED;
+        return state.status() == AccountStatus.CLOSED;
     }
 
     public BigDecimal getDailyLimit() {
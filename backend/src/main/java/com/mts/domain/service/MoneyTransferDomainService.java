@@ -22,7 +22,8 @@ import java.util.concurrent.ConcurrentHashMap;
  * Responsibilities:
  * - Validate inputs (accounts, status, amount)
  * - Enforce idempotency (in-memory for Module 2)
- * - Execute business sequence: debit (source) → credit (destination)
+ * - Execute business sequence: debit (source) → credit (destination) as one step, through a
+ *   {@link TransferCoordinator}
  * - Return a SUCCESS {@link TransactionLog} on completion
  */
 public class MoneyTransferDomainService {
@@ -33,6 +34,21 @@ public class MoneyTransferDomainService {
      */
     private final Set<String> usedIdempotencyKeys = ConcurrentHashMap.newKeySet();
 
+    private final TransferCoordinator coordinator;
+
+    /**
+     * Uses a coordinator of its own. Its locks only order transfers made through this instance, so services
+     * that move money between the same accounts must share one coordinator instead.
+     */
+    public MoneyTransferDomainService() {
+        this(new TransferCoordinator());
+    }
+
+    /** Orders transfers through {@code coordinator}, shared with whatever else moves money between these accounts. */
+    public MoneyTransferDomainService(TransferCoordinator coordinator) {
+        this.coordinator = Objects.requireNonNull(coordinator, "coordinator");
+    }
+
     /**
      * Execute a transfer with an explicit idempotency key.
      *
@@ -57,11 +73,9 @@ public class MoneyTransferDomainService {
         validateInputs(from, to, amount, idempotencyKey);
         enforceIdempotency(idempotencyKey);
 
-        // Debit first
-        from.debit(amount.getAmount());
-
-        // Credit only after a successful debit
-        to.credit(amount.getAmount());
+        // Debit then credit (in minor units: no BigDecimal on the way) with both accounts' stripes held;
+        // a refused credit gives the debit back, so no money is lost or visible in flight.
+        coordinator.transfer(from, to, amount.getMinorUnits());
 
         // Build success transaction log
         TransactionLog log = new TransactionLog();
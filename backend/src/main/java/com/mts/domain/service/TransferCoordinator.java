@@ -0,0 +1,115 @@
+package com.mts.domain.service;
+
+import com.mts.domain.exceptions.AccountNotActiveException;
+import com.mts.domain.exceptions.InsufficientBalanceException;
+import com.mts.domain.model.Account;
+
+import java.util.Arrays;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Moves money between two domain {@link Account}s as one step.
+ *
+ * Accounts map by id onto a fixed set of striped locks. A transfer holds the stripes of both accounts,
+ * always taken in ascending stripe order, so concurrent A→B and B→A transfers cannot deadlock and transfers
+ * between disjoint pairs mostly run in parallel. Reads through {@link #totalMinor} hold the same stripes, so
+ * they never see an amount debited from one account and not yet credited to the other.
+ *
+ * Only transfers and reads that go through the same coordinator are ordered against each other; a direct
+ * {@code debitMinor}/{@code creditMinor} on an account is still atomic on its own but not part of the pair.
+ */
+public class TransferCoordinator {
+
+    public static final int DEFAULT_STRIPES = 1024;
+
+    private final ReentrantLock[] stripes;
+    private final int mask;
+
+    public TransferCoordinator() {
+        this(DEFAULT_STRIPES);
+    }
+
+    /** @param stripes number of locks, rounded up to a power of two */
+    public TransferCoordinator(int stripes) {
+        if (stripes < 1) {
+            throw new IllegalArgumentException("stripes must be >= 1");
+        }
+        int size = stripes == 1 ? 1 : Integer.highestOneBit(stripes - 1) << 1;
+        this.stripes = new ReentrantLock[size];
+        for (int i = 0; i < size; i++) {
+            this.stripes[i] = new ReentrantLock();
+        }
+        this.mask = size - 1;
+    }
+
+    /**
+     * Debits {@code from} and credits {@code to} while holding both stripes. Either both legs apply or
+     * neither does: a refused credit (destination not ACTIVE, balance overflow) gives the debit back before
+     * the locks are released.
+     */
+    public void transfer(Account from, Account to, long amountMinor)
+            throws InsufficientBalanceException, AccountNotActiveException {
+        int first = stripeOf(from);
+        int second = stripeOf(to);
+        if (first > second) {
+            int swap = first;
+            first = second;
+            second = swap;
+        }
+        stripes[first].lock();
+        try {
+            if (second != first) {
+                stripes[second].lock();
+            }
+            try {
+                from.debitMinor(amountMinor);
+                try {
+                    to.creditMinor(amountMinor);
+                } catch (AccountNotActiveException | ArithmeticException e) {
+                    from.reverseDebitMinor(amountMinor);
+                    throw e;
+                }
+            } finally {
+                if (second != first) {
+                    stripes[second].unlock();
+                }
+            }
+        } finally {
+            stripes[first].unlock();
+        }
+    }
+
+    /** Sum of the balances, read with no coordinated transfer between them in flight. */
+    public long totalMinor(Account... accounts) {
+        int[] order = new int[accounts.length];
+        for (int i = 0; i < accounts.length; i++) {
+            order[i] = stripeOf(accounts[i]);
+        }
+        Arrays.sort(order);
+        int locked = 0;
+        try {
+            for (int i = 0; i < order.length; i++) {
+                if (i == 0 || order[i] != order[i - 1]) {
+                    stripes[order[i]].lock();
+                    locked = i + 1;
+                }
+            }
+            long total = 0;
+            for (Account account : accounts) {
+                total = Math.addExact(total, account.getBalanceMinor());
+            }
+            return total;
+        } finally {
+            for (int i = locked - 1; i >= 0; i--) {
+                if (i == 0 || order[i] != order[i - 1]) {
+                    stripes[order[i]].unlock();
+                }
+            }
+        }
+    }
+
+    int stripeOf(Account account) {
+        int h = account.getId().hashCode();
+        return (h ^ (h >>> 16)) & mask;
+    }
+}
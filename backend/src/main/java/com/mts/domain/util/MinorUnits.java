@@ -0,0 +1,84 @@
+package com.mts.domain.util;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Currency;
+import java.util.Objects;
+
+/**
+ * Primitive money: an amount in minor units (hundredths, at {@link Money#SCALE}) held in a {@code long},
+ * and a currency as its ISO 4217 numeric index. Hot paths keep balances and amounts in this form so that
+ * arithmetic allocates nothing; {@link BigDecimal} is only converted to and from at the edges (requests,
+ * persistence, messages).
+ *
+ * Arithmetic is overflow-checked and never rounds: results that do not fit a {@code long} throw
+ * {@link ArithmeticException} rather than wrap.
+ */
+public final class MinorUnits {
+
+    private static final Currency[] BY_INDEX = new Currency[1000];
+
+    static {
+        for (Currency currency : Currency.getAvailableCurrencies()) {
+            int index = currency.getNumericCode();
+            if (index > 0 && index < BY_INDEX.length && BY_INDEX[index] == null) {
+                BY_INDEX[index] = currency;
+            }
+        }
+    }
+
+    private MinorUnits() {
+    }
+
+    /* ========= Conversion ========= */
+
+    /**
+     * Exact conversion: throws {@link ArithmeticException} if the amount has more than two decimals or is
+     * out of range.
+     */
+    public static long of(BigDecimal amount) {
+        return of(amount, RoundingMode.UNNECESSARY);
+    }
+
+    /** Rounds the amount to two decimals with {@code rounding}, then converts exactly. */
+    public static long of(BigDecimal amount, RoundingMode rounding) {
+        Objects.requireNonNull(amount, "Amount must not be null");
+        return amount.setScale(Money.SCALE, rounding).unscaledValue().longValueExact();
+    }
+
+    public static BigDecimal toBigDecimal(long minorUnits) {
+        return BigDecimal.valueOf(minorUnits, Money.SCALE);
+    }
+
+    /* ========= Arithmetic ========= */
+
+    public static long add(long a, long b) {
+        return Math.addExact(a, b);
+    }
+
+    public static long subtract(long a, long b) {
+        return Math.subtractExact(a, b);
+    }
+
+    public static long negate(long minorUnits) {
+        return Math.negateExact(minorUnits);
+    }
+
+    /* ========= Currency index ========= */
+
+    public static int currencyIndex(Currency currency) {
+        int index = Objects.requireNonNull(currency, "Currency must not be null").getNumericCode();
+        if (index <= 0 || index >= BY_INDEX.length) {
+            throw new IllegalArgumentException("Currency has no ISO 4217 numeric code: " + currency);
+        }
+        return index;
+    }
+
+    public static Currency currency(int index) {
+        Currency currency = index > 0 && index < BY_INDEX.length ? BY_INDEX[index] : null;
+        if (currency == null) {
+            throw new IllegalArgumentException("Unknown currency index: " + index);
+        }
+        return currency;
+    }
+}
@@ -15,6 +15,8 @@ import java.util.Objects;
  * - Currency-aware
  * - Fixed scale (2) with banker’s rounding (HALF_EVEN)
  * - No floating-point arithmetic
+ * - Held as a long of minor units (see {@link MinorUnits}): rounding happens once,
+ *   when a BigDecimal comes in; add / subtract / compare are overflow-checked long math
  *
  * Used in:
  * - Account debit / credit logic
@@ -23,16 +25,16 @@ import java.util.Objects;
 public final class Money implements Comparable<Money>, Serializable {
 
     @Serial
-    private static final long serialVersionUID = 1L;
+    private static final long serialVersionUID = 2L;
 
     public static final int SCALE = 2;
     public static final RoundingMode ROUNDING_MODE = RoundingMode.HALF_EVEN;
 
-    private final BigDecimal amount;
+    private final long minorUnits;
     private final Currency currency;
 
-    private Money(BigDecimal amount, Currency currency) {
-        this.amount = normalize(amount);
+    private Money(long minorUnits, Currency currency) {
+        this.minorUnits = minorUnits;
         this.currency = Objects.requireNonNull(currency, "Currency must not be null");
     }
 
@@ -41,7 +43,11 @@ public final class Money implements Comparable<Money>, Serializable {
     public static Money of(BigDecimal amount, Currency currency) {
         Objects.requireNonNull(amount, "Amount must not be null");
         Objects.requireNonNull(currency, "Currency must not be null");
-        return new Money(amount, currency);
+        return new Money(MinorUnits.of(amount, ROUNDING_MODE), currency);
+    }
+
+    public static Money ofMinor(long minorUnits, Currency currency) {
+        return new Money(minorUnits, currency);
     }
 
     public static Money of(double amount, Currency currency) {
@@ -49,67 +55,71 @@ public final class Money implements Comparable<Money>, Serializable {
     }
 
     public static Money zero(Currency currency) {
-        return of(BigDecimal.ZERO, currency);
+        return ofMinor(0L, currency);
     }
 
     /* ========= Getters ========= */
 
+    /** The amount at scale 2; converted on each call, so hot paths should prefer {@link #getMinorUnits()}. */
     public BigDecimal getAmount() {
-        return amount;
+        return MinorUnits.toBigDecimal(minorUnits);
+    }
+
+    public long getMinorUnits() {
+        return minorUnits;
     }
 
     public Currency getCurrency() {
         return currency;
     }
 
+    public int getCurrencyIndex() {
+        return MinorUnits.currencyIndex(currency);
+    }
+
     /* ========= Arithmetic Operations ========= */
 
     public Money add(Money other) {
         requireSameCurrency(other);
-        return new Money(this.amount.add(other.amount), this.currency);
+        return new Money(MinorUnits.add(this.minorUnits, other.minorUnits), this.currency);
     }
 
     public Money subtract(Money other) {
         requireSameCurrency(other);
-        return new Money(this.amount.subtract(other.amount), this.currency);
+        return new Money(MinorUnits.subtract(this.minorUnits, other.minorUnits), this.currency);
     }
 
     public Money multiply(BigDecimal multiplier) {
         Objects.requireNonNull(multiplier, "Multiplier must not be null");
-        // normalize is applied in the constructor
-        return new Money(this.amount.multiply(multiplier), this.currency);
+        return of(getAmount().multiply(multiplier), this.currency);
     }
 
     public Money negate() {
-        return new Money(this.amount.negate(), this.currency);
+        return new Money(MinorUnits.negate(this.minorUnits), this.currency);
     }
 
     /* ========= Comparisons ========= */
 
     public boolean isZero() {
-        return amount.compareTo(BigDecimal.ZERO) == 0;
+        return minorUnits == 0;
     }
 
     public boolean isPositive() {
-        return amount.compareTo(BigDecimal.ZERO) > 0;
+        return minorUnits > 0;
     }
 
     public boolean isNegative() {
-        return amount.compareTo(BigDecimal.ZERO) < 0;
+        return minorUnits < 0;
     }
 
     @Override
     public int compareTo(Money other) {
         requireSameCurrency(other);
-        return this.amount.compareTo(other.amount);
+        return Long.compare(this.minorUnits, other.minorUnits);
     }
 
     /* ========= Helpers ========= */
 
-    private static BigDecimal normalize(BigDecimal value) {
-        return value.setScale(SCALE, ROUNDING_MODE);
-    }
-
     private void requireSameCurrency(Money other) {
         Objects.requireNonNull(other, "Money must not be null");
         if (!this.currency.equals(other.currency)) {
@@ -126,16 +136,16 @@ public final class Money implements Comparable<Money>, Serializable {
         if (this == o) return true;
         // Use Java 16 pattern matching if available; otherwise keep classic instanceof + cast
         if (!(o instanceof Money money)) return false;
-        return amount.equals(money.amount) && currency.equals(money.currency);
+        return minorUnits == money.minorUnits && currency.equals(money.currency);
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(amount, currency);
+        return 31 * Long.hashCode(minorUnits) + currency.hashCode();
     }
 
     @Override
     public String toString() {
-        return currency.getCurrencyCode() + " " + amount.toPlainString();
+        return currency.getCurrencyCode() + " " + getAmount().toPlainString();
     }
 }
@@ -20,11 +20,55 @@ CREATE TABLE IF NOT EXISTS transaction_logs (
     currency VARCHAR(3) NULL,
     status VARCHAR(20) NOT NULL,
     failure_reason VARCHAR(500) NULL,
+    failure_code VARCHAR(32) NULL,
     created_on TIMESTAMP(6) NOT NULL,
     CONSTRAINT uq_transaction_logs_idempotency_key UNIQUE (idempotency_key),
+    INDEX idx_tx_from_created_id (from_account_id, created_on, id),
+    INDEX idx_tx_to_created_id (to_account_id, created_on, id),
+    INDEX idx_tx_status_created (status, created_on),
+    INDEX idx_tx_created_id_amount (created_on, id, amount),
     CONSTRAINT fk_tx_from FOREIGN KEY (from_account_id) REFERENCES accounts(id),
     CONSTRAINT fk_tx_to FOREIGN KEY (to_account_id) REFERENCES accounts(id)
 );
+CREATE TABLE IF NOT EXISTS revoked_tokens (
+    jti VARCHAR(64) NOT NULL PRIMARY KEY,
+    expires_at TIMESTAMP(6) NOT NULL,
+    revoked_at TIMESTAMP(6) NOT NULL,
+    INDEX idx_revoked_tokens_revoked_at (revoked_at),
+    INDEX idx_revoked_tokens_expires_at (expires_at)
+);
+CREATE TABLE IF NOT EXISTS user_token_cutoffs (
+    user_id BIGINT NOT NULL PRIMARY KEY,
+    not_before TIMESTAMP(6) NOT NULL,
+    INDEX idx_user_token_cutoffs_not_before (not_before)
+);
+CREATE TABLE IF NOT EXISTS account_daily_debits (
+    account_id BIGINT NOT NULL,
+    business_date DATE NOT NULL,
+    debited DECIMAL(19, 2) NOT NULL,
+    PRIMARY KEY (account_id, business_date),
+    INDEX idx_daily_debits_date (business_date)
+);
+CREATE TABLE IF NOT EXISTS transfer_submissions (
+    id VARCHAR(36) NOT NULL PRIMARY KEY,
+    idempotency_key VARCHAR(255) NOT NULL,
+    source_account_id VARCHAR(255) NOT NULL,
+    destination_account_id VARCHAR(255) NOT NULL,
+    amount DECIMAL(19, 2) NOT NULL,
+    currency VARCHAR(3) NULL,
+    status VARCHAR(20) NOT NULL,
+    attempts INT NOT NULL,
+    claim_token VARCHAR(36) NULL,
+    claimed_at TIMESTAMP(6) NULL,
+    transaction_id VARCHAR(36) NULL,
+    transfer_status VARCHAR(20) NULL,
+    message VARCHAR(500) NULL,
+    submitted_at TIMESTAMP(6) NOT NULL,
+    completed_at TIMESTAMP(6) NULL,
+    CONSTRAINT uq_transfer_submissions_idempotency_key UNIQUE (idempotency_key),
+    INDEX idx_sub_status_id (status, id),
+    INDEX idx_sub_claim_token (claim_token)
+);
 CREATE TABLE IF NOT EXISTS users (
   id BIGINT NOT NULL PRIMARY KEY,
   username VARCHAR(255) NOT NULL UNIQUE,
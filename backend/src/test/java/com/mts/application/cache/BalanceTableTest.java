@@ -0,0 +1,166 @@
+package com.mts.application.cache;
+
+import com.mts.application.entities.Account;
+import com.mts.domain.enums.AccountStatus;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BalanceTableTest {
+
+    private static final Clock CLOCK = Clock.fixed(Instant.parse("2025-01-01T00:00:00Z"), ZoneOffset.UTC);
+
+    @TempDir
+    Path directory;
+
+    private BalanceTable open(int capacity) {
+        return new BalanceTable(directory.resolve("balances.dat"), capacity, 0, CLOCK);
+    }
+
+    @Test
+    void putsOnlyReplaceOlderVersions() {
+        BalanceTable table = open(64);
+
+        assertThat(table.put(7L, 10_000, 3, AccountStatus.ACTIVE)).isTrue();
+        assertThat(table.put(7L, 5_000, 2, AccountStatus.ACTIVE)).isFalse();
+        assertThat(table.put(7L, 9_000, 4, AccountStatus.LOCKED)).isTrue();
+
+        BalanceTable.Entry entry = table.get(7L);
+        assertThat(entry.balance()).isEqualByComparingTo("90.00");
+        assertThat(entry.version()).isEqualTo(4);
+        assertThat(entry.status()).isEqualTo(AccountStatus.LOCKED);
+        assertThat(table.get(8L)).isNull();
+    }
+
+    @Test
+    void invalidatedEntriesOnlyComeBackAtANewerVersion() {
+        BalanceTable table = open(64);
+        table.put(7L, 10_000, 3, AccountStatus.ACTIVE);
+
+        table.invalidate(7L);
+
+        assertThat(table.get(7L)).isNull();
+        assertThat(table.put(7L, 10_000, 3, AccountStatus.ACTIVE)).as("reload of the row before the UPDATE").isFalse();
+        assertThat(table.put(7L, 12_500, 4, AccountStatus.ACTIVE)).isTrue();
+        assertThat(table.get(7L).balanceCents()).isEqualTo(12_500);
+    }
+
+    @Test
+    void invalidationOfAnUncachedAccountKeepsOutAReadThroughStartedBeforeIt() {
+        BalanceTable table = open(64);
+        Account before = account(7L, "100.00", 3);
+
+        // A read-through misses and loads version 3 while a bulk UPDATE commits version 4
+        long invalidations = table.invalidations(7L);
+        table.invalidate(7L);
+
+        assertThat(table.putLoaded(before, invalidations)).as("row read before the UPDATE").isFalse();
+        assertThat(table.get(7L)).isNull();
+
+        Account after = account(7L, "125.00", 4);
+        assertThat(table.putLoaded(after, table.invalidations(7L))).isTrue();
+        assertThat(table.get(7L).balanceCents()).isEqualTo(12_500);
+    }
+
+    @Test
+    void reopeningTheFileServesWhatItHeld() {
+        BalanceTable table = open(64);
+        table.put(7L, 10_000, 3, AccountStatus.ACTIVE);
+        table.put(9L, 1, 1, AccountStatus.CLOSED);
+        table.close();
+
+        BalanceTable reopened = open(64);
+
+        assertThat(reopened.get(7L).balanceCents()).isEqualTo(10_000);
+        assertThat(reopened.get(9L).status()).isEqualTo(AccountStatus.CLOSED);
+        assertThat(reopened.used()).isEqualTo(2);
+    }
+
+    @Test
+    void aDifferentCapacityStartsFromAnEmptyFile() {
+        open(64).put(7L, 10_000, 3, AccountStatus.ACTIVE);
+
+        BalanceTable resized = open(128);
+
+        assertThat(resized.get(7L)).isNull();
+        assertThat(resized.used()).isZero();
+    }
+
+    @Test
+    void stopsAdmittingAccountsAtThreeQuartersFull() {
+        BalanceTable table = open(16);
+        for (long id = 1; id <= 12; id++) {
+            assertThat(table.put(id, id, 0, AccountStatus.ACTIVE)).isTrue();
+        }
+
+        assertThat(table.put(13L, 13, 0, AccountStatus.ACTIVE)).isFalse();
+        assertThat(table.put(12L, 120, 1, AccountStatus.ACTIVE)).as("existing slots still update").isTrue();
+        assertThat(table.get(12L).balanceCents()).isEqualTo(120);
+    }
+
+    @Test
+    void entriesPastTheMaxAgeAreNotServed() {
+        BalanceTable table = new BalanceTable(directory.resolve("balances.dat"), 64, 1_000, CLOCK);
+        table.put(7L, 10_000, 3, AccountStatus.ACTIVE);
+        BalanceTable later = new BalanceTable(directory.resolve("balances.dat"), 64, 1_000,
+                Clock.offset(CLOCK, Duration.ofSeconds(2)));
+
+        assertThat(table.get(7L)).isNotNull();
+        assertThat(later.get(7L)).isNull();
+    }
+
+    @Test
+    void disabledTableCachesNothing() {
+        BalanceTable table = new BalanceTable(null, 0, 0, CLOCK);
+
+        assertThat(table.put(7L, 10_000, 3, AccountStatus.ACTIVE)).isFalse();
+        assertThat(table.get(7L)).isNull();
+    }
+
+    @Test
+    void readersNeverSeeATornSlot() throws Exception {
+        BalanceTable table = open(64);
+        table.put(7L, 0, 0, AccountStatus.ACTIVE);
+        AtomicBoolean torn = new AtomicBoolean();
+        AtomicBoolean done = new AtomicBoolean();
+        List<Thread> readers = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            Thread reader = new Thread(() -> {
+                while (!done.get()) {
+                    BalanceTable.Entry entry = table.get(7L);
+                    // Every write keeps balance == version * 100
+                    if (entry.balanceCents() != entry.version() * 100) {
+                        torn.set(true);
+                    }
+                }
+            });
+            reader.start();
+            readers.add(reader);
+        }
+        for (long version = 1; version <= 200_000; version++) {
+            table.put(7L, version * 100, version, AccountStatus.ACTIVE);
+        }
+        done.set(true);
+        for (Thread reader : readers) {
+            reader.join();
+        }
+
+        assertThat(torn).isFalse();
+    }
+
+    private static Account account(long id, String balance, long version) {
+        return Account.builder().id(id).balance(new BigDecimal(balance)).version(version).status(AccountStatus.ACTIVE)
+                .build();
+    }
+}
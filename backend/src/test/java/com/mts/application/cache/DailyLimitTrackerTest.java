@@ -0,0 +1,219 @@
+package com.mts.application.cache;
+
+import com.mts.application.entities.AccountDailyDebit;
+import com.mts.application.repository.AccountDailyDebitRepository;
+import com.mts.application.repository.AccountRepository;
+import com.mts.application.repository.TransactionLogRepository;
+import com.mts.domain.exceptions.DailyLimitExceededException;
+import com.mts.support.MutableClock;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DailyLimitTrackerTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2026, 3, 10);
+
+    @Mock
+    private AccountDailyDebitRepository debitRepository;
+
+    @Mock
+    private AccountRepository accountRepository;
+
+    @Mock
+    private TransactionLogRepository logRepository;
+
+    private MutableClock clock;
+    private DailyLimitTracker tracker;
+
+    @BeforeEach
+    void setUp() {
+        clock = new MutableClock(TODAY.atTime(9, 0).toInstant(ZoneOffset.UTC));
+        tracker = new DailyLimitTracker(debitRepository, accountRepository, logRepository, clock, 35);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void reservesUpToTheLimitAndRejectsBeyondIt() throws Exception {
+        tracker.reserve(1L, new BigDecimal("100.00"), new BigDecimal("60.00")).confirm();
+        tracker.reserve(1L, new BigDecimal("100.00"), new BigDecimal("40.00")).confirm();
+
+        assertThatThrownBy(() -> tracker.reserve(1L, new BigDecimal("100.00"), new BigDecimal("0.01")))
+                .isInstanceOf(DailyLimitExceededException.class)
+                .hasMessageContaining("account 1");
+        assertThat(tracker.debitedToday(1L)).isEqualByComparingTo("100.00");
+        verify(debitRepository, times(2)).addDebit(eq(1L), eq(TODAY), any());
+    }
+
+    @Test
+    void accountsWithoutALimitAreCountedButNeverRejected() throws Exception {
+        tracker.reserve(2L, null, new BigDecimal("1000000.00")).confirm();
+
+        assertThat(tracker.debitedToday(2L)).isEqualByComparingTo("1000000.00");
+    }
+
+    @Test
+    void cachedLimitAppliesToReservationsWithoutTheAccountRow() throws Exception {
+        tracker.updateLimit(3L, new BigDecimal("10.00"));
+
+        assertThatThrownBy(() -> tracker.reserve(3L, new BigDecimal("10.01")))
+                .isInstanceOf(DailyLimitExceededException.class);
+
+        tracker.updateLimit(3L, null);
+        tracker.reserve(3L, new BigDecimal("10.01"));
+    }
+
+    @Test
+    void totalsResetOnTheNextDay() throws Exception {
+        tracker.reserve(1L, new BigDecimal("50.00"), new BigDecimal("50.00")).confirm();
+
+        clock.advanceDays(1);
+
+        tracker.reserve(1L, new BigDecimal("50.00"), new BigDecimal("50.00"));
+        assertThat(tracker.debitedToday(1L)).isEqualByComparingTo("50.00");
+    }
+
+    @Test
+    void unconfirmedOrRolledBackReservationsAreReleased() throws Exception {
+        BigDecimal limit = new BigDecimal("100.00");
+        when(debitRepository.addDebitWithinLimit(eq(1L), eq(TODAY), any(), eq(limit))).thenReturn(1);
+        TransactionSynchronizationManager.initSynchronization();
+        tracker.reserve(1L, limit, new BigDecimal("30.00")).confirm();
+        tracker.reserve(1L, limit, new BigDecimal("20.00"));
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+
+        synchronizations.forEach(s -> s.beforeCommit(false));
+        synchronizations.forEach(s -> s.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+
+        assertThat(tracker.debitedToday(1L)).isEqualByComparingTo("30.00");
+        verify(debitRepository).addDebitWithinLimit(1L, TODAY, new BigDecimal("30.00"), limit);
+        verify(debitRepository).addDebitWithinLimit(1L, TODAY, new BigDecimal("20.00"), limit);
+        verify(debitRepository).addDebit(1L, TODAY, new BigDecimal("-20.00"));
+
+        TransactionSynchronizationManager.clearSynchronization();
+        TransactionSynchronizationManager.initSynchronization();
+        tracker.reserve(1L, limit, new BigDecimal("70.00")).confirm();
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(s -> s.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+        assertThat(tracker.debitedToday(1L)).isEqualByComparingTo("30.00");
+        verify(debitRepository).addDebitWithinLimit(1L, TODAY, new BigDecimal("70.00"), limit);
+        verifyNoMoreInteractions(debitRepository);
+    }
+
+    @Test
+    void bucketRefusesDebitsThatOtherInstancesAlreadySpent() throws Exception {
+        BigDecimal limit = new BigDecimal("100.00");
+        TransactionSynchronizationManager.initSynchronization();
+        // This instance has counted nothing, but the shared bucket is already at 90.00
+        when(debitRepository.addDebitWithinLimit(1L, TODAY, new BigDecimal("20.00"), limit)).thenReturn(0);
+        when(debitRepository.insertDebitWithinLimit(1L, TODAY, new BigDecimal("20.00"), limit)).thenReturn(0);
+
+        assertThatThrownBy(() -> tracker.reserve(1L, limit, new BigDecimal("20.00")))
+                .isInstanceOf(DailyLimitExceededException.class);
+        assertThat(tracker.debitedToday(1L)).isEqualByComparingTo("0.00");
+        assertThat(TransactionSynchronizationManager.getSynchronizations()).isEmpty();
+
+        // First debit of the day creates the bucket
+        when(debitRepository.addDebitWithinLimit(1L, TODAY, new BigDecimal("10.00"), limit)).thenReturn(0);
+        when(debitRepository.insertDebitWithinLimit(1L, TODAY, new BigDecimal("10.00"), limit)).thenReturn(1);
+        tracker.reserve(1L, limit, new BigDecimal("10.00")).confirm();
+        assertThat(tracker.debitedToday(1L)).isEqualByComparingTo("10.00");
+    }
+
+    @Test
+    void limitChangesReachTheCacheOnlyOnCommit() throws Exception {
+        when(debitRepository.addDebitWithinLimit(eq(3L), eq(TODAY), any(), isNull())).thenReturn(1);
+        TransactionSynchronizationManager.initSynchronization();
+        tracker.updateLimitAfterCommit(3L, new BigDecimal("10.00"));
+
+        // Not committed yet: the account still has no limit
+        tracker.reserve(3L, new BigDecimal("10.01")).cancel();
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        TransactionSynchronizationManager.clearSynchronization();
+        assertThatThrownBy(() -> tracker.reserve(3L, new BigDecimal("10.01")))
+                .isInstanceOf(DailyLimitExceededException.class);
+    }
+
+    @Test
+    void cancelledReservationsOutsideATransactionAreGivenBack() throws Exception {
+        tracker.reserve(1L, new BigDecimal("100.00"), new BigDecimal("70.00")).cancel();
+        tracker.reserve(1L, new BigDecimal("100.00"), new BigDecimal("90.00"));
+
+        assertThat(tracker.debitedToday(1L)).isEqualByComparingTo("90.00");
+        assertThat(tracker.businessDate(TODAY.atTime(23, 30).toInstant(ZoneOffset.UTC))).isEqualTo(TODAY);
+        verifyNoInteractions(debitRepository);
+    }
+
+    @Test
+    void loadUsesTodaysBucketsAndLimits() {
+        when(debitRepository.findByBusinessDate(TODAY)).thenReturn(new ArrayList<>(List.of(
+                new AccountDailyDebit(1L, TODAY, new BigDecimal("80.00")))));
+        when(accountRepository.findDailyLimits()).thenReturn(List.<Object[]>of(new Object[]{1L, new BigDecimal("100.00")}));
+
+        tracker.load();
+
+        assertThat(tracker.debitedToday(1L)).isEqualByComparingTo("80.00");
+        assertThatThrownBy(() -> tracker.reserve(1L, new BigDecimal("20.01")))
+                .isInstanceOf(DailyLimitExceededException.class);
+        verifyNoInteractions(logRepository);
+    }
+
+    @Test
+    void loadRebuildsFromTodaysLogsWhenThereAreNoBuckets() {
+        when(debitRepository.findByBusinessDate(TODAY)).thenReturn(new ArrayList<>(), new ArrayList<>(List.of(
+                new AccountDailyDebit(4L, TODAY, new BigDecimal("12.50")),
+                new AccountDailyDebit(5L, TODAY, new BigDecimal("30.00")))));
+        when(logRepository.sumSuccessfulDebitsSince(TODAY.atStartOfDay(ZoneOffset.UTC).toInstant()))
+                .thenReturn(List.<Object[]>of(new Object[]{4L, new BigDecimal("12.50")},
+                        new Object[]{5L, new BigDecimal("20.00")}));
+        when(accountRepository.findDailyLimits()).thenReturn(List.of());
+
+        tracker.load();
+
+        verify(debitRepository).insertIfAbsent(4L, TODAY, new BigDecimal("12.50"));
+        verify(debitRepository).insertIfAbsent(5L, TODAY, new BigDecimal("20.00"));
+        verify(debitRepository, never()).saveAll(any());
+        // Account 5's bucket was created (and debited) by another instance in the meantime: its total wins
+        assertThat(tracker.debitedToday(4L)).isEqualByComparingTo("12.50");
+        assertThat(tracker.debitedToday(5L)).isEqualByComparingTo("30.00");
+    }
+
+    @Test
+    void limitChangesFromOtherInstancesArePolledWithALookback() {
+        when(debitRepository.findByBusinessDate(TODAY)).thenReturn(new ArrayList<>());
+        when(accountRepository.findDailyLimits()).thenReturn(List.<Object[]>of(new Object[]{1L, new BigDecimal("100.00")}));
+        tracker.load();
+        when(accountRepository.findDailyLimitsChangedSince(TODAY.atTime(8, 59).toInstant(ZoneOffset.UTC)))
+                .thenReturn(List.<Object[]>of(new Object[]{1L, new BigDecimal("10.00")}));
+
+        tracker.refreshLimits();
+
+        assertThatThrownBy(() -> tracker.reserve(1L, new BigDecimal("10.01")))
+                .isInstanceOf(DailyLimitExceededException.class);
+    }
+}
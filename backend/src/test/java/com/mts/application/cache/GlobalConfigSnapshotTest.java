@@ -0,0 +1,107 @@
+package com.mts.application.cache;
+
+import com.mts.application.dto.TransferLimits;
+import com.mts.application.entities.GlobalConfig;
+import com.mts.application.repository.GlobalConfigRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class GlobalConfigSnapshotTest {
+
+    @Mock
+    private GlobalConfigRepository globalConfigRepository;
+
+    private GlobalConfigSnapshot snapshot;
+
+    @BeforeEach
+    void setUp() {
+        snapshot = new GlobalConfigSnapshot(globalConfigRepository);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void loadsOnceAndServesFromMemory() {
+        when(globalConfigRepository.findLimitsById("DEFAULT"))
+                .thenReturn(Optional.of(new TransferLimits(2L, new BigDecimal("100.00"))));
+
+        assertThat(snapshot.current().exceedsGlobalLimit(new BigDecimal("100.01"))).isTrue();
+        assertThat(snapshot.current().exceedsGlobalLimit(new BigDecimal("100.00"))).isFalse();
+
+        verify(globalConfigRepository, times(1)).findLimitsById("DEFAULT");
+    }
+
+    @Test
+    void noConfigRowMeansNoLimit() {
+        when(globalConfigRepository.findLimitsById("DEFAULT")).thenReturn(Optional.empty());
+
+        assertThat(snapshot.current()).isEqualTo(TransferLimits.NONE);
+        assertThat(snapshot.current().exceedsGlobalLimit(new BigDecimal("1000000"))).isFalse();
+    }
+
+    @Test
+    void pollReloadsOnlyWhenTheVersionChanged() {
+        when(globalConfigRepository.findLimitsById("DEFAULT"))
+                .thenReturn(Optional.of(new TransferLimits(2L, new BigDecimal("100.00"))))
+                .thenReturn(Optional.of(new TransferLimits(3L, new BigDecimal("50.00"))));
+        when(globalConfigRepository.findVersionById("DEFAULT")).thenReturn(Optional.of(2L), Optional.of(3L));
+        snapshot.current();
+
+        snapshot.poll();
+        verify(globalConfigRepository, times(1)).findLimitsById("DEFAULT");
+
+        snapshot.poll();
+        assertThat(snapshot.current().globalTransferLimit()).isEqualByComparingTo("50.00");
+        verify(globalConfigRepository, times(2)).findLimitsById("DEFAULT");
+    }
+
+    @Test
+    void localChangeIsSwappedInAfterCommit() {
+        when(globalConfigRepository.findLimitsById("DEFAULT"))
+                .thenReturn(Optional.of(new TransferLimits(2L, new BigDecimal("100.00"))));
+        snapshot.current();
+        GlobalConfig saved = new GlobalConfig();
+        saved.setGlobalTransferLimit(new BigDecimal("10.00"));
+        saved.setVersion(3L);
+
+        TransactionSynchronizationManager.initSynchronization();
+        snapshot.publishAfterCommit(saved);
+        assertThat(snapshot.current().globalTransferLimit()).isEqualByComparingTo("100.00");
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        assertThat(snapshot.current()).isEqualTo(new TransferLimits(3L, new BigDecimal("10.00")));
+    }
+
+    @Test
+    void staleReloadDoesNotReplaceANewerSnapshot() {
+        GlobalConfig saved = new GlobalConfig();
+        saved.setGlobalTransferLimit(new BigDecimal("10.00"));
+        saved.setVersion(5L);
+        snapshot.publishAfterCommit(saved);
+        when(globalConfigRepository.findVersionById("DEFAULT")).thenReturn(Optional.of(4L));
+        when(globalConfigRepository.findLimitsById("DEFAULT"))
+                .thenReturn(Optional.of(new TransferLimits(4L, new BigDecimal("100.00"))));
+
+        snapshot.poll();
+
+        assertThat(snapshot.current().version()).isEqualTo(5L);
+    }
+}
@@ -0,0 +1,70 @@
+package com.mts.application.cache;
+
+import com.mts.application.repository.TransactionLogRepository;
+import com.mts.support.MutableClock;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Instant;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class IdempotencyIndexTest {
+
+    private static final Instant NOW = Instant.parse("2026-03-10T09:00:00Z");
+
+    @Mock
+    private TransactionLogRepository logRepository;
+
+    private MutableClock clock;
+    private IdempotencyIndex index;
+
+    @BeforeEach
+    void setUp() {
+        clock = new MutableClock(NOW);
+        // 48 hours: today plus the two days before it
+        index = new IdempotencyIndex(logRepository, 1_000, 0.01, 100, 48, clock);
+    }
+
+    @Test
+    void rebuildPlacesKeysInTheGenerationOfTheirDay() {
+        when(logRepository.streamIdempotencyKeysSince(any())).thenReturn(Stream.of(
+                new Object[] { "yesterday", NOW.minusSeconds(86_400) },
+                new Object[] { "today", NOW }));
+
+        index.rebuild();
+
+        assertThat(index.lookup("yesterday")).isEqualTo(IdempotencyIndex.Lookup.MAYBE);
+        assertThat(index.lookup("today")).isEqualTo(IdempotencyIndex.Lookup.MAYBE);
+        assertThat(index.lookup("never")).isEqualTo(IdempotencyIndex.Lookup.ABSENT);
+        assertThat(index.generationCount()).isEqualTo(2);
+
+        clock.advanceDays(2);
+        assertThat(index.lookup("yesterday")).as("past the window").isEqualTo(IdempotencyIndex.Lookup.ABSENT);
+        assertThat(index.lookup("today")).isEqualTo(IdempotencyIndex.Lookup.MAYBE);
+    }
+
+    @Test
+    void oldGenerationsAreDroppedAsNewDaysStart() {
+        when(logRepository.streamIdempotencyKeysSince(any())).thenReturn(Stream.empty());
+        index.rebuild();
+
+        for (int day = 0; day < 10; day++) {
+            index.recordResumable("key-" + day);
+            clock.advanceDays(1);
+        }
+        index.recordResumable("key-10");
+
+        assertThat(index.generationCount()).isEqualTo(3);
+        assertThat(index.lookup("key-10")).isEqualTo(IdempotencyIndex.Lookup.MAYBE);
+        assertThat(index.lookup("key-8")).isEqualTo(IdempotencyIndex.Lookup.MAYBE);
+        assertThat(index.lookup("key-7")).isEqualTo(IdempotencyIndex.Lookup.ABSENT);
+    }
+}
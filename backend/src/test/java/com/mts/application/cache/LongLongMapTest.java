@@ -0,0 +1,53 @@
+package com.mts.application.cache;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LongLongMapTest {
+
+    @Test
+    void absentKeysReadAsZero() {
+        LongLongMap map = new LongLongMap(4);
+
+        assertThat(map.get(42L)).isZero();
+        assertThat(map.containsKey(42L)).isFalse();
+    }
+
+    @Test
+    void addToAccumulatesPerKey() {
+        LongLongMap map = new LongLongMap(4);
+
+        map.addTo(1L, 500);
+        map.addTo(1L, 250);
+        map.addTo(0L, -3);
+
+        assertThat(map.get(1L)).isEqualTo(750);
+        assertThat(map.get(0L)).isEqualTo(-3);
+        assertThat(map.size()).isEqualTo(2);
+    }
+
+    @Test
+    void growsPastInitialCapacityWithoutLosingEntries() {
+        LongLongMap map = new LongLongMap(4);
+        for (long id = 1; id <= 10_000; id++) {
+            map.put(id, id * 10);
+        }
+
+        assertThat(map.size()).isEqualTo(10_000);
+        for (long id = 1; id <= 10_000; id++) {
+            assertThat(map.get(id)).isEqualTo(id * 10);
+        }
+    }
+
+    @Test
+    void clearRemovesEverything() {
+        LongLongMap map = new LongLongMap(4);
+        map.put(7L, 1);
+
+        map.clear();
+
+        assertThat(map.size()).isZero();
+        assertThat(map.containsKey(7L)).isFalse();
+    }
+}
@@ -0,0 +1,48 @@
+package com.mts.application.cache;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ScalableBloomFilterTest {
+
+    @Test
+    @DisplayName("Every added key is reported as possibly present, across slice growth")
+    void noFalseNegatives() {
+        ScalableBloomFilter filter = new ScalableBloomFilter(1_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filter.put("key-" + i);
+        }
+
+        for (int i = 0; i < 10_000; i++) {
+            assertThat(filter.mightContain("key-" + i)).isTrue();
+        }
+        assertThat(filter.sliceCount()).isGreaterThan(1);
+    }
+
+    @Test
+    @DisplayName("False-positive rate stays near the configured bound after growth")
+    void falsePositiveRateIsBounded() {
+        ScalableBloomFilter filter = new ScalableBloomFilter(1_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filter.put("key-" + i);
+        }
+
+        int falsePositives = 0;
+        for (int i = 0; i < 10_000; i++) {
+            if (filter.mightContain("other-" + i)) {
+                falsePositives++;
+            }
+        }
+        assertThat(falsePositives).isLessThan(300);
+    }
+
+    @Test
+    @DisplayName("Invalid sizing is rejected")
+    void invalidArguments_throw() {
+        assertThatThrownBy(() -> new ScalableBloomFilter(0, 0.01)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new ScalableBloomFilter(10, 1.0)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,46 @@
+package com.mts.application.config;
+
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CorrelationIdFilterTest {
+
+    private final CorrelationIdFilter filter = new CorrelationIdFilter();
+
+    @Test
+    void propagatesCallerCorrelationIdToMdcAndResponse() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader(CorrelationIdFilter.HEADER, "abc-123");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        AtomicReference<String> seen = new AtomicReference<>();
+
+        filter.doFilter(request, response, new MockFilterChain() {
+            @Override
+            public void doFilter(jakarta.servlet.ServletRequest req, jakarta.servlet.ServletResponse res) {
+                seen.set(MDC.get(CorrelationIdFilter.MDC_KEY));
+            }
+        });
+
+        assertThat(seen.get()).isEqualTo("abc-123");
+        assertThat(response.getHeader(CorrelationIdFilter.HEADER)).isEqualTo("abc-123");
+        assertThat(MDC.get(CorrelationIdFilter.MDC_KEY)).isNull();
+    }
+
+    @Test
+    void generatesIdWhenHeaderMissingOrUnsafe() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader(CorrelationIdFilter.HEADER, "bad\nvalue");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(request, response, new MockFilterChain());
+
+        assertThat(response.getHeader(CorrelationIdFilter.HEADER)).isNotBlank().doesNotContain("\n");
+    }
+}
@@ -0,0 +1,105 @@
+package com.mts.application.config;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class ServiceTracingAspectTest {
+
+    @Mock
+    private ProceedingJoinPoint joinPoint;
+
+    @Mock
+    private MethodSignature signature;
+
+    @Mock
+    private Object argument;
+
+    private ServiceTracingAspect aspect;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        aspect = new ServiceTracingAspect(0.0, 200, "");
+        when(joinPoint.getTarget()).thenReturn(this);
+        when(joinPoint.getSignature()).thenReturn(signature);
+        when(signature.getDeclaringType()).thenReturn((Class) ServiceTracingAspectTest.class);
+        when(signature.getName()).thenReturn("testMethod");
+        when(signature.getMethod()).thenReturn(ServiceTracingAspectTest.class.getDeclaredMethod("setUp"));
+        when(joinPoint.getArgs()).thenReturn(new Object[]{argument, 123});
+    }
+
+    @Test
+    @DisplayName("Fast unsampled calls return the result without formatting arguments")
+    void traceServiceMethod_fastCall_doesNotFormatArguments() throws Throwable {
+        when(joinPoint.proceed()).thenReturn("test result");
+
+        Object result = aspect.traceServiceMethod(joinPoint);
+
+        assertEquals("test result", result);
+        verify(joinPoint, never()).getArgs();
+        verifyNoInteractions(argument);
+    }
+
+    @Test
+    @DisplayName("Failed calls are logged with their arguments and the exception is rethrown")
+    void traceServiceMethod_exception() throws Throwable {
+        RuntimeException exception = new RuntimeException("Test exception");
+        when(joinPoint.proceed()).thenThrow(exception);
+
+        RuntimeException thrown = assertThrows(RuntimeException.class, () -> aspect.traceServiceMethod(joinPoint));
+
+        assertSame(exception, thrown);
+        verify(joinPoint).getArgs();
+    }
+
+    @Test
+    @DisplayName("Calls over their method's slow threshold are logged with their arguments")
+    void traceServiceMethod_slowCall_usesPerMethodThreshold() throws Throwable {
+        aspect = new ServiceTracingAspect(0.0, 60_000, "ServiceTracingAspectTest.testMethod=0");
+        when(joinPoint.proceed()).thenReturn("test result");
+
+        Object result = aspect.traceServiceMethod(joinPoint);
+
+        assertEquals("test result", result);
+        verify(joinPoint).getArgs();
+    }
+
+    @Test
+    @DisplayName("Method metadata is resolved once per method")
+    void traceServiceMethod_cachesMethodMetadata() throws Throwable {
+        when(joinPoint.proceed()).thenReturn("test result");
+
+        aspect.traceServiceMethod(joinPoint);
+        aspect.traceServiceMethod(joinPoint);
+
+        verify(signature, times(1)).getName();
+    }
+
+    @Test
+    @DisplayName("Handles null arguments")
+    void traceServiceMethod_nullArguments() throws Throwable {
+        when(joinPoint.getArgs()).thenReturn(new Object[]{null, "arg2"});
+        when(joinPoint.proceed()).thenThrow(new IllegalStateException("boom"));
+
+        assertThrows(IllegalStateException.class, () -> aspect.traceServiceMethod(joinPoint));
+    }
+
+    @Test
+    @DisplayName("Rejects malformed slow-ms overrides")
+    void constructor_invalidOverride() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new ServiceTracingAspect(0.0, 200, "TransferServiceImpl.transfer"));
+    }
+}
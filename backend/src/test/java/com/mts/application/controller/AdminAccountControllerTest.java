@@ -65,6 +65,9 @@ class AdminAccountControllerTest {
         @MockitoBean
         private com.mts.application.security.services.UserDetailsServiceImpl userDetailsService;
 
+        @MockitoBean
+        private com.mts.application.security.services.TokenRevocationService tokenRevocationService;
+
         private final ObjectMapper objectMapper = new ObjectMapper();
 
         @Test
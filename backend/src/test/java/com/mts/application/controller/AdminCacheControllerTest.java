@@ -0,0 +1,75 @@
+package com.mts.application.controller;
+
+import com.mts.application.cache.SecondLevelCacheStatistics;
+import com.mts.application.dto.CacheRegionStats;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.security.config.annotation.web.builders.HttpSecurity;
+import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
+import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static org.mockito.Mockito.when;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(AdminCacheController.class)
+@Import(AdminCacheControllerTest.TestSecurityConfig.class)
+class AdminCacheControllerTest {
+
+    @TestConfiguration
+    @EnableWebSecurity
+    static class TestSecurityConfig {
+        @Bean
+        @Order(Ordered.HIGHEST_PRECEDENCE)
+        public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
+            http
+                    .csrf(csrf -> csrf.disable())
+                    .sessionManagement(sm -> sm.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+                    .authorizeHttpRequests(auth -> auth.anyRequest().permitAll());
+            return http.build();
+        }
+    }
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private SecondLevelCacheStatistics cacheStatistics;
+
+    @MockitoBean
+    private com.mts.application.security.jwt.JwtUtils jwtUtils;
+
+    @MockitoBean
+    private com.mts.application.security.services.UserDetailsServiceImpl userDetailsService;
+
+    @MockitoBean
+    private com.mts.application.security.services.TokenRevocationService tokenRevocationService;
+
+    @Test
+    @DisplayName("GET /api/v1/admin/cache/statistics returns per-region hit and miss counts")
+    void statistics_success() throws Exception {
+        when(cacheStatistics.regions()).thenReturn(List.of(
+                new CacheRegionStats("global-config", 9, 1, 1, 0.9)));
+
+        mockMvc.perform(get("/api/v1/admin/cache/statistics")
+                .with(user("admin").roles("ADMIN")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].region").value("global-config"))
+                .andExpect(jsonPath("$[0].hits").value(9))
+                .andExpect(jsonPath("$[0].misses").value(1))
+                .andExpect(jsonPath("$[0].hitRatio").value(0.9));
+    }
+}
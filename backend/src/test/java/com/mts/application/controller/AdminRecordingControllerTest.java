@@ -0,0 +1,136 @@
+package com.mts.application.controller;
+
+import com.mts.application.dto.FlightRecordingStatus;
+import com.mts.application.metrics.jfr.FlightRecordingService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.security.config.annotation.web.builders.HttpSecurity;
+import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
+import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsString;
+
+import static org.mockito.Mockito.when;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(AdminRecordingController.class)
+@Import(AdminRecordingControllerTest.TestSecurityConfig.class)
+class AdminRecordingControllerTest {
+
+    @TestConfiguration
+    @EnableWebSecurity
+    static class TestSecurityConfig {
+        @Bean
+        @Order(Ordered.HIGHEST_PRECEDENCE)
+        public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
+            http
+                    .csrf(csrf -> csrf.disable())
+                    .sessionManagement(sm -> sm.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+                    .authorizeHttpRequests(auth -> auth.anyRequest().permitAll());
+            return http.build();
+        }
+    }
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private FlightRecordingService recordingService;
+
+    @MockitoBean
+    private com.mts.application.security.jwt.JwtUtils jwtUtils;
+
+    @MockitoBean
+    private com.mts.application.security.services.UserDetailsServiceImpl userDetailsService;
+
+    @MockitoBean
+    private com.mts.application.security.services.TokenRevocationService tokenRevocationService;
+
+    @Test
+    @DisplayName("POST /start returns the new recording")
+    void start_success() throws Exception {
+        when(recordingService.start(60L, "profile")).thenReturn(Optional.of(
+                new FlightRecordingStatus(7, "RUNNING", "profile", Instant.parse("2026-01-01T00:00:00Z"), 60, 1024)));
+
+        mockMvc.perform(post("/api/v1/admin/recordings/start")
+                .param("durationSeconds", "60")
+                .param("settings", "profile")
+                .with(user("admin").roles("ADMIN")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(7))
+                .andExpect(jsonPath("$.state").value("RUNNING"))
+                .andExpect(jsonPath("$.maxDurationSeconds").value(60));
+    }
+
+    @Test
+    @DisplayName("POST /start while a recording is running returns 409")
+    void start_alreadyRunning() throws Exception {
+        when(recordingService.start(null, "default")).thenReturn(Optional.empty());
+
+        mockMvc.perform(post("/api/v1/admin/recordings/start")
+                .with(user("admin").roles("ADMIN")))
+                .andExpect(status().isConflict());
+    }
+
+    @Test
+    @DisplayName("POST /stop streams the recording file and deletes it")
+    void stop_streamsFile() throws Exception {
+        Path file = Files.createTempFile("recording-test-", ".jfr");
+        Files.write(file, new byte[]{1, 2, 3});
+        when(recordingService.stop()).thenReturn(Optional.of(file));
+
+        MvcResult result = mockMvc.perform(post("/api/v1/admin/recordings/stop")
+                .with(user("admin").roles("ADMIN")))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Disposition",
+                        containsString(file.getFileName().toString())))
+                .andExpect(content().bytes(new byte[]{1, 2, 3}));
+        assertThat(file).doesNotExist();
+    }
+
+    @Test
+    @DisplayName("POST /stop without a recording returns 404")
+    void stop_noRecording() throws Exception {
+        when(recordingService.stop()).thenReturn(Optional.empty());
+
+        mockMvc.perform(post("/api/v1/admin/recordings/stop")
+                .with(user("admin").roles("ADMIN")))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @DisplayName("GET without a recording returns 404")
+    void status_noRecording() throws Exception {
+        when(recordingService.status()).thenReturn(Optional.empty());
+
+        mockMvc.perform(get("/api/v1/admin/recordings")
+                .with(user("admin").roles("ADMIN")))
+                .andExpect(status().isNotFound());
+    }
+}
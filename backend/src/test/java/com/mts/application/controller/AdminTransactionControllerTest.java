@@ -4,6 +4,9 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.mts.application.dto.TransactionFilter;
 import com.mts.application.dto.TransactionResponse;
 import com.mts.application.service.AdminService;
+import com.mts.application.service.TransactionExportService;
+import com.mts.domain.dto.CursorPage;
+import com.mts.domain.dto.CursorPage;
 import com.mts.domain.enums.TransactionStatus;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -24,13 +27,17 @@ import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
+import java.io.OutputStream;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 
 import java.util.Collections;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
@@ -62,12 +69,18 @@ class AdminTransactionControllerTest {
     @MockitoBean
     private AdminService adminService;
 
+    @MockitoBean
+    private TransactionExportService exportService;
+
     @MockitoBean
     private com.mts.application.security.jwt.JwtUtils jwtUtils;
 
     @MockitoBean
     private com.mts.application.security.services.UserDetailsServiceImpl userDetailsService;
 
+    @MockitoBean
+    private com.mts.application.security.services.TokenRevocationService tokenRevocationService;
+
     private final ObjectMapper objectMapper = new ObjectMapper();
 
     @Test
@@ -88,6 +101,31 @@ class AdminTransactionControllerTest {
                 .andExpect(jsonPath("$.content[0].id").value("tx-1"));
     }
 
+    @Test
+    @DisplayName("GET /api/v1/admin/transactions/cursor passes every filter and the cursor to the service")
+    void searchTransactionsByCursor_success() throws Exception {
+        TransactionResponse txResponse = new TransactionResponse("tx-1", "key-1", 1L, 2L,
+                new BigDecimal("100.00"), "USD", TransactionStatus.SUCCESS, null, java.time.LocalDateTime.now());
+        when(adminService.searchTransactionsByCursor(any(TransactionFilter.class), eq("abc"), eq(50)))
+                .thenReturn(new CursorPage<>(Collections.singletonList(txResponse), "next"));
+
+        mockMvc.perform(get("/api/v1/admin/transactions/cursor")
+                .with(user("admin").roles("ADMIN"))
+                .param("status", "SUCCESS")
+                .param("minAmount", "10")
+                .param("fromDate", "2024-01-01T00:00:00")
+                .param("cursor", "abc")
+                .param("size", "50"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].id").value("tx-1"))
+                .andExpect(jsonPath("$.nextCursor").value("next"));
+
+        verify(adminService).searchTransactionsByCursor(
+                eq(new TransactionFilter(null, TransactionStatus.SUCCESS, new BigDecimal("10"), null,
+                        java.time.LocalDateTime.of(2024, 1, 1, 0, 0), null)),
+                eq("abc"), eq(50));
+    }
+
     @Test
     @DisplayName("POST /api/v1/admin/transactions/{id}/reverse reverses transaction")
     void reverseTransaction_success() throws Exception {
@@ -124,4 +162,26 @@ class AdminTransactionControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(content().string("5000.00"));
     }
+
+    @Test
+    @DisplayName("GET /api/v1/admin/transactions/export streams the export as an attachment")
+    void exportTransactions_streamsCsv() throws Exception {
+        doAnswer(inv -> {
+            OutputStream out = inv.getArgument(2);
+            out.write("id\ntx-1\n".getBytes(StandardCharsets.UTF_8));
+            return 1L;
+        }).when(exportService).export(any(), eq(TransactionExportService.Format.CSV), any(OutputStream.class));
+
+        MvcResult result = mockMvc.perform(get("/api/v1/admin/transactions/export")
+                .param("status", "SUCCESS")
+                .with(user("admin").roles("ADMIN")))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Disposition", "attachment; filename=\"transactions.csv\""))
+                .andExpect(content().contentTypeCompatibleWith("text/csv"))
+                .andExpect(content().string("id\ntx-1\n"));
+    }
 }
@@ -56,6 +56,9 @@ class TransferApprovalControllerTest {
     @MockitoBean
     private com.mts.application.security.services.UserDetailsServiceImpl userDetailsService;
 
+    @MockitoBean
+    private com.mts.application.security.services.TokenRevocationService tokenRevocationService;
+
     private final ObjectMapper objectMapper = new ObjectMapper();
 
     @Test
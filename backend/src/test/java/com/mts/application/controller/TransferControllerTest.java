@@ -1,10 +1,19 @@
 package com.mts.application.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mts.application.service.BatchTransferService;
 import com.mts.application.service.TransferService;
+import com.mts.application.service.TransferSubmissionService;
+import com.mts.domain.dto.CursorPage;
+import com.mts.domain.dto.TransactionLogResponse;
 import com.mts.domain.dto.TransferRequest;
 import com.mts.domain.dto.TransferResponse;
+import com.mts.domain.dto.TransferSubmissionResponse;
+import com.mts.domain.enums.Direction;
+import com.mts.domain.enums.SubmissionStatus;
 import com.mts.domain.enums.TransactionStatus;
+import com.mts.domain.enums.TransferFailureCode;
+import com.mts.domain.exceptions.ReplayedTransferException;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -17,11 +26,17 @@ import org.springframework.test.web.servlet.MockMvc;
 
 import java.math.BigDecimal;
 import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.when;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -68,10 +83,19 @@ class TransferControllerTest {
     @MockitoBean
     private TransferService transferService;
     @MockitoBean
+    private BatchTransferService batchTransferService;
+    @MockitoBean
+    private com.mts.application.service.TransactionExportService exportService;
+    @MockitoBean
+    private TransferSubmissionService submissionService;
+    @MockitoBean
     private com.mts.application.security.jwt.JwtUtils jwtUtils;
     @MockitoBean
     private com.mts.application.security.services.UserDetailsServiceImpl userDetailsService;
 
+    @MockitoBean
+    private com.mts.application.security.services.TokenRevocationService tokenRevocationService;
+
     // ... (rest of tests)
 
     @Test
@@ -129,4 +153,123 @@ class TransferControllerTest {
                 .content(objectMapper.writeValueAsString(request)))
                 .andExpect(status().isUnprocessableEntity());
     }
+
+    @Test
+    @DisplayName("POST /api/v1/transfers/batch returns one result per item")
+    void executeBatch_withAuth_returnsResultPerItem() throws Exception {
+        TransferRequest first = new TransferRequest("1", "2", new BigDecimal("10.00"), "USD", "batch-1");
+        TransferRequest second = new TransferRequest("2", "1", new BigDecimal("999.00"), "USD", "batch-2");
+
+        when(batchTransferService.transferBatch(anyList())).thenReturn(List.of(
+                new TransferResponse("tx-1", "1", "2", new BigDecimal("10.00"), "USD",
+                        TransactionStatus.SUCCESS, "Transfer completed successfully", "batch-1", null),
+                new TransferResponse("tx-2", "2", "1", new BigDecimal("999.00"), "USD",
+                        TransactionStatus.FAILED, "Insufficient balance in account: 2", "batch-2", null)));
+
+        mockMvc.perform(post("/api/v1/transfers/batch")
+                .with(user("testuser").roles("USER"))
+                .with(csrf())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(List.of(first, second))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].status").value("SUCCESS"))
+                .andExpect(jsonPath("$[1].status").value("FAILED"));
+    }
+
+    @Test
+    @DisplayName("POST /api/v1/transfers resent with a used key returns the original response")
+    void executeTransfer_resend_replaysOriginalResponse() throws Exception {
+        TransferRequest request = new TransferRequest("1", "2", new BigDecimal("100.00"), "USD", "key-1");
+        TransferResponse original = new TransferResponse(
+                "tx-123", "1", "2", new BigDecimal("100.00"), "USD",
+                TransactionStatus.SUCCESS, "Transfer completed successfully", "key-1", null);
+        when(transferService.transfer(any(TransferRequest.class)))
+                .thenThrow(new ReplayedTransferException("Duplicate transfer request: key-1", original));
+
+        mockMvc.perform(post("/api/v1/transfers")
+                .with(user("testuser").roles("USER"))
+                .with(csrf())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Idempotent-Replayed", "true"))
+                .andExpect(jsonPath("$.transactionId").value("tx-123"));
+    }
+
+    @Test
+    @DisplayName("POST /api/v1/transfers replays a failed transfer with its original error")
+    void transfer_replayedFailure_returnsOriginalError() throws Exception {
+        TransferRequest request = new TransferRequest("1", "2", new BigDecimal("100.00"), "USD", "key-2");
+        TransferResponse original = new TransferResponse(
+                "tx-124", "1", "2", new BigDecimal("100.00"), "USD", TransactionStatus.FAILED,
+                "Insufficient balance: attempted 100.00, available 5.00", "key-2", null,
+                TransferFailureCode.INSUFFICIENT_BALANCE);
+        when(transferService.transfer(any(TransferRequest.class)))
+                .thenThrow(new ReplayedTransferException("Duplicate transfer request: key-2", original));
+
+        mockMvc.perform(post("/api/v1/transfers")
+                .with(user("testuser").roles("USER"))
+                .with(csrf())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isBadRequest())
+                .andExpect(header().string("Idempotent-Replayed", "true"))
+                .andExpect(jsonPath("$.code").value("INSUFFICIENT_BALANCE"))
+                .andExpect(jsonPath("$.message").value("Insufficient balance: attempted 100.00, available 5.00"))
+                .andExpect(jsonPath("$.status").value(400));
+    }
+
+    @Test
+    @DisplayName("GET /api/v1/accounts/{id}/transactions/cursor returns items and the next cursor")
+    void getTransactionHistoryByCursor_returnsNextCursor() throws Exception {
+        TransactionLogResponse item = new TransactionLogResponse("tx-9", 1L, 2L, new BigDecimal("10.00"), "USD",
+                TransactionStatus.SUCCESS, null, "key-9", Instant.parse("2026-03-01T10:00:00Z"));
+        when(transferService.getAccountTransactionsByCursor(eq("1"), isNull(), isNull(), isNull(),
+                eq(Direction.SENT), eq("abc"), eq(1)))
+                .thenReturn(new CursorPage<>(List.of(item), "next-abc"));
+
+        mockMvc.perform(get("/api/v1/accounts/1/transactions/cursor")
+                .param("direction", "SENT")
+                .param("cursor", "abc")
+                .param("size", "1")
+                .with(user("testuser").roles("USER")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].id").value("tx-9"))
+                .andExpect(jsonPath("$.nextCursor").value("next-abc"));
+    }
+
+    @Test
+    @DisplayName("POST /api/v1/transfers/async returns 202 with the status URL")
+    void submitTransfer_returns202WithLocation() throws Exception {
+        TransferRequest request = new TransferRequest("1", "2", new BigDecimal("100.00"), "USD", "key-async");
+        when(submissionService.submit(any(TransferRequest.class))).thenReturn(new TransferSubmissionResponse(
+                "sub-1", SubmissionStatus.QUEUED, "key-async", Instant.parse("2026-03-01T10:00:00Z"), null, null));
+
+        mockMvc.perform(post("/api/v1/transfers/async")
+                .with(user("testuser").roles("USER"))
+                .with(csrf())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isAccepted())
+                .andExpect(header().string("Location", "/api/v1/transfers/sub-1"))
+                .andExpect(jsonPath("$.status").value("QUEUED"));
+    }
+
+    @Test
+    @DisplayName("GET /api/v1/transfers/{id} returns the submission status, 404 for unknown ids")
+    void getTransferStatus_knownAndUnknownIds() throws Exception {
+        TransferResponse result = new TransferResponse("tx-5", "1", "2", new BigDecimal("100.00"), "USD",
+                TransactionStatus.SUCCESS, "Transfer completed successfully", "key-async", null);
+        when(submissionService.getStatus("sub-1")).thenReturn(Optional.of(new TransferSubmissionResponse(
+                "sub-1", SubmissionStatus.COMPLETED, "key-async", null, null, result)));
+        when(submissionService.getStatus("missing")).thenReturn(Optional.empty());
+
+        mockMvc.perform(get("/api/v1/transfers/sub-1").with(user("testuser").roles("USER")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("COMPLETED"))
+                .andExpect(jsonPath("$.result.transactionId").value("tx-5"));
+        mockMvc.perform(get("/api/v1/transfers/missing").with(user("testuser").roles("USER")))
+                .andExpect(status().isNotFound());
+    }
 }
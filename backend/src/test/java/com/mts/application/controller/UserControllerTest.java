@@ -59,6 +59,9 @@ class UserControllerTest {
     @MockitoBean
     private com.mts.application.security.services.UserDetailsServiceImpl userDetailsService;
 
+    @MockitoBean
+    private com.mts.application.security.services.TokenRevocationService tokenRevocationService;
+
     @Test
     @DisplayName("GET /api/v1/user/profile returns user profile")
     void getProfile_success() throws Exception {
@@ -0,0 +1,302 @@
+package com.mts.application.ledger;
+
+import com.mts.application.cache.DailyLimitTracker;
+import com.mts.application.dto.AccountStatusChanged;
+import com.mts.application.entities.Account;
+import com.mts.application.entities.TransactionLog;
+import com.mts.application.repository.AccountDailyDebitRepository;
+import com.mts.application.repository.AccountRepository;
+import com.mts.application.repository.TransactionLogRepository;
+import com.mts.application.snowflake.SnowflakeIdGenerator;
+import com.mts.domain.dto.TransferRequest;
+import com.mts.domain.dto.TransferResponse;
+import com.mts.domain.enums.AccountStatus;
+import com.mts.domain.enums.TransactionStatus;
+import com.mts.domain.exceptions.AccountNotActiveException;
+import com.mts.domain.exceptions.DuplicateTransferException;
+import com.mts.domain.exceptions.InsufficientBalanceException;
+import com.mts.domain.exceptions.ReplayedTransferException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class LedgerEngineTest {
+
+    @Mock
+    private AccountRepository accountRepository;
+    @Mock
+    private TransactionLogRepository logRepository;
+    @Mock
+    private AccountDailyDebitRepository debitRepository;
+    @Mock
+    private LedgerStore store;
+
+    @TempDir
+    Path journalDirectory;
+
+    private final List<LedgerEntry> persisted = Collections.synchronizedList(new ArrayList<>());
+    private LedgerEngine engine;
+
+    @BeforeEach
+    void setUp() {
+        when(accountRepository.findById(anyLong())).thenReturn(Optional.empty());
+        when(store.findPersisted(anyCollection())).thenReturn(Set.of());
+        doAnswer(inv -> {
+            persisted.addAll(inv.getArgument(0));
+            return null;
+        }).when(store).persist(anyList());
+        DailyLimitTracker dailyLimits = new DailyLimitTracker(debitRepository, accountRepository, logRepository, "UTC", 35);
+        engine = new LedgerEngine(accountRepository, logRepository, store, dailyLimits,
+                new SnowflakeIdGenerator(1), 2, 1024, journalDirectory.toString(), 1, false, 100, 2, 1000);
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        engine.stop();
+    }
+
+    private void startWith(Account... accounts) {
+        when(accountRepository.findAll()).thenReturn(List.of(accounts));
+        engine.start();
+    }
+
+    private static Account account(long id, String balance, AccountStatus status) {
+        return Account.builder().id(id).holderName("Holder " + id).balance(new BigDecimal(balance)).status(status)
+                .build();
+    }
+
+    private static TransferRequest request(long from, long to, String amount, String key) {
+        return new TransferRequest(String.valueOf(from), String.valueOf(to), new BigDecimal(amount), "USD", key);
+    }
+
+    private TransferResponse await(TransferRequest request) throws Exception {
+        return engine.submit(request).get(5, TimeUnit.SECONDS);
+    }
+
+    /** Two account ids after {@code from} that land in the same, respectively a different, partition. */
+    private long[] samePartitionAndOther(long from) {
+        long same = -1;
+        long other = -1;
+        for (long id = from + 1; same < 0 || other < 0; id++) {
+            if (engine.partitionFor(id) == engine.partitionFor(from)) {
+                same = same < 0 ? id : same;
+            } else {
+                other = other < 0 ? id : other;
+            }
+        }
+        return new long[] { same, other };
+    }
+
+    @Test
+    void executesTransfersWithinAndAcrossPartitionsAndWritesThemBehind() throws Exception {
+        startWith(account(1, "0.00", AccountStatus.ACTIVE));
+        long[] ids = samePartitionAndOther(1);
+        engine.stop();
+        setUp();
+        startWith(account(1, "100.00", AccountStatus.ACTIVE), account(ids[0], "0.00", AccountStatus.ACTIVE),
+                account(ids[1], "0.00", AccountStatus.ACTIVE));
+
+        TransferResponse local = await(request(1, ids[0], "30.00", "local"));
+        TransferResponse remote = await(request(1, ids[1], "70.00", "remote"));
+
+        assertThat(local.status()).isEqualTo(TransactionStatus.SUCCESS);
+        assertThat(remote.status()).isEqualTo(TransactionStatus.SUCCESS);
+        assertThat(remote.transactionId()).hasSize(19).containsOnlyDigits();
+        assertThatThrownBy(() -> await(request(1, ids[1], "0.01", "empty")))
+                .hasCauseInstanceOf(InsufficientBalanceException.class);
+
+        engine.stop();
+        assertThat(persisted).extracting(LedgerEntry::idempotencyKey, LedgerEntry::status, LedgerEntry::cents)
+                .containsExactlyInAnyOrder(
+                        tuple("local", TransactionStatus.SUCCESS, 3000L),
+                        tuple("remote", TransactionStatus.SUCCESS, 7000L),
+                        tuple("empty", TransactionStatus.FAILED, 1L));
+        assertThat(journalFiles()).isEmpty();
+    }
+
+    @Test
+    void refusedCrossPartitionCreditGivesTheReservedAmountBack() throws Exception {
+        startWith(account(1, "0.00", AccountStatus.ACTIVE));
+        long other = samePartitionAndOther(1)[1];
+        engine.stop();
+        setUp();
+        startWith(account(1, "50.00", AccountStatus.ACTIVE), account(other, "0.00", AccountStatus.LOCKED));
+
+        assertThatThrownBy(() -> await(request(1, other, "50.00", "to-locked")))
+                .isInstanceOf(ExecutionException.class)
+                .hasCauseInstanceOf(AccountNotActiveException.class);
+
+        // The full balance is available again
+        long[] ids = samePartitionAndOther(1);
+        when(accountRepository.findById(ids[0])).thenReturn(Optional.of(account(ids[0], "0.00", AccountStatus.ACTIVE)));
+        assertThat(await(request(1, ids[0], "50.00", "after")).status()).isEqualTo(TransactionStatus.SUCCESS);
+    }
+
+    @Test
+    void rejectsKeysInFlightOrAlreadyLogged() throws Exception {
+        startWith(account(1, "100.00", AccountStatus.ACTIVE), account(2, "0.00", AccountStatus.ACTIVE));
+        TransactionLog prior = new TransactionLog();
+        prior.setId("0000000000000000042");
+        prior.setIdempotencyKey("used");
+        prior.setFromAccountId(1L);
+        prior.setToAccountId(2L);
+        prior.setAmount(new BigDecimal("10.00"));
+        prior.setStatus(TransactionStatus.SUCCESS);
+        prior.setCreatedOn(Instant.now());
+        when(logRepository.findByIdempotencyKey("used")).thenReturn(Optional.of(prior));
+
+        assertThatThrownBy(() -> engine.submit(request(1, 2, "10.00", "used")))
+                .isInstanceOf(ReplayedTransferException.class);
+        assertThatThrownBy(() -> engine.submit(request(1, 2, "11.00", "used")))
+                .isInstanceOf(DuplicateTransferException.class)
+                .isNotInstanceOf(ReplayedTransferException.class);
+    }
+
+    @Test
+    void entryThatCannotBeWrittenIsDeadLetteredWithoutHoldingUpTheRest() throws Exception {
+        refuseToPersist("poison");
+        startWith(account(1, "100.00", AccountStatus.ACTIVE), account(2, "0.00", AccountStatus.ACTIVE));
+
+        await(request(1, 2, "10.00", "poison"));
+        await(request(1, 2, "20.00", "healthy"));
+
+        Path deadLetters = awaitDeadLetters();
+        assertThat(Files.readString(deadLetters)).contains("poison").doesNotContain("healthy");
+        assertThatThrownBy(() -> engine.submit(request(1, 2, "10.00", "poison")))
+                .isInstanceOf(DuplicateTransferException.class);
+
+        engine.stop();
+        assertThat(persisted).extracting(LedgerEntry::idempotencyKey).containsExactly("healthy");
+    }
+
+    @Test
+    void deadLettersOutliveARestartAndAreWrittenOnceTheyCanBe() throws Exception {
+        refuseToPersist("poison");
+        startWith(account(1, "100.00", AccountStatus.ACTIVE), account(2, "0.00", AccountStatus.ACTIVE));
+        await(request(1, 2, "10.00", "poison\tkey"));
+        Path deadLetters = awaitDeadLetters();
+        engine.stop();
+
+        // Still failing: kept, and the key is still refused
+        setUp();
+        refuseToPersist("poison");
+        startWith(account(1, "90.00", AccountStatus.ACTIVE), account(2, "0.00", AccountStatus.ACTIVE));
+        assertThat(Files.readString(deadLetters)).contains("poison");
+        assertThatThrownBy(() -> engine.submit(request(1, 2, "10.00", "poison\tkey")))
+                .isInstanceOf(DuplicateTransferException.class);
+        engine.stop();
+
+        // Fixed: written on the next start and gone from the file
+        setUp();
+        startWith(account(1, "90.00", AccountStatus.ACTIVE), account(2, "0.00", AccountStatus.ACTIVE));
+        assertThat(persisted).extracting(LedgerEntry::idempotencyKey, LedgerEntry::status, LedgerEntry::cents)
+                .containsExactly(tuple("poison\tkey", TransactionStatus.SUCCESS, 1000L));
+        assertThat(deadLetters).doesNotExist();
+    }
+
+    @Test
+    void keyClaimedForTheJpaPathIsRefusedUntilReleased() throws Exception {
+        startWith(account(1, "100.00", AccountStatus.ACTIVE), account(2, "0.00", AccountStatus.ACTIVE));
+
+        LedgerEngine.KeyClaim claim = engine.claimKey("large");
+        assertThatThrownBy(() -> engine.submit(request(1, 2, "10.00", "large")))
+                .isInstanceOf(DuplicateTransferException.class);
+        assertThatThrownBy(() -> engine.claimKey("large")).isInstanceOf(DuplicateTransferException.class);
+        claim.close();
+
+        assertThat(await(request(1, 2, "10.00", "large")).status()).isEqualTo(TransactionStatus.SUCCESS);
+    }
+
+    @Test
+    void adminStatusChangeReachesTheOwningPartition() throws Exception {
+        startWith(account(1, "100.00", AccountStatus.ACTIVE), account(2, "0.00", AccountStatus.ACTIVE));
+
+        engine.onAccountStatusChanged(new AccountStatusChanged(1L, AccountStatus.LOCKED));
+
+        assertThatThrownBy(() -> await(request(1, 2, "10.00", "frozen")))
+                .hasCauseInstanceOf(AccountNotActiveException.class);
+
+        engine.onAccountStatusChanged(new AccountStatusChanged(1L, AccountStatus.ACTIVE));
+        assertThat(await(request(1, 2, "10.00", "thawed")).status()).isEqualTo(TransactionStatus.SUCCESS);
+    }
+
+    @Test
+    void startupReplaysJournaledTransfersMissingFromMySqlAndClearsTheJournal() {
+        Path partition = journalDirectory.resolve("partition-0");
+        LedgerJournal journal = new LedgerJournal(partition, 1 << 20, false);
+        long now = Instant.now().toEpochMilli();
+        journal.append(new LedgerRecord(LedgerRecord.Type.TRANSFER, 11L, 1L, 2L, 500L, now, "done-local", "USD"));
+        journal.append(new LedgerRecord(LedgerRecord.Type.RESERVE, 12L, 1L, 3L, 700L, now, "reserved-only", "USD"));
+        journal.append(new LedgerRecord(LedgerRecord.Type.RESERVE, 13L, 1L, 3L, 900L, now, "credited", "USD"));
+        journal.append(new LedgerRecord(LedgerRecord.Type.TRANSFER, 14L, 1L, 2L, 100L, now, "already-in-db", "USD"));
+        journal.close();
+        LedgerJournal destination = new LedgerJournal(journalDirectory.resolve("partition-1"), 1 << 20, false);
+        destination.append(new LedgerRecord(LedgerRecord.Type.CREDIT, 13L, 0L, 3L, 900L, now, null, null));
+        destination.close();
+        when(store.findPersisted(anyCollection())).thenReturn(Set.of(14L));
+
+        startWith();
+
+        assertThat(persisted).extracting(LedgerEntry::idempotencyKey)
+                .containsExactlyInAnyOrder("done-local", "credited");
+        assertThat(persisted).allMatch(entry -> entry.status() == TransactionStatus.SUCCESS);
+        verify(store).persist(anyList());
+        assertThat(LedgerJournal.readAll(partition)).isEmpty();
+    }
+
+    private void refuseToPersist(String keyPrefix) {
+        doAnswer(inv -> {
+            List<LedgerEntry> entries = inv.getArgument(0);
+            if (entries.stream().anyMatch(entry -> entry.idempotencyKey().startsWith(keyPrefix))) {
+                throw new DataIntegrityViolationException("Duplicate entry '" + keyPrefix + "'");
+            }
+            persisted.addAll(entries);
+            return null;
+        }).when(store).persist(anyList());
+    }
+
+    private Path awaitDeadLetters() throws Exception {
+        Path deadLetters = journalDirectory.resolve("dead-letters.log");
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while ((!Files.exists(deadLetters) || Files.size(deadLetters) == 0) && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        return deadLetters;
+    }
+
+    private List<Path> journalFiles() throws Exception {
+        try (Stream<Path> files = Files.walk(journalDirectory)) {
+            return files.filter(Files::isRegularFile).toList();
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.mts.application.ledger;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LedgerJournalTest {
+
+    private static final int SEGMENT_BYTES = 4096;
+
+    @TempDir
+    Path directory;
+
+    private static LedgerRecord transfer(long txId) {
+        return new LedgerRecord(LedgerRecord.Type.TRANSFER, txId, 1L, 2L, 1050L, 1_700_000_000_000L,
+                "key-" + txId, "USD");
+    }
+
+    @Test
+    void replaysAppendedRecordsInOrderAcrossSegments() {
+        LedgerJournal journal = new LedgerJournal(directory, SEGMENT_BYTES, false);
+        for (long tx = 1; tx <= 100; tx++) {
+            journal.append(transfer(tx));
+        }
+        journal.append(LedgerRecord.marker(LedgerRecord.Type.COMMIT, 100L));
+
+        List<LedgerRecord> records = LedgerJournal.readAll(directory);
+
+        assertThat(segmentCount()).isGreaterThan(1);
+        assertThat(records).hasSize(101);
+        assertThat(records.get(0)).isEqualTo(transfer(1));
+        assertThat(records.get(99)).isEqualTo(transfer(100));
+        assertThat(records.get(100).type()).isEqualTo(LedgerRecord.Type.COMMIT);
+        assertThat(records.get(100).idempotencyKey()).isNull();
+    }
+
+    @Test
+    void deletesASegmentOnceItIsFullAndEveryRecordIsSettled() {
+        LedgerJournal journal = new LedgerJournal(directory, SEGMENT_BYTES, false);
+        long first = journal.append(transfer(1));
+        long segment = first;
+        long tx = 2;
+        while (segment == first) {
+            segment = journal.append(transfer(tx++));
+        }
+        assertThat(segmentCount()).isEqualTo(2);
+
+        for (long settled = 1; settled < tx - 1; settled++) {
+            journal.settle(first);
+        }
+
+        assertThat(segmentCount()).isEqualTo(1);
+        assertThat(LedgerJournal.readAll(directory)).containsExactly(transfer(tx - 1));
+    }
+
+    @Test
+    void replayStopsAtACorruptRecord() throws IOException {
+        LedgerJournal journal = new LedgerJournal(directory, SEGMENT_BYTES, false);
+        journal.append(transfer(1));
+        journal.append(transfer(2));
+        journal.close();
+
+        Path file;
+        try (Stream<Path> files = Files.list(directory)) {
+            file = files.findFirst().orElseThrow();
+        }
+        List<LedgerRecord> before = LedgerJournal.readAll(directory);
+        int recordBytes = 8 + 1 + 5 * Long.BYTES + 2 * Short.BYTES + "key-1".length() + "USD".length();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[] { 0x7f }), recordBytes + 20);
+        }
+
+        assertThat(before).hasSize(2);
+        assertThat(LedgerJournal.readAll(directory)).containsExactly(transfer(1));
+    }
+
+    private long segmentCount() {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.count();
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.mts.application.ledger;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MpscRingBufferTest {
+
+    @Test
+    void rejectsOffersWhenFullAndAcceptsThemAgainAfterADrain() {
+        MpscRingBuffer<Integer> ring = new MpscRingBuffer<>(4);
+        for (int i = 0; i < 4; i++) {
+            assertThat(ring.offer(i)).isTrue();
+        }
+        assertThat(ring.offer(4)).isFalse();
+
+        List<Integer> drained = new ArrayList<>();
+        assertThat(ring.drain(drained::add, 3)).isEqualTo(3);
+        assertThat(ring.offer(4)).isTrue();
+        ring.drain(drained::add, 10);
+
+        assertThat(drained).containsExactly(0, 1, 2, 3, 4);
+    }
+
+    @Test
+    void capacityMustBeAPowerOfTwo() {
+        assertThatThrownBy(() -> new MpscRingBuffer<>(6)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void concurrentProducersLoseNothingAndKeepTheirOwnOrder() throws Exception {
+        int producers = 4;
+        int perProducer = 50_000;
+        MpscRingBuffer<long[]> ring = new MpscRingBuffer<>(1024);
+        CountDownLatch go = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+        for (int p = 0; p < producers; p++) {
+            long producer = p;
+            Thread thread = new Thread(() -> {
+                try {
+                    go.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (long i = 0; i < perProducer; i++) {
+                    long[] element = { producer, i };
+                    while (!ring.offer(element)) {
+                        Thread.onSpinWait();
+                    }
+                }
+            });
+            thread.start();
+            threads.add(thread);
+        }
+
+        long[] next = new long[producers];
+        int[] received = { 0 };
+        boolean[] ordered = { true };
+        go.countDown();
+        while (received[0] < producers * perProducer) {
+            ring.drain(element -> {
+                int producer = (int) element[0];
+                ordered[0] &= element[1] == next[producer];
+                next[producer] = element[1] + 1;
+                received[0]++;
+            }, 256);
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertThat(ordered[0]).isTrue();
+        assertThat(next).containsOnly(perProducer);
+    }
+}
@@ -0,0 +1,96 @@
+package com.mts.application.metrics.jfr;
+
+import com.mts.application.dto.FlightRecordingStatus;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class FlightRecordingServiceTest {
+
+    private final FlightRecordingService service = new FlightRecordingService(60, 10);
+
+    @AfterEach
+    void tearDown() throws Exception {
+        service.stop().ifPresent(file -> file.toFile().delete());
+    }
+
+    @Test
+    void recordsTransferEventsBetweenStartAndStop() throws Exception {
+        Optional<FlightRecordingStatus> started = service.start(30L, "default");
+        assertThat(started).isPresent();
+        assertThat(started.get().state()).isEqualTo("RUNNING");
+
+        TransferEvents.stage("validation", 1_500);
+        TransferEvents.conflict("key-1", 2, new IllegalStateException());
+        TransferEvents.idempotencyHit("key-2", "database", true);
+        TransferEvents.approvalRouted("42", new BigDecimal("10000.00"));
+
+        Path file = service.stop().orElseThrow();
+        try {
+            List<RecordedEvent> events = RecordingFile.readAllEvents(file).stream()
+                    .filter(e -> e.getEventType().getName().startsWith("com.mts."))
+                    .toList();
+            assertThat(events).extracting(e -> e.getEventType().getName())
+                    .contains("com.mts.TransferStage", "com.mts.TransferConflict",
+                            "com.mts.IdempotencyHit", "com.mts.ApprovalRouted");
+            RecordedEvent stage = events.stream()
+                    .filter(e -> e.getEventType().getName().equals("com.mts.TransferStage"))
+                    .findFirst().orElseThrow();
+            assertThat(stage.getString("stage")).isEqualTo("validation");
+            assertThat(stage.getDuration("elapsed").toNanos()).isEqualTo(1_500);
+        } finally {
+            Files.deleteIfExists(file);
+        }
+        assertThat(service.status()).isEmpty();
+    }
+
+    @Test
+    void onlyOneRecordingAtATime() throws Exception {
+        assertThat(service.start(null, "default")).isPresent();
+        assertThat(service.start(null, "default")).isEmpty();
+    }
+
+    @Test
+    void rejectsUnboundedOrUnknownRecordings() {
+        assertThatThrownBy(() -> service.start(61L, "default")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> service.start(10L, "custom")).isInstanceOf(IllegalArgumentException.class);
+        assertThat(service.status()).isEmpty();
+    }
+
+    @Test
+    void failedDumpDeletesTemporaryFile() throws Exception {
+        long id = service.start(30L, "default").orElseThrow().id();
+        // Closing the recording behind the service's back makes the dump fail
+        FlightRecorder.getFlightRecorder().getRecordings().stream()
+                .filter(r -> r.getId() == id)
+                .forEach(Recording::close);
+
+        assertThatThrownBy(service::stop).isInstanceOf(IOException.class);
+
+        Path tempDir = Path.of(System.getProperty("java.io.tmpdir"));
+        try (Stream<Path> files = Files.list(tempDir)) {
+            assertThat(files.map(p -> p.getFileName().toString()))
+                    .noneMatch(name -> name.startsWith("mts-recording-" + id + "-"));
+        }
+        assertThat(service.status()).isEmpty();
+    }
+
+    @Test
+    void stopWithoutRecordingIsEmpty() throws Exception {
+        assertThat(service.stop()).isEmpty();
+    }
+}
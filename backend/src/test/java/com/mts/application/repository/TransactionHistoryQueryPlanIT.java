@@ -0,0 +1,122 @@
+package com.mts.application.repository;
+
+import com.mts.application.entities.Account;
+import com.mts.domain.enums.AccountStatus;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Guards the plans of the two history branches: each must be a range scan of its composite index in
+ * index order, never a filesort. EXPLAINs the exact SQL the repository runs. Needs the MySQL instance from
+ * HOW_TO_RUN.md, so it is not picked up by the default surefire includes; run it explicitly:
+ *
+ * <pre>mvn test -Dtest=TransactionHistoryQueryPlanIT</pre>
+ */
+@SpringBootTest
+class TransactionHistoryQueryPlanIT {
+
+    private static final int ACCOUNTS = 20;
+    private static final int ROWS = 20_000;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private NamedParameterJdbcTemplate namedJdbcTemplate;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    private final List<Long> accountIds = new ArrayList<>();
+    private final String keyPrefix = "plan-" + UUID.randomUUID() + "-";
+
+    @BeforeEach
+    void seed() {
+        for (int i = 0; i < ACCOUNTS; i++) {
+            Account account = new Account();
+            account.setHolderName("plan-" + i);
+            account.setBalance(new BigDecimal("1000.00"));
+            account.setStatus(AccountStatus.ACTIVE);
+            accountIds.add(accountRepository.save(account).getId());
+        }
+        List<Object[]> rows = new ArrayList<>(ROWS);
+        Instant start = Instant.now().minusSeconds(ROWS);
+        for (int i = 0; i < ROWS; i++) {
+            Long from = accountIds.get(i % ACCOUNTS);
+            Long to = accountIds.get((i + 1 + i % (ACCOUNTS - 1)) % ACCOUNTS);
+            rows.add(new Object[] { UUID.randomUUID().toString(), keyPrefix + i, from, to,
+                    i % 10 == 0 ? "FAILED" : "SUCCESS", Timestamp.from(start.plusSeconds(i)) });
+        }
+        jdbcTemplate.batchUpdate("insert into transaction_logs (id, idempotency_key, from_account_id, to_account_id, "
+                + "amount, currency, status, created_on) values (?, ?, ?, ?, 1.00, 'USD', ?, ?)", rows);
+        jdbcTemplate.execute("analyze table transaction_logs");
+    }
+
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.update("delete from transaction_logs where idempotency_key like ?", keyPrefix + "%");
+        accountRepository.deleteAllById(accountIds);
+    }
+
+    @Test
+    @DisplayName("Sent history is an index-ordered scan of idx_tx_from_created_id")
+    void sentHistory_usesFromIndexWithoutFilesort() {
+        assertIndexOrdered(TransactionLogRepository.SENT_HISTORY_SQL, "idx_tx_from_created_id", firstPage());
+        assertIndexOrdered(TransactionLogRepository.SENT_HISTORY_SQL, "idx_tx_from_created_id", filteredNextPage());
+    }
+
+    @Test
+    @DisplayName("Received history is an index-ordered scan of idx_tx_to_created_id")
+    void receivedHistory_usesToIndexWithoutFilesort() {
+        assertIndexOrdered(TransactionLogRepository.RECEIVED_HISTORY_SQL, "idx_tx_to_created_id", firstPage());
+        assertIndexOrdered(TransactionLogRepository.RECEIVED_HISTORY_SQL, "idx_tx_to_created_id", filteredNextPage());
+    }
+
+    private MapSqlParameterSource firstPage() {
+        return params(null, null, null, null, null);
+    }
+
+    private MapSqlParameterSource filteredNextPage() {
+        Instant now = Instant.now();
+        return params("SUCCESS", Timestamp.from(now.minusSeconds(ROWS)), Timestamp.from(now),
+                Timestamp.from(now.minusSeconds(ROWS / 2)), "8");
+    }
+
+    private MapSqlParameterSource params(String status, Timestamp from, Timestamp to, Timestamp afterCreatedOn,
+            String afterId) {
+        return new MapSqlParameterSource()
+                .addValue("accountId", accountIds.get(0))
+                .addValue("status", status)
+                .addValue("from", from)
+                .addValue("to", to)
+                .addValue("afterCreatedOn", afterCreatedOn)
+                .addValue("afterId", afterId)
+                .addValue("limit", 21);
+    }
+
+    private void assertIndexOrdered(String sql, String expectedIndex, MapSqlParameterSource params) {
+        List<Map<String, Object>> plan = namedJdbcTemplate.queryForList("explain " + sql, params);
+        assertThat(plan).hasSize(1);
+        Map<String, Object> row = plan.get(0);
+        assertThat(row.get("key")).as("index chosen for %s", sql).isEqualTo(expectedIndex);
+        assertThat(String.valueOf(row.get("type"))).isIn("ref", "range");
+        assertThat(String.valueOf(row.get("Extra"))).doesNotContain("filesort").doesNotContain("temporary");
+    }
+}
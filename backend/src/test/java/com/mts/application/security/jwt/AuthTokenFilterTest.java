@@ -1,7 +1,10 @@
 package com.mts.application.security.jwt;
 
+import com.mts.application.security.services.TokenRevocationService;
 import com.mts.application.security.services.UserDetailsImpl;
 import com.mts.application.security.services.UserDetailsServiceImpl;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
@@ -16,6 +19,7 @@ import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 
 import java.util.Base64;
+import java.util.Date;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -31,6 +35,9 @@ class AuthTokenFilterTest {
     @Mock
     private UserDetailsServiceImpl userDetailsService;
 
+    @Mock
+    private TokenRevocationService tokenRevocationService;
+
     @Mock
     private HttpServletRequest request;
 
@@ -62,10 +69,37 @@ class AuthTokenFilterTest {
     }
 
     @Test
-    @DisplayName("Filter processes valid JWT token and sets authentication")
+    @DisplayName("Filter authenticates from token claims without loading the user")
     void doFilterInternal_validToken() throws Exception {
         String jwt = "valid.jwt.token";
+        Claims claims = claims("testuser");
+        UserDetailsImpl principal = new UserDetailsImpl(
+                1L,
+                "testuser",
+                null,
+                List.of(new SimpleGrantedAuthority("ROLE_USER"))
+        );
+
+        when(request.getHeader("Authorization")).thenReturn("Bearer " + jwt);
+        when(jwtUtils.parseClaims(jwt)).thenReturn(claims);
+        when(jwtUtils.getPrincipalFromClaims(claims)).thenReturn(principal);
+
+        authTokenFilter.doFilterInternal(request, response, filterChain);
+
+        verify(jwtUtils).parseClaims(jwt);
+        verify(userDetailsService, never()).loadUserByUsername(any());
+        verify(filterChain).doFilter(request, response);
+
+        assertNotNull(SecurityContextHolder.getContext().getAuthentication());
+        assertEquals(principal, SecurityContextHolder.getContext().getAuthentication().getPrincipal());
+    }
+
+    @Test
+    @DisplayName("Filter loads the user for tokens issued without role claims")
+    void doFilterInternal_tokenWithoutRoleClaims_loadsUser() throws Exception {
+        String jwt = "legacy.jwt.token";
         String username = "testuser";
+        Claims claims = claims(username);
 
         UserDetailsImpl userDetails = new UserDetailsImpl(
                 1L,
@@ -75,20 +109,125 @@ class AuthTokenFilterTest {
         );
 
         when(request.getHeader("Authorization")).thenReturn("Bearer " + jwt);
-        when(jwtUtils.validateJwtToken(jwt)).thenReturn(true);
-        when(jwtUtils.getUserNameFromJwtToken(jwt)).thenReturn(username);
+        when(jwtUtils.parseClaims(jwt)).thenReturn(claims);
+        when(jwtUtils.getPrincipalFromClaims(claims)).thenReturn(null);
         when(userDetailsService.loadUserByUsername(username)).thenReturn(userDetails);
 
         authTokenFilter.doFilterInternal(request, response, filterChain);
 
-        verify(jwtUtils).validateJwtToken(jwt);
-        verify(jwtUtils).getUserNameFromJwtToken(jwt);
         verify(userDetailsService).loadUserByUsername(username);
         verify(filterChain).doFilter(request, response);
-        
+
         assertNotNull(SecurityContextHolder.getContext().getAuthentication());
     }
 
+    @Test
+    @DisplayName("Filter verifies a token once and serves repeats from the verified-token cache")
+    void doFilterInternal_repeatedToken_verifiedOnce() throws Exception {
+        String jwt = "valid.jwt.token";
+        Claims claims = claims("testuser");
+        UserDetailsImpl principal = new UserDetailsImpl(
+                1L,
+                "testuser",
+                null,
+                List.of(new SimpleGrantedAuthority("ROLE_USER"))
+        );
+
+        when(request.getHeader("Authorization")).thenReturn("Bearer " + jwt);
+        when(jwtUtils.parseClaims(jwt)).thenReturn(claims);
+        when(jwtUtils.getPrincipalFromClaims(claims)).thenReturn(principal);
+
+        authTokenFilter.doFilterInternal(request, response, filterChain);
+        SecurityContextHolder.clearContext();
+        authTokenFilter.doFilterInternal(request, response, filterChain);
+
+        verify(jwtUtils, times(1)).parseClaims(jwt);
+        assertNotNull(SecurityContextHolder.getContext().getAuthentication());
+    }
+
+    @Test
+    @DisplayName("Filter does not authenticate a disabled user")
+    void doFilterInternal_disabledUser() throws Exception {
+        String jwt = "valid.jwt.token";
+        Claims claims = claims("testuser");
+        UserDetailsImpl principal = new UserDetailsImpl(
+                1L,
+                "testuser",
+                null,
+                List.of(new SimpleGrantedAuthority("ROLE_USER")),
+                false
+        );
+
+        when(request.getHeader("Authorization")).thenReturn("Bearer " + jwt);
+        when(jwtUtils.parseClaims(jwt)).thenReturn(claims);
+        when(jwtUtils.getPrincipalFromClaims(claims)).thenReturn(principal);
+
+        authTokenFilter.doFilterInternal(request, response, filterChain);
+
+        verify(filterChain).doFilter(request, response);
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+    }
+
+    @Test
+    @DisplayName("Filter does not authenticate a revoked token, even one already in the verified-token cache")
+    void doFilterInternal_revokedToken() throws Exception {
+        String jwt = "valid.jwt.token";
+        Claims claims = claims("testuser");
+        claims.setId("jti-1");
+        UserDetailsImpl principal = new UserDetailsImpl(
+                1L,
+                "testuser",
+                null,
+                List.of(new SimpleGrantedAuthority("ROLE_USER"))
+        );
+
+        when(request.getHeader("Authorization")).thenReturn("Bearer " + jwt);
+        when(jwtUtils.parseClaims(jwt)).thenReturn(claims);
+        when(jwtUtils.getPrincipalFromClaims(claims)).thenReturn(principal);
+
+        authTokenFilter.doFilterInternal(request, response, filterChain);
+        assertNotNull(SecurityContextHolder.getContext().getAuthentication());
+
+        SecurityContextHolder.clearContext();
+        when(tokenRevocationService.isRevoked("jti-1")).thenReturn(true);
+        authTokenFilter.doFilterInternal(request, response, filterChain);
+
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+        verify(filterChain, times(2)).doFilter(request, response);
+    }
+
+    @Test
+    @DisplayName("Filter does not authenticate a cached token issued before the user was changed, and forgets it")
+    void doFilterInternal_tokenIssuedBeforeUserCutoff() throws Exception {
+        String jwt = "valid.jwt.token";
+        Claims claims = claims("testuser");
+        Date issuedAt = new Date((System.currentTimeMillis() / 1000 - 60) * 1000);
+        claims.setIssuedAt(issuedAt);
+        UserDetailsImpl principal = new UserDetailsImpl(
+                1L,
+                "testuser",
+                null,
+                List.of(new SimpleGrantedAuthority("ROLE_ADMIN"))
+        );
+
+        when(request.getHeader("Authorization")).thenReturn("Bearer " + jwt);
+        when(jwtUtils.parseClaims(jwt)).thenReturn(claims);
+        when(jwtUtils.getPrincipalFromClaims(claims)).thenReturn(principal);
+
+        authTokenFilter.doFilterInternal(request, response, filterChain);
+        assertNotNull(SecurityContextHolder.getContext().getAuthentication());
+
+        SecurityContextHolder.clearContext();
+        when(tokenRevocationService.isRevokedForUser(1L, issuedAt.toInstant())).thenReturn(true);
+        authTokenFilter.doFilterInternal(request, response, filterChain);
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+
+        // The rejected entry left the cache, so the token is verified again
+        authTokenFilter.doFilterInternal(request, response, filterChain);
+        verify(jwtUtils, times(2)).parseClaims(jwt);
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+    }
+
     @Test
     @DisplayName("Filter continues without authentication when no token provided")
     void doFilterInternal_noToken() throws Exception {
@@ -96,7 +235,7 @@ class AuthTokenFilterTest {
 
         authTokenFilter.doFilterInternal(request, response, filterChain);
 
-        verify(jwtUtils, never()).validateJwtToken(any());
+        verify(jwtUtils, never()).parseClaims(any());
         verify(filterChain).doFilter(request, response);
         
         assertNull(SecurityContextHolder.getContext().getAuthentication());
@@ -107,12 +246,12 @@ class AuthTokenFilterTest {
     void doFilterInternal_invalidToken() throws Exception {
         String jwt = "invalid.token";
         when(request.getHeader("Authorization")).thenReturn("Bearer " + jwt);
-        when(jwtUtils.validateJwtToken(jwt)).thenReturn(false);
+        when(jwtUtils.parseClaims(jwt)).thenReturn(null);
 
         authTokenFilter.doFilterInternal(request, response, filterChain);
 
-        verify(jwtUtils).validateJwtToken(jwt);
-        verify(jwtUtils, never()).getUserNameFromJwtToken(any());
+        verify(jwtUtils).parseClaims(jwt);
+        verify(jwtUtils, never()).getPrincipalFromClaims(any());
         verify(userDetailsService, never()).loadUserByUsername(any());
         verify(filterChain).doFilter(request, response);
         
@@ -124,7 +263,7 @@ class AuthTokenFilterTest {
     void doFilterInternal_exception() throws Exception {
         String jwt = "valid.jwt.token";
         when(request.getHeader("Authorization")).thenReturn("Bearer " + jwt);
-        when(jwtUtils.validateJwtToken(jwt)).thenThrow(new RuntimeException("Test exception"));
+        when(jwtUtils.parseClaims(jwt)).thenThrow(new RuntimeException("Test exception"));
 
         authTokenFilter.doFilterInternal(request, response, filterChain);
 
@@ -138,8 +277,14 @@ class AuthTokenFilterTest {
 
         authTokenFilter.doFilterInternal(request, response, filterChain);
 
-        verify(jwtUtils, never()).validateJwtToken(any());
+        verify(jwtUtils, never()).parseClaims(any());
         verify(filterChain).doFilter(request, response);
     }
-}
 
+    private static Claims claims(String username) {
+        Claims claims = Jwts.claims();
+        claims.setSubject(username);
+        claims.setExpiration(new Date(System.currentTimeMillis() + 60_000));
+        return claims;
+    }
+}
@@ -1,7 +1,9 @@
 package com.mts.application.security.jwt;
 
 import com.mts.application.security.services.UserDetailsImpl;
+import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.MalformedJwtException;
 import io.jsonwebtoken.security.SignatureException;
 import org.junit.jupiter.api.BeforeEach;
@@ -9,6 +11,7 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.test.util.ReflectionTestUtils;
 
@@ -147,5 +150,44 @@ class JwtUtilsTest {
 
         assertFalse(isValid);
     }
-}
 
+    @Test
+    @DisplayName("Token claims carry the user id, roles and enabled flag")
+    void getPrincipalFromClaims_roundTrip() {
+        UserDetailsImpl userDetails = new UserDetailsImpl(
+                7L,
+                "admin",
+                "password",
+                List.of(new SimpleGrantedAuthority("ROLE_ADMIN"), new SimpleGrantedAuthority("ROLE_USER"))
+        );
+
+        Authentication authentication = new UsernamePasswordAuthenticationToken(
+                userDetails, null, userDetails.getAuthorities());
+
+        String token = jwtUtils.generateJwtToken(authentication);
+        Claims claims = jwtUtils.parseClaims(token);
+        UserDetailsImpl principal = jwtUtils.getPrincipalFromClaims(claims);
+
+        assertNotNull(principal);
+        assertEquals(7L, principal.getId());
+        assertEquals("admin", principal.getUsername());
+        assertTrue(principal.isEnabled());
+        assertEquals(List.of("ROLE_ADMIN", "ROLE_USER"),
+                principal.getAuthorities().stream().map(GrantedAuthority::getAuthority).toList());
+    }
+
+    @Test
+    @DisplayName("Claims without roles yield no principal")
+    void getPrincipalFromClaims_legacyToken() {
+        Claims claims = Jwts.claims();
+        claims.setSubject("testuser");
+
+        assertNull(jwtUtils.getPrincipalFromClaims(claims));
+    }
+
+    @Test
+    @DisplayName("Parse claims of an invalid token returns null")
+    void parseClaims_invalidToken() {
+        assertNull(jwtUtils.parseClaims("invalid.token.here"));
+    }
+}
@@ -0,0 +1,133 @@
+package com.mts.application.security.services;
+
+import com.mts.application.entities.RevokedToken;
+import com.mts.application.entities.UserTokenCutoff;
+import com.mts.application.repository.RevokedTokenRepository;
+import com.mts.application.repository.UserTokenCutoffRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TokenRevocationServiceTest {
+
+    @Mock
+    private RevokedTokenRepository revokedTokenRepository;
+
+    @Mock
+    private UserTokenCutoffRepository userTokenCutoffRepository;
+
+    private TokenRevocationService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new TokenRevocationService(revokedTokenRepository, userTokenCutoffRepository, 100, 0.001, 30);
+    }
+
+    @Test
+    @DisplayName("A revoked token is rejected locally at once and recorded for other instances")
+    void revoke_recordsAndRejects() {
+        service.revoke("jti-1", Instant.now().plusSeconds(600));
+
+        assertThat(service.isRevoked("jti-1")).isTrue();
+        assertThat(service.isRevoked("jti-2")).isFalse();
+        assertThat(service.isRevoked(null)).isFalse();
+        verify(revokedTokenRepository).save(any(RevokedToken.class));
+    }
+
+    @Test
+    @DisplayName("Tokens that have already expired are not recorded")
+    void revoke_expiredToken_ignored() {
+        service.revoke("jti-1", Instant.now().minusSeconds(1));
+
+        assertThat(service.isRevoked("jti-1")).isFalse();
+        verifyNoInteractions(revokedTokenRepository);
+    }
+
+    @Test
+    @DisplayName("Refresh picks up revocations made on other instances after the startup load")
+    void refresh_addsNewRows() {
+        Instant expiry = Instant.now().plusSeconds(600);
+        when(revokedTokenRepository.findByExpiresAtAfter(any()))
+                .thenReturn(List.of(new RevokedToken("jti-1", expiry, Instant.now())));
+        service.load();
+
+        when(revokedTokenRepository.findByRevokedAtAfter(any()))
+                .thenReturn(List.of(new RevokedToken("jti-2", expiry, Instant.now())));
+        service.refresh();
+
+        assertThat(service.isRevoked("jti-1")).isTrue();
+        assertThat(service.isRevoked("jti-2")).isTrue();
+    }
+
+    @Test
+    @DisplayName("Refresh before the startup load does not query")
+    void refresh_beforeLoad_noop() {
+        service.refresh();
+
+        verifyNoInteractions(revokedTokenRepository, userTokenCutoffRepository);
+    }
+
+    @Test
+    @DisplayName("Purge drops expired entries from memory and the table and keeps live ones")
+    void purgeExpired_dropsExpired() throws InterruptedException {
+        Instant now = Instant.now();
+        when(revokedTokenRepository.findByExpiresAtAfter(any())).thenReturn(List.of(
+                new RevokedToken("short", now.plusMillis(50), now),
+                new RevokedToken("long", now.plusSeconds(600), now)));
+        service.load();
+        assertThat(service.size()).isEqualTo(2);
+
+        Thread.sleep(100);
+        service.purgeExpired();
+
+        assertThat(service.size()).isEqualTo(1);
+        assertThat(service.isRevoked("long")).isTrue();
+        assertThat(service.isRevoked("short")).isFalse();
+        verify(revokedTokenRepository).deleteExpired(any());
+    }
+
+    @Test
+    @DisplayName("Revoking a user's tokens rejects those issued up to now, locally at once, and records the cutoff")
+    void revokeUserTokens_rejectsEarlierTokens() {
+        Instant issued = Instant.now().minusSeconds(60);
+
+        service.revokeUserTokens(7L);
+
+        assertThat(service.isRevokedForUser(7L, issued)).isTrue();
+        assertThat(service.isRevokedForUser(7L, null)).isTrue();
+        assertThat(service.isRevokedForUser(7L, Instant.now().plusSeconds(2))).isFalse();
+        assertThat(service.isRevokedForUser(8L, issued)).isFalse();
+        assertThat(service.isRevokedForUser(null, issued)).isFalse();
+        verify(userTokenCutoffRepository).raise(eq(7L), any());
+    }
+
+    @Test
+    @DisplayName("Refresh picks up user cutoffs set on other instances and never moves one back")
+    void refresh_addsUserCutoffs() {
+        Instant now = Instant.now();
+        when(userTokenCutoffRepository.findByNotBeforeAfter(any()))
+                .thenReturn(List.of(new UserTokenCutoff(7L, now)));
+        service.load();
+
+        when(userTokenCutoffRepository.findByNotBeforeAfter(any())).thenReturn(List.of(
+                new UserTokenCutoff(7L, now.minusSeconds(30)),
+                new UserTokenCutoff(8L, now)));
+        service.refresh();
+
+        assertThat(service.isRevokedForUser(7L, now.minusSeconds(10))).isTrue();
+        assertThat(service.isRevokedForUser(8L, now.minusSeconds(10))).isTrue();
+        assertThat(service.isRevokedForUser(8L, now.plusSeconds(1))).isFalse();
+    }
+}
@@ -1,5 +1,6 @@
 package com.mts.application.service;
 
+import com.mts.application.cache.BalanceTable;
 import com.mts.application.entities.Account;
 import com.mts.application.repository.AccountRepository;
 import com.mts.domain.enums.AccountStatus;
@@ -12,6 +13,7 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.math.BigDecimal;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -23,6 +25,8 @@ class AccountServiceImplTest {
 
     @Mock
     private AccountRepository accountRepository;
+    @Mock
+    private BalanceTable balanceTable;
 
     @InjectMocks
     private AccountServiceImpl accountService;
@@ -78,4 +82,39 @@ class AccountServiceImplTest {
         assertThatThrownBy(() -> accountService.validateAccountForTransfer("1"))
                 .isInstanceOf(AccountNotActiveException.class);
     }
+
+    @Test
+    @DisplayName("getBalance is served from the balance table without a repository call")
+    void getBalance_cached_skipsRepository() throws Exception {
+        when(balanceTable.get(1L)).thenReturn(new BalanceTable.Entry(1L, 12345L, 3L, AccountStatus.ACTIVE, 0L));
+
+        assertThat(accountService.getBalance("1")).isEqualByComparingTo("123.45");
+        verifyNoInteractions(accountRepository);
+    }
+
+    @Test
+    @DisplayName("getBalance loads a missing account and caches it")
+    void getBalance_miss_loadsAndCaches() throws Exception {
+        Account account = new Account();
+        account.setId(1L);
+        account.setBalance(new BigDecimal("50.00"));
+        account.setStatus(AccountStatus.ACTIVE);
+        when(accountRepository.findById(1L)).thenReturn(Optional.of(account));
+
+        when(balanceTable.invalidations(1L)).thenReturn(2L);
+
+        assertThat(accountService.getBalance("1")).isEqualByComparingTo("50.00");
+        verify(balanceTable).putLoaded(account, 2L);
+    }
+
+    @Test
+    @DisplayName("validateAccountForTransfer rejects a cached inactive account without a repository call")
+    void validateAccountForTransfer_cachedInactive_throws() {
+        when(balanceTable.get(1L)).thenReturn(new BalanceTable.Entry(1L, 0L, 3L, AccountStatus.LOCKED, 0L));
+
+        assertThatThrownBy(() -> accountService.validateAccountForTransfer("1"))
+                .isInstanceOf(AccountNotActiveException.class)
+                .hasMessageContaining("LOCKED");
+        verifyNoInteractions(accountRepository);
+    }
 }
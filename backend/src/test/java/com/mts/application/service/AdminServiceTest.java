@@ -1,14 +1,30 @@
 package com.mts.application.service;
 
+import com.mts.application.cache.BalanceTable;
+import com.mts.application.cache.DailyLimitTracker;
+import com.mts.application.cache.GlobalConfigSnapshot;
 import com.mts.application.dto.AccountCreateRequest;
 import com.mts.application.dto.AccountResponse;
+import com.mts.application.dto.AccountStatusChanged;
+import com.mts.application.dto.AccountUpdateRequest;
+import com.mts.application.dto.TransactionFilter;
+import com.mts.application.dto.TransactionResponse;
+import com.mts.application.dto.TransferLimits;
+import com.mts.application.dto.UserUpdateRequest;
 import com.mts.application.entities.Account;
+import com.mts.application.entities.GlobalConfig;
+import com.mts.application.entities.TransactionLog;
 import com.mts.application.entities.TransferAuthorization;
+import com.mts.application.entities.UserEntity;
 import com.mts.application.repository.AccountRepository;
 import com.mts.application.repository.GlobalConfigRepository;
 import com.mts.application.repository.TransactionLogRepository;
 import com.mts.application.repository.TransferAuthorizationRepository;
+import com.mts.application.repository.UserRepository;
+import com.mts.application.security.services.TokenRevocationService;
+import com.mts.domain.dto.CursorPage;
 import com.mts.domain.enums.AccountStatus;
+import com.mts.domain.enums.TransactionStatus;
 
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -16,11 +32,22 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
 
 import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 
@@ -37,6 +64,18 @@ class AdminServiceTest {
     private TransferAuthorizationRepository transferAuthorizationRepository;
     @Mock
     private TransferService transferService;
+    @Mock
+    private DailyLimitTracker dailyLimits;
+    @Mock
+    private GlobalConfigSnapshot transferLimits;
+    @Mock
+    private BalanceTable balanceTable;
+    @Mock
+    private ApplicationEventPublisher events;
+    @Mock
+    private UserRepository userRepository;
+    @Mock
+    private TokenRevocationService tokenRevocationService;
 
     @InjectMocks
     private AdminService adminService;
@@ -60,6 +99,40 @@ class AdminServiceTest {
         assertThat(resp.status()).isEqualTo(AccountStatus.ACTIVE);
     }
 
+    @Test
+    @DisplayName("Updating an account's daily limit refreshes the in-memory limit")
+    void updateAccount_dailyLimit_refreshesTracker() {
+        Account account = Account.builder().id(1L).holderName("John Doe").balance(new BigDecimal("1000.00"))
+                .status(AccountStatus.ACTIVE).build();
+        when(accountRepository.findById(1L)).thenReturn(Optional.of(account));
+
+        AccountResponse resp = adminService.updateAccount("1", new AccountUpdateRequest(null, new BigDecimal("250.00")));
+
+        assertThat(resp.dailyLimit()).isEqualByComparingTo("250.00");
+        verify(dailyLimits).updateLimitAfterCommit(1L, new BigDecimal("250.00"));
+    }
+
+    @Test
+    @DisplayName("Setting the global limit publishes the saved config to the snapshot")
+    void setGlobalTransferLimit_publishesSnapshot() {
+        when(globalConfigRepository.findById("DEFAULT")).thenReturn(Optional.empty());
+        when(globalConfigRepository.save(any(GlobalConfig.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        adminService.setGlobalTransferLimit(new BigDecimal("5000.00"));
+
+        verify(transferLimits).publishAfterCommit(argThat(config -> "DEFAULT".equals(config.getId())
+                && config.getGlobalTransferLimit().compareTo(new BigDecimal("5000.00")) == 0));
+    }
+
+    @Test
+    @DisplayName("Reading the global limit is served from the snapshot")
+    void getGlobalTransferLimit_readsSnapshot() {
+        when(transferLimits.current()).thenReturn(new TransferLimits(3L, new BigDecimal("750.00")));
+
+        assertThat(adminService.getGlobalTransferLimit()).isEqualByComparingTo("750.00");
+        verify(globalConfigRepository, never()).findById(any());
+    }
+
     @Test
     @DisplayName("Approve transfer executes transfer via TransferService")
     void approveTransfer_success() throws Exception {
@@ -83,4 +156,173 @@ class AdminServiceTest {
                 req.getDestinationAccountId().equals("2") &&
                 req.getAmount().compareTo(new BigDecimal("500.00")) == 0));
     }
+
+    @Test
+    @DisplayName("Changing an account's status announces it to the ledger engine")
+    void changeAccountStatus_publishesEvent() {
+        Account account = new Account();
+        account.setId(1L);
+        account.setStatus(AccountStatus.ACTIVE);
+        when(accountRepository.findById(1L)).thenReturn(Optional.of(account));
+
+        AccountResponse resp = adminService.changeAccountStatus("1", AccountStatus.LOCKED);
+
+        assertThat(resp.status()).isEqualTo(AccountStatus.LOCKED);
+        verify(balanceTable).putAfterCommit(account);
+        verify(events).publishEvent(new AccountStatusChanged(1L, AccountStatus.LOCKED));
+    }
+
+    @Test
+    @DisplayName("Search with an open date range is bounded to the default window")
+    void withDateWindow_defaultsOpenEnds() {
+        LocalDateTime to = LocalDateTime.of(2024, 3, 31, 0, 0);
+        TransactionFilter onlyTo = new TransactionFilter("1", TransactionStatus.SUCCESS,
+                new BigDecimal("10"), new BigDecimal("20"), null, to);
+
+        TransactionFilter bounded = adminService.withDateWindow(onlyTo);
+
+        assertThat(bounded.fromDate()).isEqualTo(to.minusDays(30));
+        assertThat(bounded.toDate()).isEqualTo(to);
+        assertThat(bounded.minAmount()).isEqualByComparingTo("10");
+        assertThat(bounded.maxAmount()).isEqualByComparingTo("20");
+
+        TransactionFilter unbounded = adminService.withDateWindow(
+                new TransactionFilter(null, null, null, null, null, null));
+        assertThat(unbounded.fromDate()).isNotNull();
+        assertThat(unbounded.toDate()).isAfter(unbounded.fromDate());
+
+        assertThatThrownBy(() -> adminService.withDateWindow(
+                new TransactionFilter(null, null, null, null, to, to.minusDays(1))))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName("Search from an old start date without an end is capped at the default window")
+    void withDateWindow_capsOpenEndAfterOldStart() {
+        LocalDateTime from = LocalDateTime.of(2020, 1, 1, 0, 0);
+
+        TransactionFilter bounded = adminService.withDateWindow(
+                new TransactionFilter(null, null, null, null, from, null));
+
+        assertThat(bounded.fromDate()).isEqualTo(from);
+        assertThat(bounded.toDate()).isEqualTo(from.plusDays(30));
+
+        LocalDateTime recent = LocalDateTime.now().minusDays(1);
+        TransactionFilter recentStart = adminService.withDateWindow(
+                new TransactionFilter(null, null, null, null, recent, null));
+        assertThat(recentStart.toDate()).isBefore(recent.plusDays(30));
+    }
+
+    @Test
+    @DisplayName("Account search reads each side on its own and merges them newest first")
+    void searchTransactions_forAccount_mergesSides() {
+        Instant now = Instant.parse("2024-03-01T10:00:00Z");
+        List<TransactionLog> sent = List.of(log("4", now), log("1", now.minusSeconds(3)));
+        List<TransactionLog> received = List.of(log("3", now.minusSeconds(1)), log("2", now.minusSeconds(2)));
+        doReturn(sent).doReturn(received).when(transactionLogRepository).findBy(any(Specification.class), any());
+        doReturn(2L).when(transactionLogRepository).count(any(Specification.class));
+        TransactionFilter filter = new TransactionFilter("1", null, null, null, null, null);
+
+        Page<TransactionResponse> page = adminService.searchTransactions(filter, PageRequest.of(1, 2));
+
+        assertThat(page.getContent()).extracting(TransactionResponse::id).containsExactly("2", "1");
+        assertThat(page.getTotalElements()).isEqualTo(4);
+        verify(transactionLogRepository, times(2)).findBy(any(Specification.class), any());
+        verify(transactionLogRepository, never()).findAll(any(Specification.class), any(Pageable.class));
+
+        doReturn(sent).doReturn(received).when(transactionLogRepository).findBy(any(Specification.class), any());
+        CursorPage<TransactionResponse> first = adminService.searchTransactionsByCursor(filter, null, 3);
+
+        assertThat(first.content()).extracting(TransactionResponse::id).containsExactly("4", "3", "2");
+        assertThat(first.nextCursor()).isNotBlank();
+    }
+
+    @Test
+    @DisplayName("Account-scoped offset search refuses pages past the merge cap and points to the cursor search")
+    void searchTransactions_byAccount_deepPageRejected() {
+        TransactionFilter filter = new TransactionFilter("1", null, null, null, null, null);
+
+        assertThatThrownBy(() -> adminService.searchTransactions(filter,
+                PageRequest.of(AdminService.MAX_MERGED_SEARCH_ROWS / 50, 50)))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("/cursor");
+        verifyNoInteractions(transactionLogRepository);
+    }
+
+    @Test
+    @DisplayName("Cursor search returns one page and a cursor only when more rows match")
+    void searchTransactionsByCursor_pagesByKeyset() {
+        Instant now = Instant.parse("2024-03-01T10:00:00Z");
+        List<TransactionLog> rows = List.of(log("3", now), log("2", now), log("1", now.minusSeconds(1)));
+        doReturn(rows).when(transactionLogRepository).findBy(any(Specification.class), any());
+
+        CursorPage<TransactionResponse> page = adminService.searchTransactionsByCursor(
+                new TransactionFilter(null, TransactionStatus.SUCCESS, null, null, null, null), null, 2);
+
+        assertThat(page.content()).extracting(TransactionResponse::id).containsExactly("3", "2");
+        assertThat(page.nextCursor()).isNotBlank();
+
+        doReturn(rows.subList(2, 3)).when(transactionLogRepository).findBy(any(Specification.class), any());
+        CursorPage<TransactionResponse> last = adminService.searchTransactionsByCursor(
+                new TransactionFilter(null, TransactionStatus.SUCCESS, null, null, null, null), page.nextCursor(), 2);
+
+        assertThat(last.content()).extracting(TransactionResponse::id).containsExactly("1");
+        assertThat(last.nextCursor()).isNull();
+    }
+
+    @Test
+    @DisplayName("Cursor search rejects an out-of-range page size and a tampered cursor")
+    void searchTransactionsByCursor_invalidInput_throws() {
+        TransactionFilter filter = new TransactionFilter(null, null, null, null, null, null);
+
+        assertThatThrownBy(() -> adminService.searchTransactionsByCursor(filter, null, 0))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> adminService.searchTransactionsByCursor(filter, "not-a-cursor", 20))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static TransactionLog log(String id, Instant createdOn) {
+        TransactionLog log = new TransactionLog();
+        log.setId(id);
+        log.setFromAccountId(1L);
+        log.setToAccountId(2L);
+        log.setAmount(new BigDecimal("5.00"));
+        log.setStatus(TransactionStatus.SUCCESS);
+        log.setCreatedOn(createdOn);
+        return log;
+    }
+
+    @Test
+    @DisplayName("Changing a user's roles revokes their tokens; a name change does not")
+    void updateUser_roleChange_revokesTokens() {
+        UserEntity user = new UserEntity();
+        user.setId(5L);
+        user.setRoles(new HashSet<>(Set.of("ROLE_ADMIN")));
+        when(userRepository.findById(5L)).thenReturn(Optional.of(user));
+        when(userRepository.save(user)).thenReturn(user);
+
+        UserUpdateRequest rename = new UserUpdateRequest();
+        rename.setFullName("Renamed");
+        rename.setRoles(Set.of("ROLE_ADMIN"));
+        adminService.updateUser(5L, rename);
+        verify(tokenRevocationService, never()).revokeUserTokensAfterCommit(any());
+
+        UserUpdateRequest demote = new UserUpdateRequest();
+        demote.setRoles(Set.of("ROLE_USER"));
+        adminService.updateUser(5L, demote);
+        verify(tokenRevocationService).revokeUserTokensAfterCommit(5L);
+    }
+
+    @Test
+    @DisplayName("Deleting a user revokes their tokens")
+    void deleteUser_revokesTokens() {
+        UserEntity user = new UserEntity();
+        user.setId(5L);
+        when(userRepository.findById(5L)).thenReturn(Optional.of(user));
+
+        adminService.deleteUser(5L);
+
+        assertThat(user.isEnabled()).isFalse();
+        verify(tokenRevocationService).revokeUserTokensAfterCommit(5L);
+    }
 }
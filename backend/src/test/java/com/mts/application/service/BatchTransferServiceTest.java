@@ -0,0 +1,206 @@
+package com.mts.application.service;
+
+import com.mts.application.cache.BalanceTable;
+import com.mts.application.cache.DailyLimitTracker;
+import com.mts.application.cache.GlobalConfigSnapshot;
+import com.mts.application.cache.IdempotencyIndex;
+import com.mts.application.cache.TransferResponseCache;
+import com.mts.application.entities.Account;
+import com.mts.application.entities.TransactionLog;
+import com.mts.application.repository.AccountDailyDebitRepository;
+import com.mts.application.repository.AccountRepository;
+import com.mts.application.repository.GlobalConfigRepository;
+import com.mts.application.repository.TransactionLogRepository;
+import com.mts.application.repository.TransferAuthorizationRepository;
+import com.mts.application.snowflake.SnowflakeIdGenerator;
+import com.mts.domain.dto.TransferRequest;
+import com.mts.domain.dto.TransferResponse;
+import com.mts.domain.enums.AccountStatus;
+import com.mts.domain.enums.TransactionStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BatchTransferServiceTest {
+
+    @Mock
+    private AccountRepository accountRepository;
+    @Mock
+    private TransactionLogRepository logRepository;
+    @Mock
+    private GlobalConfigRepository globalConfigRepository;
+    @Mock
+    private TransferAuthorizationRepository transferAuthorizationRepository;
+    @Mock
+    private IdempotencyIndex idempotencyIndex;
+    @Mock
+    private TransferResponseCache responseCache;
+
+    private BatchTransferService batchService;
+    private Account alice;
+    private Account bob;
+
+    @BeforeEach
+    void setUp() {
+        batchService = new BatchTransferService(accountRepository, logRepository,
+                new GlobalConfigSnapshot(globalConfigRepository), transferAuthorizationRepository, idempotencyIndex, responseCache,
+                new SnowflakeIdGenerator(1),
+                new DailyLimitTracker(mock(AccountDailyDebitRepository.class), accountRepository, logRepository, "UTC", 35),
+                mock(BalanceTable.class), 10);
+        lenient().when(idempotencyIndex.lookup(any())).thenReturn(IdempotencyIndex.Lookup.MAYBE);
+        alice = Account.builder().id(1L).holderName("Alice").balance(new BigDecimal("100.00"))
+                .status(AccountStatus.ACTIVE).build();
+        bob = Account.builder().id(2L).holderName("Bob").balance(new BigDecimal("50.00"))
+                .status(AccountStatus.ACTIVE).build();
+    }
+
+    @Test
+    @DisplayName("Items are applied in order against shared balances with one lock query and one saveAll")
+    void transferBatch_appliesInOrder() {
+        when(logRepository.findAllByIdempotencyKeyIn(anyCollection())).thenReturn(List.of());
+        when(accountRepository.findAllByIdForUpdate(anyCollection())).thenReturn(List.of(alice, bob));
+        when(globalConfigRepository.findLimitsById("DEFAULT")).thenReturn(Optional.empty());
+
+        List<TransferResponse> responses = batchService.transferBatch(List.of(
+                new TransferRequest("1", "2", new BigDecimal("80.00"), "USD", "k1"),
+                new TransferRequest("1", "2", new BigDecimal("30.00"), "USD", "k2"),
+                new TransferRequest("2", "1", new BigDecimal("130.00"), "USD", "k3")));
+
+        assertThat(responses).extracting(TransferResponse::status).containsExactly(
+                TransactionStatus.SUCCESS, TransactionStatus.FAILED, TransactionStatus.SUCCESS);
+        assertThat(alice.getBalance()).isEqualByComparingTo("150.00");
+        assertThat(bob.getBalance()).isEqualByComparingTo("0.00");
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<TransactionLog>> logs = ArgumentCaptor.forClass(List.class);
+        verify(logRepository).saveAll(logs.capture());
+        assertThat(logs.getValue()).hasSize(3).allMatch(TransactionLog::isNew);
+        verify(accountRepository, times(1)).findAllByIdForUpdate(anyCollection());
+        verify(accountRepository, never()).saveAndFlush(any());
+    }
+
+    @Test
+    @DisplayName("Items past the sender's daily limit fail without moving money")
+    void transferBatch_enforcesDailyLimit() {
+        alice.setDailyLimit(new BigDecimal("60.00"));
+        when(logRepository.findAllByIdempotencyKeyIn(anyCollection())).thenReturn(List.of());
+        when(accountRepository.findAllByIdForUpdate(anyCollection())).thenReturn(List.of(alice, bob));
+        when(globalConfigRepository.findLimitsById("DEFAULT")).thenReturn(Optional.empty());
+
+        List<TransferResponse> responses = batchService.transferBatch(List.of(
+                new TransferRequest("1", "2", new BigDecimal("40.00"), "USD", "k1"),
+                new TransferRequest("1", "2", new BigDecimal("40.00"), "USD", "k2"),
+                new TransferRequest("1", "2", new BigDecimal("20.00"), "USD", "k3")));
+
+        assertThat(responses).extracting(TransferResponse::status).containsExactly(
+                TransactionStatus.SUCCESS, TransactionStatus.FAILED, TransactionStatus.SUCCESS);
+        assertThat(responses.get(1).message()).startsWith("Daily limit exceeded for account 1");
+        assertThat(alice.getBalance()).isEqualByComparingTo("40.00");
+    }
+
+    @Test
+    @DisplayName("Invalid, repeated and already-used keys are rejected per item without touching accounts")
+    void transferBatch_rejectsBadItems() {
+        when(logRepository.findAllByIdempotencyKeyIn(anyCollection()))
+                .thenReturn(List.of(priorLog("used", TransactionStatus.SUCCESS, null)));
+        when(globalConfigRepository.findLimitsById("DEFAULT")).thenReturn(Optional.empty());
+
+        List<TransferResponse> responses = batchService.transferBatch(List.of(
+                new TransferRequest("1", "1", new BigDecimal("1.00"), "USD", "same"),
+                new TransferRequest("1", "2", new BigDecimal("1.00"), "USD", "used"),
+                new TransferRequest("x", "2", new BigDecimal("1.00"), "USD", "bad-id")));
+
+        assertThat(responses).extracting(TransferResponse::status).containsOnly(TransactionStatus.FAILED);
+        assertThat(responses.get(1).message()).contains("idempotency key already used");
+        verify(accountRepository, never()).findAllByIdForUpdate(anyCollection());
+    }
+
+    @Test
+    @DisplayName("Keys the index rules out skip the idempotency query; known keys are rejected without it")
+    void transferBatch_indexAnswersSkipQuery() {
+        when(idempotencyIndex.lookup("fresh")).thenReturn(IdempotencyIndex.Lookup.ABSENT);
+        when(idempotencyIndex.lookup("seen")).thenReturn(IdempotencyIndex.Lookup.KNOWN);
+        when(responseCache.get("seen")).thenReturn(new TransferResponse("0000000000000000001", "1", "2",
+                new BigDecimal("99.00"), "USD", TransactionStatus.SUCCESS, "Transfer completed successfully", "seen",
+                Instant.now()));
+        when(accountRepository.findAllByIdForUpdate(anyCollection())).thenReturn(List.of(alice, bob));
+        when(globalConfigRepository.findLimitsById("DEFAULT")).thenReturn(Optional.empty());
+
+        List<TransferResponse> responses = batchService.transferBatch(List.of(
+                new TransferRequest("1", "2", new BigDecimal("10.00"), "USD", "fresh"),
+                new TransferRequest("1", "2", new BigDecimal("10.00"), "USD", "seen")));
+
+        assertThat(responses).extracting(TransferResponse::status).containsExactly(
+                TransactionStatus.SUCCESS, TransactionStatus.FAILED);
+        verify(logRepository, never()).findAllByIdempotencyKeyIn(anyCollection());
+        verify(idempotencyIndex).recordClaimed("fresh");
+    }
+
+    @Test
+    @DisplayName("A key given up on a conflict is re-opened and reused; a resend of a settled transfer replays it")
+    void transferBatch_resumesConflictKeysAndReplaysResends() {
+        TransactionLog gaveUp = priorLog("conflicted", TransactionStatus.FAILED, TransferServiceImpl.CONFLICT_REASON);
+        TransactionLog settled = priorLog("settled", TransactionStatus.SUCCESS, null);
+        when(logRepository.findAllByIdempotencyKeyIn(anyCollection())).thenReturn(List.of(gaveUp, settled));
+        when(logRepository.reopenFailed(gaveUp.getId(), TransferServiceImpl.CONFLICT_REASON)).thenReturn(1);
+        when(responseCache.isReplayable(any())).thenReturn(true);
+        when(accountRepository.findAllByIdForUpdate(anyCollection())).thenReturn(List.of(alice, bob));
+        when(globalConfigRepository.findLimitsById("DEFAULT")).thenReturn(Optional.empty());
+
+        TransferRequest aliased = new TransferRequest(null, null, new BigDecimal("10.00"), "USD", "conflicted");
+        aliased.setFromAccountId(1L);
+        aliased.setToAccountId(2L);
+        List<TransferResponse> responses = batchService.transferBatch(List.of(aliased,
+                new TransferRequest("1", "2", new BigDecimal("10.00"), "USD", "settled")));
+
+        assertThat(responses.get(0).status()).isEqualTo(TransactionStatus.SUCCESS);
+        assertThat(responses.get(0).transactionId()).isEqualTo(gaveUp.getId());
+        assertThat(responses.get(1).transactionId()).isEqualTo(settled.getId());
+        assertThat(responses.get(1).status()).isEqualTo(TransactionStatus.SUCCESS);
+        assertThat(alice.getBalance()).isEqualByComparingTo("90.00");
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<TransactionLog>> logs = ArgumentCaptor.forClass(List.class);
+        verify(logRepository).saveAll(logs.capture());
+        assertThat(logs.getValue()).containsExactly(gaveUp);
+    }
+
+    private static TransactionLog priorLog(String key, TransactionStatus status, String failureReason) {
+        TransactionLog log = new TransactionLog();
+        log.setId(key.equals("settled") ? "0000000000000000002" : "0000000000000000003");
+        log.setIdempotencyKey(key);
+        log.setFromAccountId(1L);
+        log.setToAccountId(2L);
+        log.setAmount(new BigDecimal("10.00"));
+        log.setCurrency("USD");
+        log.setStatus(status);
+        log.setFailureReason(failureReason);
+        log.setCreatedOn(Instant.now());
+        return log;
+    }
+
+    @Test
+    @DisplayName("Oversized batch is rejected up front")
+    void transferBatch_tooLarge_throws() {
+        List<TransferRequest> tooMany = java.util.Collections.nCopies(11,
+                new TransferRequest("1", "2", BigDecimal.ONE, "USD", "k"));
+
+        assertThatThrownBy(() -> batchService.transferBatch(tooMany))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,104 @@
+package com.mts.application.service;
+
+import com.mts.application.metrics.TransferMetrics;
+import com.mts.domain.dto.TransferRequest;
+import com.mts.domain.dto.TransferResponse;
+import com.mts.domain.enums.TransactionStatus;
+import com.mts.domain.exceptions.InsufficientBalanceException;
+import com.mts.domain.exceptions.OptimisticLockException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.PessimisticLockingFailureException;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RetryingTransferServiceTest {
+
+    @Mock
+    private TransferServiceImpl delegate;
+
+    private SimpleMeterRegistry registry;
+    private RetryingTransferService retryingService;
+    private TransferRequest request;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        retryingService = new RetryingTransferService(delegate, new TransferMetrics(registry), 3, 0, 0);
+        request = new TransferRequest("1", "2", new BigDecimal("10.00"), "USD", "idem-retry");
+    }
+
+    @Test
+    @DisplayName("Conflicted attempt is re-run with the same request and succeeds")
+    void transfer_conflictThenSuccess_retries() throws Exception {
+        TransferResponse ok = new TransferResponse("tx-1", "done");
+        when(delegate.transfer(request))
+                .thenThrow(new OptimisticLockException("conflict"))
+                .thenReturn(ok);
+
+        TransferResponse response = retryingService.transfer(request);
+
+        assertThat(response).isSameAs(ok);
+        verify(delegate, times(2)).transfer(same(request));
+        verify(delegate, never()).recordConflictFailure(any());
+        assertThat(retryingService.getAttemptCount()).isEqualTo(2);
+        assertThat(retryingService.getRetryCount()).isEqualTo(1);
+        assertThat(retryingService.getGiveUpCount()).isZero();
+        assertThat(registry.counter("transfer.conflicts").count()).isEqualTo(1);
+        assertThat(registry.timer("transfer.attempt", "outcome", "conflict").count()).isEqualTo(1);
+        assertThat(registry.timer("transfer.attempt", "outcome", "ok").count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Gives up after max attempts, records one FAILED row and rethrows")
+    void transfer_persistentConflict_givesUp() throws Exception {
+        when(delegate.transfer(request)).thenThrow(new PessimisticLockingFailureException("deadlock"));
+
+        assertThatThrownBy(() -> retryingService.transfer(request))
+                .isInstanceOf(OptimisticLockException.class);
+
+        verify(delegate, times(3)).transfer(request);
+        verify(delegate).recordConflictFailure(request);
+        assertThat(retryingService.getGiveUpCount()).isEqualTo(1);
+        assertThat(registry.counter("transfer.conflicts").count()).isEqualTo(3);
+        assertThat(registry.counter("transfer.outcome", "status", TransactionStatus.FAILED.name()).count()).isEqualTo(1);
+        assertThat(registry.counter("transfer.errors", "exception", "OptimisticLockException").count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Business failures are not retried")
+    void transfer_businessFailure_notRetried() throws Exception {
+        when(delegate.transfer(request)).thenThrow(new InsufficientBalanceException("no funds"));
+
+        assertThatThrownBy(() -> retryingService.transfer(request))
+                .isInstanceOf(InsufficientBalanceException.class);
+
+        verify(delegate, times(1)).transfer(request);
+        assertThat(retryingService.getRetryCount()).isZero();
+        assertThat(registry.counter("transfer.errors", "exception", "InsufficientBalanceException").count()).isEqualTo(1);
+        assertThat(registry.counter("transfer.conflicts").count()).isZero();
+    }
+
+    @Test
+    @DisplayName("Successful transfers are counted by their final status")
+    void transfer_success_countsOutcome() throws Exception {
+        TransferResponse pending = new TransferResponse("tx-1", "1", "2", new BigDecimal("10.00"), "USD",
+                TransactionStatus.PENDING, "Transfer requires approval", "idem-retry", java.time.Instant.now());
+        when(delegate.transfer(request)).thenReturn(pending);
+
+        retryingService.transfer(request);
+
+        assertThat(registry.counter("transfer.outcome", "status", TransactionStatus.PENDING.name()).count()).isEqualTo(1);
+        assertThat(registry.counter("transfer.outcome", "status", TransactionStatus.SUCCESS.name()).count()).isZero();
+    }
+}
@@ -0,0 +1,77 @@
+package com.mts.application.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.mts.application.entities.TransactionLog;
+import com.mts.domain.enums.TransactionStatus;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class TransactionExportServiceTest {
+
+    private TransactionExportService exportService;
+
+    @BeforeEach
+    void setUp() {
+        EntityManagerFactory emf = mock(EntityManagerFactory.class);
+        when(emf.unwrap(SessionFactory.class)).thenReturn(mock(SessionFactory.class));
+        exportService = new TransactionExportService(emf,
+                new ObjectMapper().registerModule(new JavaTimeModule()), Integer.MIN_VALUE);
+    }
+
+    @Test
+    @DisplayName("CSV export writes a header and one quoted, formula-safe line per row")
+    void write_csv() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long count = exportService.write(List.of(row("tx-1", "=HYPERLINK(\"x\")"), row("tx-2", null)).iterator(),
+                TransactionExportService.Format.CSV, out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertThat(count).isEqualTo(2);
+        assertThat(lines).hasSize(3);
+        assertThat(lines[0]).isEqualTo(TransactionExportService.CSV_HEADER);
+        assertThat(lines[1]).isEqualTo("tx-1,k-tx-1,1,2,10.50,USD,FAILED,\"'=HYPERLINK(\"\"x\"\")\",2026-03-01T10:00:00Z");
+        assertThat(lines[2]).isEqualTo("tx-2,k-tx-2,1,2,10.50,USD,FAILED,,2026-03-01T10:00:00Z");
+    }
+
+    @Test
+    @DisplayName("NDJSON export writes one JSON object per line")
+    void write_ndjson() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        exportService.write(List.of(row("tx-1", "Insufficient balance")).iterator(),
+                TransactionExportService.Format.NDJSON, out);
+
+        String json = out.toString(StandardCharsets.UTF_8);
+        assertThat(json).endsWith("\n").doesNotContain("\n{");
+        assertThat(json).contains("\"id\":\"tx-1\"").contains("\"failureReason\":\"Insufficient balance\"");
+    }
+
+    private static TransactionLog row(String id, String failureReason) {
+        TransactionLog log = new TransactionLog();
+        log.setId(id);
+        log.setIdempotencyKey("k-" + id);
+        log.setFromAccountId(1L);
+        log.setToAccountId(2L);
+        log.setAmount(new BigDecimal("10.50"));
+        log.setCurrency("USD");
+        log.setStatus(TransactionStatus.FAILED);
+        log.setFailureReason(failureReason);
+        log.setCreatedOn(Instant.parse("2026-03-01T10:00:00Z"));
+        return log;
+    }
+}
@@ -0,0 +1,71 @@
+package com.mts.application.service;
+
+import com.mts.application.snowflake.SnowflakeIdGenerator;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+/**
+ * Insert throughput of random UUID keys against Snowflake keys into a VARCHAR(36) primary key shaped like
+ * {@code transaction_logs.id}, reported per million rows so the UUID slowdown as the index outgrows the
+ * buffer pool is visible. Needs the MySQL instance from HOW_TO_RUN.md and a lot of time at the default
+ * 10M rows; run it explicitly:
+ *
+ * <pre>mvn test -Dtest=TransactionLogIdBenchmark -Dbench.rows=10000000</pre>
+ */
+@SpringBootTest
+class TransactionLogIdBenchmark {
+
+    private static final int BATCH = 1_000;
+    private static final int REPORT_EVERY = 1_000_000;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private SnowflakeIdGenerator idGenerator;
+
+    @Test
+    void compareKeySchemes() {
+        long rows = Long.getLong("bench.rows", 10_000_000L);
+        run("uuid", rows, () -> UUID.randomUUID().toString());
+        run("snowflake", rows, idGenerator::nextKey);
+    }
+
+    private void run(String scheme, long rows, Supplier<String> keys) {
+        String table = "bench_pk_" + scheme;
+        jdbcTemplate.execute("DROP TABLE IF EXISTS " + table);
+        jdbcTemplate.execute("CREATE TABLE " + table + " (id VARCHAR(36) NOT NULL PRIMARY KEY, "
+                + "idempotency_key VARCHAR(255) NOT NULL, amount DECIMAL(19,2) NOT NULL, "
+                + "created_on DATETIME(6) NOT NULL) ENGINE=InnoDB");
+        String sql = "INSERT INTO " + table + " (id, idempotency_key, amount, created_on) VALUES (?, ?, ?, NOW(6))";
+        try {
+            long start = System.nanoTime();
+            long segmentStart = start;
+            List<Object[]> batch = new ArrayList<>(BATCH);
+            for (long i = 1; i <= rows; i++) {
+                batch.add(new Object[] { keys.get(), "bench-" + i, "1.00" });
+                if (batch.size() == BATCH || i == rows) {
+                    jdbcTemplate.batchUpdate(sql, batch);
+                    batch.clear();
+                }
+                if (i % REPORT_EVERY == 0) {
+                    long now = System.nanoTime();
+                    System.out.printf("%-9s rows=%,d segment=%.0f rows/s%n", scheme, i,
+                            REPORT_EVERY / ((now - segmentStart) / 1e9));
+                    segmentStart = now;
+                }
+            }
+            double seconds = (System.nanoTime() - start) / 1e9;
+            System.out.printf("%-9s total rows=%,d in %.1fs (%.0f rows/s)%n", scheme, rows, seconds, rows / seconds);
+        } finally {
+            jdbcTemplate.execute("DROP TABLE IF EXISTS " + table);
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.mts.application.service;
+
+import com.mts.application.entities.Account;
+import com.mts.application.repository.AccountRepository;
+import com.mts.domain.dto.TransferRequest;
+import com.mts.domain.enums.AccountStatus;
+import com.mts.domain.exceptions.OptimisticLockException;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.util.AopTestUtils;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Compares conflict rate and p99 latency of the OPTIMISTIC and PESSIMISTIC lock strategies on a small
+ * set of hot accounts. Needs the MySQL instance from HOW_TO_RUN.md, so it is not picked up by the default
+ * surefire includes; run it explicitly:
+ *
+ * <pre>mvn test -Dtest=TransferLockStrategyBenchmark</pre>
+ */
+@SpringBootTest
+class TransferLockStrategyBenchmark {
+
+    private static final int THREADS = 16;
+    private static final int TRANSFERS_PER_THREAD = 200;
+    private static final int HOT_ACCOUNTS = 4;
+
+    // The implementation, not the retrying facade: the point is to count raw conflicts
+    @Autowired
+    private TransferServiceImpl transferService;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Test
+    void compareLockStrategies() throws Exception {
+        List<Long> hot = createHotAccounts();
+        for (TransferService.LockStrategy strategy : TransferService.LockStrategy.values()) {
+            ReflectionTestUtils.setField(AopTestUtils.getTargetObject(transferService), "lockStrategy", strategy);
+            run(strategy, hot);
+        }
+    }
+
+    private void run(TransferService.LockStrategy strategy, List<Long> hot) throws InterruptedException {
+        List<Long> latencies = Collections.synchronizedList(new ArrayList<>());
+        AtomicInteger conflicts = new AtomicInteger();
+        AtomicInteger other = new AtomicInteger();
+        CountDownLatch done = new CountDownLatch(THREADS);
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+
+        for (int t = 0; t < THREADS; t++) {
+            pool.submit(() -> {
+                try {
+                    ThreadLocalRandom rnd = ThreadLocalRandom.current();
+                    for (int i = 0; i < TRANSFERS_PER_THREAD; i++) {
+                        int a = rnd.nextInt(HOT_ACCOUNTS);
+                        int b = (a + 1 + rnd.nextInt(HOT_ACCOUNTS - 1)) % HOT_ACCOUNTS;
+                        TransferRequest req = new TransferRequest(String.valueOf(hot.get(a)),
+                                String.valueOf(hot.get(b)), new BigDecimal("1.00"), "USD",
+                                "bench-" + UUID.randomUUID());
+                        long start = System.nanoTime();
+                        try {
+                            transferService.transfer(req);
+                        } catch (OptimisticLockException e) {
+                            conflicts.incrementAndGet();
+                        } catch (Exception e) {
+                            other.incrementAndGet();
+                        } finally {
+                            latencies.add(System.nanoTime() - start);
+                        }
+                    }
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+        done.await();
+        pool.shutdown();
+        pool.awaitTermination(1, TimeUnit.MINUTES);
+
+        List<Long> sorted = new ArrayList<>(latencies);
+        Collections.sort(sorted);
+        int total = sorted.size();
+        System.out.printf("%-11s transfers=%d conflicts=%d (%.2f%%) otherErrors=%d p50=%.2fms p99=%.2fms%n",
+                strategy, total, conflicts.get(), 100.0 * conflicts.get() / total, other.get(),
+                percentileMillis(sorted, 0.50), percentileMillis(sorted, 0.99));
+    }
+
+    private List<Long> createHotAccounts() {
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < HOT_ACCOUNTS; i++) {
+            Account account = new Account();
+            account.setHolderName("bench-hot-" + i);
+            account.setBalance(new BigDecimal("1000000.00"));
+            account.setStatus(AccountStatus.ACTIVE);
+            ids.add(accountRepository.save(account).getId());
+        }
+        return ids;
+    }
+
+    private static double percentileMillis(List<Long> sortedNanos, double p) {
+        int idx = (int) Math.ceil(p * sortedNanos.size()) - 1;
+        return sortedNanos.get(Math.max(idx, 0)) / 1_000_000.0;
+    }
+}
@@ -1,32 +1,58 @@
 package com.mts.application.service;
 
+import com.mts.application.cache.BalanceTable;
+import com.mts.application.cache.DailyLimitTracker;
+import com.mts.application.cache.GlobalConfigSnapshot;
+import com.mts.application.cache.IdempotencyIndex;
+import com.mts.application.cache.TransferResponseCache;
+import com.mts.application.dto.TransferLimits;
 import com.mts.application.entities.Account;
 import com.mts.application.entities.TransactionLog;
+import com.mts.application.metrics.TransferMetrics;
+import com.mts.application.repository.AccountDailyDebitRepository;
 import com.mts.application.repository.AccountRepository;
 import com.mts.application.repository.TransactionLogRepository;
+import com.mts.application.snowflake.SnowflakeIdGenerator;
+import com.mts.domain.dto.CursorPage;
+import com.mts.domain.dto.TransactionLogResponse;
 import com.mts.domain.dto.TransferRequest;
 import com.mts.domain.dto.TransferResponse;
 import com.mts.domain.enums.AccountStatus;
+import com.mts.domain.enums.Direction;
 import com.mts.domain.enums.TransactionStatus;
+import com.mts.domain.enums.TransferFailureCode;
 import com.mts.domain.exceptions.AccountNotActiveException;
+import com.mts.domain.exceptions.DailyLimitExceededException;
 import com.mts.domain.exceptions.DuplicateTransferException;
 import com.mts.domain.exceptions.InsufficientBalanceException;
 import com.mts.domain.exceptions.OptimisticLockException;
+import com.mts.domain.exceptions.ReplayedTransferException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -39,9 +65,22 @@ class TransferServiceImplTest {
     @Mock
     private TransactionLogRepository logRepository;
     @Mock
-    private com.mts.application.repository.GlobalConfigRepository globalConfigRepository;
+    private GlobalConfigSnapshot transferLimits;
     @Mock
     private com.mts.application.repository.TransferAuthorizationRepository transferAuthorizationRepository;
+    @Mock
+    private IdempotencyIndex idempotencyIndex;
+    @Mock
+    private TransferResponseCache responseCache;
+    @Spy
+    private SnowflakeIdGenerator idGenerator = new SnowflakeIdGenerator(1);
+    @Spy
+    private TransferMetrics metrics = new TransferMetrics(new SimpleMeterRegistry());
+    @Spy
+    private DailyLimitTracker dailyLimits = new DailyLimitTracker(mock(AccountDailyDebitRepository.class),
+            mock(AccountRepository.class), mock(TransactionLogRepository.class), "UTC", 35);
+    @Mock
+    private BalanceTable balanceTable;
 
     @InjectMocks
     private TransferServiceImpl transferService;
@@ -52,6 +91,8 @@ class TransferServiceImplTest {
 
     @BeforeEach
     void setUp() {
+        lenient().when(transferLimits.current()).thenReturn(TransferLimits.NONE);
+
         validRequest = new TransferRequest();
         validRequest.setSourceAccountId("1");
         validRequest.setDestinationAccountId("2");
@@ -98,6 +139,9 @@ class TransferServiceImplTest {
         assertThat(sender.getBalance()).isEqualByComparingTo("400.00");
         assertThat(receiver.getBalance()).isEqualByComparingTo("300.00");
         verify(accountRepository, times(2)).saveAndFlush(any(Account.class));
+        for (TransferMetrics.Stage stage : TransferMetrics.Stage.values()) {
+            verify(metrics).recordStage(eq(stage), anyLong());
+        }
     }
 
     @Test
@@ -116,6 +160,37 @@ class TransferServiceImplTest {
         verify(accountRepository, never()).saveAndFlush(any());
     }
 
+    @Test
+    @DisplayName("Key known to the idempotency index is replayed from the response cache without querying transaction_logs")
+    void transfer_keyKnownToIndex_throwsWithoutLookup() throws Exception {
+        when(idempotencyIndex.lookup("idem-001")).thenReturn(IdempotencyIndex.Lookup.KNOWN);
+        when(responseCache.get("idem-001")).thenReturn(new TransferResponse("tx-done", "1", "2",
+                new BigDecimal("100.00"), "USD", TransactionStatus.SUCCESS, "Transfer completed successfully",
+                "idem-001", java.time.Instant.now()));
+
+        assertThatThrownBy(() -> transferService.transfer(validRequest))
+                .isInstanceOf(ReplayedTransferException.class);
+
+        verify(logRepository, never()).findByIdempotencyKey(anyString());
+        verify(accountService, never()).getAccountById(anyString());
+    }
+
+    @Test
+    @DisplayName("Key absent from the idempotency index skips the lookup and is recorded once claimed")
+    void transfer_keyAbsentFromIndex_skipsLookup() throws Exception {
+        when(idempotencyIndex.lookup("idem-001")).thenReturn(IdempotencyIndex.Lookup.ABSENT);
+        when(logRepository.saveAndFlush(any(TransactionLog.class))).thenAnswer(inv -> inv.getArgument(0));
+        when(accountService.getAccountById("1")).thenReturn(sender);
+        when(accountService.getAccountById("2")).thenReturn(receiver);
+        when(accountRepository.saveAndFlush(any(Account.class))).thenAnswer(inv -> inv.getArgument(0));
+        when(logRepository.save(any(TransactionLog.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        transferService.transfer(validRequest);
+
+        verify(logRepository, never()).findByIdempotencyKey(anyString());
+        verify(idempotencyIndex).recordClaimed("idem-001");
+    }
+
     @Test
     @DisplayName("Insufficient balance throws InsufficientBalanceException and logs FAILED")
     void transfer_insufficientBalance_throws() throws Exception {
@@ -133,6 +208,30 @@ class TransferServiceImplTest {
         verify(accountRepository, never()).saveAndFlush(any(Account.class));
     }
 
+    @Test
+    @DisplayName("Debit over the sender's daily limit throws DailyLimitExceededException and logs FAILED")
+    void transfer_dailyLimitExceeded_throws() throws Exception {
+        sender.setDailyLimit(new BigDecimal("150.00"));
+        when(logRepository.findByIdempotencyKey(anyString())).thenReturn(Optional.empty());
+        when(logRepository.saveAndFlush(any(TransactionLog.class))).thenAnswer(inv -> inv.getArgument(0));
+        when(accountService.getAccountById("1")).thenReturn(sender);
+        when(accountService.getAccountById("2")).thenReturn(receiver);
+        when(accountRepository.saveAndFlush(any(Account.class))).thenAnswer(inv -> inv.getArgument(0));
+        when(logRepository.save(any(TransactionLog.class))).thenAnswer(inv -> inv.getArgument(0));
+        transferService.transfer(validRequest);
+
+        validRequest.setIdempotencyKey("idem-002");
+        assertThatThrownBy(() -> transferService.transfer(validRequest))
+                .isInstanceOf(DailyLimitExceededException.class)
+                .hasMessageContaining("Daily limit exceeded for account 1");
+
+        verify(logRepository).save(argThat(log -> log.getStatus() == TransactionStatus.FAILED
+                && log.getFailureReason().startsWith("Daily limit exceeded")
+                && log.getFailureCode() == TransferFailureCode.DAILY_LIMIT_EXCEEDED));
+        assertThat(sender.getBalance()).isEqualByComparingTo("400.00");
+        verify(accountRepository, times(2)).saveAndFlush(any(Account.class));
+    }
+
     @Test
     @DisplayName("Inactive account throws AccountNotActiveException")
     void transfer_inactiveAccount_throws() throws Exception {
@@ -149,7 +248,7 @@ class TransferServiceImplTest {
     }
 
     @Test
-    @DisplayName("Optimistic lock on save throws OptimisticLockException and logs FAILED")
+    @DisplayName("Optimistic lock on save throws OptimisticLockException and leaves the log to roll back")
     void transfer_optimisticLockConflict_throws() throws Exception {
         when(logRepository.findByIdempotencyKey("idem-001")).thenReturn(Optional.empty());
         when(logRepository.saveAndFlush(any(TransactionLog.class))).thenAnswer(inv -> inv.getArgument(0));
@@ -157,23 +256,121 @@ class TransferServiceImplTest {
         when(accountService.getAccountById("2")).thenReturn(receiver);
         when(accountRepository.saveAndFlush(any(Account.class)))
                 .thenThrow(new ObjectOptimisticLockingFailureException(Account.class, sender.getId()));
-        when(logRepository.save(any(TransactionLog.class))).thenAnswer(inv -> inv.getArgument(0));
 
         assertThatThrownBy(() -> transferService.transfer(validRequest))
                 .isInstanceOf(OptimisticLockException.class)
                 .hasMessageContaining("retry");
 
-        verify(logRepository).save(argThat(log -> log.getStatus() == TransactionStatus.FAILED
-                && "Concurrent modification conflict".equals(log.getFailureReason())));
+        // The attempt rolls back; RetryingTransferService records the FAILED row if it gives up
+        verify(logRepository, never()).save(any(TransactionLog.class));
+    }
+
+    @Test
+    @DisplayName("A key whose earlier attempt gave up on a conflict is resumed on the same log row")
+    void transfer_resendAfterConflictGiveUp_reusesLogRow() throws Exception {
+        TransactionLog prior = new TransactionLog();
+        prior.setId("tx-conflicted");
+        prior.setIdempotencyKey("idem-001");
+        prior.setStatus(TransactionStatus.FAILED);
+        prior.setFailureReason("Concurrent modification conflict");
+        when(logRepository.findByIdempotencyKey("idem-001")).thenReturn(Optional.of(prior));
+        when(logRepository.reopenFailed("tx-conflicted", "Concurrent modification conflict")).thenReturn(1);
+        when(logRepository.saveAndFlush(any(TransactionLog.class))).thenAnswer(inv -> inv.getArgument(0));
+        when(accountService.getAccountById("1")).thenReturn(sender);
+        when(accountService.getAccountById("2")).thenReturn(receiver);
+        when(accountRepository.saveAndFlush(any(Account.class))).thenAnswer(inv -> inv.getArgument(0));
+        when(logRepository.save(any(TransactionLog.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        TransferResponse response = transferService.transfer(validRequest);
+
+        assertThat(response.transactionId()).isEqualTo("tx-conflicted");
+        assertThat(response.status()).isEqualTo(TransactionStatus.SUCCESS);
+        verify(logRepository, times(1)).saveAndFlush(same(prior));
+    }
+
+    @Test
+    @DisplayName("A FAILED row for a business reason is still a duplicate")
+    void transfer_resendAfterBusinessFailure_isDuplicate() {
+        TransactionLog prior = new TransactionLog();
+        prior.setId("tx-failed");
+        prior.setIdempotencyKey("idem-001");
+        prior.setStatus(TransactionStatus.FAILED);
+        prior.setFailureReason("Insufficient balance in account: 1");
+        when(logRepository.findByIdempotencyKey("idem-001")).thenReturn(Optional.of(prior));
+
+        assertThatThrownBy(() -> transferService.transfer(validRequest))
+                .isInstanceOf(DuplicateTransferException.class);
+        verify(logRepository, never()).reopenFailed(anyString(), anyString());
+    }
+
+    @Test
+    @DisplayName("Resending a settled transfer within the replay window carries its original response")
+    void transfer_resendOfSettledTransfer_replaysOriginalResponse() throws Exception {
+        TransactionLog prior = new TransactionLog();
+        prior.setId("tx-done");
+        prior.setIdempotencyKey("idem-001");
+        prior.setFromAccountId(1L);
+        prior.setToAccountId(2L);
+        prior.setAmount(new BigDecimal("100.00"));
+        prior.setCurrency("USD");
+        prior.setStatus(TransactionStatus.SUCCESS);
+        prior.setCreatedOn(java.time.Instant.now());
+        when(logRepository.findByIdempotencyKey("idem-001")).thenReturn(Optional.of(prior));
+        when(responseCache.isReplayable(any())).thenReturn(true);
+
+        assertThatThrownBy(() -> transferService.transfer(validRequest))
+                .isInstanceOfSatisfying(ReplayedTransferException.class, e -> {
+                    assertThat(e.getOriginalResponse().transactionId()).isEqualTo("tx-done");
+                    assertThat(e.getOriginalResponse().status()).isEqualTo(TransactionStatus.SUCCESS);
+                });
+        verify(responseCache).put(any(TransferResponse.class));
+        verify(accountService, never()).getAccountById(anyString());
+    }
+
+    @Test
+    @DisplayName("A different transfer under a used key is a plain duplicate, not a replay")
+    void transfer_resendWithDifferentAmount_isNotReplayed() throws Exception {
+        TransferResponse cached = new TransferResponse("tx-done", "1", "2", new BigDecimal("5.00"), "USD",
+                TransactionStatus.SUCCESS, "Transfer completed successfully", "idem-001", java.time.Instant.now());
+        when(idempotencyIndex.lookup("idem-001")).thenReturn(IdempotencyIndex.Lookup.KNOWN);
+        when(responseCache.get("idem-001")).thenReturn(cached);
+
+        assertThatThrownBy(() -> transferService.transfer(validRequest))
+                .isInstanceOf(DuplicateTransferException.class)
+                .isNotInstanceOf(ReplayedTransferException.class);
+        verify(logRepository, never()).findByIdempotencyKey(anyString());
+    }
+
+    @Test
+    @DisplayName("Losing the key to a concurrent request replays that request's committed outcome")
+    void transfer_concurrentInsertOfSameKey_replaysCommittedRow() throws Exception {
+        TransactionLog winner = new TransactionLog();
+        winner.setId("tx-winner");
+        winner.setIdempotencyKey("idem-001");
+        winner.setFromAccountId(1L);
+        winner.setToAccountId(2L);
+        winner.setAmount(new BigDecimal("100.00"));
+        winner.setCurrency("USD");
+        winner.setStatus(TransactionStatus.SUCCESS);
+        winner.setCreatedOn(Instant.now());
+        when(idempotencyIndex.lookup("idem-001")).thenReturn(IdempotencyIndex.Lookup.ABSENT);
+        when(logRepository.saveAndFlush(any(TransactionLog.class)))
+                .thenThrow(new DataIntegrityViolationException("Duplicate entry 'idem-001'"));
+        when(logRepository.findCommittedByIdempotencyKey("idem-001")).thenReturn(Optional.of(winner));
+        when(responseCache.isReplayable(any())).thenReturn(true);
+
+        assertThatThrownBy(() -> transferService.transfer(validRequest))
+                .isInstanceOfSatisfying(ReplayedTransferException.class,
+                        e -> assertThat(e.getOriginalResponse().transactionId()).isEqualTo("tx-winner"));
+        verify(idempotencyIndex).recordExisting("idem-001");
+        verify(accountService, never()).getAccountById(anyString());
     }
 
     @Test
     @DisplayName("Transfer above global limit creates authorization request and returns PENDING")
     void transfer_aboveGlobalLimit_createsAuthorizationRequest() throws Exception {
         // Setup global limit
-        com.mts.application.entities.GlobalConfig config = new com.mts.application.entities.GlobalConfig();
-        config.setGlobalTransferLimit(new BigDecimal("50.00"));
-        when(globalConfigRepository.findById("DEFAULT")).thenReturn(Optional.of(config));
+        when(transferLimits.current()).thenReturn(new TransferLimits(1L, new BigDecimal("50.00")));
 
         when(logRepository.findByIdempotencyKey("idem-001")).thenReturn(Optional.empty());
 
@@ -213,4 +410,165 @@ class TransferServiceImplTest {
         // Verify accounts NOT updated
         verify(accountRepository, never()).saveAndFlush(any(Account.class));
     }
+
+    @Test
+    @DisplayName("Set-based mode moves money with two conditional UPDATEs and a single log insert")
+    void transfer_setBased_success() throws Exception {
+        ReflectionTestUtils.setField(transferService, "executionMode", TransferService.ExecutionMode.SET_BASED);
+        when(logRepository.findByIdempotencyKey("idem-001")).thenReturn(Optional.empty());
+        when(logRepository.saveAndFlush(any(TransactionLog.class))).thenAnswer(inv -> inv.getArgument(0));
+        when(accountRepository.debitIfSufficient(eq(1L), any(BigDecimal.class), any())).thenReturn(1);
+        when(accountRepository.creditIfActive(eq(2L), any(BigDecimal.class), any())).thenReturn(1);
+
+        TransferResponse response = transferService.transfer(validRequest);
+
+        assertThat(response.status()).isEqualTo(TransactionStatus.SUCCESS);
+        verify(logRepository).saveAndFlush(argThat(log -> log.getStatus() == TransactionStatus.SUCCESS));
+        verify(logRepository, never()).save(any(TransactionLog.class));
+        verify(accountService, never()).getAccountById(anyString());
+        verify(accountRepository, never()).saveAndFlush(any(Account.class));
+    }
+
+    @Test
+    @DisplayName("Set-based mode maps a zero-row debit on an active account to InsufficientBalanceException")
+    void transfer_setBased_insufficientBalance_throws() throws Exception {
+        ReflectionTestUtils.setField(transferService, "executionMode", TransferService.ExecutionMode.SET_BASED);
+        when(logRepository.findByIdempotencyKey("idem-001")).thenReturn(Optional.empty());
+        when(logRepository.saveAndFlush(any(TransactionLog.class))).thenAnswer(inv -> inv.getArgument(0));
+        when(accountRepository.debitIfSufficient(eq(1L), any(BigDecimal.class), any())).thenReturn(0);
+        when(accountRepository.findById(1L)).thenReturn(Optional.of(sender));
+        when(logRepository.save(any(TransactionLog.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        assertThatThrownBy(() -> transferService.transfer(validRequest))
+                .isInstanceOf(InsufficientBalanceException.class);
+
+        verify(accountRepository, never()).creditIfActive(any(), any(), any());
+        verify(logRepository).save(argThat(log -> log.getStatus() == TransactionStatus.FAILED));
+    }
+
+    @Test
+    @DisplayName("Set-based mode undoes the debit when the destination cannot be credited")
+    void transfer_setBased_inactiveDestination_compensatesDebit() throws Exception {
+        ReflectionTestUtils.setField(transferService, "executionMode", TransferService.ExecutionMode.SET_BASED);
+        receiver.setStatus(AccountStatus.LOCKED);
+        when(logRepository.findByIdempotencyKey("idem-001")).thenReturn(Optional.empty());
+        when(logRepository.saveAndFlush(any(TransactionLog.class))).thenAnswer(inv -> inv.getArgument(0));
+        when(accountRepository.debitIfSufficient(eq(1L), any(BigDecimal.class), any())).thenReturn(1);
+        when(accountRepository.creditIfActive(eq(2L), any(BigDecimal.class), any())).thenReturn(0);
+        when(accountRepository.creditIfActive(eq(1L), any(BigDecimal.class), any())).thenReturn(1);
+        when(accountRepository.findById(2L)).thenReturn(Optional.of(receiver));
+        when(logRepository.save(any(TransactionLog.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        assertThatThrownBy(() -> transferService.transfer(validRequest))
+                .isInstanceOf(AccountNotActiveException.class);
+
+        verify(accountRepository).creditIfActive(eq(1L), eq(new BigDecimal("100.00")), any());
+        verify(logRepository).save(argThat(log -> log.getStatus() == TransactionStatus.FAILED));
+    }
+
+    @Test
+    @DisplayName("Pessimistic strategy locks both accounts in ascending id order and skips the pre-validation loads")
+    void transfer_pessimistic_locksInAscendingIdOrder() throws Exception {
+        ReflectionTestUtils.setField(transferService, "lockStrategy", TransferService.LockStrategy.PESSIMISTIC);
+        validRequest.setSourceAccountId("2");
+        validRequest.setDestinationAccountId("1");
+        when(logRepository.findByIdempotencyKey("idem-001")).thenReturn(Optional.empty());
+        when(logRepository.saveAndFlush(any(TransactionLog.class))).thenAnswer(inv -> inv.getArgument(0));
+        when(accountRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(sender));
+        when(accountRepository.findByIdForUpdate(2L)).thenReturn(Optional.of(receiver));
+        when(accountRepository.saveAndFlush(any(Account.class))).thenAnswer(inv -> inv.getArgument(0));
+        when(logRepository.save(any(TransactionLog.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        TransferResponse response = transferService.transfer(validRequest);
+
+        assertThat(response.status()).isEqualTo(TransactionStatus.SUCCESS);
+        InOrder inOrder = inOrder(accountRepository);
+        inOrder.verify(accountRepository).findByIdForUpdate(1L);
+        inOrder.verify(accountRepository).findByIdForUpdate(2L);
+        assertThat(receiver.getBalance()).isEqualByComparingTo("100.00");
+        assertThat(sender.getBalance()).isEqualByComparingTo("600.00");
+        verify(accountService, never()).validateAccountForTransfer(anyString());
+        verify(accountService, never()).getAccountById(anyString());
+    }
+
+    @Test
+    @DisplayName("Per-account override switches a hot account to pessimistic locking")
+    void transfer_pessimisticAccountOverride_usesRowLocks() throws Exception {
+        ReflectionTestUtils.setField(transferService, "pessimisticAccountIds", Set.of(2L));
+        when(logRepository.findByIdempotencyKey("idem-001")).thenReturn(Optional.empty());
+        when(logRepository.saveAndFlush(any(TransactionLog.class))).thenAnswer(inv -> inv.getArgument(0));
+        when(accountRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(sender));
+        when(accountRepository.findByIdForUpdate(2L)).thenReturn(Optional.of(receiver));
+        when(accountRepository.saveAndFlush(any(Account.class))).thenAnswer(inv -> inv.getArgument(0));
+        when(logRepository.save(any(TransactionLog.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        transferService.transfer(validRequest);
+
+        verify(accountRepository).findByIdForUpdate(1L);
+        verify(accountRepository).findByIdForUpdate(2L);
+        verify(accountService, never()).getAccountById(anyString());
+    }
+
+    @Test
+    @DisplayName("Cursor history merges the sent and received index scans and returns a next cursor only when more rows exist")
+    void getAccountTransactionsByCursor_mergesBothSides() {
+        Instant now = Instant.parse("2026-03-01T10:00:00Z");
+        TransactionLog t3 = historyRow("t3", now);
+        TransactionLog t2 = historyRow("t2", now);
+        TransactionLog t1 = historyRow("t1", now.minusSeconds(5));
+        when(logRepository.findSentHistory(eq(1L), isNull(), isNull(), isNull(), isNull(), isNull(), eq(3)))
+                .thenReturn(List.of(t3, t1));
+        when(logRepository.findReceivedHistory(eq(1L), isNull(), isNull(), isNull(), isNull(), isNull(), eq(3)))
+                .thenReturn(List.of(t2));
+
+        CursorPage<TransactionLogResponse> first = transferService.getAccountTransactionsByCursor(
+                "1", null, null, null, Direction.ALL, null, 2);
+
+        assertThat(first.content()).extracting(TransactionLogResponse::id).containsExactly("t3", "t2");
+        assertThat(first.nextCursor()).isNotBlank();
+        verify(logRepository, never()).findAll(any(Specification.class), any(org.springframework.data.domain.Pageable.class));
+
+        when(logRepository.findSentHistory(eq(1L), eq("SUCCESS"), isNull(), isNull(), eq(now), eq("t2"), eq(3)))
+                .thenReturn(List.of(t1));
+        CursorPage<TransactionLogResponse> last = transferService.getAccountTransactionsByCursor(
+                "1", null, null, TransactionStatus.SUCCESS, Direction.SENT, first.nextCursor(), 2);
+
+        assertThat(last.content()).extracting(TransactionLogResponse::id).containsExactly("t1");
+        assertThat(last.nextCursor()).isNull();
+        verify(logRepository, never()).findReceivedHistory(any(), eq("SUCCESS"), any(), any(), any(), any(), anyInt());
+    }
+
+    @Test
+    @DisplayName("Merging two newest-first lists keeps the global order and stops at the limit")
+    void mergeNewestFirst_interleavesByCreatedOnThenId() {
+        Instant now = Instant.parse("2026-03-01T10:00:00Z");
+        List<TransactionLog> sent = List.of(historyRow("b", now), historyRow("d", now.minusSeconds(2)));
+        List<TransactionLog> received = List.of(historyRow("c", now), historyRow("a", now.minusSeconds(1)));
+
+        assertThat(TransferServiceImpl.mergeNewestFirst(sent, received, 3))
+                .extracting(TransactionLog::getId).containsExactly("c", "b", "a");
+    }
+
+    @Test
+    @DisplayName("Cursor history rejects a tampered cursor and an out-of-range page size")
+    void getAccountTransactionsByCursor_invalidInput_throws() {
+        assertThatThrownBy(() -> transferService.getAccountTransactionsByCursor(
+                "1", null, null, null, Direction.ALL, "not-a-cursor", 20))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> transferService.getAccountTransactionsByCursor(
+                "1", null, null, null, Direction.ALL, null, 0))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static TransactionLog historyRow(String id, Instant createdOn) {
+        TransactionLog log = new TransactionLog();
+        log.setId(id);
+        log.setIdempotencyKey("k-" + id);
+        log.setFromAccountId(1L);
+        log.setToAccountId(2L);
+        log.setAmount(BigDecimal.TEN);
+        log.setStatus(TransactionStatus.SUCCESS);
+        log.setCreatedOn(createdOn);
+        return log;
+    }
 }
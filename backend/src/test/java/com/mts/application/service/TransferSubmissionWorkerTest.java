@@ -0,0 +1,186 @@
+package com.mts.application.service;
+
+import com.mts.application.entities.TransferSubmission;
+import com.mts.application.repository.TransactionLogRepository;
+import com.mts.application.repository.TransferSubmissionRepository;
+import com.mts.application.snowflake.SnowflakeIdGenerator;
+import com.mts.domain.dto.TransferRequest;
+import com.mts.domain.dto.TransferResponse;
+import com.mts.domain.dto.TransferSubmissionResponse;
+import com.mts.domain.enums.SubmissionStatus;
+import com.mts.domain.enums.TransactionStatus;
+import com.mts.domain.exceptions.DuplicateTransferException;
+import com.mts.domain.exceptions.InsufficientBalanceException;
+import com.mts.domain.exceptions.OptimisticLockException;
+import com.mts.domain.exceptions.ReplayedTransferException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.QueryTimeoutException;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TransferSubmissionWorkerTest {
+
+    @Mock
+    private TransferService transferService;
+    @Mock
+    private TransferSubmissionRepository submissionRepository;
+    @Mock
+    private TransactionLogRepository logRepository;
+
+    private TransferSubmissionWorker worker;
+    private TransferSubmissionService submissionService;
+
+    @BeforeEach
+    void setUp() {
+        SnowflakeIdGenerator idGenerator = new SnowflakeIdGenerator(1);
+        worker = new TransferSubmissionWorker(transferService, submissionRepository, idGenerator, 2, 10, 4, 3, 60000,
+                false);
+        submissionService = new TransferSubmissionService(submissionRepository, logRepository, idGenerator);
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        worker.shutdown();
+    }
+
+    private static TransferSubmission submission(String id, int attempts) {
+        TransferSubmission submission = new TransferSubmission();
+        submission.setId(id);
+        submission.setIdempotencyKey("key-" + id);
+        submission.setSourceAccountId("1");
+        submission.setDestinationAccountId("2");
+        submission.setAmount(new BigDecimal("10.00"));
+        submission.setCurrency("USD");
+        submission.setStatus(SubmissionStatus.PROCESSING);
+        submission.setAttempts(attempts);
+        return submission;
+    }
+
+    @Test
+    @DisplayName("submit queues a new transfer and returns the existing submission for a resend")
+    void submit_queuesOnceUnderOneKey() throws Exception {
+        TransferRequest request = new TransferRequest("1", "2", new BigDecimal("10.00"), "USD", "key-s");
+        when(submissionRepository.findByIdempotencyKey("key-s")).thenReturn(Optional.empty());
+        when(submissionRepository.saveAndFlush(any(TransferSubmission.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        TransferSubmissionResponse queued = submissionService.submit(request);
+
+        assertThat(queued.status()).isEqualTo(SubmissionStatus.QUEUED);
+        assertThat(queued.submissionId()).isNotBlank();
+        assertThat(queued.result()).isNull();
+
+        TransferSubmission stored = submission(queued.submissionId(), 0);
+        stored.setIdempotencyKey("key-s");
+        stored.setStatus(SubmissionStatus.QUEUED);
+        when(submissionRepository.findByIdempotencyKey("key-s")).thenReturn(Optional.of(stored));
+
+        assertThat(submissionService.submit(request).submissionId()).isEqualTo(queued.submissionId());
+        verify(submissionRepository, times(1)).saveAndFlush(any());
+
+        TransferRequest different = new TransferRequest("1", "3", new BigDecimal("10.00"), "USD", "key-s");
+        assertThatThrownBy(() -> submissionService.submit(different)).isInstanceOf(DuplicateTransferException.class);
+    }
+
+    @Test
+    @DisplayName("drain claims no more than the batch size and hands each row to the pool")
+    void drain_claimsInBatches() throws Exception {
+        when(submissionRepository.claim(anyString(), any(), eq(4))).thenReturn(2);
+        when(submissionRepository.findByClaimTokenOrderById(anyString()))
+                .thenReturn(List.of(submission("a", 1), submission("b", 1)));
+        when(transferService.transfer(any(TransferRequest.class))).thenAnswer(inv -> {
+            TransferRequest request = inv.getArgument(0);
+            return new TransferResponse("tx-" + request.getIdempotencyKey(), "1", "2", request.getAmount(), "USD",
+                    TransactionStatus.SUCCESS, "Transfer completed successfully", request.getIdempotencyKey(), null);
+        });
+
+        worker.drain();
+
+        verify(submissionRepository, times(1)).claim(anyString(), any(), eq(4));
+        verify(submissionRepository, timeout(2000)).complete(eq("a"), anyString(), eq("tx-key-a"),
+                eq(TransactionStatus.SUCCESS), anyString(), any());
+        verify(submissionRepository, timeout(2000)).complete(eq("b"), anyString(), eq("tx-key-b"),
+                eq(TransactionStatus.SUCCESS), anyString(), any());
+    }
+
+    @Test
+    @DisplayName("Replays complete with the original outcome, business rejections fail the submission")
+    void process_mapsOutcomes() throws Exception {
+        TransferResponse original = new TransferResponse("tx-1", "1", "2", new BigDecimal("10.00"), "USD",
+                TransactionStatus.PENDING, "Transfer requires approval", "key-r", null);
+        when(transferService.transfer(argThat(r -> r != null && "key-r".equals(r.getIdempotencyKey()))))
+                .thenThrow(new ReplayedTransferException("Duplicate transfer request: key-r", original));
+        when(transferService.transfer(argThat(r -> r != null && "key-f".equals(r.getIdempotencyKey()))))
+                .thenThrow(new InsufficientBalanceException("Insufficient balance in account: 1"));
+
+        worker.process(submission("r", 1), "t1");
+        worker.process(submission("f", 1), "t2");
+
+        verify(submissionRepository).complete(eq("r"), eq("t1"), eq("tx-1"), eq(TransactionStatus.PENDING),
+                eq("Transfer requires approval"), any());
+        verify(submissionRepository).fail(eq("f"), eq("t2"), eq("Insufficient balance in account: 1"), any());
+    }
+
+    @Test
+    @DisplayName("Data-access errors requeue the submission until max attempts, then fail it")
+    void process_dataAccessError_releasesThenFails() throws Exception {
+        when(transferService.transfer(any(TransferRequest.class))).thenThrow(new QueryTimeoutException("timeout"));
+
+        worker.process(submission("x", 1), "t1");
+        worker.process(submission("x", 3), "t2");
+
+        verify(submissionRepository).release("x", "t1");
+        verify(submissionRepository).fail(eq("x"), eq("t2"), eq("Transfer could not be processed"), any());
+    }
+
+    @Test
+    @DisplayName("In ledger mode a submit timeout or a key in flight requeues the submission")
+    void process_ledgerMode_requeuesWhatTheEngineMayStillComplete() throws Exception {
+        worker.shutdown();
+        worker = new TransferSubmissionWorker(transferService, submissionRepository, new SnowflakeIdGenerator(1),
+                2, 10, 4, 3, 60000, true);
+        when(transferService.transfer(argThat(r -> r != null && "key-t".equals(r.getIdempotencyKey()))))
+                .thenThrow(new OptimisticLockException("Transfer is still being processed, please retry the transfer"));
+        when(transferService.transfer(argThat(r -> r != null && "key-d".equals(r.getIdempotencyKey()))))
+                .thenThrow(new DuplicateTransferException("Duplicate transfer request: key-d"));
+
+        worker.process(submission("t", 1), "t1");
+        worker.process(submission("d", 1), "t2");
+        worker.process(submission("d", 3), "t3");
+
+        verify(submissionRepository).release("t", "t1");
+        verify(submissionRepository).release("d", "t2");
+        verify(submissionRepository).fail(eq("d"), eq("t3"), eq("Duplicate transfer request: key-d"), any());
+        verify(submissionRepository, never()).fail(eq("t"), any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Invalid requests fail at once with their message, other unexpected errors without retries")
+    void process_invalidRequest_failsImmediately() throws Exception {
+        when(transferService.transfer(argThat(r -> r != null && "key-i".equals(r.getIdempotencyKey()))))
+                .thenThrow(new IllegalArgumentException("Amount must have at most 2 decimal places: 10.001"));
+        when(transferService.transfer(argThat(r -> r != null && "key-b".equals(r.getIdempotencyKey()))))
+                .thenThrow(new NullPointerException());
+
+        worker.process(submission("i", 1), "t1");
+        worker.process(submission("b", 1), "t2");
+
+        verify(submissionRepository).fail(eq("i"), eq("t1"),
+                eq("Amount must have at most 2 decimal places: 10.001"), any());
+        verify(submissionRepository).fail(eq("b"), eq("t2"), eq("Transfer could not be processed"), any());
+        verify(submissionRepository, never()).release(any(), any());
+    }
+}
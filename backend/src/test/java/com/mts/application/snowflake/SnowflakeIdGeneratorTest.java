@@ -0,0 +1,95 @@
+package com.mts.application.snowflake;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SnowflakeIdGeneratorTest {
+
+    @Test
+    @DisplayName("Ids are strictly increasing and their keys sort in the same order")
+    void idsAndKeysAreOrdered() {
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(7);
+        long previous = generator.nextId();
+        String previousKey = SnowflakeIdGenerator.toKey(previous);
+        for (int i = 0; i < 50_000; i++) {
+            long id = generator.nextId();
+            String key = SnowflakeIdGenerator.toKey(id);
+            assertThat(id).isGreaterThan(previous);
+            assertThat(key).hasSize(19).isGreaterThan(previousKey);
+            previous = id;
+            previousKey = key;
+        }
+        assertThat(SnowflakeIdGenerator.workerOf(previous)).isEqualTo(7);
+    }
+
+    @Test
+    @DisplayName("Concurrent callers never receive the same id")
+    void concurrentIdsAreUnique() throws Exception {
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(1);
+        Set<Long> seen = ConcurrentHashMap.newKeySet();
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            futures.add(pool.submit(() -> {
+                for (int i = 0; i < 20_000; i++) {
+                    seen.add(generator.nextId());
+                }
+            }));
+        }
+        for (Future<?> f : futures) {
+            f.get();
+        }
+        pool.shutdown();
+
+        assertThat(seen).hasSize(8 * 20_000);
+    }
+
+    @Test
+    @DisplayName("Exhausting the sequence waits for the next millisecond")
+    void sequenceOverflowMovesToNextMillisecond() {
+        long start = SnowflakeIdGenerator.EPOCH + 1_000;
+        AtomicLong reads = new AtomicLong();
+        // Frozen for the first 4096 reads, then one millisecond later
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(1, 10,
+                () -> reads.incrementAndGet() > 4096 ? start + 1 : start);
+
+        long last = 0;
+        for (int i = 0; i < 4097; i++) {
+            last = generator.nextId();
+        }
+        assertThat(SnowflakeIdGenerator.timestampOf(last).toEpochMilli()).isEqualTo(start + 1);
+    }
+
+    @Test
+    @DisplayName("A small backward clock step is waited out, a large one is refused")
+    void clockSkew() {
+        AtomicLong clock = new AtomicLong(SnowflakeIdGenerator.EPOCH + 10_000);
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(1, 5, () -> clock.getAndIncrement());
+        long first = generator.nextId();
+
+        clock.addAndGet(-4);
+        assertThat(generator.nextId()).isGreaterThan(first);
+
+        clock.addAndGet(-100);
+        assertThatThrownBy(generator::nextId).isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    @DisplayName("Worker id outside 10 bits is rejected")
+    void invalidWorkerId_throws() {
+        assertThatThrownBy(() -> new SnowflakeIdGenerator(SnowflakeIdGenerator.MAX_WORKER_ID + 1))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
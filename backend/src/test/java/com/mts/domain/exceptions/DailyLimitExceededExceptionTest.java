@@ -0,0 +1,21 @@
+package com.mts.domain.exceptions;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+class DailyLimitExceededExceptionTest {
+
+    @Test
+    void testExceptionMessage() {
+        DailyLimitExceededException ex = new DailyLimitExceededException("Daily limit exceeded for account 1");
+
+        assertEquals("Daily limit exceeded for account 1", ex.getMessage());
+    }
+
+    @Test
+    void testIsAnInsufficientBalanceException() {
+        assertThrows(InsufficientBalanceException.class, () -> {
+            throw new DailyLimitExceededException("Daily limit exceeded");
+        });
+    }
+}
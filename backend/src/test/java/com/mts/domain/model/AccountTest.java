@@ -3,11 +3,13 @@ package com.mts.domain.model;
 import com.mts.domain.enums.AccountStatus;
 import com.mts.domain.exceptions.AccountNotActiveException;
 import com.mts.domain.exceptions.InsufficientBalanceException;
+import com.mts.support.Concurrently;
 import com.mts.support.TestDataFactory;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
 import java.math.BigDecimal;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -106,4 +108,73 @@ class AccountTest {
         assertThrows(IllegalArgumentException.class, () -> a.credit(new BigDecimal("-1.00")));
         assertThrows(IllegalArgumentException.class, () -> a.debit(new BigDecimal("-1.00")));
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("minor-unit credit/debit match the BigDecimal ones")
+    void minorUnitOperations() throws Exception {
+        Account a = new Account("M-1", "Mia", new BigDecimal("10.00"));
+        a.creditMinor(235);
+        a.debitMinor(35);
+        assertEquals(1200L, a.getBalanceMinor());
+        assertEquals(new BigDecimal("12.00"), a.getBalance());
+
+        InsufficientBalanceException ex = assertThrows(InsufficientBalanceException.class, () -> a.debitMinor(1201));
+        assertEquals("Insufficient balance: attempted 12.01, available 12.00", ex.getMessage());
+        assertThrows(IllegalArgumentException.class, () -> a.creditMinor(0));
+        assertEquals(1200L, a.getBalanceMinor());
+    }
+
+    @Test
+    @DisplayName("concurrent debits never overdraw and every successful update bumps the version once")
+    void concurrentDebitsNeverOverdraw() throws Exception {
+        Account a = new Account("CC-1", "Cleo", new BigDecimal("1000.00")); // 100_000 minor units
+        int threads = 8;
+        int attemptsPerThread = 20_000;
+        AtomicInteger succeeded = new AtomicInteger();
+        Concurrently.run(threads, () -> {
+            for (int i = 0; i < attemptsPerThread; i++) {
+                try {
+                    a.debitMinor(1);
+                    succeeded.incrementAndGet();
+                } catch (InsufficientBalanceException expected) {
+                    // the last ones find the account empty
+                }
+            }
+        });
+
+        assertEquals(100_000, succeeded.get());
+        assertEquals(0L, a.getBalanceMinor());
+        assertEquals(100_000L, a.getVersion());
+    }
+
+    @Test
+    @DisplayName("concurrent credits and debits conserve the balance")
+    void concurrentCreditsAndDebitsConserve() throws Exception {
+        Account a = new Account("CC-2", "Cole", new BigDecimal("100.00"));
+        int threads = 8;
+        int roundsPerThread = 10_000;
+        Concurrently.run(threads, () -> {
+            for (int i = 0; i < roundsPerThread; i++) {
+                a.creditMinor(7);
+                a.debitMinor(7);
+            }
+        });
+
+        Account.State state = a.getState();
+        assertEquals(10_000L, state.balanceMinor());
+        assertEquals(2L * threads * roundsPerThread, state.version());
+    }
+
+    @Test
+    @DisplayName("reverseDebitMinor gives the amount back even after the account was locked")
+    void reverseDebitIgnoresStatus() throws Exception {
+        Account a = new Account("R-1", "Rae", new BigDecimal("10.00"));
+        a.debitMinor(400);
+        a.setStatus(AccountStatus.LOCKED);
+
+        a.reverseDebitMinor(400);
+
+        assertEquals(1000L, a.getBalanceMinor());
+        assertEquals(AccountStatus.LOCKED, a.getStatus());
+    }
+}
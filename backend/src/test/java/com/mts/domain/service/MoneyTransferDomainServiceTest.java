@@ -8,11 +8,16 @@ import com.mts.domain.exceptions.InsufficientBalanceException;
 import com.mts.domain.model.Account;
 import com.mts.domain.model.TransactionLog;
 import com.mts.domain.util.Money;
+import com.mts.support.Concurrently;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
 
 import static com.mts.support.TestDataFactory.*;
 import static org.junit.jupiter.api.Assertions.*;
@@ -146,4 +151,48 @@ class MoneyTransferDomainServiceTest {
         assertNotNull(log.getIdempotencyKey()); // auto-generated
         assertTrue(log.getIdempotencyKey().startsWith("AUTO-"));
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Refused credit gives the debit back")
+    void testTransfer_RefusedCreditReversesDebit() {
+        final Account from = activeAccount(1L, new BigDecimal("100.00"));
+        final Account to = activeAccount(2L, new BigDecimal("92233720368547758.07")); // Long.MAX_VALUE minor units
+
+        assertThrows(ArithmeticException.class,
+                () -> service.transfer(from, to, money(new BigDecimal("0.01")), "IDEMP-011"));
+
+        assertEquals(0, new BigDecimal("100.00").compareTo(from.getBalance()));
+        assertEquals(Long.MAX_VALUE, to.getBalanceMinor());
+    }
+
+    @Test
+    @DisplayName("Concurrent transfers in both directions conserve money and never overdraw")
+    void testTransfer_ConcurrentTransfersConserveMoney() throws Exception {
+        final int accounts = 4;
+        final List<Account> ring = new ArrayList<>();
+        for (long id = 1; id <= accounts; id++) {
+            ring.add(activeAccount(id, new BigDecimal("10.00")));
+        }
+        final AtomicLong keys = new AtomicLong();
+        Concurrently.run(8, () -> {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            for (int i = 0; i < 20_000; i++) {
+                int a = random.nextInt(accounts);
+                int b = (a + 1 + random.nextInt(accounts - 1)) % accounts;
+                try {
+                    service.transfer(ring.get(a), ring.get(b), money(new BigDecimal("0.37")),
+                            "K-" + keys.incrementAndGet());
+                } catch (InsufficientBalanceException expected) {
+                    // an emptied account refuses; nothing moved
+                }
+            }
+        });
+
+        long total = 0;
+        for (Account account : ring) {
+            assertTrue(account.getBalanceMinor() >= 0);
+            total += account.getBalanceMinor();
+        }
+        assertEquals(4_000L, total);
+    }
+}
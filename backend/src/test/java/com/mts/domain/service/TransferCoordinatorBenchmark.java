@@ -0,0 +1,89 @@
+package com.mts.domain.service;
+
+import com.mts.domain.model.Account;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Transfer throughput through {@link TransferCoordinator} as threads are added, each thread moving money back
+ * and forth within its own pair of accounts. With disjoint pairs the total should grow with the thread count
+ * up to the core count; {@code sharedPair} puts every thread on one pair for the contended comparison.
+ * Throughput is only meaningful on a multi-core machine; run it explicitly:
+ *
+ * <pre>mvn test -Dtest=TransferCoordinatorBenchmark</pre>
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TransferCoordinatorBenchmark {
+
+    private static final int MAX_PAIRS = 256;
+
+    @State(Scope.Benchmark)
+    public static class Ledger {
+
+        @Param({ "false", "true" })
+        public boolean sharedPair;
+
+        final TransferCoordinator coordinator = new TransferCoordinator();
+        final Account[] accounts = new Account[MAX_PAIRS * 2];
+        final AtomicInteger nextPair = new AtomicInteger();
+
+        @Setup
+        public void setUp() {
+            for (int i = 0; i < accounts.length; i++) {
+                accounts[i] = new Account("BENCH-" + i, "Holder " + i, new BigDecimal("1000000.00"));
+            }
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Pair {
+
+        Account left;
+        Account right;
+
+        @Setup
+        public void setUp(Ledger ledger) {
+            int pair = ledger.sharedPair ? 0 : ledger.nextPair.getAndIncrement() % MAX_PAIRS;
+            left = ledger.accounts[pair * 2];
+            right = ledger.accounts[pair * 2 + 1];
+        }
+    }
+
+    @Benchmark
+    public void transferThereAndBack(Ledger ledger, Pair pair) throws Exception {
+        ledger.coordinator.transfer(pair.left, pair.right, 1);
+        ledger.coordinator.transfer(pair.right, pair.left, 1);
+    }
+
+    @Test
+    void run() throws Exception {
+        int cores = Runtime.getRuntime().availableProcessors();
+        for (int threads = 1; threads <= Math.max(1, cores); threads *= 2) {
+            new Runner(new OptionsBuilder()
+                    .include(TransferCoordinatorBenchmark.class.getName())
+                    .threads(threads)
+                    .build())
+                    .run();
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.mts.domain.service;
+
+import com.mts.domain.exceptions.AccountNotActiveException;
+import com.mts.domain.exceptions.InsufficientBalanceException;
+import com.mts.domain.model.Account;
+import com.mts.support.Concurrently;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static com.mts.support.TestDataFactory.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class TransferCoordinatorTest {
+
+    @Test
+    @DisplayName("Stripe count is rounded up to a power of two")
+    void stripesRoundUpToPowerOfTwo() {
+        Account account = activeAccount(1L, new BigDecimal("1.00"));
+        assertEquals(0, new TransferCoordinator(1).stripeOf(account));
+        assertTrue(new TransferCoordinator(3).stripeOf(account) < 4);
+        assertThrows(IllegalArgumentException.class, () -> new TransferCoordinator(0));
+    }
+
+    @Test
+    @DisplayName("Refused credit gives the debit back; insufficient funds moves nothing")
+    void failedTransfersMoveNothing() throws Exception {
+        TransferCoordinator coordinator = new TransferCoordinator();
+        Account from = activeAccount(1L, new BigDecimal("10.00"));
+        Account closed = closedAccount(2L, BigDecimal.ZERO);
+        Account to = activeAccount(3L, BigDecimal.ZERO);
+
+        assertThrows(AccountNotActiveException.class, () -> coordinator.transfer(from, closed, 500));
+        assertThrows(InsufficientBalanceException.class, () -> coordinator.transfer(from, to, 1001));
+        coordinator.transfer(from, to, 1000);
+
+        assertEquals(0L, from.getBalanceMinor());
+        assertEquals(0L, closed.getBalanceMinor());
+        assertEquals(1000L, to.getBalanceMinor());
+    }
+
+    @Test
+    @DisplayName("Opposite-direction transfers do not deadlock and readers never see money in flight")
+    void oppositeTransfersAreAtomicForReaders() throws Exception {
+        // Few stripes: pairs share locks with each other as well
+        TransferCoordinator coordinator = new TransferCoordinator(2);
+        Account a = activeAccount(1L, new BigDecimal("100.00"));
+        Account b = activeAccount(2L, new BigDecimal("100.00"));
+        Account c = activeAccount(3L, new BigDecimal("100.00"));
+        AtomicBoolean inFlightSeen = new AtomicBoolean();
+        CountDownLatch writersLeft = new CountDownLatch(3);
+
+        Concurrently.run(
+                writer(coordinator, a, b, writersLeft),
+                writer(coordinator, b, a, writersLeft),
+                writer(coordinator, c, a, writersLeft),
+                () -> {
+                    while (writersLeft.getCount() > 0) {
+                        if (coordinator.totalMinor(a, b, c) != 30_000L) {
+                            inFlightSeen.set(true);
+                        }
+                    }
+                });
+
+        assertFalse(inFlightSeen.get());
+        assertEquals(30_000L, a.getBalanceMinor() + b.getBalanceMinor() + c.getBalanceMinor());
+    }
+
+    private static Concurrently.Task writer(TransferCoordinator coordinator, Account from, Account to,
+            CountDownLatch writersLeft) {
+        return () -> {
+            try {
+                for (int i = 0; i < 50_000; i++) {
+                    try {
+                        coordinator.transfer(from, to, 3);
+                    } catch (InsufficientBalanceException expected) {
+                        // an emptied account refuses; nothing moved
+                    }
+                }
+            } finally {
+                writersLeft.countDown();
+            }
+        };
+    }
+}
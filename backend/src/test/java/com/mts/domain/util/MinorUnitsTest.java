@@ -0,0 +1,49 @@
+package com.mts.domain.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Currency;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MinorUnitsTest {
+
+    @Test
+    void exactConversionRejectsSubCentAmounts() {
+        assertEquals(1234L, MinorUnits.of(new BigDecimal("12.34")));
+        assertEquals(1200L, MinorUnits.of(new BigDecimal("12")));
+        assertEquals(1230L, MinorUnits.of(new BigDecimal("12.300")));
+        assertThrows(ArithmeticException.class, () -> MinorUnits.of(new BigDecimal("12.345")));
+    }
+
+    @Test
+    void roundingConversionAndBackAtScaleTwo() {
+        assertEquals(1024L, MinorUnits.of(new BigDecimal("10.235"), RoundingMode.HALF_EVEN));
+        assertEquals(1024L, MinorUnits.of(new BigDecimal("10.235"), RoundingMode.HALF_UP));
+        assertEquals(1026L, MinorUnits.of(new BigDecimal("10.255"), RoundingMode.HALF_UP));
+
+        BigDecimal back = MinorUnits.toBigDecimal(-1005L);
+        assertEquals(new BigDecimal("-10.05"), back);
+        assertEquals(2, back.scale());
+    }
+
+    @Test
+    void arithmeticIsOverflowChecked() {
+        assertEquals(300L, MinorUnits.add(100L, 200L));
+        assertEquals(-100L, MinorUnits.subtract(100L, 200L));
+        assertThrows(ArithmeticException.class, () -> MinorUnits.add(Long.MAX_VALUE, 1L));
+        assertThrows(ArithmeticException.class, () -> MinorUnits.subtract(Long.MIN_VALUE, 1L));
+        assertThrows(ArithmeticException.class, () -> MinorUnits.negate(Long.MIN_VALUE));
+        assertThrows(ArithmeticException.class, () -> MinorUnits.of(new BigDecimal("92233720368547758.08")));
+    }
+
+    @Test
+    void currencyIndexIsTheIsoNumericCode() {
+        Currency usd = Currency.getInstance("USD");
+        assertEquals(840, MinorUnits.currencyIndex(usd));
+        assertEquals(usd, MinorUnits.currency(840));
+        assertThrows(IllegalArgumentException.class, () -> MinorUnits.currency(0));
+    }
+}
@@ -0,0 +1,94 @@
+package com.mts.domain.util;
+
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Currency;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the balance arithmetic of one transfer (a debit and a credit) with {@link BigDecimal} balances, the
+ * representation before {@link MinorUnits}, against {@code long} minor units. The account bookkeeping around
+ * it (monitor, version, timestamp) is the same either way and left out. The GC profiler reports the
+ * allocation per operation ({@code gc.alloc.rate.norm}) next to the latency. Takes a few minutes; run it
+ * explicitly:
+ *
+ * <pre>mvn test -Dtest=MoneyRepresentationBenchmark</pre>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MoneyRepresentationBenchmark {
+
+    private static final Currency USD = Currency.getInstance("USD");
+    private static final BigDecimal REFILL_DECIMAL = new BigDecimal("1000000000.00");
+    private static final long REFILL_MINOR = 100_000_000_000L;
+
+    private BigDecimal decimalFrom;
+    private BigDecimal decimalTo;
+    private BigDecimal decimalAmount;
+
+    private long minorFrom;
+    private long minorTo;
+    private Money amount;
+
+    @Setup
+    public void setUp() {
+        decimalFrom = new BigDecimal("1000000000.00");
+        decimalTo = new BigDecimal("0.00");
+        decimalAmount = new BigDecimal("12.34");
+        minorFrom = MinorUnits.of(decimalFrom);
+        minorTo = 0L;
+        amount = Money.of(decimalAmount, USD);
+    }
+
+    /** The balance arithmetic {@code Account.debit/credit} did while balances were BigDecimal. */
+    @Benchmark
+    public BigDecimal bigDecimalTransfer() {
+        BigDecimal normalized = decimalAmount.setScale(Money.SCALE, RoundingMode.HALF_UP);
+        if (decimalFrom.compareTo(normalized) < 0) {
+            decimalFrom = decimalFrom.add(REFILL_DECIMAL);
+        }
+        decimalFrom = decimalFrom.subtract(normalized).setScale(Money.SCALE, RoundingMode.HALF_UP);
+        decimalTo = decimalTo.add(normalized).setScale(Money.SCALE, RoundingMode.HALF_UP);
+        return decimalTo;
+    }
+
+    /** The same debit + credit as {@code Account.debitMinor/creditMinor} do it now. */
+    @Benchmark
+    public long minorUnitTransfer() {
+        long cents = amount.getMinorUnits();
+        if (minorFrom < cents) {
+            minorFrom = MinorUnits.add(minorFrom, REFILL_MINOR);
+        }
+        minorFrom = MinorUnits.subtract(minorFrom, cents);
+        minorTo = MinorUnits.add(minorTo, cents);
+        return minorTo;
+    }
+
+    @Test
+    void run() throws Exception {
+        new Runner(new OptionsBuilder()
+                .include(MoneyRepresentationBenchmark.class.getName())
+                .addProfiler(GCProfiler.class)
+                .build())
+                .run();
+    }
+}
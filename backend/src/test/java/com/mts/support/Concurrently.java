@@ -0,0 +1,54 @@
+package com.mts.support;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/** Starts tasks on their own threads at the same moment and waits for all of them, rethrowing the first failure. */
+public final class Concurrently {
+
+    private static final long TIMEOUT_SECONDS = 60;
+
+    public interface Task {
+        void run() throws Exception;
+    }
+
+    private Concurrently() {
+    }
+
+    /** Runs {@code task} on {@code threads} threads released together. */
+    public static void run(int threads, Task task) throws Exception {
+        run(Collections.nCopies(threads, task));
+    }
+
+    /** Runs each task on a thread of its own, all released together. */
+    public static void run(Task... tasks) throws Exception {
+        run(List.of(tasks));
+    }
+
+    private static void run(List<Task> tasks) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(tasks.size());
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<?>> futures = new ArrayList<>(tasks.size());
+            for (Task task : tasks) {
+                futures.add(pool.submit(() -> {
+                    start.await();
+                    task.run();
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+}